@@ -13,6 +13,7 @@ public class Customer extends User {
     private String address;
     private LocalDate dateOfBirth;
     private MembershipStatus membershipStatus;
+    private int bookingCount; // active (non-cancelled) reservations, maintained by the data layer
 
     public Customer() {
     }
@@ -86,6 +87,14 @@ public class Customer extends User {
         this.membershipStatus = membershipStatus;
     }
 
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    public void setBookingCount(int bookingCount) {
+        this.bookingCount = bookingCount;
+    }
+
     @Override
     public String toString() {
         return "Customer{" +
@@ -0,0 +1,111 @@
+package businesslogic.entities;
+
+import java.time.LocalDateTime;
+
+import businesslogic.entities.enums.WaitlistStatus;
+
+public class WaitlistEntry {
+
+    private int waitlistId;
+    private int flightId;
+    private int customerId;
+    private int seatsRequested;
+    private int priority;             // higher is served first; 0 for plain FIFO
+    private WaitlistStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime offerExpiresAt;
+
+    public WaitlistEntry() {
+    }
+
+    public WaitlistEntry(int waitlistId, int flightId, int customerId, int seatsRequested,
+                         int priority, WaitlistStatus status, LocalDateTime createdAt,
+                         LocalDateTime offerExpiresAt) {
+        this.waitlistId = waitlistId;
+        this.flightId = flightId;
+        this.customerId = customerId;
+        this.seatsRequested = seatsRequested;
+        this.priority = priority;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.offerExpiresAt = offerExpiresAt;
+    }
+
+    public int getWaitlistId() {
+        return waitlistId;
+    }
+
+    public void setWaitlistId(int waitlistId) {
+        this.waitlistId = waitlistId;
+    }
+
+    public int getFlightId() {
+        return flightId;
+    }
+
+    public void setFlightId(int flightId) {
+        this.flightId = flightId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(int customerId) {
+        this.customerId = customerId;
+    }
+
+    public int getSeatsRequested() {
+        return seatsRequested;
+    }
+
+    public void setSeatsRequested(int seatsRequested) {
+        this.seatsRequested = seatsRequested;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getOfferExpiresAt() {
+        return offerExpiresAt;
+    }
+
+    public void setOfferExpiresAt(LocalDateTime offerExpiresAt) {
+        this.offerExpiresAt = offerExpiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "WaitlistEntry{" +
+                "waitlistId=" + waitlistId +
+                ", flightId=" + flightId +
+                ", customerId=" + customerId +
+                ", seatsRequested=" + seatsRequested +
+                ", priority=" + priority +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                ", offerExpiresAt=" + offerExpiresAt +
+                '}';
+    }
+}
@@ -0,0 +1,8 @@
+package businesslogic.entities.enums;
+public enum WaitlistStatus {
+    WAITING,
+    OFFERED,
+    ACCEPTED,
+    EXPIRED,
+    CANCELLED
+}
@@ -13,6 +13,10 @@ import businesslogic.entities.Seat;
 import businesslogic.entities.SystemAdmin;
 import businesslogic.entities.User;
 import businesslogic.entities.enums.FlightStatus;
+import datalayer.dao.ChangeSet;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 import datalayer.dao.AircraftDAO;
 import datalayer.dao.AirlineDAO;
 import datalayer.dao.AirportDAO;
@@ -31,8 +35,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Handles all admin operations: CRUD for flights, aircraft, airlines, airports, routes.
@@ -49,6 +54,11 @@ public class AdminService {
     private final SeatDAO seatDAO;
     private final ReservationDAO reservationDAO;
     private final PaymentDAO paymentDAO;
+    private FlightStatusEngine statusEngine;
+    private FlightDisruptionNotifier disruptionNotifier;
+    private EventOutbox eventOutbox;
+    private SearchService searchService;
+    private AirportDirectory airportDirectory;
 
     public AdminService(FlightDAO flightDAO,
                         AircraftDAO aircraftDAO,
@@ -81,6 +91,41 @@ public class AdminService {
         this.paymentDAO = paymentDAO;
     }
 
+    /**
+     * Track departure and arrival times of flights added or changed here. Optional.
+     */
+    public void setStatusEngine(FlightStatusEngine statusEngine) {
+        this.statusEngine = statusEngine;
+    }
+
+    /**
+     * Notify booked customers when flights are delayed or cancelled. Optional.
+     */
+    public void setDisruptionNotifier(FlightDisruptionNotifier disruptionNotifier) {
+        this.disruptionNotifier = disruptionNotifier;
+    }
+
+    /**
+     * Record flight events in the same transaction as each change. Optional.
+     */
+    public void setEventOutbox(EventOutbox eventOutbox) {
+        this.eventOutbox = eventOutbox;
+    }
+
+    /**
+     * Keep customer search in step with deleted users. Optional.
+     */
+    public void setSearchService(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Rebuild the airport index after airport changes. Optional.
+     */
+    public void setAirportDirectory(AirportDirectory airportDirectory) {
+        this.airportDirectory = airportDirectory;
+    }
+
     public Flight addFlight(Flight flight) throws SQLException {
         validateFlight(flight);
 
@@ -90,12 +135,69 @@ public class AdminService {
             throw new IllegalStateException("Flight number already exists");
         }
 
-        return flightDAO.save(flight);
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        Flight saved;
+        try {
+            saved = flightDAO.save(flight);
+            recordEvent(conn, DomainEvent.flightCreated(saved));
+            TransactionManager.commit(conn);
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+
+        trackStatus(saved);
+        dispatchEvents();
+        return saved;
     }
 
     public boolean updateFlight(Flight flight) throws SQLException {
         validateFlight(flight);
-        return flightDAO.update(flight);
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        boolean updated;
+        try {
+            updated = flightDAO.update(flight);
+            if (updated) {
+                recordEvent(conn, DomainEvent.flightUpdated(flight));
+            }
+            TransactionManager.commit(conn);
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+
+        if (updated) {
+            trackStatus(flight);
+            dispatchEvents();
+        }
+        return updated;
+    }
+
+    private void trackStatus(Flight flight) {
+        if (statusEngine != null) {
+            statusEngine.track(flight);
+        }
+    }
+
+    private void recordEvent(Connection conn, DomainEvent event) throws SQLException {
+        if (eventOutbox != null) {
+            eventOutbox.record(conn, event);
+        }
+    }
+
+    private void recordEvents(Connection conn, List<DomainEvent> events) throws SQLException {
+        if (eventOutbox != null && !events.isEmpty()) {
+            eventOutbox.record(conn, events);
+        }
+    }
+
+    private void dispatchEvents() {
+        if (eventOutbox != null) {
+            eventOutbox.dispatchAsync();
+        }
     }
 
     public boolean removeFlight(String flightNumber) throws SQLException {
@@ -104,8 +206,35 @@ public class AdminService {
             return false;
         }
 
+        FlightStatus oldStatus = flight.getStatus();
         flight.setStatus(FlightStatus.CANCELLED);
-        return flightDAO.update(flight);
+        boolean notify = disruptionNotifier != null
+            && FlightDisruptionNotifier.isDisruption(oldStatus, FlightStatus.CANCELLED);
+
+        // Status change, customer notifications and the event commit together
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            boolean updated = flightDAO.update(flight);
+            if (updated && oldStatus != FlightStatus.CANCELLED) {
+                if (notify) {
+                    disruptionNotifier.enqueue(Collections.singletonList(flightNumber), FlightStatus.CANCELLED);
+                }
+                recordEvent(conn, DomainEvent.flightStatusChanged(flightNumber, oldStatus, FlightStatus.CANCELLED));
+            }
+            TransactionManager.commit(conn);
+
+            if (updated) {
+                if (notify) {
+                    disruptionNotifier.deliverAsync();
+                }
+                dispatchEvents();
+            }
+            return updated;
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
     }
 
     /**
@@ -160,7 +289,9 @@ public class AdminService {
             boolean success = flightDAO.delete(flightId);
 
             if (success) {
+                recordEvent(conn, DomainEvent.flightDeleted(flightNumber));
                 TransactionManager.commit(conn);
+                dispatchEvents();
             } else {
                 TransactionManager.rollback(conn);
             }
@@ -180,6 +311,19 @@ public class AdminService {
         return flightDAO.findAll();
     }
 
+    public int countFlights(PageQuery query) throws SQLException {
+        return flightDAO.count(query);
+    }
+
+    public KeyedPage<Flight> getFlightPage(PageQuery query, PageKey after, int offset, int limit)
+            throws SQLException {
+        return flightDAO.findPage(query, after, offset, limit);
+    }
+
+    public ChangeSet<Flight> getFlightChanges(PageQuery query, LocalDateTime since, int limit) throws SQLException {
+        return flightDAO.findChangesSince(query, since, limit);
+    }
+
     private void validateFlight(Flight flight) {
         if (flight == null) {
             throw new IllegalArgumentException("Flight is required.");
@@ -216,6 +360,15 @@ public class AdminService {
      * INACTIVE -> flights become CANCELLED
      */
     public boolean updateAircraft(Aircraft aircraft) throws SQLException {
+        return updateAircraftWithFlights(aircraft) != null;
+    }
+
+    /**
+     * Same as {@link #updateAircraft}, returning the flights whose status changed
+     * so their customers can be notified together.
+     * @return Affected flight numbers (empty if none), or null if the aircraft was not updated
+     */
+    public List<String> updateAircraftWithFlights(Aircraft aircraft) throws SQLException {
         if (aircraft == null || aircraft.getAircraftId() <= 0) {
             throw new IllegalArgumentException("Valid aircraft is required");
         }
@@ -224,93 +377,89 @@ public class AdminService {
 
         Aircraft oldAircraft = aircraftDAO.findById(aircraft.getAircraftId());
         if (oldAircraft == null) {
-            return false;
+            return null;
         }
 
         String oldStatus = oldAircraft.getStatus();
         String newStatus = aircraft.getStatus();
 
-        boolean success = aircraftDAO.update(aircraft);
-        if (!success) {
-            return false;
-        }
-
-        // Only if status actually changed
-        if (newStatus != null && !newStatus.equals(oldStatus)) {
-            updateRelatedFlights(aircraft.getAircraftId(), oldStatus, newStatus);
-        }
-
-        return true;
-    }
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            if (!aircraftDAO.update(aircraft)) {
+                TransactionManager.rollback(conn);
+                return null;
+            }
 
-    private void updateRelatedFlights(int aircraftId, String oldStatus, String newStatus) throws SQLException {
-        List<Flight> flights = flightDAO.findByAircraftId(aircraftId);
-        if (flights.isEmpty()) {
-            return;
-        }
+            List<String> affected = new ArrayList<>();
+            FlightStatus targetStatus = null;
+            // Only if status actually changed
+            if (newStatus != null && !newStatus.equals(oldStatus)) {
+                targetStatus = flightStatusFor(newStatus);
+                affected = updateRelatedFlights(aircraft.getAircraftId(), targetStatus);
+            }
 
-        LocalDateTime now = LocalDateTime.now();
-        List<Flight> upcomingFlights = flights.stream()
-                .filter(f -> f.getDepartureTime() != null && f.getDepartureTime().isAfter(now))
-                .collect(Collectors.toList());
+            boolean notify = disruptionNotifier != null && !affected.isEmpty()
+                && (targetStatus == FlightStatus.DELAYED || targetStatus == FlightStatus.CANCELLED);
+            if (notify) {
+                disruptionNotifier.enqueue(affected, targetStatus);
+            }
 
-        if (upcomingFlights.isEmpty()) {
-            return;
-        }
+            List<DomainEvent> events = new ArrayList<>(affected.size());
+            for (String flightNumber : affected) {
+                // Flights may have come from either of the other statuses
+                events.add(DomainEvent.flightStatusChanged(flightNumber, null, targetStatus));
+            }
+            recordEvents(conn, events);
 
-        List<Flight> flightsToUpdate = new ArrayList<>();
-        FlightStatus targetStatus = null;
+            TransactionManager.commit(conn);
 
-        if ("ACTIVE".equals(newStatus)) {
-            flightsToUpdate = upcomingFlights.stream()
-                    .filter(f -> f.getStatus() == FlightStatus.DELAYED ||
-                                 f.getStatus() == FlightStatus.CANCELLED)
-                    .collect(Collectors.toList());
-            targetStatus = FlightStatus.SCHEDULED;
-        } else if ("MAINTENANCE".equals(newStatus)) {
-            flightsToUpdate = upcomingFlights.stream()
-                    .filter(f -> f.getStatus() == FlightStatus.SCHEDULED ||
-                                 f.getStatus() == FlightStatus.CANCELLED)
-                    .collect(Collectors.toList());
-            targetStatus = FlightStatus.DELAYED;
-        } else if ("INACTIVE".equals(newStatus)) {
-            flightsToUpdate = upcomingFlights.stream()
-                    .filter(f -> f.getStatus() == FlightStatus.SCHEDULED ||
-                                 f.getStatus() == FlightStatus.DELAYED)
-                    .collect(Collectors.toList());
-            targetStatus = FlightStatus.CANCELLED;
+            if (notify) {
+                disruptionNotifier.deliverAsync();
+            }
+            if (!events.isEmpty()) {
+                dispatchEvents();
+            }
+            return affected;
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
         }
+    }
 
-        if (flightsToUpdate.isEmpty() || targetStatus == null) {
-            return;
+    /**
+     * Flight status implied by an aircraft status, or null if flights are unaffected.
+     */
+    private static FlightStatus flightStatusFor(String aircraftStatus) {
+        if ("ACTIVE".equals(aircraftStatus)) {
+            return FlightStatus.SCHEDULED;
+        } else if ("MAINTENANCE".equals(aircraftStatus)) {
+            return FlightStatus.DELAYED;
+        } else if ("INACTIVE".equals(aircraftStatus)) {
+            return FlightStatus.CANCELLED;
         }
+        return null;
+    }
 
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-        TransactionManager.begin(conn);
-        try {
-            for (Flight flight : flightsToUpdate) {
-                Integer flightId = null;
-                try (PreparedStatement stmt = conn.prepareStatement(
-                        "SELECT flight_id FROM flights WHERE flight_number = ?")) {
-                    stmt.setString(1, flight.getFlightNumber());
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        if (rs.next()) {
-                            flightId = rs.getInt("flight_id");
-                        }
-                    }
-                }
-
-                if (flightId != null) {
-                    flight.setStatus(targetStatus);
-                    flightDAO.update(flight);
-                }
-            }
+    /**
+     * Cascade an aircraft status change to its upcoming flights in one conditional UPDATE.
+     * @return Flight numbers whose status changed
+     */
+    private List<String> updateRelatedFlights(int aircraftId, FlightStatus targetStatus) throws SQLException {
+        List<FlightStatus> fromStatuses;
 
-            TransactionManager.commit(conn);
-        } catch (SQLException e) {
-            TransactionManager.rollback(conn);
-            throw e;
+        if (targetStatus == FlightStatus.SCHEDULED) {
+            fromStatuses = Arrays.asList(FlightStatus.DELAYED, FlightStatus.CANCELLED);
+        } else if (targetStatus == FlightStatus.DELAYED) {
+            fromStatuses = Arrays.asList(FlightStatus.SCHEDULED, FlightStatus.CANCELLED);
+        } else if (targetStatus == FlightStatus.CANCELLED) {
+            fromStatuses = Arrays.asList(FlightStatus.SCHEDULED, FlightStatus.DELAYED);
+        } else {
+            return new ArrayList<>();
         }
+
+        return flightDAO.updateUpcomingStatusByAircraft(aircraftId, LocalDateTime.now(),
+                                                        fromStatuses, targetStatus);
     }
 
     /**
@@ -327,6 +476,8 @@ public class AdminService {
         TransactionManager.begin(conn);
 
         try {
+            // One event per flight, committed with the deletes
+            List<DomainEvent> deletedFlights = new ArrayList<>();
             for (Flight flight : flights) {
                 Integer flightId = null;
                 try (PreparedStatement stmt = conn.prepareStatement(
@@ -358,13 +509,17 @@ public class AdminService {
                         seatDAO.delete(seat.getSeatId());
                     }
 
-                    flightDAO.delete(flightId);
+                    if (flightDAO.delete(flightId)) {
+                        deletedFlights.add(DomainEvent.flightDeleted(flight.getFlightNumber()));
+                    }
                 }
             }
 
             boolean success = aircraftDAO.delete(aircraftId);
             if (success) {
+                recordEvents(conn, deletedFlights);
                 TransactionManager.commit(conn);
+                dispatchEvents();
             } else {
                 TransactionManager.rollback(conn);
             }
@@ -380,6 +535,15 @@ public class AdminService {
         return aircraftDAO.findAll();
     }
 
+    public int countAircraft(PageQuery query) throws SQLException {
+        return aircraftDAO.count(query);
+    }
+
+    public KeyedPage<Aircraft> getAircraftPage(PageQuery query, PageKey after, int offset, int limit)
+            throws SQLException {
+        return aircraftDAO.findPage(query, after, offset, limit);
+    }
+
     private void validateAircraft(Aircraft aircraft) {
         if (aircraft == null) {
             throw new IllegalArgumentException("Aircraft is required.");
@@ -423,6 +587,8 @@ public class AdminService {
         TransactionManager.begin(conn);
 
         try {
+            // One event per flight, committed with the deletes
+            List<DomainEvent> deletedFlights = new ArrayList<>();
             for (Flight flight : flights) {
                 Integer flightId = null;
                 try (PreparedStatement stmt = conn.prepareStatement(
@@ -454,13 +620,17 @@ public class AdminService {
                         seatDAO.delete(seat.getSeatId());
                     }
 
-                    flightDAO.delete(flightId);
+                    if (flightDAO.delete(flightId)) {
+                        deletedFlights.add(DomainEvent.flightDeleted(flight.getFlightNumber()));
+                    }
                 }
             }
 
             boolean success = airlineDAO.delete(airlineId);
             if (success) {
+                recordEvents(conn, deletedFlights);
                 TransactionManager.commit(conn);
+                dispatchEvents();
             } else {
                 TransactionManager.rollback(conn);
             }
@@ -483,14 +653,20 @@ public class AdminService {
         if (airport.getAirportCode() == null || airport.getAirportCode().isEmpty()) {
             throw new IllegalArgumentException("Airport code is required");
         }
-        return airportDAO.save(airport);
+        Airport saved = airportDAO.save(airport);
+        airportsChanged();
+        return saved;
     }
 
     public boolean updateAirport(Airport airport) throws SQLException {
         if (airport == null || airport.getAirportCode() == null) {
             throw new IllegalArgumentException("Valid airport is required");
         }
-        return airportDAO.update(airport);
+        boolean updated = airportDAO.update(airport);
+        if (updated) {
+            airportsChanged();
+        }
+        return updated;
     }
 
     /**
@@ -500,13 +676,19 @@ public class AdminService {
         List<Route> routes = routeDAO.findByAirportCode(airportCode);
 
         if (routes.isEmpty()) {
-            return airportDAO.delete(airportCode);
+            boolean deleted = airportDAO.delete(airportCode);
+            if (deleted) {
+                airportsChanged();
+            }
+            return deleted;
         }
 
         Connection conn = DatabaseConnection.getInstance().getConnection();
         TransactionManager.begin(conn);
 
         try {
+            // One event per flight, committed with the deletes
+            List<DomainEvent> deletedFlights = new ArrayList<>();
             for (Route route : routes) {
                 List<Flight> flights = flightDAO.findByRouteId(route.getRouteId());
 
@@ -541,7 +723,9 @@ public class AdminService {
                             seatDAO.delete(seat.getSeatId());
                         }
 
-                        flightDAO.delete(flightId);
+                        if (flightDAO.delete(flightId)) {
+                            deletedFlights.add(DomainEvent.flightDeleted(flight.getFlightNumber()));
+                        }
                     }
                 }
 
@@ -550,7 +734,10 @@ public class AdminService {
 
             boolean success = airportDAO.delete(airportCode);
             if (success) {
+                recordEvents(conn, deletedFlights);
                 TransactionManager.commit(conn);
+                dispatchEvents();
+                airportsChanged();
             } else {
                 TransactionManager.rollback(conn);
             }
@@ -566,6 +753,12 @@ public class AdminService {
         return airportDAO.findAll();
     }
 
+    private void airportsChanged() {
+        if (airportDirectory != null) {
+            airportDirectory.airportsChanged();
+        }
+    }
+
     public Route addRoute(Route route) throws SQLException {
         if (route == null) {
             throw new IllegalArgumentException("Route is required");
@@ -619,6 +812,8 @@ public class AdminService {
         TransactionManager.begin(conn);
 
         try {
+            // One event per flight, committed with the deletes
+            List<DomainEvent> deletedFlights = new ArrayList<>();
             for (Flight flight : flights) {
                 Integer flightId = null;
                 try (PreparedStatement stmt = conn.prepareStatement(
@@ -650,13 +845,17 @@ public class AdminService {
                         seatDAO.delete(seat.getSeatId());
                     }
 
-                    flightDAO.delete(flightId);
+                    if (flightDAO.delete(flightId)) {
+                        deletedFlights.add(DomainEvent.flightDeleted(flight.getFlightNumber()));
+                    }
                 }
             }
 
             boolean success = routeDAO.delete(routeId);
             if (success) {
+                recordEvents(conn, deletedFlights);
                 TransactionManager.commit(conn);
+                dispatchEvents();
             } else {
                 TransactionManager.rollback(conn);
             }
@@ -672,6 +871,15 @@ public class AdminService {
         return routeDAO.findAll();
     }
 
+    public int countRoutes(PageQuery query) throws SQLException {
+        return routeDAO.count(query);
+    }
+
+    public KeyedPage<Route> getRoutePage(PageQuery query, PageKey after, int offset, int limit)
+            throws SQLException {
+        return routeDAO.findPage(query, after, offset, limit);
+    }
+
     public List<User> getAllUsers() throws SQLException {
         return userDAO.findAll();
     }
@@ -696,7 +904,11 @@ public class AdminService {
     }
 
     public boolean deleteUser(int userId) throws SQLException {
-        return userDAO.delete(userId);
+        boolean deleted = userDAO.delete(userId);
+        if (deleted && searchService != null) {
+            searchService.customerRemoved(userId);
+        }
+        return deleted;
     }
 
     /**
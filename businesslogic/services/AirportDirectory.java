@@ -0,0 +1,79 @@
+package businesslogic.services;
+
+import businesslogic.entities.Airport;
+import datalayer.dao.AirportDAO;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps the current {@link AirportIndex}, so airport codes resolve and
+ * autocomplete without a database hit.
+ *
+ * The index is read on first use and rebuilt whenever {@link AdminService}
+ * changes an airport; the new index replaces the old one in a single step.
+ * A code the index doesn't know is still looked up in the database, so an
+ * airport added on another node is found, and triggers a rebuild.
+ */
+public class AirportDirectory {
+
+    private final AirportDAO airportDAO;
+    private volatile AirportIndex index;
+
+    public AirportDirectory(AirportDAO airportDAO) {
+        this.airportDAO = airportDAO;
+    }
+
+    /**
+     * @return The current index, read from the database if there is none yet
+     */
+    public AirportIndex getIndex() throws SQLException {
+        AirportIndex current = index;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (index == null) {
+                index = new AirportIndex(airportDAO.findAll());
+            }
+            return index;
+        }
+    }
+
+    /**
+     * @return The airport with this code, ignoring case, or null if there is none
+     */
+    public Airport find(String code) throws SQLException {
+        if (code == null || code.trim().isEmpty()) {
+            return null;
+        }
+        Airport airport = getIndex().find(code);
+        if (airport != null) {
+            return airport;
+        }
+
+        airport = airportDAO.findById(code.trim().toUpperCase());
+        if (airport != null) {
+            refresh();
+        }
+        return airport;
+    }
+
+    /**
+     * Rebuild the index from the database. Readers keep the old one until the new one is ready.
+     */
+    public synchronized void refresh() throws SQLException {
+        index = new AirportIndex(airportDAO.findAll());
+    }
+
+    /**
+     * Rebuild after an airport write, or if that fails, drop the index so the next use reads it.
+     */
+    synchronized void airportsChanged() {
+        try {
+            refresh();
+        } catch (SQLException e) {
+            System.err.println("Warning: Failed to rebuild airport index: " + e.getMessage());
+            index = null;
+        }
+    }
+}
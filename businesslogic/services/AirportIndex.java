@@ -0,0 +1,127 @@
+package businesslogic.services;
+
+import businesslogic.entities.Airport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable lookup of airports by code, city, name and country.
+ *
+ * Suggestions are ranked: an exact code first, then codes, cities, airport
+ * names and countries starting with the text, each tier in alphabetical
+ * order. Cities, names and countries also match from any word, so "york"
+ * finds New York. Built once from the full airport list; a changed list
+ * means a new index, so readers never see a half-built one.
+ */
+public final class AirportIndex {
+
+    public static final AirportIndex EMPTY = new AirportIndex(Collections.emptyList());
+
+    private final Airport[] airports;
+    private final Map<String, Airport> byCode = new HashMap<>();
+    // One index per ranking tier, mapping keys to positions in airports
+    private final PrefixIndex[] tiers;
+
+    public AirportIndex(List<Airport> airports) {
+        this.airports = airports.stream()
+            .filter(a -> a.getAirportCode() != null)
+            .sorted(Comparator.comparing(Airport::getAirportCode))
+            .toArray(Airport[]::new);
+
+        PrefixIndex.Builder codes = new PrefixIndex.Builder();
+        PrefixIndex.Builder cities = new PrefixIndex.Builder();
+        PrefixIndex.Builder names = new PrefixIndex.Builder();
+        PrefixIndex.Builder countries = new PrefixIndex.Builder();
+        for (int i = 0; i < this.airports.length; i++) {
+            Airport airport = this.airports[i];
+            byCode.put(airport.getAirportCode().toUpperCase(Locale.ROOT), airport);
+            codes.add(i, airport.getAirportCode());
+            cities.add(i, withWords(airport.getCity()));
+            names.add(i, withWords(airport.getName()));
+            countries.add(i, withWords(airport.getCountry()));
+        }
+        this.tiers = new PrefixIndex[]{codes.build(), cities.build(), names.build(), countries.build()};
+    }
+
+    /**
+     * @return The airport with this code, ignoring case, or null
+     */
+    public Airport find(String code) {
+        return code == null ? null : byCode.get(code.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Airports matching typed text, best match first.
+     * @param limit Most airports to return
+     */
+    public List<Airport> suggest(String text, int limit) {
+        if (text == null || text.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Airport> matches = new LinkedHashSet<>();
+        Airport exact = find(text);
+        if (exact != null) {
+            matches.add(exact);
+        }
+        for (PrefixIndex tier : tiers) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            // Ask for extra to make up for airports an earlier tier already took
+            for (int position : tier.search(text, limit + matches.size())) {
+                matches.add(airports[position]);
+            }
+        }
+
+        List<Airport> result = new ArrayList<>(matches);
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * Resolve what the user typed to one airport: an exact code, or else the only suggestion.
+     * @return The airport, or null if the text matches none or several
+     */
+    public Airport resolve(String text) {
+        Airport exact = find(text);
+        if (exact != null) {
+            return exact;
+        }
+        List<Airport> suggestions = suggest(text, 2);
+        return suggestions.size() == 1 ? suggestions.get(0) : null;
+    }
+
+    /**
+     * @return Every airport, by code
+     */
+    public List<Airport> getAirports() {
+        return Collections.unmodifiableList(Arrays.asList(airports));
+    }
+
+    public int size() {
+        return airports.length;
+    }
+
+    /**
+     * The whole text plus each later word in it.
+     */
+    private static String[] withWords(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String[] words = text.trim().split("[\\s\\-/,()]+");
+        String[] keys = new String[words.length];
+        keys[0] = text;
+        System.arraycopy(words, 1, keys, 1, words.length - 1);
+        return keys;
+    }
+}
@@ -0,0 +1,223 @@
+package businesslogic.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * Five-field cron expression: minute, hour, day of month, month, day of week.
+ * Each field accepts *, single values, ranges (1-5), lists (1,15) and steps
+ * (0-59/5, 10-30/10). Months and weekdays also accept three-letter names, and
+ * Sunday is 0 or 7. When both day fields are restricted a time matches if
+ * either one does, as in standard cron.
+ *
+ * Shortcuts: @hourly, @daily (@midnight), @weekly, @monthly, @yearly (@annually).
+ * Immutable; times are local, at minute resolution.
+ */
+public final class CronSchedule {
+
+    private static final String[] MONTH_NAMES =
+        { "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC" };
+    private static final String[] DAY_NAMES =
+        { "SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT" };
+
+    // Give up looking for a match after this many years (e.g. "0 0 30 2 *")
+    private static final int MAX_YEARS_AHEAD = 5;
+
+    private final String expression;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+
+    private CronSchedule(String expression) {
+        String[] fields = expand(expression.trim()).split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Cron expression needs 5 fields: " + expression);
+        }
+
+        this.expression = expression.trim();
+        this.minutes = parseField(fields[0], 0, 59, null);
+        this.hours = parseField(fields[1], 0, 23, null);
+        this.daysOfMonth = parseField(fields[2], 1, 31, null);
+        this.months = parseField(fields[3], 1, 12, MONTH_NAMES);
+        this.daysOfWeek = parseField(fields[4], 0, 7, DAY_NAMES);
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+        }
+        this.anyDayOfMonth = fields[2].equals("*");
+        this.anyDayOfWeek = fields[4].equals("*");
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static CronSchedule parse(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("Cron expression is required.");
+        }
+        return new CronSchedule(expression);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * First matching time strictly after {@code after}.
+     * @throws IllegalStateException if nothing matches within five years
+     */
+    public LocalDateTime next(LocalDateTime after) {
+        LocalDateTime t = after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        LocalDateTime limit = after.plusYears(MAX_YEARS_AHEAD);
+
+        while (t.isBefore(limit)) {
+            if (!months.get(t.getMonthValue())) {
+                t = t.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).plusMonths(1);
+            } else if (!matchesDay(t)) {
+                t = t.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            } else if (!hours.get(t.getHour())) {
+                t = t.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            } else if (!minutes.get(t.getMinute())) {
+                t = t.plusMinutes(1);
+            } else {
+                return t;
+            }
+        }
+
+        throw new IllegalStateException("Cron expression never fires: " + expression);
+    }
+
+    /**
+     * Number of fire times in (from, to], stopping at {@code cap}.
+     */
+    public int countBetween(LocalDateTime from, LocalDateTime to, int cap) {
+        int count = 0;
+        LocalDateTime t = next(from);
+        while (!t.isAfter(to) && count < cap) {
+            count++;
+            t = next(t);
+        }
+        return count;
+    }
+
+    public boolean matches(LocalDateTime time) {
+        return months.get(time.getMonthValue())
+            && matchesDay(time)
+            && hours.get(time.getHour())
+            && minutes.get(time.getMinute());
+    }
+
+    private boolean matchesDay(LocalDateTime t) {
+        boolean domMatch = daysOfMonth.get(t.getDayOfMonth());
+        boolean dowMatch = daysOfWeek.get(dayOfWeekIndex(t.getDayOfWeek()));
+
+        if (anyDayOfMonth && anyDayOfWeek) {
+            return true;
+        }
+        if (anyDayOfMonth) {
+            return dowMatch;
+        }
+        if (anyDayOfWeek) {
+            return domMatch;
+        }
+        return domMatch || dowMatch;
+    }
+
+    // Cron counts Sunday as 0
+    private static int dayOfWeekIndex(DayOfWeek day) {
+        return day.getValue() % 7;
+    }
+
+    private static String expand(String expression) {
+        switch (expression.toLowerCase()) {
+            case "@hourly":
+                return "0 * * * *";
+            case "@daily":
+            case "@midnight":
+                return "0 0 * * *";
+            case "@weekly":
+                return "0 0 * * 0";
+            case "@monthly":
+                return "0 0 1 * *";
+            case "@yearly":
+            case "@annually":
+                return "0 0 1 1 *";
+            default:
+                return expression;
+        }
+    }
+
+    static BitSet parseField(String field, int min, int max, String[] names) {
+        BitSet bits = new BitSet(max + 1);
+
+        for (String part : field.split(",")) {
+            int step = 1;
+            String range = part;
+
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = parseValue(part.substring(slash + 1), 1, max, null, field);
+                range = part.substring(0, slash);
+            }
+
+            int from;
+            int to;
+            if (range.equals("*")) {
+                from = min;
+                to = max;
+            } else {
+                int dash = range.indexOf('-');
+                if (dash > 0) {
+                    from = parseValue(range.substring(0, dash), min, max, names, field);
+                    to = parseValue(range.substring(dash + 1), min, max, names, field);
+                } else {
+                    from = parseValue(range, min, max, names, field);
+                    // "5/15" means from 5 to the end in steps of 15
+                    to = slash >= 0 ? max : from;
+                }
+            }
+
+            if (from > to) {
+                throw new IllegalArgumentException("Invalid cron range '" + part + "'");
+            }
+            for (int v = from; v <= to; v += step) {
+                bits.set(v);
+            }
+        }
+
+        return bits;
+    }
+
+    private static int parseValue(String text, int min, int max, String[] names, String field) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equalsIgnoreCase(text)) {
+                    // Month names start at 1, day names at 0
+                    return i + min;
+                }
+            }
+        }
+
+        int value;
+        try {
+            value = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cron field '" + field + "'");
+        }
+        if (value < min || value > max) {
+            throw new IllegalArgumentException("Cron value " + value + " out of range "
+                + min + "-" + max + " in '" + field + "'");
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
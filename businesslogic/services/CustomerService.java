@@ -5,26 +5,49 @@ import businesslogic.entities.User;
 import businesslogic.entities.Reservation;
 import businesslogic.entities.enums.MembershipStatus;
 import businesslogic.entities.enums.UserRole;
+import datalayer.dao.ChangeSet;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 import datalayer.dao.UserDAO;
 import datalayer.dao.ReservationDAO;
+import datalayer.database.DatabaseConnection;
+import datalayer.database.TransactionManager;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Handles customer account management and membership status.
  */
 public class CustomerService {
+
+    public static final int SILVER_BOOKINGS = 10;
+    public static final int GOLD_BOOKINGS = 25;
+    public static final int PLATINUM_BOOKINGS = 50;
+
+    public static final String BOOKING_COUNT_JOB = "customer-booking-counts";
+    public static final String BOOKING_COUNT_SCHEDULE = "0 3 * * *";
     
     private final UserDAO userDAO;
     private final ReservationDAO reservationDAO;
+    private SearchService searchService;
 
     public CustomerService(UserDAO userDAO, ReservationDAO reservationDAO) {
         this.userDAO = userDAO;
         this.reservationDAO = reservationDAO;
     }
 
+    /**
+     * Keep customer search in step with account writes. Optional.
+     */
+    public void setSearchService(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
     /**
      * Create a new customer account. New customers start with REGULAR membership.
      */
@@ -74,7 +97,11 @@ public class CustomerService {
                 MembershipStatus.REGULAR
         );
 
-        return (Customer) userDAO.save(customer);
+        Customer saved = (Customer) userDAO.save(customer);
+        if (searchService != null) {
+            searchService.customerSaved(saved);
+        }
+        return saved;
     }
 
     public Customer getCustomerById(int customerId) throws SQLException {
@@ -85,6 +112,13 @@ public class CustomerService {
         return null;
     }
 
+    /**
+     * Find any user (customer, agent or admin) by username, for signing in.
+     */
+    public User getUserByUsername(String username) throws SQLException {
+        return userDAO.findByUsername(username);
+    }
+
     public Customer getCustomerByUsername(String username) throws SQLException {
         User user = userDAO.findByUsername(username);
         if (user instanceof Customer) {
@@ -97,6 +131,20 @@ public class CustomerService {
         return userDAO.findAllCustomers();
     }
 
+    public int countCustomers(PageQuery query) throws SQLException {
+        return userDAO.countCustomers(query);
+    }
+
+    public KeyedPage<Customer> getCustomerPage(PageQuery query, PageKey after, int offset, int limit)
+            throws SQLException {
+        return userDAO.findCustomerPage(query, after, offset, limit);
+    }
+
+    public ChangeSet<Customer> getCustomerChanges(PageQuery query, LocalDateTime since, int limit)
+            throws SQLException {
+        return userDAO.findCustomerChangesSince(query, since, limit);
+    }
+
     public boolean updateCustomer(Customer customer) throws SQLException {
         if (customer == null || customer.getUserId() <= 0) {
             throw new IllegalArgumentException("Valid customer is required.");
@@ -108,7 +156,11 @@ public class CustomerService {
         }
 
         customer.setRole(UserRole.CUSTOMER);
-        return userDAO.update(customer);
+        boolean updated = userDAO.update(customer);
+        if (updated && searchService != null) {
+            searchService.customerSaved(customer);
+        }
+        return updated;
     }
 
     public boolean updateCustomerProfile(Customer customer) throws SQLException {
@@ -116,12 +168,17 @@ public class CustomerService {
     }
 
     public boolean deleteCustomer(int customerId) throws SQLException {
-        return userDAO.delete(customerId);
+        boolean deleted = userDAO.delete(customerId);
+        if (deleted && searchService != null) {
+            searchService.customerRemoved(customerId);
+        }
+        return deleted;
     }
 
     /**
      * Auto-update membership based on booking count:
      * 50+ = PLATINUM, 25+ = GOLD, 10+ = SILVER, else REGULAR
+     * Reads the customer's booking counter, so no reservations are loaded.
      */
     public Customer updateMembershipStatus(int customerId) throws SQLException {
         Customer customer = getCustomerById(customerId);
@@ -129,19 +186,7 @@ public class CustomerService {
             throw new IllegalArgumentException("Customer not found: " + customerId);
         }
 
-        List<Reservation> reservations = reservationDAO.findByCustomerId(customerId);
-        int bookingCount = reservations.size();
-
-        MembershipStatus newStatus;
-        if (bookingCount >= 50) {
-            newStatus = MembershipStatus.PLATINUM;
-        } else if (bookingCount >= 25) {
-            newStatus = MembershipStatus.GOLD;
-        } else if (bookingCount >= 10) {
-            newStatus = MembershipStatus.SILVER;
-        } else {
-            newStatus = MembershipStatus.REGULAR;
-        }
+        MembershipStatus newStatus = tierFor(customer.getBookingCount());
 
         if (customer.getMembershipStatus() != newStatus) {
             customer.setMembershipStatus(newStatus);
@@ -151,6 +196,66 @@ public class CustomerService {
         return customer;
     }
 
+    /**
+     * Re-tier every customer from their booking counter with one set-based UPDATE.
+     * @return Number of customers whose membership changed
+     */
+    public int updateAllMembershipStatuses() throws SQLException {
+        return userDAO.updateMembershipTiers(SILVER_BOOKINGS, GOLD_BOOKINGS, PLATINUM_BOOKINGS);
+    }
+
+    /**
+     * Rebuild all booking counters from the reservations table (backfill / repair).
+     * @return Number of customers updated
+     */
+    public int recomputeBookingCounts() throws SQLException {
+        return userDAO.recomputeBookingCounts();
+    }
+
+    /**
+     * Rebuild all booking counters, then re-tier every customer from them, in one
+     * transaction on its own connection. Backfills counters added to an existing
+     * database and repairs any drift.
+     * @return Number of customers whose membership changed
+     */
+    public int refreshBookingCounts() throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            TransactionManager.begin(conn);
+            try {
+                userDAO.recomputeBookingCounts(conn);
+                int changed = userDAO.updateMembershipTiers(conn, SILVER_BOOKINGS, GOLD_BOOKINGS, PLATINUM_BOOKINGS);
+                TransactionManager.commit(conn);
+                return changed;
+            } catch (SQLException | RuntimeException e) {
+                TransactionManager.rollback(conn);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Register the nightly counter refresh with the shared scheduler.
+     */
+    public void registerJobs(JobScheduler scheduler) {
+        scheduler.register(BOOKING_COUNT_JOB, BOOKING_COUNT_SCHEDULE, scheduledTime -> {
+            int changed = refreshBookingCounts();
+            if (changed > 0) {
+                System.out.println("[CustomerService] Membership changed for " + changed + " customer(s).");
+            }
+        });
+    }
+
+    public static MembershipStatus tierFor(int bookingCount) {
+        if (bookingCount >= PLATINUM_BOOKINGS) {
+            return MembershipStatus.PLATINUM;
+        } else if (bookingCount >= GOLD_BOOKINGS) {
+            return MembershipStatus.GOLD;
+        } else if (bookingCount >= SILVER_BOOKINGS) {
+            return MembershipStatus.SILVER;
+        }
+        return MembershipStatus.REGULAR;
+    }
+
     public boolean updateMembershipStatus(int customerId, MembershipStatus newStatus) throws SQLException {
         Customer customer = getCustomerById(customerId);
         if (customer == null) {
@@ -0,0 +1,349 @@
+package businesslogic.services;
+
+import businesslogic.entities.Flight;
+import businesslogic.entities.Payment;
+import businesslogic.entities.Reservation;
+import businesslogic.entities.WaitlistEntry;
+import businesslogic.entities.enums.FlightStatus;
+import businesslogic.entities.enums.ReservationStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Something that happened to a reservation, payment, flight or waitlist entry.
+ *
+ * Events belong to an aggregate (type plus ID, e.g. reservation 42) and are
+ * delivered in order per aggregate. Details travel as string attributes so
+ * the outbox can store any event in one column.
+ */
+public final class DomainEvent {
+
+    public enum Type {
+        RESERVATION_CREATED,
+        RESERVATION_CONFIRMED,
+        RESERVATION_MODIFIED,
+        RESERVATION_CANCELLED,
+        RESERVATION_COMPLETED,
+        PAYMENT_COMPLETED,
+        PAYMENT_REFUNDED,
+        FLIGHT_CREATED,
+        FLIGHT_UPDATED,
+        FLIGHT_STATUS_CHANGED,
+        FLIGHT_DELETED,
+        WAITLIST_OFFERED,
+        WAITLIST_OFFER_EXPIRED,
+        WAITLIST_OFFER_DECLINED
+    }
+
+    public static final String RESERVATION = "reservation";
+    public static final String PAYMENT = "payment";
+    public static final String FLIGHT = "flight";
+    public static final String WAITLIST = "waitlist";
+
+    private final long eventId;
+    private final Type type;
+    private final String aggregateType;
+    private final String aggregateId;
+    private final LocalDateTime occurredAt;
+    private final Map<String, String> attributes;
+
+    public DomainEvent(Type type, String aggregateType, String aggregateId, Map<String, String> attributes) {
+        this(0, type, aggregateType, aggregateId, LocalDateTime.now(), attributes);
+    }
+
+    /**
+     * Event as read back from the outbox.
+     */
+    DomainEvent(long eventId, Type type, String aggregateType, String aggregateId,
+                LocalDateTime occurredAt, Map<String, String> attributes) {
+        if (type == null || aggregateType == null || aggregateId == null) {
+            throw new IllegalArgumentException("Event type and aggregate are required.");
+        }
+        this.eventId = eventId;
+        this.type = type;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.occurredAt = occurredAt;
+        this.attributes = Collections.unmodifiableMap(
+            attributes != null ? new LinkedHashMap<>(attributes) : new LinkedHashMap<>());
+    }
+
+    // ========================================================================
+    // FACTORIES
+    // ========================================================================
+
+    public static DomainEvent reservationCreated(Reservation reservation) {
+        return reservationEvent(Type.RESERVATION_CREATED, reservation);
+    }
+
+    public static DomainEvent reservationConfirmed(Reservation reservation) {
+        return reservationEvent(Type.RESERVATION_CONFIRMED, reservation);
+    }
+
+    public static DomainEvent reservationModified(Reservation reservation, int seatsReleased) {
+        Map<String, String> attributes = reservationAttributes(reservation);
+        attributes.put("seatsReleased", String.valueOf(seatsReleased));
+        return new DomainEvent(Type.RESERVATION_MODIFIED, RESERVATION,
+                               String.valueOf(reservation.getReservationId()), attributes);
+    }
+
+    public static DomainEvent reservationCancelled(Reservation reservation, int seatsReleased) {
+        Map<String, String> attributes = reservationAttributes(reservation);
+        attributes.put("seatsReleased", String.valueOf(seatsReleased));
+        return new DomainEvent(Type.RESERVATION_CANCELLED, RESERVATION,
+                               String.valueOf(reservation.getReservationId()), attributes);
+    }
+
+    /**
+     * A pending reservation cancelled by the expiry sweep, which works from ids only.
+     */
+    public static DomainEvent reservationExpired(int reservationId, int customerId, String flightNumber,
+                                                 int seatsReleased) {
+        Map<String, String> attributes = reservationIdAttributes(reservationId, customerId, flightNumber);
+        put(attributes, "status", ReservationStatus.CANCELLED);
+        attributes.put("reason", "EXPIRED");
+        attributes.put("seatsReleased", String.valueOf(seatsReleased));
+        return new DomainEvent(Type.RESERVATION_CANCELLED, RESERVATION, String.valueOf(reservationId), attributes);
+    }
+
+    /**
+     * A confirmed reservation completed because its flight arrived.
+     */
+    public static DomainEvent reservationCompleted(int reservationId, int customerId, String flightNumber) {
+        Map<String, String> attributes = reservationIdAttributes(reservationId, customerId, flightNumber);
+        put(attributes, "status", ReservationStatus.COMPLETED);
+        return new DomainEvent(Type.RESERVATION_COMPLETED, RESERVATION, String.valueOf(reservationId), attributes);
+    }
+
+    public static DomainEvent paymentCompleted(Payment payment) {
+        return paymentEvent(Type.PAYMENT_COMPLETED, payment);
+    }
+
+    public static DomainEvent paymentRefunded(Payment payment) {
+        return paymentEvent(Type.PAYMENT_REFUNDED, payment);
+    }
+
+    public static DomainEvent flightCreated(Flight flight) {
+        return new DomainEvent(Type.FLIGHT_CREATED, FLIGHT, flight.getFlightNumber(), flightAttributes(flight));
+    }
+
+    public static DomainEvent flightUpdated(Flight flight) {
+        return new DomainEvent(Type.FLIGHT_UPDATED, FLIGHT, flight.getFlightNumber(), flightAttributes(flight));
+    }
+
+    public static DomainEvent flightStatusChanged(String flightNumber, FlightStatus oldStatus, FlightStatus newStatus) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("flightNumber", flightNumber);
+        put(attributes, "oldStatus", oldStatus);
+        put(attributes, "status", newStatus);
+        return new DomainEvent(Type.FLIGHT_STATUS_CHANGED, FLIGHT, flightNumber, attributes);
+    }
+
+    public static DomainEvent flightDeleted(String flightNumber) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("flightNumber", flightNumber);
+        return new DomainEvent(Type.FLIGHT_DELETED, FLIGHT, flightNumber, attributes);
+    }
+
+    /**
+     * Seats held for a waitlisted customer; they are off sale until the offer is booked or lapses.
+     */
+    public static DomainEvent waitlistOffered(WaitlistEntry entry, String flightNumber, LocalDateTime offerExpiresAt) {
+        Map<String, String> attributes = waitlistAttributes(entry, flightNumber);
+        put(attributes, "offerExpiresAt", offerExpiresAt);
+        return new DomainEvent(Type.WAITLIST_OFFERED, WAITLIST, String.valueOf(entry.getWaitlistId()), attributes);
+    }
+
+    /**
+     * An offer lapsed and its held seats went back on sale.
+     */
+    public static DomainEvent waitlistOfferExpired(WaitlistEntry entry, String flightNumber) {
+        return new DomainEvent(Type.WAITLIST_OFFER_EXPIRED, WAITLIST, String.valueOf(entry.getWaitlistId()),
+                               waitlistAttributes(entry, flightNumber));
+    }
+
+    /**
+     * A customer left the waitlist while holding an offer; its held seats went back on sale.
+     */
+    public static DomainEvent waitlistOfferDeclined(WaitlistEntry entry, String flightNumber) {
+        return new DomainEvent(Type.WAITLIST_OFFER_DECLINED, WAITLIST, String.valueOf(entry.getWaitlistId()),
+                               waitlistAttributes(entry, flightNumber));
+    }
+
+    private static DomainEvent reservationEvent(Type type, Reservation reservation) {
+        return new DomainEvent(type, RESERVATION, String.valueOf(reservation.getReservationId()),
+                               reservationAttributes(reservation));
+    }
+
+    private static Map<String, String> reservationAttributes(Reservation reservation) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("reservationId", String.valueOf(reservation.getReservationId()));
+        if (reservation.getCustomer() != null) {
+            attributes.put("customerId", String.valueOf(reservation.getCustomer().getUserId()));
+        }
+        if (reservation.getFlight() != null) {
+            attributes.put("flightNumber", reservation.getFlight().getFlightNumber());
+        }
+        put(attributes, "status", reservation.getStatus());
+        attributes.put("totalPrice", String.valueOf(reservation.getTotalPrice()));
+        attributes.put("seats", String.valueOf(reservation.getSeats() != null ? reservation.getSeats().size() : 0));
+        if (reservation.getPayment() != null) {
+            attributes.put("paymentId", String.valueOf(reservation.getPayment().getPaymentId()));
+        }
+        return attributes;
+    }
+
+    private static Map<String, String> reservationIdAttributes(int reservationId, int customerId,
+                                                               String flightNumber) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("reservationId", String.valueOf(reservationId));
+        attributes.put("customerId", String.valueOf(customerId));
+        put(attributes, "flightNumber", flightNumber);
+        return attributes;
+    }
+
+    private static Map<String, String> waitlistAttributes(WaitlistEntry entry, String flightNumber) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("waitlistId", String.valueOf(entry.getWaitlistId()));
+        attributes.put("customerId", String.valueOf(entry.getCustomerId()));
+        put(attributes, "flightNumber", flightNumber);
+        attributes.put("seats", String.valueOf(entry.getSeatsRequested()));
+        return attributes;
+    }
+
+    private static DomainEvent paymentEvent(Type type, Payment payment) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("paymentId", String.valueOf(payment.getPaymentId()));
+        attributes.put("transactionId", payment.getTransactionId());
+        attributes.put("amount", String.valueOf(payment.getAmount()));
+        put(attributes, "method", payment.getPaymentMethod());
+        put(attributes, "status", payment.getStatus());
+        return new DomainEvent(type, PAYMENT, String.valueOf(payment.getPaymentId()), attributes);
+    }
+
+    private static Map<String, String> flightAttributes(Flight flight) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("flightNumber", flight.getFlightNumber());
+        if (flight.getRoute() != null && flight.getRoute().getOrigin() != null
+                && flight.getRoute().getDestination() != null) {
+            put(attributes, "origin", flight.getRoute().getOrigin().getAirportCode());
+            put(attributes, "destination", flight.getRoute().getDestination().getAirportCode());
+        }
+        put(attributes, "status", flight.getStatus());
+        put(attributes, "departureTime", flight.getDepartureTime());
+        put(attributes, "arrivalTime", flight.getArrivalTime());
+        attributes.put("availableSeats", String.valueOf(flight.getAvailableSeats()));
+        attributes.put("price", String.valueOf(flight.getPrice()));
+        return attributes;
+    }
+
+    private static void put(Map<String, String> attributes, String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value.toString());
+        }
+    }
+
+    // ========================================================================
+    // ACCESSORS
+    // ========================================================================
+
+    /**
+     * Outbox sequence number; 0 until the event has been recorded.
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public String getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    // ========================================================================
+    // PAYLOAD ENCODING
+    // ========================================================================
+
+    /**
+     * Attributes as key=value lines. Backslashes and line breaks in values are escaped.
+     */
+    static String encodeAttributes(Map<String, String> attributes) {
+        StringBuilder payload = new StringBuilder();
+        for (Map.Entry<String, String> entry : attributes.entrySet()) {
+            payload.append(entry.getKey()).append('=');
+            String value = entry.getValue();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\') {
+                    payload.append("\\\\");
+                } else if (c == '\n') {
+                    payload.append("\\n");
+                } else if (c == '\r') {
+                    payload.append("\\r");
+                } else {
+                    payload.append(c);
+                }
+            }
+            payload.append('\n');
+        }
+        return payload.toString();
+    }
+
+    static Map<String, String> decodeAttributes(String payload) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        if (payload == null || payload.isEmpty()) {
+            return attributes;
+        }
+
+        for (String line : payload.split("\n")) {
+            int eq = line.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            StringBuilder value = new StringBuilder();
+            for (int i = eq + 1; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '\\' && i + 1 < line.length()) {
+                    char next = line.charAt(++i);
+                    value.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+                } else {
+                    value.append(c);
+                }
+            }
+            attributes.put(line.substring(0, eq), value.toString());
+        }
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "DomainEvent{" +
+               "eventId=" + eventId +
+               ", type=" + type +
+               ", aggregate=" + aggregateType + ":" + aggregateId +
+               ", occurredAt=" + occurredAt +
+               ", attributes=" + attributes +
+               '}';
+    }
+}
@@ -0,0 +1,133 @@
+package businesslogic.services;
+
+import businesslogic.entities.Flight;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes the current fare of a flight from its base price, load factor and
+ * days to departure.
+ * Fares are recomputed when seat counts change and cached per flight number,
+ * so searches only do a map lookup per result row.
+ */
+public class DynamicPricingService {
+
+    private volatile FareLadder loadFactorLadder;
+    private volatile FareLadder daysToDepartureLadder;
+
+    private final Map<String, CachedFare> currentFares = new ConcurrentHashMap<>();
+
+    public DynamicPricingService() {
+        this(FareLadder.defaultLoadFactorLadder(), FareLadder.defaultDaysToDepartureLadder());
+    }
+
+    public DynamicPricingService(FareLadder loadFactorLadder, FareLadder daysToDepartureLadder) {
+        if (loadFactorLadder == null || daysToDepartureLadder == null) {
+            throw new IllegalArgumentException("Fare ladders are required.");
+        }
+        this.loadFactorLadder = loadFactorLadder;
+        this.daysToDepartureLadder = daysToDepartureLadder;
+    }
+
+    /**
+     * Get the current fare for a flight.
+     * Uses the precomputed fare unless the base price, seat count or date changed since.
+     */
+    public double getCurrentFare(Flight flight) {
+        if (flight == null || flight.getFlightNumber() == null) {
+            return 0.0;
+        }
+
+        CachedFare cached = currentFares.get(flight.getFlightNumber());
+        if (cached != null && cached.matches(flight, LocalDate.now())) {
+            return cached.fare;
+        }
+        return recompute(flight);
+    }
+
+    /**
+     * Recompute and store the fare for a flight.
+     * Called whenever the flight's available seat count changes.
+     */
+    public double recompute(Flight flight) {
+        if (flight == null || flight.getFlightNumber() == null) {
+            return 0.0;
+        }
+
+        LocalDate today = LocalDate.now();
+        double fare = computeFare(flight, today);
+        currentFares.put(flight.getFlightNumber(),
+                new CachedFare(fare, flight.getPrice(), flight.getAvailableSeats(), today));
+        return fare;
+    }
+
+    public void invalidate(String flightNumber) {
+        if (flightNumber != null) {
+            currentFares.remove(flightNumber);
+        }
+    }
+
+    public void invalidateAll() {
+        currentFares.clear();
+    }
+
+    /**
+     * Replace the fare ladders. Cached fares are dropped and recomputed on next read.
+     */
+    public void setFareLadders(FareLadder loadFactorLadder, FareLadder daysToDepartureLadder) {
+        if (loadFactorLadder == null || daysToDepartureLadder == null) {
+            throw new IllegalArgumentException("Fare ladders are required.");
+        }
+        this.loadFactorLadder = loadFactorLadder;
+        this.daysToDepartureLadder = daysToDepartureLadder;
+        invalidateAll();
+    }
+
+    /**
+     * Booked fraction of the aircraft: 1 - (available seats / total seats).
+     * Returns 0 when the aircraft size is unknown.
+     */
+    public double getLoadFactor(Flight flight) {
+        if (flight.getAircraft() == null || flight.getAircraft().getTotalSeats() <= 0) {
+            return 0.0;
+        }
+        int totalSeats = flight.getAircraft().getTotalSeats();
+        int available = Math.max(0, Math.min(flight.getAvailableSeats(), totalSeats));
+        return 1.0 - ((double) available / totalSeats);
+    }
+
+    private double computeFare(Flight flight, LocalDate today) {
+        double fare = flight.getPrice() * loadFactorLadder.multiplierFor(getLoadFactor(flight));
+
+        if (flight.getDepartureTime() != null) {
+            long days = ChronoUnit.DAYS.between(today, flight.getDepartureTime().toLocalDate());
+            fare *= daysToDepartureLadder.multiplierFor(Math.max(0, days));
+        }
+
+        // Round to cents so displayed and charged amounts agree
+        return Math.round(fare * 100.0) / 100.0;
+    }
+
+    private static final class CachedFare {
+        private final double fare;
+        private final double basePrice;
+        private final int availableSeats;
+        private final LocalDate pricedOn;
+
+        private CachedFare(double fare, double basePrice, int availableSeats, LocalDate pricedOn) {
+            this.fare = fare;
+            this.basePrice = basePrice;
+            this.availableSeats = availableSeats;
+            this.pricedOn = pricedOn;
+        }
+
+        private boolean matches(Flight flight, LocalDate today) {
+            return pricedOn.equals(today)
+                    && basePrice == flight.getPrice()
+                    && availableSeats == flight.getAvailableSeats();
+        }
+    }
+}
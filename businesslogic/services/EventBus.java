@@ -0,0 +1,86 @@
+package businesslogic.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process subscribers for domain events.
+ *
+ * The {@link EventOutbox} hands committed events to {@link #publish} on its
+ * own thread, each aggregate's in order. Every process sees every event at
+ * least once: if any subscriber throws, the event is published again to all
+ * of them, so subscribers must be idempotent. Swing subscribers should hop
+ * to the EDT themselves.
+ */
+public class EventBus {
+
+    public interface Subscriber {
+        void onEvent(DomainEvent event) throws Exception;
+    }
+
+    private final Map<DomainEvent.Type, List<Subscriber>> subscribersByType = new ConcurrentHashMap<>();
+    private final List<Subscriber> allEventSubscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receive events of one type.
+     */
+    public void subscribe(DomainEvent.Type type, Subscriber subscriber) {
+        if (type == null || subscriber == null) {
+            throw new IllegalArgumentException("Event type and subscriber are required.");
+        }
+        subscribersByType.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(subscriber);
+    }
+
+    /**
+     * Receive every event.
+     */
+    public void subscribeAll(Subscriber subscriber) {
+        if (subscriber == null) {
+            throw new IllegalArgumentException("Subscriber is required.");
+        }
+        allEventSubscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        allEventSubscribers.remove(subscriber);
+        for (List<Subscriber> subscribers : subscribersByType.values()) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * Deliver an event to its subscribers on the calling thread.
+     * Every subscriber is called even if an earlier one fails.
+     * @throws Exception The first subscriber failure, with later ones suppressed
+     */
+    public void publish(DomainEvent event) throws Exception {
+        Exception failure = null;
+
+        failure = deliver(allEventSubscribers, event, failure);
+        List<Subscriber> subscribers = subscribersByType.get(event.getType());
+        if (subscribers != null) {
+            failure = deliver(subscribers, event, failure);
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static Exception deliver(List<Subscriber> subscribers, DomainEvent event, Exception failure) {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.onEvent(event);
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        return failure;
+    }
+}
@@ -0,0 +1,621 @@
+package businesslogic.services;
+
+import datalayer.database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for domain events.
+ *
+ * Services record events inside the transaction that makes the change, so
+ * subscribers only ever hear about committed changes. Subscribers are
+ * in-process state such as caches and live seat maps, which every
+ * application process keeps for itself, so every process reads every event
+ * from its own cursor (event_id past the last one it read) and claims
+ * nothing. A process starts from the newest event, as its state starts empty.
+ *
+ * Delivery is at-least-once per process. An event whose subscriber throws is
+ * kept in memory and published again with backoff until MAX_ATTEMPTS, then
+ * dropped with an error; later events of its aggregate wait behind it, other
+ * aggregates carry on. Each retry reaches every subscriber again, so
+ * subscribers must be idempotent.
+ *
+ * Events of one aggregate are published in event_id order. Writers lock the
+ * aggregate's row before recording, so its events commit in that order too.
+ * An id skipped by the cursor belongs to a transaction still committing (or
+ * rolled back): events after it are held for GAP_HOLD, and the id is re-read
+ * for GAP_GRACE in case it commits later still.
+ *
+ * Runs on one poller thread over one long-lived connection, reopened only
+ * after a failure. Rows are kept for RETENTION, then purged by a daily job.
+ */
+public class EventOutbox {
+
+    public static final int DEFAULT_BATCH_SIZE = 200;
+    public static final int MAX_ATTEMPTS = 10;
+
+    public static final String PURGE_JOB = "event-outbox-purge";
+    public static final String PURGE_SCHEDULE = "@daily";
+
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration RETRY_BASE_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+    private static final Duration RETENTION = Duration.ofDays(7);
+    private static final int PURGE_CHUNK = 10_000;
+    // How long events wait behind an id skipped by the cursor (commit after a later id)
+    private static final Duration GAP_HOLD = Duration.ofSeconds(2);
+    // How long a skipped id may still turn up
+    private static final Duration GAP_GRACE = Duration.ofMinutes(1);
+    private static final int MAX_GAPS = 1_000;
+    // Read no further while this many events await delivery; the table buffers the rest
+    private static final int MAX_PENDING = 10_000;
+
+    private static final String INSERT_SQL_PREFIX =
+        "INSERT INTO event_outbox " +
+        "(event_type, aggregate_type, aggregate_id, payload, occurred_at) VALUES ";
+
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?)";
+
+    private static final String MAX_EVENT_ID_SQL =
+        "SELECT COALESCE(MAX(event_id), 0) AS max_event_id FROM event_outbox";
+
+    // Primary key range
+    private static final String READ_AFTER_SQL =
+        "SELECT event_id, event_type, aggregate_type, aggregate_id, payload, occurred_at " +
+        "FROM event_outbox WHERE event_id > ? ORDER BY event_id LIMIT ?";
+
+    private static final String READ_IDS_SQL =
+        "SELECT event_id, event_type, aggregate_type, aggregate_id, payload, occurred_at " +
+        "FROM event_outbox WHERE event_id IN (%s) ORDER BY event_id";
+
+    // Served by idx_event_outbox_occurred
+    private static final String PURGE_SQL =
+        "DELETE FROM event_outbox WHERE occurred_at < ? ORDER BY occurred_at LIMIT ?";
+
+    private final EventBus eventBus;
+    private final int batchSize;
+
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+    // Separate from the lifecycle monitor so stop() never waits on a poll it is shutting down
+    private final Object drainLock = new Object();
+
+    // Guarded by drainLock
+    private Connection connection;
+    private long lastSeenEventId = -1;
+    private final Map<Long, LocalDateTime> gaps = new LinkedHashMap<>();
+    private final TreeMap<Long, Delivery> pending = new TreeMap<>();
+    private volatile ScheduledExecutorService poller;
+    private volatile boolean isRunning = false;
+
+    // Cumulative metrics
+    private final AtomicLong totalBroadcast = new AtomicLong();
+    private final AtomicLong totalRetried = new AtomicLong();
+    private final AtomicLong totalFailed = new AtomicLong();
+    private volatile DispatchStats lastStats;
+
+    public EventOutbox(EventBus eventBus) {
+        this(eventBus, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param eventBus Where this process's copy of each event is published
+     * @param batchSize Events read or inserted per round trip
+     */
+    public EventOutbox(EventBus eventBus, int batchSize) {
+        if (eventBus == null) {
+            throw new IllegalArgumentException("Event bus is required.");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.eventBus = eventBus;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Bus for in-process state; this process sees every event, whichever process recorded it.
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Delete events older than a week, once a day.
+     */
+    public void registerJobs(JobScheduler scheduler) {
+        scheduler.register(PURGE_JOB, PURGE_SCHEDULE, scheduledTime -> purgeOld());
+    }
+
+    // ========================================================================
+    // LIFECYCLE
+    // ========================================================================
+
+    public synchronized void start() {
+        if (isRunning) {
+            System.out.println("[EventOutbox] Poller already running.");
+            return;
+        }
+
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "event-outbox");
+            t.setDaemon(true);
+            return t;
+        });
+        isRunning = true;
+        poller.scheduleWithFixedDelay(this::pollQuietly, 0, POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+        System.out.println("[EventOutbox] Poller started. Interval: " + POLL_INTERVAL.toMillis() + " ms.");
+    }
+
+    public synchronized void stop() {
+        if (!isRunning) {
+            return;
+        }
+
+        isRunning = false;
+        poller.shutdown();
+
+        try {
+            if (!poller.awaitTermination(5, TimeUnit.SECONDS)) {
+                poller.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            poller.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        closeConnection();
+        System.out.println("[EventOutbox] Poller stopped.");
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    // ========================================================================
+    // RECORD
+    // ========================================================================
+
+    /**
+     * Insert an event on the given connection, inside the caller's transaction.
+     */
+    public void record(Connection conn, DomainEvent event) throws SQLException {
+        List<DomainEvent> events = new ArrayList<>(1);
+        events.add(event);
+        record(conn, events);
+    }
+
+    /**
+     * Insert events on the given connection, inside the caller's transaction.
+     * Events of one aggregate are published in list order; lock the aggregate's row first
+     * so they also follow the aggregate's events from other transactions.
+     * Call {@link #dispatchAsync()} once the transaction commits.
+     */
+    public void record(Connection conn, List<DomainEvent> events) throws SQLException {
+        for (int from = 0; from < events.size(); from += batchSize) {
+            List<DomainEvent> chunk = events.subList(from, Math.min(from + batchSize, events.size()));
+
+            StringJoiner rows = new StringJoiner(", ", INSERT_SQL_PREFIX, "");
+            for (int i = 0; i < chunk.size(); i++) {
+                rows.add(INSERT_ROW);
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(rows.toString())) {
+                int param = 1;
+                for (DomainEvent event : chunk) {
+                    stmt.setString(param++, event.getType().name());
+                    stmt.setString(param++, event.getAggregateType());
+                    stmt.setString(param++, event.getAggregateId());
+                    stmt.setString(param++, DomainEvent.encodeAttributes(event.getAttributes()));
+                    stmt.setTimestamp(param++, Timestamp.valueOf(event.getOccurredAt()));
+                }
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    // ========================================================================
+    // DISPATCH
+    // ========================================================================
+
+    /**
+     * Poll on the poller thread now instead of waiting for the next interval.
+     * Requests made while one is already queued are folded into it.
+     */
+    public void dispatchAsync() {
+        ScheduledExecutorService current = poller;
+        if (!isRunning || current == null || !drainQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            current.execute(() -> {
+                drainQueued.set(false);
+                pollQuietly();
+            });
+        } catch (RuntimeException e) {
+            // Stopped meanwhile; the next start picks the events up
+            drainQueued.set(false);
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            DispatchStats stats = broadcast();
+            if (stats.getRetried() + stats.getFailed() > 0) {
+                System.out.println("[EventOutbox] " + stats);
+            }
+        } catch (SQLException e) {
+            System.err.println("[EventOutbox] Error dispatching events: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Keep the poller alive
+            System.err.println("[EventOutbox] Unexpected error dispatching events: " + e.getMessage());
+        }
+    }
+
+    // ========================================================================
+    // BROADCAST
+    // ========================================================================
+
+    /**
+     * Read events recorded since the last call, then publish every event that is
+     * due to this process's bus. The first call only positions the cursor at the
+     * newest event.
+     * @return Outcome of this round
+     */
+    public DispatchStats broadcast() throws SQLException {
+        synchronized (drainLock) {
+            long start = System.currentTimeMillis();
+            SQLException readFailure = null;
+            try {
+                readNew(connection());
+            } catch (SQLException e) {
+                closeConnection();
+                readFailure = e;
+            }
+
+            // Events already read are still due, even if this read failed
+            DispatchStats stats = publishDue(start);
+            totalBroadcast.addAndGet(stats.getDispatched());
+            totalRetried.addAndGet(stats.getRetried());
+            totalFailed.addAndGet(stats.getFailed());
+            lastStats = stats;
+            if (readFailure != null) {
+                throw readFailure;
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Queue events past the cursor plus late commits of ids it skipped. Caller holds drainLock.
+     */
+    private void readNew(Connection conn) throws SQLException {
+        if (lastSeenEventId < 0) {
+            try (PreparedStatement stmt = conn.prepareStatement(MAX_EVENT_ID_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                lastSeenEventId = rs.next() ? rs.getLong("max_event_id") : 0;
+            }
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!gaps.isEmpty()) {
+            List<Long> gapIds = new ArrayList<>(gaps.keySet());
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    String.format(READ_IDS_SQL, placeholders(gapIds.size())))) {
+                for (int i = 0; i < gapIds.size(); i++) {
+                    stmt.setLong(i + 1, gapIds.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        LocalDateTime skippedAt = gaps.remove(rs.getLong("event_id"));
+                        if (skippedAt.isBefore(now.minus(GAP_HOLD))) {
+                            System.err.println("Warning: Event " + rs.getLong("event_id")
+                                + " committed after events behind it were published");
+                        }
+                        queue(readEvent(rs), now);
+                    }
+                }
+            }
+            // Rolled back, or never coming
+            LocalDateTime expired = now.minus(GAP_GRACE);
+            gaps.values().removeIf(skippedAt -> skippedAt.isBefore(expired));
+        }
+
+        while (pending.size() < MAX_PENDING) {
+            int read = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(READ_AFTER_SQL)) {
+                stmt.setLong(1, lastSeenEventId);
+                stmt.setInt(2, Math.min(batchSize, MAX_PENDING - pending.size()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long eventId = rs.getLong("event_id");
+                        for (long skipped = Math.max(lastSeenEventId + 1, eventId - MAX_GAPS);
+                             skipped < eventId && gaps.size() < MAX_GAPS; skipped++) {
+                            gaps.put(skipped, now);
+                        }
+                        lastSeenEventId = eventId;
+                        read++;
+                        queue(readEvent(rs), now);
+                    }
+                }
+            }
+            if (read < batchSize) {
+                break;
+            }
+        }
+    }
+
+    private void queue(DomainEvent event, LocalDateTime now) {
+        if (event != null) {
+            pending.put(event.getEventId(), new Delivery(event, now));
+        }
+    }
+
+    /**
+     * Publish queued events in event_id order. An event waits while it is behind
+     * a young gap, backing off, or behind an earlier event of its aggregate that
+     * is. Caller holds drainLock.
+     */
+    private DispatchStats publishDue(long start) {
+        LocalDateTime now = LocalDateTime.now();
+        long holdFrom = Long.MAX_VALUE;
+        LocalDateTime holdSince = now.minus(GAP_HOLD);
+        for (Map.Entry<Long, LocalDateTime> gap : gaps.entrySet()) {
+            if (gap.getValue().isAfter(holdSince)) {
+                holdFrom = Math.min(holdFrom, gap.getKey());
+            }
+        }
+
+        Set<String> blocked = new HashSet<>();
+        int published = 0;
+        int retried = 0;
+        int failed = 0;
+
+        Iterator<Delivery> it = pending.headMap(holdFrom).values().iterator();
+        while (it.hasNext()) {
+            Delivery delivery = it.next();
+            DomainEvent event = delivery.event;
+            String key = aggregateKey(event.getAggregateType(), event.getAggregateId());
+            if (blocked.contains(key)) {
+                continue;
+            }
+            if (delivery.nextAttemptAt.isAfter(now)) {
+                blocked.add(key);
+                continue;
+            }
+
+            try {
+                eventBus.publish(event);
+                it.remove();
+                published++;
+            } catch (Exception e) {
+                delivery.attempts++;
+                if (delivery.attempts >= MAX_ATTEMPTS) {
+                    it.remove();
+                    failed++;
+                    System.err.println("[EventOutbox] Giving up on event " + event.getEventId()
+                        + " (" + event.getType() + ") after " + delivery.attempts + " attempts: " + e);
+                } else {
+                    delivery.nextAttemptAt = now.plus(backoff(delivery.attempts - 1));
+                    blocked.add(key);
+                    retried++;
+                    System.err.println("Warning: Subscriber failed on event " + event.getEventId()
+                        + " (" + event.getType() + "), retrying: " + e.getMessage());
+                }
+            }
+        }
+
+        return new DispatchStats(published, retried, failed, System.currentTimeMillis() - start);
+    }
+
+    // 1 s, 2 s, 4 s, ... capped at 5 min
+    private static Duration backoff(int previousAttempts) {
+        Duration delay = RETRY_BASE_DELAY.multipliedBy(1L << Math.min(previousAttempts, 20));
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+
+    private static DomainEvent readEvent(ResultSet rs) throws SQLException {
+        DomainEvent.Type type;
+        try {
+            type = DomainEvent.Type.valueOf(rs.getString("event_type"));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: Skipping event " + rs.getLong("event_id")
+                + " of unknown type " + rs.getString("event_type"));
+            return null;
+        }
+
+        Timestamp occurredAt = rs.getTimestamp("occurred_at");
+        return new DomainEvent(
+            rs.getLong("event_id"),
+            type,
+            rs.getString("aggregate_type"),
+            rs.getString("aggregate_id"),
+            occurredAt != null ? occurredAt.toLocalDateTime() : null,
+            DomainEvent.decodeAttributes(rs.getString("payload"))
+        );
+    }
+
+    // Caller holds drainLock
+    private Connection connection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DatabaseConnection.getInstance().openConnection();
+        }
+        return connection;
+    }
+
+    private void closeConnection() {
+        synchronized (drainLock) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    // Already broken; a new one is opened on the next poll
+                }
+                connection = null;
+            }
+        }
+    }
+
+    private static String aggregateKey(String aggregateType, String aggregateId) {
+        return aggregateType + ":" + aggregateId;
+    }
+
+    private static String placeholders(int count) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            joiner.add("?");
+        }
+        return joiner.toString();
+    }
+
+    // ========================================================================
+    // HOUSEKEEPING
+    // ========================================================================
+
+    /**
+     * Delete events past the retention period, in chunks.
+     * Every process has long since read them.
+     * @return Number of events deleted
+     */
+    public int purgeOld() throws SQLException {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(RETENTION));
+        int total = 0;
+
+        try (Connection conn = DatabaseConnection.getInstance().openConnection();
+             PreparedStatement stmt = conn.prepareStatement(PURGE_SQL)) {
+            while (true) {
+                stmt.setTimestamp(1, cutoff);
+                stmt.setInt(2, PURGE_CHUNK);
+                int deleted = stmt.executeUpdate();
+                total += deleted;
+                if (deleted < PURGE_CHUNK) {
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    // ========================================================================
+    // METRICS
+    // ========================================================================
+
+    public DispatchStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * Events published to this process's bus.
+     */
+    public long getTotalBroadcast() {
+        return totalBroadcast.get();
+    }
+
+    /**
+     * Failed publishes scheduled to be tried again.
+     */
+    public long getTotalRetried() {
+        return totalRetried.get();
+    }
+
+    /**
+     * Events dropped after MAX_ATTEMPTS failed publishes.
+     */
+    public long getTotalFailed() {
+        return totalFailed.get();
+    }
+
+    /**
+     * Events read but not yet published in this process.
+     */
+    public int getPendingCount() {
+        synchronized (drainLock) {
+            return pending.size();
+        }
+    }
+
+    // ========================================================================
+    // TYPES
+    // ========================================================================
+
+    private static final class Delivery {
+        final DomainEvent event;
+        int attempts;
+        LocalDateTime nextAttemptAt;
+
+        Delivery(DomainEvent event, LocalDateTime nextAttemptAt) {
+            this.event = event;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    /**
+     * Outcome of one broadcast round.
+     */
+    public static class DispatchStats {
+        private final int dispatched;
+        private final int retried;
+        private final int failed;
+        private final long durationMillis;
+
+        public DispatchStats(int dispatched, int retried, int failed, long durationMillis) {
+            this.dispatched = dispatched;
+            this.retried = retried;
+            this.failed = failed;
+            this.durationMillis = durationMillis;
+        }
+
+        public int getDispatched() {
+            return dispatched;
+        }
+
+        /**
+         * Events whose subscribers failed and that are scheduled to be tried again.
+         */
+        public int getRetried() {
+            return retried;
+        }
+
+        /**
+         * Events that failed for the last time and were dropped.
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "DispatchStats{" +
+                   "dispatched=" + dispatched +
+                   ", retried=" + retried +
+                   ", failed=" + failed +
+                   ", durationMillis=" + durationMillis +
+                   '}';
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package businesslogic.services;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Step function used by dynamic pricing.
+ * Each step maps a lower threshold to a fare multiplier; a value uses the
+ * multiplier of the highest threshold it reaches.
+ */
+public class FareLadder {
+
+    private final TreeMap<Double, Double> steps = new TreeMap<>();
+    private final double baseMultiplier;
+
+    /**
+     * @param baseMultiplier Multiplier used for values below every threshold
+     */
+    public FareLadder(double baseMultiplier) {
+        if (baseMultiplier <= 0) {
+            throw new IllegalArgumentException("Multiplier must be positive.");
+        }
+        this.baseMultiplier = baseMultiplier;
+    }
+
+    /**
+     * Add a step to the ladder.
+     * @param threshold Lowest value (inclusive) this step applies to
+     * @param multiplier Fare multiplier for this step
+     * @return this ladder, for chaining
+     */
+    public FareLadder addStep(double threshold, double multiplier) {
+        if (multiplier <= 0) {
+            throw new IllegalArgumentException("Multiplier must be positive.");
+        }
+        steps.put(threshold, multiplier);
+        return this;
+    }
+
+    public double multiplierFor(double value) {
+        Map.Entry<Double, Double> step = steps.floorEntry(value);
+        return step != null ? step.getValue() : baseMultiplier;
+    }
+
+    /**
+     * Default occupancy ladder: fares rise as the cabin fills up.
+     * Value is the booked fraction of the aircraft (0.0 - 1.0).
+     */
+    public static FareLadder defaultLoadFactorLadder() {
+        return new FareLadder(1.0)
+                .addStep(0.50, 1.10)
+                .addStep(0.75, 1.20)
+                .addStep(0.90, 1.35);
+    }
+
+    /**
+     * Default booking-window ladder: fares rise close to departure.
+     * Value is the number of whole days until departure.
+     */
+    public static FareLadder defaultDaysToDepartureLadder() {
+        return new FareLadder(1.30)
+                .addStep(4, 1.15)
+                .addStep(8, 1.05)
+                .addStep(22, 1.0);
+    }
+}
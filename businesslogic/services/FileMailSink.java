@@ -0,0 +1,56 @@
+package businesslogic.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Local stand-in for an email service: appends every message to a single
+ * mbox-style text file. The file is opened on first use.
+ */
+public class FileMailSink implements MailSink {
+
+    private static final byte[] SEPARATOR =
+        "\n-------------------------------------------\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Path file;
+    private OutputStream out;
+
+    public FileMailSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void send(String recipient, String subject, byte[] body, int length) throws IOException {
+        if (out == null) {
+            out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        }
+
+        out.write(("To: " + recipient + "\nSubject: " + subject + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.write(body, 0, length);
+        out.write(SEPARATOR);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,206 @@
+package businesslogic.services;
+
+import businesslogic.entities.enums.FlightStatus;
+import datalayer.database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TimeZone;
+
+/**
+ * Tells booked customers when their flights are delayed or cancelled.
+ *
+ * The affected reservations of any number of flights are resolved with one
+ * join query and grouped so each customer gets a single message listing all
+ * their affected bookings. Messages go through the {@link NotificationOutbox}
+ * in the caller's transaction; delivery happens in the background.
+ */
+public class FlightDisruptionNotifier {
+
+    private static final Calendar UTC_CALENDAR = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    private static final DateTimeFormatter DEPARTURE_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy HH:mm");
+
+    // Ordered by customer, then departure, so each message lists bookings by date
+    private static final String SELECT_AFFECTED_SQL =
+        "SELECT r.reservation_id, r.customer_id, u.email, u.first_name, " +
+        "f.flight_number, f.departure_time " +
+        "FROM reservations r " +
+        "JOIN flights f ON f.flight_id = r.flight_id " +
+        "JOIN users u ON u.user_id = r.customer_id " +
+        "WHERE f.flight_number IN (%s) AND r.status IN ('PENDING', 'CONFIRMED') " +
+        "ORDER BY r.customer_id, f.departure_time";
+
+    private final NotificationOutbox outbox;
+
+    public FlightDisruptionNotifier(NotificationOutbox outbox) {
+        this.outbox = outbox;
+    }
+
+    public NotificationOutbox getOutbox() {
+        return outbox;
+    }
+
+    /**
+     * True if moving a flight from {@code oldStatus} to {@code newStatus} should notify its customers.
+     */
+    public static boolean isDisruption(FlightStatus oldStatus, FlightStatus newStatus) {
+        return newStatus != oldStatus
+            && (newStatus == FlightStatus.DELAYED || newStatus == FlightStatus.CANCELLED);
+    }
+
+    /**
+     * Queue one message per affected customer on the shared connection.
+     * Run inside the transaction that changes the flight status, then call
+     * {@link #deliverAsync()} once it commits.
+     * @param flightNumbers Flights that changed
+     * @param newStatus DELAYED or CANCELLED
+     * @return Number of customers notified
+     */
+    public int enqueue(List<String> flightNumbers, FlightStatus newStatus) throws SQLException {
+        if (flightNumbers == null || flightNumbers.isEmpty()) {
+            return 0;
+        }
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        List<NotificationOutbox.OutboxMessage> messages = messagesFor(findAffected(conn, flightNumbers), newStatus);
+        return outbox.enqueue(conn, messages);
+    }
+
+    /**
+     * Group affected reservations into one message per customer, listing all
+     * their bookings. Customers without an email address are left out.
+     * @param reservations Affected reservations, grouped or not
+     * @return Messages in order of each customer's first reservation
+     */
+    public static List<NotificationOutbox.OutboxMessage> messagesFor(List<AffectedReservation> reservations,
+                                                                     FlightStatus newStatus) {
+        Map<Integer, AffectedCustomer> byCustomer = new LinkedHashMap<>();
+        for (AffectedReservation reservation : reservations) {
+            byCustomer.computeIfAbsent(reservation.customerId,
+                id -> new AffectedCustomer(reservation.email, reservation.firstName)).bookings.add(reservation);
+        }
+
+        List<NotificationOutbox.OutboxMessage> messages = new ArrayList<>(byCustomer.size());
+        for (Map.Entry<Integer, AffectedCustomer> entry : byCustomer.entrySet()) {
+            AffectedCustomer customer = entry.getValue();
+            if (customer.email == null || customer.email.trim().isEmpty()) {
+                continue;
+            }
+            messages.add(new NotificationOutbox.OutboxMessage(entry.getKey(), customer.email,
+                subjectFor(newStatus, customer.bookings.size()), bodyFor(customer, newStatus)));
+        }
+        return messages;
+    }
+
+    /**
+     * Deliver queued messages in the background.
+     */
+    public void deliverAsync() {
+        outbox.deliverAsync();
+    }
+
+    private List<AffectedReservation> findAffected(Connection conn, List<String> flightNumbers) throws SQLException {
+        StringJoiner placeholders = new StringJoiner(", ");
+        for (int i = 0; i < flightNumbers.size(); i++) {
+            placeholders.add("?");
+        }
+
+        List<AffectedReservation> affected = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(SELECT_AFFECTED_SQL, placeholders))) {
+            for (int i = 0; i < flightNumbers.size(); i++) {
+                stmt.setString(i + 1, flightNumbers.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // Flight times are stored as wall-clock values through a UTC calendar
+                    Timestamp departure = rs.getTimestamp("departure_time", UTC_CALENDAR);
+                    affected.add(new AffectedReservation(
+                        rs.getInt("reservation_id"),
+                        rs.getInt("customer_id"),
+                        rs.getString("email"),
+                        rs.getString("first_name"),
+                        rs.getString("flight_number"),
+                        departure != null ? departure.toInstant().atZone(ZoneId.of("UTC")).toLocalDateTime() : null
+                    ));
+                }
+            }
+        }
+        return affected;
+    }
+
+    private static String subjectFor(FlightStatus status, int bookings) {
+        String change = status == FlightStatus.CANCELLED ? "cancelled" : "delayed";
+        return bookings == 1
+            ? "Your flight has been " + change
+            : bookings + " of your flights have been " + change;
+    }
+
+    private static String bodyFor(AffectedCustomer customer, FlightStatus status) {
+        StringBuilder body = new StringBuilder();
+        body.append("Hello ").append(customer.firstName != null ? customer.firstName : "").append(",\n\n");
+        body.append(status == FlightStatus.CANCELLED
+            ? "We're sorry, the following bookings have been cancelled:\n\n"
+            : "The following bookings have been delayed:\n\n");
+
+        for (AffectedReservation booking : customer.bookings) {
+            body.append("  Flight ").append(booking.flightNumber);
+            if (booking.departureTime != null) {
+                body.append(", scheduled ").append(booking.departureTime.format(DEPARTURE_FORMAT));
+            }
+            body.append(" (reservation #").append(booking.reservationId).append(")\n");
+        }
+
+        body.append('\n');
+        body.append(status == FlightStatus.CANCELLED
+            ? "Please visit My Reservations to rebook or request a refund.\n"
+            : "Please check My Reservations for the updated schedule.\n");
+        return body.toString();
+    }
+
+    private static final class AffectedCustomer {
+        final String email;
+        final String firstName;
+        final List<AffectedReservation> bookings = new ArrayList<>();
+
+        AffectedCustomer(String email, String firstName) {
+            this.email = email;
+            this.firstName = firstName;
+        }
+    }
+
+    /**
+     * A reservation on a disrupted flight, with what the message needs of its customer.
+     */
+    public static final class AffectedReservation {
+        final int reservationId;
+        final int customerId;
+        final String email;
+        final String firstName;
+        final String flightNumber;
+        final LocalDateTime departureTime;
+
+        public AffectedReservation(int reservationId, int customerId, String email, String firstName,
+                                   String flightNumber, LocalDateTime departureTime) {
+            this.reservationId = reservationId;
+            this.customerId = customerId;
+            this.email = email;
+            this.firstName = firstName;
+            this.flightNumber = flightNumber;
+            this.departureTime = departureTime;
+        }
+    }
+}
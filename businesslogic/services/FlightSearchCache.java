@@ -0,0 +1,393 @@
+package businesslogic.services;
+
+import businesslogic.entities.Flight;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Short-lived cache of flight search results by origin, destination and date.
+ *
+ * Holds at most a fixed number of searches, least recently used out first,
+ * each for a few seconds. Concurrent misses for the same search share one
+ * load: the first caller queries, the rest wait for its result. Reservation
+ * and flight events from the {@link EventBus} drop the searches that listed
+ * the flight, and created or moved flights drop the search for their route
+ * and date, so seat counts and schedules are never stale for longer than an
+ * event takes to arrive. Changes no event reports expire with the TTL.
+ *
+ * Cached flights are shared between callers and must not be modified.
+ */
+public class FlightSearchCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    /**
+     * Runs the search on a miss.
+     */
+    public interface Loader {
+        List<Flight> load() throws SQLException;
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // All state below is guarded by this
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<String, Set<Key>> keysByFlight = new HashMap<>();
+    private final Map<Key, Load> loading = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long coalesced;
+    private long invalidations;
+    private long evictions;
+
+    /**
+     * @param eventBus Source of reservation and flight events, or null to rely on the TTL alone
+     */
+    public FlightSearchCache(EventBus eventBus) {
+        this(eventBus, DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+
+    public FlightSearchCache(EventBus eventBus, int maxEntries, Duration ttl) {
+        if (maxEntries <= 0 || ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Cache size and TTL must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        if (eventBus != null) {
+            EventBus.Subscriber onFlightChanged = event -> invalidateFlight(event.getAttribute("flightNumber"));
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_CREATED, onFlightChanged);
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_MODIFIED, onFlightChanged);
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_CANCELLED, onFlightChanged);
+            eventBus.subscribe(DomainEvent.Type.WAITLIST_OFFERED, onFlightChanged);
+            eventBus.subscribe(DomainEvent.Type.WAITLIST_OFFER_EXPIRED, onFlightChanged);
+            eventBus.subscribe(DomainEvent.Type.WAITLIST_OFFER_DECLINED, onFlightChanged);
+            eventBus.subscribe(DomainEvent.Type.FLIGHT_STATUS_CHANGED, onFlightChanged);
+            eventBus.subscribe(DomainEvent.Type.FLIGHT_DELETED, onFlightChanged);
+            EventBus.Subscriber onFlightWritten = event -> {
+                invalidateFlight(event.getAttribute("flightNumber"));
+                invalidateRoute(event.getAttribute("origin"), event.getAttribute("destination"),
+                    event.getAttribute("departureTime"));
+            };
+            eventBus.subscribe(DomainEvent.Type.FLIGHT_CREATED, onFlightWritten);
+            eventBus.subscribe(DomainEvent.Type.FLIGHT_UPDATED, onFlightWritten);
+        }
+    }
+
+    // ========================================================================
+    // LOOKUP
+    // ========================================================================
+
+    /**
+     * The cached result of a search, or the loader's if there is none.
+     * Waits for a load of the same search already under way instead of starting another.
+     */
+    public List<Flight> get(String originCode, String destinationCode, LocalDate date, Loader loader)
+            throws SQLException {
+        Key key = new Key(originCode, destinationCode, date);
+        Load load;
+        boolean leader = false;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+                hits++;
+                return entry.flights;
+            }
+            if (entry != null) {
+                remove(key);
+            }
+
+            load = loading.get(key);
+            if (load != null) {
+                coalesced++;
+            } else {
+                misses++;
+                load = new Load();
+                loading.put(key, load);
+                leader = true;
+            }
+        }
+
+        if (!leader) {
+            return load.await();
+        }
+
+        try {
+            List<Flight> flights = Collections.unmodifiableList(new ArrayList<>(loader.load()));
+            synchronized (this) {
+                loading.remove(key);
+                // An invalidation during the load means the result may already be out of date
+                if (!load.stale) {
+                    store(key, flights);
+                }
+            }
+            load.result.complete(flights);
+            return flights;
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                loading.remove(key);
+            }
+            load.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // ========================================================================
+    // INVALIDATION
+    // ========================================================================
+
+    /**
+     * Drop every search that listed the flight.
+     */
+    public synchronized void invalidateFlight(String flightNumber) {
+        if (flightNumber == null) {
+            return;
+        }
+        Set<Key> keys = keysByFlight.get(flightNumber);
+        if (keys != null) {
+            for (Key key : new ArrayList<>(keys)) {
+                remove(key);
+                invalidations++;
+            }
+        }
+        // A load under way can't say yet whether it lists the flight
+        for (Load load : loading.values()) {
+            load.stale = true;
+        }
+    }
+
+    /**
+     * Drop the search for a route and date, if cached.
+     * @param departureTime ISO date-time of a departure on the date
+     */
+    public void invalidateRoute(String originCode, String destinationCode, String departureTime) {
+        if (originCode == null || destinationCode == null || departureTime == null) {
+            return;
+        }
+        try {
+            LocalDate date = LocalDateTime.parse(departureTime).toLocalDate();
+            invalidateRoute(new Key(originCode, destinationCode, date));
+        } catch (DateTimeParseException e) {
+            System.err.println("Warning: Ignoring flight event with bad departure time " + departureTime);
+        }
+    }
+
+    private synchronized void invalidateRoute(Key key) {
+        if (entries.containsKey(key)) {
+            remove(key);
+            invalidations++;
+        }
+        Load load = loading.get(key);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        keysByFlight.clear();
+        for (Load load : loading.values()) {
+            load.stale = true;
+        }
+    }
+
+    // ========================================================================
+    // STATS
+    // ========================================================================
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, coalesced, invalidations, evictions, entries.size());
+    }
+
+    /**
+     * Counts since the cache was created.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long coalesced;
+        private final long invalidations;
+        private final long evictions;
+        private final int size;
+
+        Stats(long hits, long misses, long coalesced, long invalidations, long evictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.coalesced = coalesced;
+            this.invalidations = invalidations;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Searches that queried the database.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Searches that waited for an identical search's query instead of running their own.
+         */
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Share of searches answered without a query of their own, from 0 to 1.
+         */
+        public double getHitRatio() {
+            long lookups = hits + misses + coalesced;
+            return lookups == 0 ? 0.0 : (double) (hits + coalesced) / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "FlightSearchCache.Stats{" +
+                   "hits=" + hits +
+                   ", misses=" + misses +
+                   ", coalesced=" + coalesced +
+                   ", hitRatio=" + String.format("%.2f", getHitRatio()) +
+                   ", invalidations=" + invalidations +
+                   ", evictions=" + evictions +
+                   ", size=" + size +
+                   '}';
+        }
+    }
+
+    // ========================================================================
+    // INTERNALS
+    // ========================================================================
+
+    private void store(Key key, List<Flight> flights) {
+        remove(key);
+        entries.put(key, new Entry(flights, System.nanoTime()));
+        for (Flight flight : flights) {
+            keysByFlight.computeIfAbsent(flight.getFlightNumber(), n -> new HashSet<>()).add(key);
+        }
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            Map.Entry<Key, Entry> victim = eldest.next();
+            eldest.remove();
+            unindex(victim.getKey(), victim.getValue());
+            evictions++;
+        }
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(Key key, Entry entry) {
+        for (Flight flight : entry.flights) {
+            Set<Key> keys = keysByFlight.get(flight.getFlightNumber());
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByFlight.remove(flight.getFlightNumber());
+                }
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String origin;
+        private final String destination;
+        private final LocalDate date;
+
+        private Key(String origin, String destination, LocalDate date) {
+            this.origin = origin.toUpperCase();
+            this.destination = destination.toUpperCase();
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return origin.equals(other.origin) && destination.equals(other.destination) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origin, destination, date);
+        }
+    }
+
+    private static final class Entry {
+        private final List<Flight> flights;
+        private final long loadedAt;
+
+        private Entry(List<Flight> flights, long loadedAt) {
+            this.flights = flights;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * A search being loaded, which identical searches wait for.
+     */
+    private static final class Load {
+        private final CompletableFuture<List<Flight>> result = new CompletableFuture<>();
+        private volatile boolean stale;
+
+        private List<Flight> await() throws SQLException {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a flight search.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    throw (SQLException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new SQLException("Flight search failed.", cause);
+            }
+        }
+    }
+}
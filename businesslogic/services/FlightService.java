@@ -5,11 +5,15 @@ import businesslogic.entities.Airport;
 import businesslogic.entities.enums.FlightStatus;
 import datalayer.dao.FlightDAO;
 import datalayer.dao.AirportDAO;
+import datalayer.database.DatabaseConnection;
+import datalayer.database.TransactionManager;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,14 +24,69 @@ public class FlightService {
     
     private final FlightDAO flightDAO;
     private final AirportDAO airportDAO;
+    private final DynamicPricingService pricingService;
+    private FlightStatusEngine statusEngine;
+    private FlightDisruptionNotifier disruptionNotifier;
+    private EventOutbox eventOutbox;
+    private AirportDirectory airportDirectory;
+    private FlightSearchCache searchCache;
 
     public FlightService(FlightDAO flightDAO, AirportDAO airportDAO) {
+        this(flightDAO, airportDAO, new DynamicPricingService());
+    }
+
+    public FlightService(FlightDAO flightDAO, AirportDAO airportDAO, DynamicPricingService pricingService) {
         this.flightDAO = flightDAO;
         this.airportDAO = airportDAO;
+        this.pricingService = pricingService;
+    }
+
+    /**
+     * Track departure and arrival times of flights changed here. Optional.
+     */
+    public void setStatusEngine(FlightStatusEngine statusEngine) {
+        this.statusEngine = statusEngine;
+    }
+
+    /**
+     * Notify booked customers when a flight is delayed or cancelled. Optional.
+     */
+    public void setDisruptionNotifier(FlightDisruptionNotifier disruptionNotifier) {
+        this.disruptionNotifier = disruptionNotifier;
+    }
+
+    /**
+     * Record flight events in the same transaction as each change. Optional.
+     */
+    public void setEventOutbox(EventOutbox eventOutbox) {
+        this.eventOutbox = eventOutbox;
+    }
+
+    /**
+     * Resolve airport codes from an in-memory index instead of the database. Optional.
+     */
+    public void setAirportDirectory(AirportDirectory airportDirectory) {
+        this.airportDirectory = airportDirectory;
+    }
+
+    /**
+     * Serve repeated searches from a short-lived cache. Optional.
+     */
+    public void setSearchCache(FlightSearchCache searchCache) {
+        this.searchCache = searchCache;
     }
 
     /**
-     * Search flights by route and date. Only returns scheduled/delayed flights with available seats.
+     * @return Search cache counters, or null if searches aren't cached
+     */
+    public FlightSearchCache.Stats getSearchCacheStats() {
+        return searchCache != null ? searchCache.getStats() : null;
+    }
+
+    /**
+     * Search flights by route and date. Only returns scheduled/delayed flights; sold-out
+     * ones are kept so customers can join their waitlist.
+     * Returned flights carry their current dynamic fare as price.
      */
     public List<Flight> searchFlights(String originCode,
                                       String destinationCode,
@@ -46,16 +105,42 @@ public class FlightService {
         String originCodeUpper = originCode.toUpperCase();
         String destinationCodeUpper = destinationCode.toUpperCase();
 
-        Airport origin = airportDAO.findById(originCodeUpper);
+        Airport origin = findAirport(originCodeUpper);
         if (origin == null) {
             throw new IllegalArgumentException("Origin airport not found: " + originCode);
         }
 
-        Airport destination = airportDAO.findById(destinationCodeUpper);
+        Airport destination = findAirport(destinationCodeUpper);
         if (destination == null) {
             throw new IllegalArgumentException("Destination airport not found: " + destinationCode);
         }
 
+        List<Flight> onRoute = searchCache != null
+                ? searchCache.get(originCodeUpper, destinationCodeUpper, date,
+                    () -> findFlightsOnRoute(originCodeUpper, destinationCodeUpper, date))
+                : findFlightsOnRoute(originCodeUpper, destinationCodeUpper, date);
+
+        // Status and fare are checked per search; cached flights are shared, so price copies
+        return onRoute.stream()
+                .filter(f -> {
+                    if (f.getStatus() == null) return true;
+                    return f.getStatus() == FlightStatus.SCHEDULED ||
+                           f.getStatus() == FlightStatus.DELAYED;
+                })
+                .map(f -> {
+                    Flight priced = new Flight(f.getFlightNumber(), f.getDepartureTime(), f.getArrivalTime(),
+                            f.getStatus(), f.getAvailableSeats(), f.getPrice(), f.getAircraft(), f.getRoute());
+                    priced.setPrice(pricingService.getCurrentFare(priced));
+                    return priced;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Every flight on a route departing on a date, whatever its status or seats.
+     */
+    private List<Flight> findFlightsOnRoute(String originCode, String destinationCode, LocalDate date)
+            throws SQLException {
         List<Flight> allFlights = flightDAO.findAll();
 
         return allFlights.stream()
@@ -67,9 +152,9 @@ public class FlightService {
                     }
 
                     boolean originMatch = f.getRoute().getOrigin().getAirportCode()
-                            .equalsIgnoreCase(originCodeUpper);
+                            .equalsIgnoreCase(originCode);
                     boolean destMatch = f.getRoute().getDestination().getAirportCode()
-                            .equalsIgnoreCase(destinationCodeUpper);
+                            .equalsIgnoreCase(destinationCode);
 
                     return originMatch && destMatch;
                 })
@@ -77,12 +162,6 @@ public class FlightService {
                     if (f.getDepartureTime() == null) return false;
                     return f.getDepartureTime().toLocalDate().equals(date);
                 })
-                .filter(f -> {
-                    if (f.getStatus() == null) return true;
-                    return f.getStatus() == FlightStatus.SCHEDULED ||
-                           f.getStatus() == FlightStatus.DELAYED;
-                })
-                .filter(f -> f.getAvailableSeats() > 0)
                 .collect(Collectors.toList());
     }
 
@@ -175,17 +254,87 @@ public class FlightService {
         if (flight == null) {
             throw new IllegalArgumentException("Flight is required.");
         }
-        return flightDAO.update(flight);
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            boolean updated = flightDAO.update(flight);
+            if (updated) {
+                recordEvent(conn, DomainEvent.flightUpdated(flight));
+            }
+            TransactionManager.commit(conn);
+
+            if (updated) {
+                trackStatus(flight);
+                dispatchEvents();
+            }
+            return updated;
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
     }
 
+    /**
+     * Change a flight's status. Moving it to DELAYED or CANCELLED queues a
+     * notification for every booked customer in the same transaction.
+     */
     public boolean updateFlightStatus(String flightNumber, FlightStatus newStatus) throws SQLException {
         Flight flight = getFlightByNumber(flightNumber);
         if (flight == null) {
             return false;
         }
 
+        FlightStatus oldStatus = flight.getStatus();
         flight.setStatus(newStatus);
-        return flightDAO.update(flight);
+
+        boolean notify = disruptionNotifier != null
+            && FlightDisruptionNotifier.isDisruption(oldStatus, newStatus);
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            boolean updated = flightDAO.update(flight);
+            if (updated) {
+                if (notify) {
+                    disruptionNotifier.enqueue(Collections.singletonList(flight.getFlightNumber()), newStatus);
+                }
+                if (newStatus != oldStatus) {
+                    recordEvent(conn, DomainEvent.flightStatusChanged(flight.getFlightNumber(), oldStatus, newStatus));
+                }
+            }
+            TransactionManager.commit(conn);
+
+            if (updated) {
+                trackStatus(flight);
+                if (notify) {
+                    disruptionNotifier.deliverAsync();
+                }
+                dispatchEvents();
+            }
+            return updated;
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+    }
+
+    private void trackStatus(Flight flight) {
+        if (statusEngine != null) {
+            statusEngine.track(flight);
+        }
+    }
+
+    private void recordEvent(Connection conn, DomainEvent event) throws SQLException {
+        if (eventOutbox != null) {
+            eventOutbox.record(conn, event);
+        }
+    }
+
+    private void dispatchEvents() {
+        if (eventOutbox != null) {
+            eventOutbox.dispatchAsync();
+        }
     }
 
     public boolean bookSeats(String flightNumber, int seatsBooked) throws SQLException {
@@ -203,7 +352,11 @@ public class FlightService {
         }
 
         flight.setAvailableSeats(flight.getAvailableSeats() - seatsBooked);
-        return flightDAO.update(flight);
+        boolean updated = flightDAO.update(flight);
+        if (updated) {
+            pricingService.recompute(flight);
+        }
+        return updated;
     }
 
     public boolean releaseSeats(String flightNumber, int seatsReleased) throws SQLException {
@@ -217,7 +370,27 @@ public class FlightService {
         }
 
         flight.setAvailableSeats(flight.getAvailableSeats() + seatsReleased);
-        return flightDAO.update(flight);
+        boolean updated = flightDAO.update(flight);
+        if (updated) {
+            pricingService.recompute(flight);
+        }
+        return updated;
+    }
+
+    /**
+     * Adjust available seats by a delta with a single conditional UPDATE.
+     * Meant for callers already inside a transaction on the shared connection.
+     */
+    public boolean adjustAvailableSeats(int flightId, String flightNumber, int delta) throws SQLException {
+        if (delta == 0) {
+            return true;
+        }
+
+        boolean updated = flightDAO.adjustAvailableSeats(flightId, delta);
+        if (updated) {
+            pricingService.invalidate(flightNumber);
+        }
+        return updated;
     }
 
     public boolean hasAvailableSeats(String flightNumber) throws SQLException {
@@ -230,18 +403,50 @@ public class FlightService {
         return (flight != null) ? flight.getAvailableSeats() : 0;
     }
 
+    /**
+     * Current dynamic fare for a flight (base price adjusted by load factor and days to departure).
+     */
+    public double getCurrentFare(Flight flight) {
+        return pricingService.getCurrentFare(flight);
+    }
+
+    public DynamicPricingService getPricingService() {
+        return pricingService;
+    }
+
     public List<Flight> getAllFlights() throws SQLException {
         return flightDAO.findAll();
     }
 
     public List<Airport> getAllAirports() throws SQLException {
+        if (airportDirectory != null) {
+            return airportDirectory.getIndex().getAirports();
+        }
         return airportDAO.findAll();
     }
 
+    /**
+     * Airports by code, city, name and country, for autocomplete.
+     * Built from the database when no directory is set.
+     */
+    public AirportIndex getAirportIndex() throws SQLException {
+        if (airportDirectory != null) {
+            return airportDirectory.getIndex();
+        }
+        return new AirportIndex(airportDAO.findAll());
+    }
+
     public Airport getAirportByCode(String code) throws SQLException {
         if (code == null || code.trim().isEmpty()) {
             return null;
         }
-        return airportDAO.findById(code.toUpperCase());
+        return findAirport(code.toUpperCase());
+    }
+
+    private Airport findAirport(String code) throws SQLException {
+        if (airportDirectory != null) {
+            return airportDirectory.find(code);
+        }
+        return airportDAO.findById(code);
     }
 }
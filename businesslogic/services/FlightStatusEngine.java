@@ -0,0 +1,524 @@
+package businesslogic.services;
+
+import businesslogic.entities.Flight;
+import businesslogic.entities.enums.FlightStatus;
+import datalayer.database.DatabaseConnection;
+import datalayer.database.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves flights to DEPARTED and ARRIVED as their times pass, and completes the
+ * confirmed reservations of arrived flights.
+ *
+ * Departure and arrival instants inside a rolling horizon are kept in a
+ * hierarchical timing wheel, so tracking a flight is O(1) and a tick only
+ * touches the flights that fall due. Due flights are transitioned with
+ * set-based UPDATEs whose predicates re-check status and times, so stale
+ * timers (a flight rescheduled or cancelled since) are harmless.
+ *
+ * Each node ticks its own wheel; a periodic sweep job on the shared scheduler
+ * catches flights changed behind the wheel's back (other nodes, direct SQL).
+ */
+public class FlightStatusEngine {
+
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(15);
+    public static final Duration DEFAULT_HORIZON = Duration.ofHours(12);
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    public static final String SWEEP_JOB = "flight-status-sweep";
+    public static final String DEFAULT_SWEEP_SCHEDULE = "*/10 * * * *";
+
+    // One-second slots, 4 levels: reaches about 194 days
+    private static final long WHEEL_TICK_MILLIS = 1000;
+    private static final int WHEEL_LEVELS = 4;
+
+    private static final Calendar UTC_CALENDAR = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    // Served by idx_flights_status_departure and idx_flights_status_arrival
+    private static final String SELECT_UPCOMING_DEPARTURES_SQL =
+        "SELECT flight_number, departure_time FROM flights " +
+        "WHERE status IN ('SCHEDULED', 'DELAYED') AND departure_time > ? AND departure_time <= ?";
+
+    private static final String SELECT_UPCOMING_ARRIVALS_SQL =
+        "SELECT flight_number, arrival_time FROM flights " +
+        "WHERE status IN ('SCHEDULED', 'DELAYED', 'DEPARTED') AND arrival_time > ? AND arrival_time <= ?";
+
+    // %s: optional "AND flight_number IN (...)"; flights already past arrival skip straight to ARRIVED
+    private static final String SELECT_DEPARTING_SQL =
+        "SELECT flight_id, flight_number, status FROM flights " +
+        "WHERE status IN ('SCHEDULED', 'DELAYED') AND departure_time <= ? AND arrival_time > ?%s " +
+        "LIMIT ? FOR UPDATE";
+
+    private static final String SELECT_ARRIVING_SQL =
+        "SELECT flight_id, flight_number, status FROM flights " +
+        "WHERE status IN ('SCHEDULED', 'DELAYED', 'DEPARTED') AND arrival_time <= ?%s " +
+        "LIMIT ? FOR UPDATE";
+
+    private static final String FLIGHT_NUMBER_FILTER = " AND flight_number IN (%s)";
+
+    private static final String SET_STATUS_SQL =
+        "UPDATE flights SET status = ? WHERE flight_id IN (%s)";
+
+    // Read only when events are recorded
+    private static final String SELECT_COMPLETING_SQL =
+        "SELECT r.reservation_id, r.customer_id, f.flight_number FROM reservations r " +
+        "JOIN flights f ON f.flight_id = r.flight_id " +
+        "WHERE r.status = 'CONFIRMED' AND r.flight_id IN (%s) FOR UPDATE";
+
+    private static final String COMPLETE_RESERVATIONS_SQL =
+        "UPDATE reservations SET status = 'COMPLETED' " +
+        "WHERE status = 'CONFIRMED' AND flight_id IN (%s)";
+
+    private final Duration tick;
+    private final Duration horizon;
+    private final int batchSize;
+
+    // Guarded by this
+    private TimingWheel<String> wheel;
+    private LocalDateTime horizonEnd;
+
+    private ScheduledExecutorService ticker;
+    private volatile boolean isRunning;
+    private EventOutbox eventOutbox;
+
+    // Cumulative metrics
+    private final AtomicLong totalDeparted = new AtomicLong();
+    private final AtomicLong totalArrived = new AtomicLong();
+    private final AtomicLong totalReservationsCompleted = new AtomicLong();
+
+    public FlightStatusEngine() {
+        this(DEFAULT_TICK, DEFAULT_HORIZON, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param tick How often the wheel is advanced
+     * @param horizon How far ahead flights are loaded into the wheel
+     * @param batchSize Flights transitioned per transaction
+     */
+    public FlightStatusEngine(Duration tick, Duration horizon, int batchSize) {
+        if (tick == null || tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive.");
+        }
+        if (horizon == null || horizon.compareTo(tick) <= 0) {
+            throw new IllegalArgumentException("Horizon must be longer than the tick.");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.tick = tick;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(WHEEL_TICK_MILLIS, WHEEL_LEVELS, System.currentTimeMillis());
+        this.horizonEnd = LocalDateTime.now();
+
+        if (horizon.toMillis() > wheel.getReachMillis()) {
+            throw new IllegalArgumentException("Horizon is beyond the timing wheel's reach.");
+        }
+    }
+
+    /**
+     * Record status changes and completed reservations in the transaction that makes them. Optional.
+     */
+    public void setEventOutbox(EventOutbox eventOutbox) {
+        this.eventOutbox = eventOutbox;
+    }
+
+    // ========================================================================
+    // LIFECYCLE
+    // ========================================================================
+
+    public synchronized void start() {
+        if (isRunning) {
+            System.out.println("[FlightStatusEngine] Engine already running.");
+            return;
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "flight-status");
+            t.setDaemon(true);
+            return t;
+        });
+        isRunning = true;
+
+        // First tick loads the horizon and sweeps anything already overdue
+        ticker.scheduleWithFixedDelay(this::runTick, 0, tick.toMillis(), TimeUnit.MILLISECONDS);
+
+        System.out.println("[FlightStatusEngine] Engine started. Tick: " + tick.getSeconds()
+            + " s, horizon: " + horizon.toHours() + " h.");
+    }
+
+    public synchronized void stop() {
+        if (!isRunning) {
+            return;
+        }
+
+        isRunning = false;
+        ticker.shutdown();
+
+        try {
+            if (!ticker.awaitTermination(5, TimeUnit.SECONDS)) {
+                ticker.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ticker.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        System.out.println("[FlightStatusEngine] Engine stopped.");
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * Register the overdue sweep with the shared scheduler.
+     */
+    public void registerJobs(JobScheduler scheduler) {
+        scheduler.register(SWEEP_JOB, DEFAULT_SWEEP_SCHEDULE, scheduledTime -> sweepOverdue());
+    }
+
+    // ========================================================================
+    // TRACKING
+    // ========================================================================
+
+    /**
+     * Start (or keep) tracking a flight after it was added or changed.
+     * O(1); old timers for the flight are left to fire as no-ops.
+     */
+    public void track(Flight flight) {
+        if (flight == null || flight.getFlightNumber() == null || flight.getStatus() == null) {
+            return;
+        }
+
+        FlightStatus status = flight.getStatus();
+        synchronized (this) {
+            if (status == FlightStatus.SCHEDULED || status == FlightStatus.DELAYED) {
+                addTimer(flight.getFlightNumber(), flight.getDepartureTime());
+            }
+            if (status == FlightStatus.SCHEDULED || status == FlightStatus.DELAYED
+                    || status == FlightStatus.DEPARTED) {
+                addTimer(flight.getFlightNumber(), flight.getArrivalTime());
+            }
+        }
+    }
+
+    /**
+     * Number of departure and arrival timers currently in the wheel.
+     */
+    public synchronized int getTrackedTimers() {
+        return wheel.size();
+    }
+
+    // Caller holds this
+    private void addTimer(String flightNumber, LocalDateTime time) {
+        // Times past the horizon are picked up by the next reload
+        if (time != null && !time.isAfter(horizonEnd)) {
+            wheel.add(toMillis(time), flightNumber);
+        }
+    }
+
+    // ========================================================================
+    // TICK
+    // ========================================================================
+
+    private void runTick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+
+            boolean reload;
+            synchronized (this) {
+                // Reload once half the horizon has been used up
+                reload = !now.plus(horizon.dividedBy(2)).isBefore(horizonEnd);
+            }
+            if (reload) {
+                reload(now);
+                sweepOverdue();
+            }
+
+            List<String> due;
+            synchronized (this) {
+                due = wheel.advance(System.currentTimeMillis());
+            }
+            if (!due.isEmpty()) {
+                transition(new ArrayList<>(new LinkedHashSet<>(due)));
+            }
+        } catch (SQLException e) {
+            System.err.println("[FlightStatusEngine] Error updating flight status: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic tick
+            System.err.println("[FlightStatusEngine] Unexpected error: " + e);
+        }
+    }
+
+    /**
+     * Rebuild the wheel from every departure and arrival inside the horizon.
+     */
+    public void reload() throws SQLException {
+        reload(LocalDateTime.now());
+    }
+
+    private void reload(LocalDateTime now) throws SQLException {
+        LocalDateTime end = now.plus(horizon);
+        TimingWheel<String> fresh = new TimingWheel<>(WHEEL_TICK_MILLIS, WHEEL_LEVELS, toMillis(now));
+
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            loadTimers(conn, SELECT_UPCOMING_DEPARTURES_SQL, "departure_time", now, end, fresh);
+            loadTimers(conn, SELECT_UPCOMING_ARRIVALS_SQL, "arrival_time", now, end, fresh);
+        }
+
+        synchronized (this) {
+            wheel = fresh;
+            horizonEnd = end;
+        }
+    }
+
+    private void loadTimers(Connection conn, String sql, String timeColumn, LocalDateTime from,
+                            LocalDateTime to, TimingWheel<String> target) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            setFlightTime(stmt, 1, from);
+            setFlightTime(stmt, 2, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    target.add(toMillis(getFlightTime(rs, timeColumn)), rs.getString("flight_number"));
+                }
+            }
+        }
+    }
+
+    // ========================================================================
+    // TRANSITIONS
+    // ========================================================================
+
+    /**
+     * Transition every flight whose departure or arrival has passed, whether or
+     * not it is in this node's wheel.
+     * @return Number of flights whose status changed
+     */
+    public int sweepOverdue() throws SQLException {
+        return transition(null);
+    }
+
+    /**
+     * @param flightNumbers Candidate flights, or null for all
+     */
+    private int transition(List<String> flightNumbers) throws SQLException {
+        int changed = 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            if (flightNumbers == null) {
+                while (true) {
+                    int moved = transitionBatch(conn, now, null);
+                    changed += moved;
+                    if (moved < batchSize) {
+                        break;
+                    }
+                }
+            } else {
+                for (int from = 0; from < flightNumbers.size(); from += batchSize) {
+                    List<String> chunk = flightNumbers.subList(from, Math.min(from + batchSize, flightNumbers.size()));
+                    changed += transitionBatch(conn, now, chunk);
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Depart and arrive one batch inside a single transaction.
+     * @return Number of flights whose status changed
+     */
+    private int transitionBatch(Connection conn, LocalDateTime now, List<String> candidates) throws SQLException {
+        TransactionManager.begin(conn);
+        try {
+            List<DueFlight> departing = selectDue(conn, SELECT_DEPARTING_SQL, now, true, candidates);
+            List<DueFlight> arriving = selectDue(conn, SELECT_ARRIVING_SQL, now, false, candidates);
+            List<DomainEvent> events = new ArrayList<>();
+
+            if (!departing.isEmpty()) {
+                setStatus(conn, flightIds(departing), FlightStatus.DEPARTED);
+                addStatusEvents(events, departing, FlightStatus.DEPARTED);
+            }
+
+            int completed = 0;
+            if (!arriving.isEmpty()) {
+                List<Integer> arrivingIds = flightIds(arriving);
+                setStatus(conn, arrivingIds, FlightStatus.ARRIVED);
+                addStatusEvents(events, arriving, FlightStatus.ARRIVED);
+                if (eventOutbox != null) {
+                    addCompletionEvents(conn, events, arrivingIds);
+                }
+                completed = executeForIds(conn, COMPLETE_RESERVATIONS_SQL, arrivingIds);
+            }
+
+            if (eventOutbox != null && !events.isEmpty()) {
+                eventOutbox.record(conn, events);
+            }
+            TransactionManager.commit(conn);
+            if (eventOutbox != null && !events.isEmpty()) {
+                eventOutbox.dispatchAsync();
+            }
+
+            totalDeparted.addAndGet(departing.size());
+            totalArrived.addAndGet(arriving.size());
+            totalReservationsCompleted.addAndGet(completed);
+
+            if (!departing.isEmpty() || !arriving.isEmpty()) {
+                System.out.println("[FlightStatusEngine] Departed: " + departing.size()
+                    + ", arrived: " + arriving.size() + ", reservations completed: " + completed);
+            }
+            return Math.max(departing.size(), arriving.size());
+        } catch (SQLException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+    }
+
+    private List<DueFlight> selectDue(Connection conn, String sqlTemplate, LocalDateTime now,
+                                      boolean bindNowTwice, List<String> candidates) throws SQLException {
+        String filter = candidates == null ? "" : String.format(FLIGHT_NUMBER_FILTER, placeholders(candidates.size()));
+        List<DueFlight> due = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(sqlTemplate, filter))) {
+            int index = 1;
+            setFlightTime(stmt, index++, now);
+            if (bindNowTwice) {
+                setFlightTime(stmt, index++, now);
+            }
+            if (candidates != null) {
+                for (String flightNumber : candidates) {
+                    stmt.setString(index++, flightNumber);
+                }
+            }
+            stmt.setInt(index, batchSize);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    due.add(new DueFlight(rs.getInt("flight_id"), rs.getString("flight_number"),
+                                          FlightStatus.valueOf(rs.getString("status"))));
+                }
+            }
+        }
+        return due;
+    }
+
+    private static List<Integer> flightIds(List<DueFlight> flights) {
+        List<Integer> ids = new ArrayList<>(flights.size());
+        for (DueFlight flight : flights) {
+            ids.add(flight.flightId);
+        }
+        return ids;
+    }
+
+    private static void addStatusEvents(List<DomainEvent> events, List<DueFlight> flights, FlightStatus status) {
+        for (DueFlight flight : flights) {
+            events.add(DomainEvent.flightStatusChanged(flight.flightNumber, flight.status, status));
+        }
+    }
+
+    private void addCompletionEvents(Connection conn, List<DomainEvent> events,
+                                     List<Integer> flightIds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(SELECT_COMPLETING_SQL, placeholders(flightIds.size())))) {
+            for (int i = 0; i < flightIds.size(); i++) {
+                stmt.setInt(i + 1, flightIds.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    events.add(DomainEvent.reservationCompleted(rs.getInt("reservation_id"),
+                        rs.getInt("customer_id"), rs.getString("flight_number")));
+                }
+            }
+        }
+    }
+
+    private void setStatus(Connection conn, List<Integer> ids, FlightStatus status) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(SET_STATUS_SQL, placeholders(ids.size())))) {
+            stmt.setString(1, status.name());
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 2, ids.get(i));
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    private int executeForIds(Connection conn, String sqlTemplate, List<Integer> ids) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(sqlTemplate, placeholders(ids.size())))) {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            joiner.add("?");
+        }
+        return joiner.toString();
+    }
+
+    // Flight times are stored as wall-clock values through a UTC calendar, as FlightDAOImpl does
+    private static void setFlightTime(PreparedStatement stmt, int index, LocalDateTime time) throws SQLException {
+        stmt.setTimestamp(index, Timestamp.from(time.atZone(ZoneId.of("UTC")).toInstant()), UTC_CALENDAR);
+    }
+
+    private static LocalDateTime getFlightTime(ResultSet rs, String column) throws SQLException {
+        return rs.getTimestamp(column, UTC_CALENDAR).toInstant().atZone(ZoneId.of("UTC")).toLocalDateTime();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // ========================================================================
+    // METRICS
+    // ========================================================================
+
+    public long getTotalDeparted() {
+        return totalDeparted.get();
+    }
+
+    public long getTotalArrived() {
+        return totalArrived.get();
+    }
+
+    public long getTotalReservationsCompleted() {
+        return totalReservationsCompleted.get();
+    }
+
+    private static final class DueFlight {
+        final int flightId;
+        final String flightNumber;
+        final FlightStatus status;
+
+        DueFlight(int flightId, String flightNumber, FlightStatus status) {
+            this.flightId = flightId;
+            this.flightNumber = flightNumber;
+            this.status = status;
+        }
+    }
+}
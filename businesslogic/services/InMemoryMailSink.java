@@ -0,0 +1,71 @@
+package businesslogic.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mail sink that keeps messages in memory. Useful for tests and benchmarks.
+ * With {@code keepMessages} false only the count is kept.
+ */
+public class InMemoryMailSink implements MailSink {
+
+    private final boolean keepMessages;
+    private final AtomicInteger sentCount = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Message> messages = new ConcurrentLinkedQueue<>();
+
+    public InMemoryMailSink() {
+        this(true);
+    }
+
+    public InMemoryMailSink(boolean keepMessages) {
+        this.keepMessages = keepMessages;
+    }
+
+    @Override
+    public void send(String recipient, String subject, byte[] body, int length) {
+        sentCount.incrementAndGet();
+        if (keepMessages) {
+            messages.add(new Message(recipient, subject, new String(body, 0, length, StandardCharsets.UTF_8)));
+        }
+    }
+
+    public int getSentCount() {
+        return sentCount.get();
+    }
+
+    public List<Message> getMessages() {
+        return new ArrayList<>(messages);
+    }
+
+    public void clear() {
+        messages.clear();
+        sentCount.set(0);
+    }
+
+    public static final class Message {
+        private final String recipient;
+        private final String subject;
+        private final String body;
+
+        private Message(String recipient, String subject, String body) {
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+        }
+
+        public String getRecipient() {
+            return recipient;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+}
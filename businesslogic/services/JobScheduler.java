@@ -0,0 +1,752 @@
+package businesslogic.services;
+
+import datalayer.database.DatabaseConnection;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared scheduler for periodic background work (promotion news, reservation
+ * expiry, flight status, ...).
+ *
+ * Each job has a cron schedule and a row in scheduled_jobs holding its next run
+ * time, last outcome and a lease. A dispatcher thread polls for due rows and
+ * claims each run with a conditional UPDATE on next_run_at, so with several
+ * application nodes only one of them runs a given firing. Because next_run_at
+ * is persisted, runs missed while the application was down are found on the
+ * next poll and caught up (once) or skipped, per job. The dispatcher extends
+ * the lease of runs still executing on its node, so long runs keep it; a run
+ * whose node died stops being renewed and is queued again once it expires.
+ *
+ * Runs execute on a bounded worker pool; each job also has its own limit on
+ * overlapping runs. Run counts and durations are kept per job.
+ */
+public class JobScheduler {
+
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(15);
+    public static final Duration DEFAULT_LEASE = Duration.ofMinutes(30);
+    public static final int DEFAULT_POOL_SIZE = 4;
+
+    // Stop counting missed firings past this (e.g. a minutely job after a long outage)
+    private static final int MAX_MISSED_COUNT = 10_000;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * What to do when a job's next run time passed while nothing was running.
+     */
+    public enum MissedRunPolicy {
+        /** Run once for all missed firings, then continue on schedule */
+        RUN_ONCE,
+        /** Drop the missed firings and wait for the next one */
+        SKIP
+    }
+
+    /**
+     * A unit of scheduled work.
+     */
+    @FunctionalInterface
+    public interface Job {
+        /**
+         * @param scheduledTime The firing being run (earliest one when catching up)
+         */
+        void run(LocalDateTime scheduledTime) throws Exception;
+    }
+
+    // Keeps next_run_at if the schedule is unchanged; VALUES() are read before the row is updated
+    private static final String UPSERT_JOB_SQL =
+        "INSERT INTO scheduled_jobs (job_name, cron_expression, next_run_at) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE " +
+        "next_run_at = IF(cron_expression = VALUES(cron_expression), next_run_at, VALUES(next_run_at)), " +
+        "cron_expression = VALUES(cron_expression)";
+
+    // Served by idx_scheduled_jobs_next_run
+    private static final String SELECT_DUE_SQL =
+        "SELECT job_name, next_run_at FROM scheduled_jobs WHERE next_run_at <= ?";
+
+    // Compare-and-set on next_run_at: exactly one node wins each firing
+    private static final String CLAIM_SQL =
+        "UPDATE scheduled_jobs SET next_run_at = ?, last_fire_at = ?, last_started_at = ?, " +
+        "locked_by = ?, locked_until = ? " +
+        "WHERE job_name = ? AND next_run_at = ?";
+
+    // Same, but only while no other run holds a live lease
+    private static final String CLAIM_EXCLUSIVE_SQL =
+        CLAIM_SQL + " AND (locked_by IS NULL OR locked_until < ?)";
+
+    private static final String SKIP_SQL =
+        "UPDATE scheduled_jobs SET next_run_at = ? WHERE job_name = ? AND next_run_at = ?";
+
+    // Releases the lease only if it still belongs to this run
+    private static final String FINISH_SQL =
+        "UPDATE scheduled_jobs SET last_finished_at = ?, last_status = ?, last_error = ?, " +
+        "last_duration_ms = ?, run_count = run_count + 1, failure_count = failure_count + ?, " +
+        "locked_until = CASE WHEN locked_by = ? AND last_fire_at = ? THEN NULL ELSE locked_until END, " +
+        "locked_by = CASE WHEN locked_by = ? AND last_fire_at = ? THEN NULL ELSE locked_by END " +
+        "WHERE job_name = ?";
+
+    // Heartbeat for runs still executing on this node
+    private static final String RENEW_LEASES_SQL =
+        "UPDATE scheduled_jobs SET locked_until = ? WHERE locked_by = ? AND job_name IN (%s)";
+
+    // Requeue runs whose node stopped renewing (crashed mid-run)
+    private static final String RECOVER_ABANDONED_SQL =
+        "UPDATE scheduled_jobs SET next_run_at = LEAST(next_run_at, last_fire_at), " +
+        "locked_by = NULL, locked_until = NULL, last_status = 'ABANDONED' " +
+        "WHERE locked_by IS NOT NULL AND locked_until < ?";
+
+    private final String nodeId;
+    private final Duration pollInterval;
+    private final int poolSize;
+    private final Semaphore workerPermits;
+    private final Map<String, JobEntry> jobs = new LinkedHashMap<>();
+    private volatile Duration lease = DEFAULT_LEASE;
+
+    // Dispatcher thread only
+    private LocalDateTime lastHeartbeatAt = LocalDateTime.MIN;
+
+    // Dedicated connection, shared by the dispatcher and finishing workers
+    private final Object dbLock = new Object();
+    private Connection connection;
+
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService workers;
+    private volatile boolean isRunning;
+
+    public JobScheduler() {
+        this(DEFAULT_POOL_SIZE, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * @param poolSize Maximum runs executing at once, across all jobs
+     * @param pollInterval How often due jobs are looked up
+     */
+    public JobScheduler(int poolSize, Duration pollInterval) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive.");
+        }
+        if (pollInterval == null || pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException("Poll interval must be positive.");
+        }
+        this.poolSize = poolSize;
+        this.pollInterval = pollInterval;
+        this.workerPermits = new Semaphore(poolSize);
+        this.nodeId = buildNodeId();
+    }
+
+    // ========================================================================
+    // REGISTRATION
+    // ========================================================================
+
+    /**
+     * Register a job that never overlaps itself and catches up missed runs once.
+     */
+    public void register(String name, String cronExpression, Job job) {
+        register(name, cronExpression, 1, MissedRunPolicy.RUN_ONCE, job);
+    }
+
+    /**
+     * Register a job. Jobs registered after {@link #start()} are picked up on the next poll.
+     * @param name Unique job name, also its key in scheduled_jobs
+     * @param cronExpression See {@link CronSchedule}
+     * @param maxConcurrency Runs of this job allowed at once; 1 also excludes other nodes
+     * @param missedRunPolicy What to do with firings missed while down
+     * @param job The work
+     */
+    public void register(String name, String cronExpression, int maxConcurrency,
+                         MissedRunPolicy missedRunPolicy, Job job) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Job name is required.");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Job concurrency must be positive.");
+        }
+        if (missedRunPolicy == null || job == null) {
+            throw new IllegalArgumentException("Missed-run policy and job are required.");
+        }
+
+        JobEntry entry = new JobEntry(name.trim(), CronSchedule.parse(cronExpression),
+                                      maxConcurrency, missedRunPolicy, job);
+
+        synchronized (jobs) {
+            if (jobs.containsKey(entry.name)) {
+                throw new IllegalStateException("Job already registered: " + entry.name);
+            }
+            jobs.put(entry.name, entry);
+        }
+
+        if (isRunning) {
+            try {
+                upsertJob(entry);
+            } catch (SQLException e) {
+                // Retried on the next poll
+                System.err.println("Warning: Could not register job " + entry.name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * How long a run's lease lasts without renewal. Live runs renew it every third
+     * of this, so it only bounds how long a dead node's run stays claimed.
+     */
+    public void setLease(Duration lease) {
+        if (lease == null || lease.isNegative() || lease.isZero()) {
+            throw new IllegalArgumentException("Lease must be positive.");
+        }
+        this.lease = lease;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ========================================================================
+    // LIFECYCLE
+    // ========================================================================
+
+    public synchronized void start() {
+        if (isRunning) {
+            System.out.println("[JobScheduler] Scheduler already running.");
+            return;
+        }
+
+        AtomicInteger workerCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread t = new Thread(r, "job-worker-" + workerCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "job-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        isRunning = true;
+
+        dispatcher.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        System.out.println("[JobScheduler] Scheduler started on " + nodeId + " with "
+            + jobCount() + " job(s), " + poolSize + " worker(s).");
+    }
+
+    /**
+     * Stop polling and wait briefly for running jobs. Interrupted runs are
+     * recovered by their lease.
+     */
+    public synchronized void stop() {
+        if (!isRunning) {
+            return;
+        }
+
+        isRunning = false;
+        dispatcher.shutdown();
+        workers.shutdown();
+
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+            dispatcher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        closeConnection();
+        System.out.println("[JobScheduler] Scheduler stopped.");
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    // ========================================================================
+    // DISPATCH
+    // ========================================================================
+
+    private void poll() {
+        LocalDateTime now = LocalDateTime.now();
+
+        try {
+            for (JobEntry entry : snapshotJobs()) {
+                if (!entry.persisted) {
+                    upsertJob(entry);
+                }
+            }
+
+            renewLeases(now);
+            recoverAbandoned(now);
+
+            for (Map.Entry<String, LocalDateTime> due : selectDue(now).entrySet()) {
+                JobEntry entry;
+                synchronized (jobs) {
+                    entry = jobs.get(due.getKey());
+                }
+                // Rows for jobs this node doesn't run are left to their owners
+                if (entry != null) {
+                    dispatch(entry, due.getValue(), now);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("[JobScheduler] Error polling jobs: " + e.getMessage());
+            closeConnection();
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic poll
+            System.err.println("[JobScheduler] Unexpected error polling jobs: " + e);
+        }
+    }
+
+    private void dispatch(JobEntry entry, LocalDateTime dueAt, LocalDateTime now) throws SQLException {
+        LocalDateTime following = entry.schedule.next(now);
+        int missed = entry.schedule.countBetween(dueAt, now, MAX_MISSED_COUNT);
+
+        if (missed > 0 && entry.missedRunPolicy == MissedRunPolicy.SKIP) {
+            if (skip(entry, dueAt, following)) {
+                entry.missedRuns.addAndGet(missed + 1);
+                System.out.println("[JobScheduler] " + entry.name + " missed " + (missed + 1)
+                    + " run(s) since " + dueAt + "; skipped to " + following + ".");
+            }
+            return;
+        }
+
+        // Leave the row due; it is retried on the next poll
+        if (entry.inFlight.get() >= entry.maxConcurrency) {
+            entry.busyDeferrals.incrementAndGet();
+            return;
+        }
+        if (!workerPermits.tryAcquire()) {
+            entry.busyDeferrals.incrementAndGet();
+            return;
+        }
+
+        boolean claimed = false;
+        try {
+            claimed = claim(entry, dueAt, following, now);
+        } finally {
+            if (!claimed) {
+                workerPermits.release();
+            }
+        }
+        if (!claimed) {
+            return;
+        }
+
+        if (missed > 0) {
+            entry.missedRuns.addAndGet(missed);
+            System.out.println("[JobScheduler] " + entry.name + " missed " + missed
+                + " run(s) since " + dueAt + "; catching up once.");
+        }
+
+        entry.inFlight.incrementAndGet();
+        try {
+            workers.execute(() -> execute(entry, dueAt));
+        } catch (RuntimeException e) {
+            // Pool shut down under us; the lease will requeue the run
+            entry.inFlight.decrementAndGet();
+            workerPermits.release();
+            throw e;
+        }
+    }
+
+    private void execute(JobEntry entry, LocalDateTime scheduledTime) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        String error = null;
+
+        try {
+            entry.job.run(scheduledTime);
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            System.err.println("[JobScheduler] Job " + entry.name + " failed: " + error);
+        } finally {
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            entry.recordRun(startedAt, durationMillis, error);
+            entry.inFlight.decrementAndGet();
+            workerPermits.release();
+
+            try {
+                finish(entry, scheduledTime, durationMillis, error);
+            } catch (SQLException e) {
+                System.err.println("Warning: Could not record run of " + entry.name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // ========================================================================
+    // DATABASE
+    // ========================================================================
+
+    private void upsertJob(JobEntry entry) throws SQLException {
+        synchronized (dbLock) {
+            try (PreparedStatement stmt = connection().prepareStatement(UPSERT_JOB_SQL)) {
+                stmt.setString(1, entry.name);
+                stmt.setString(2, entry.schedule.getExpression());
+                stmt.setTimestamp(3, Timestamp.valueOf(entry.schedule.next(LocalDateTime.now())));
+                stmt.executeUpdate();
+            }
+        }
+        entry.persisted = true;
+    }
+
+    private Map<String, LocalDateTime> selectDue(LocalDateTime now) throws SQLException {
+        Map<String, LocalDateTime> due = new LinkedHashMap<>();
+        synchronized (dbLock) {
+            try (PreparedStatement stmt = connection().prepareStatement(SELECT_DUE_SQL)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(now));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        due.put(rs.getString("job_name"), rs.getTimestamp("next_run_at").toLocalDateTime());
+                    }
+                }
+            }
+        }
+        return due;
+    }
+
+    private boolean claim(JobEntry entry, LocalDateTime dueAt, LocalDateTime following,
+                          LocalDateTime now) throws SQLException {
+        boolean exclusive = entry.maxConcurrency == 1;
+        synchronized (dbLock) {
+            try (PreparedStatement stmt = connection().prepareStatement(
+                    exclusive ? CLAIM_EXCLUSIVE_SQL : CLAIM_SQL)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(following));
+                stmt.setTimestamp(2, Timestamp.valueOf(dueAt));
+                stmt.setTimestamp(3, Timestamp.valueOf(now));
+                stmt.setString(4, nodeId);
+                stmt.setTimestamp(5, Timestamp.valueOf(now.plus(lease)));
+                stmt.setString(6, entry.name);
+                stmt.setTimestamp(7, Timestamp.valueOf(dueAt));
+                if (exclusive) {
+                    stmt.setTimestamp(8, Timestamp.valueOf(now));
+                }
+                return stmt.executeUpdate() == 1;
+            }
+        }
+    }
+
+    private boolean skip(JobEntry entry, LocalDateTime dueAt, LocalDateTime following) throws SQLException {
+        synchronized (dbLock) {
+            try (PreparedStatement stmt = connection().prepareStatement(SKIP_SQL)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(following));
+                stmt.setString(2, entry.name);
+                stmt.setTimestamp(3, Timestamp.valueOf(dueAt));
+                return stmt.executeUpdate() == 1;
+            }
+        }
+    }
+
+    private void finish(JobEntry entry, LocalDateTime scheduledTime, long durationMillis,
+                        String error) throws SQLException {
+        Timestamp fireAt = Timestamp.valueOf(scheduledTime);
+        synchronized (dbLock) {
+            try (PreparedStatement stmt = connection().prepareStatement(FINISH_SQL)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+                stmt.setString(2, error == null ? "SUCCEEDED" : "FAILED");
+                stmt.setString(3, error == null ? null : truncate(error, MAX_ERROR_LENGTH));
+                stmt.setLong(4, durationMillis);
+                stmt.setInt(5, error == null ? 0 : 1);
+                stmt.setString(6, nodeId);
+                stmt.setTimestamp(7, fireAt);
+                stmt.setString(8, nodeId);
+                stmt.setTimestamp(9, fireAt);
+                stmt.setString(10, entry.name);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Push out the lease of every job with a run still executing here, once per third of the lease.
+     */
+    private void renewLeases(LocalDateTime now) throws SQLException {
+        Duration currentLease = lease;
+        if (now.isBefore(lastHeartbeatAt.plus(currentLease.dividedBy(3)))) {
+            return;
+        }
+
+        List<String> running = new ArrayList<>();
+        for (JobEntry entry : snapshotJobs()) {
+            if (entry.inFlight.get() > 0) {
+                running.add(entry.name);
+            }
+        }
+        if (running.isEmpty()) {
+            return;
+        }
+
+        StringJoiner placeholders = new StringJoiner(", ");
+        for (int i = 0; i < running.size(); i++) {
+            placeholders.add("?");
+        }
+
+        synchronized (dbLock) {
+            try (PreparedStatement stmt = connection().prepareStatement(
+                    String.format(RENEW_LEASES_SQL, placeholders))) {
+                stmt.setTimestamp(1, Timestamp.valueOf(now.plus(currentLease)));
+                stmt.setString(2, nodeId);
+                for (int i = 0; i < running.size(); i++) {
+                    stmt.setString(i + 3, running.get(i));
+                }
+                stmt.executeUpdate();
+            }
+        }
+        lastHeartbeatAt = now;
+    }
+
+    private void recoverAbandoned(LocalDateTime now) throws SQLException {
+        int recovered;
+        synchronized (dbLock) {
+            try (PreparedStatement stmt = connection().prepareStatement(RECOVER_ABANDONED_SQL)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(now));
+                recovered = stmt.executeUpdate();
+            }
+        }
+        if (recovered > 0) {
+            System.out.println("[JobScheduler] Requeued " + recovered + " abandoned run(s).");
+        }
+    }
+
+    // Caller holds dbLock
+    private Connection connection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DatabaseConnection.getInstance().openConnection();
+        }
+        return connection;
+    }
+
+    private void closeConnection() {
+        synchronized (dbLock) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    // Already broken; a new one is opened on the next poll
+                }
+                connection = null;
+            }
+        }
+    }
+
+    private List<JobEntry> snapshotJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    private int jobCount() {
+        synchronized (jobs) {
+            return jobs.size();
+        }
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text.length() <= maxLength ? text : text.substring(0, maxLength);
+    }
+
+    private static String buildNodeId() {
+        // "pid@host" plus a suffix in case two schedulers share a JVM
+        String runtime = ManagementFactory.getRuntimeMXBean().getName();
+        return truncate(runtime, 90) + "#" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // ========================================================================
+    // METRICS
+    // ========================================================================
+
+    /**
+     * @return Metrics for one job on this node, or null if it isn't registered
+     */
+    public JobStats getJobStats(String name) {
+        JobEntry entry;
+        synchronized (jobs) {
+            entry = jobs.get(name);
+        }
+        return entry == null ? null : entry.snapshot();
+    }
+
+    public List<JobStats> getAllJobStats() {
+        List<JobStats> stats = new ArrayList<>();
+        for (JobEntry entry : snapshotJobs()) {
+            stats.add(entry.snapshot());
+        }
+        return stats;
+    }
+
+    /**
+     * Registration plus in-memory counters for one job.
+     */
+    private static class JobEntry {
+        final String name;
+        final CronSchedule schedule;
+        final int maxConcurrency;
+        final MissedRunPolicy missedRunPolicy;
+        final Job job;
+        volatile boolean persisted;
+
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicLong missedRuns = new AtomicLong();
+        final AtomicLong busyDeferrals = new AtomicLong();
+
+        // Guarded by this
+        private long runs;
+        private long failures;
+        private long totalDurationMillis;
+        private long maxDurationMillis;
+        private long lastDurationMillis;
+        private LocalDateTime lastStartedAt;
+        private String lastError;
+
+        JobEntry(String name, CronSchedule schedule, int maxConcurrency,
+                 MissedRunPolicy missedRunPolicy, Job job) {
+            this.name = name;
+            this.schedule = schedule;
+            this.maxConcurrency = maxConcurrency;
+            this.missedRunPolicy = missedRunPolicy;
+            this.job = job;
+        }
+
+        synchronized void recordRun(LocalDateTime startedAt, long durationMillis, String error) {
+            runs++;
+            totalDurationMillis += durationMillis;
+            maxDurationMillis = Math.max(maxDurationMillis, durationMillis);
+            lastDurationMillis = durationMillis;
+            lastStartedAt = startedAt;
+            if (error != null) {
+                failures++;
+                lastError = error;
+            }
+        }
+
+        synchronized JobStats snapshot() {
+            return new JobStats(name, schedule.getExpression(), runs, failures,
+                missedRuns.get(), busyDeferrals.get(), inFlight.get(),
+                lastStartedAt, lastDurationMillis, maxDurationMillis,
+                runs == 0 ? 0 : totalDurationMillis / runs, lastError);
+        }
+    }
+
+    /**
+     * Point-in-time metrics for one job, counted since this node started.
+     */
+    public static class JobStats {
+        private final String name;
+        private final String schedule;
+        private final long runs;
+        private final long failures;
+        private final long missedRuns;
+        private final long busyDeferrals;
+        private final int running;
+        private final LocalDateTime lastStartedAt;
+        private final long lastDurationMillis;
+        private final long maxDurationMillis;
+        private final long averageDurationMillis;
+        private final String lastError;
+
+        public JobStats(String name, String schedule, long runs, long failures, long missedRuns,
+                        long busyDeferrals, int running, LocalDateTime lastStartedAt,
+                        long lastDurationMillis, long maxDurationMillis,
+                        long averageDurationMillis, String lastError) {
+            this.name = name;
+            this.schedule = schedule;
+            this.runs = runs;
+            this.failures = failures;
+            this.missedRuns = missedRuns;
+            this.busyDeferrals = busyDeferrals;
+            this.running = running;
+            this.lastStartedAt = lastStartedAt;
+            this.lastDurationMillis = lastDurationMillis;
+            this.maxDurationMillis = maxDurationMillis;
+            this.averageDurationMillis = averageDurationMillis;
+            this.lastError = lastError;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSchedule() {
+            return schedule;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * Firings that passed while nothing ran them (caught up or skipped).
+         */
+        public long getMissedRuns() {
+            return missedRuns;
+        }
+
+        /**
+         * Polls where the job was due but held back by a concurrency limit.
+         */
+        public long getBusyDeferrals() {
+            return busyDeferrals;
+        }
+
+        public int getRunning() {
+            return running;
+        }
+
+        public LocalDateTime getLastStartedAt() {
+            return lastStartedAt;
+        }
+
+        public long getLastDurationMillis() {
+            return lastDurationMillis;
+        }
+
+        public long getMaxDurationMillis() {
+            return maxDurationMillis;
+        }
+
+        public long getAverageDurationMillis() {
+            return averageDurationMillis;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        @Override
+        public String toString() {
+            return "JobStats{" +
+                   "name='" + name + '\'' +
+                   ", runs=" + runs +
+                   ", failures=" + failures +
+                   ", missedRuns=" + missedRuns +
+                   ", running=" + running +
+                   ", avgMillis=" + averageDurationMillis +
+                   ", maxMillis=" + maxDurationMillis +
+                   '}';
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package businesslogic.services;
+
+import java.io.IOException;
+
+/**
+ * Destination for outgoing emails (promotion news, notifications).
+ * Implementations must be safe to call from several threads at once.
+ */
+public interface MailSink {
+
+    /**
+     * Deliver one message.
+     * @param recipient Email address
+     * @param subject Subject line
+     * @param body UTF-8 encoded body; only the first {@code length} bytes are used.
+     *             The array may be reused once this returns, so do not keep it
+     * @param length Number of body bytes
+     * @throws IOException if the message could not be delivered
+     */
+    void send(String recipient, String subject, byte[] body, int length) throws IOException;
+
+    /**
+     * Push out anything buffered. Called at the end of a bulk send.
+     */
+    default void flush() throws IOException {
+    }
+}
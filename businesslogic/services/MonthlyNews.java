@@ -0,0 +1,148 @@
+package businesslogic.services;
+
+import businesslogic.entities.Promotion;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One month's promotion news, rendered once and cached by PromotionService.
+ * Holds the promotions with their display labels and the compiled HTML and
+ * plain text newsletters. Immutable.
+ */
+public final class MonthlyNews {
+
+    private static final DateTimeFormatter MONTH_YEAR = DateTimeFormatter.ofPattern("MMMM yyyy");
+    private static final DateTimeFormatter VALID_FROM = DateTimeFormatter.ofPattern("MMM d");
+    private static final DateTimeFormatter VALID_TO = DateTimeFormatter.ofPattern("MMM d, yyyy");
+
+    private final YearMonth month;
+    private final String monthYear;
+    private final List<Promotion> promotions;
+    private final List<String> discountLabels;
+    private final List<String> validityLabels;
+    private final NewsTemplate htmlTemplate;
+    private final NewsTemplate plainTextTemplate;
+
+    private MonthlyNews(YearMonth month, List<Promotion> promotions) {
+        this.month = month;
+        this.monthYear = month.format(MONTH_YEAR);
+        this.promotions = Collections.unmodifiableList(new ArrayList<>(promotions));
+
+        List<String> discounts = new ArrayList<>(promotions.size());
+        List<String> validity = new ArrayList<>(promotions.size());
+        for (Promotion promo : promotions) {
+            discounts.add(String.format("%.0f", promo.getDiscountPercent()));
+            validity.add(promo.getValidFrom().format(VALID_FROM) + " - " + promo.getValidTo().format(VALID_TO));
+        }
+        this.discountLabels = Collections.unmodifiableList(discounts);
+        this.validityLabels = Collections.unmodifiableList(validity);
+
+        this.htmlTemplate = compileHtml();
+        this.plainTextTemplate = compilePlainText();
+    }
+
+    public static MonthlyNews build(YearMonth month, List<Promotion> promotions) {
+        return new MonthlyNews(month, promotions);
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * e.g. "March 2025"
+     */
+    public String getMonthYear() {
+        return monthYear;
+    }
+
+    public String getSubject() {
+        return "Monthly Promotions - " + monthYear;
+    }
+
+    public boolean isEmpty() {
+        return promotions.isEmpty();
+    }
+
+    public List<Promotion> getPromotions() {
+        return promotions;
+    }
+
+    /**
+     * Discount of the promotion at {@code index}, e.g. "15".
+     */
+    public String getDiscountLabel(int index) {
+        return discountLabels.get(index);
+    }
+
+    /**
+     * Validity window of the promotion at {@code index}, e.g. "Mar 1 - Mar 31, 2025".
+     */
+    public String getValidityLabel(int index) {
+        return validityLabels.get(index);
+    }
+
+    public NewsTemplate getHtmlTemplate() {
+        return htmlTemplate;
+    }
+
+    public NewsTemplate getPlainTextTemplate() {
+        return plainTextTemplate;
+    }
+
+    private NewsTemplate compileHtml() {
+        StringBuilder head = new StringBuilder();
+        head.append("<html><body style='font-family: Arial, sans-serif; padding: 20px;'>");
+        head.append("<h1 style='color: #2E8B57;'>🎉 Monthly Promotions - ").append(monthYear).append("</h1>");
+
+        StringBuilder tail = new StringBuilder();
+        tail.append("<p>Check out our exclusive offers this month:</p>");
+        tail.append("<hr style='border: 1px solid #ddd;'/>");
+
+        for (int i = 0; i < promotions.size(); i++) {
+            Promotion promo = promotions.get(i);
+            tail.append("<div style='background: #f9f9f9; padding: 15px; margin: 10px 0; border-radius: 8px; border-left: 4px solid #2E8B57;'>");
+            tail.append("<h3 style='color: #333; margin: 0 0 10px 0;'>").append(promo.getTitle()).append("</h3>");
+            tail.append("<p style='color: #666; margin: 5px 0;'>").append(promo.getDescription()).append("</p>");
+            tail.append("<p style='margin: 5px 0;'><strong style='color: #e74c3c; font-size: 18px;'>")
+                .append(discountLabels.get(i))
+                .append("% OFF</strong></p>");
+            tail.append("<p style='color: #888; font-size: 12px; margin: 5px 0;'>Valid: ")
+                .append(validityLabels.get(i))
+                .append("</p>");
+            tail.append("</div>");
+        }
+
+        tail.append("<hr style='border: 1px solid #ddd;'/>");
+        tail.append("<p style='color: #888; font-size: 12px;'>You're receiving this because you're subscribed to monthly promotion news. ");
+        tail.append("You can unsubscribe in your account settings.</p>");
+        tail.append("</body></html>");
+
+        return new NewsTemplate(head.toString(), "<p>Hello <strong>", "</strong>,</p>", tail.toString(), true);
+    }
+
+    private NewsTemplate compilePlainText() {
+        String head = "=== Monthly Promotions - " + monthYear + " ===\n\n";
+
+        StringBuilder tail = new StringBuilder();
+        tail.append("Check out our exclusive offers this month:\n\n");
+        tail.append("-------------------------------------------\n\n");
+
+        for (int i = 0; i < promotions.size(); i++) {
+            Promotion promo = promotions.get(i);
+            tail.append("★ ").append(promo.getTitle()).append("\n");
+            tail.append("   ").append(promo.getDescription()).append("\n");
+            tail.append("   DISCOUNT: ").append(discountLabels.get(i)).append("% OFF\n");
+            tail.append("   Valid: ").append(validityLabels.get(i)).append("\n\n");
+        }
+
+        tail.append("-------------------------------------------\n");
+        tail.append("You're receiving this because you're subscribed to monthly promotion news.\n");
+
+        return new NewsTemplate(head, "Hello ", ",\n\n", tail.toString(), false);
+    }
+}
@@ -0,0 +1,146 @@
+package businesslogic.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pre-rendered promotion newsletter.
+ * Everything except the greeting is encoded to UTF-8 once; rendering for a
+ * customer copies those bytes and encodes only the first name, into a
+ * caller-supplied buffer that can be reused across customers.
+ */
+public final class NewsTemplate {
+
+    private final byte[] head;
+    private final byte[] greetingBefore;
+    private final byte[] greetingAfter;
+    private final byte[] tail;
+    private final boolean html;
+
+    /**
+     * @param head Everything before the greeting
+     * @param greetingBefore Greeting text before the first name
+     * @param greetingAfter Greeting text after the first name
+     * @param tail Everything after the greeting
+     * @param html true to HTML-escape the first name
+     */
+    public NewsTemplate(String head, String greetingBefore, String greetingAfter,
+                        String tail, boolean html) {
+        this.head = head.getBytes(StandardCharsets.UTF_8);
+        this.greetingBefore = greetingBefore.getBytes(StandardCharsets.UTF_8);
+        this.greetingAfter = greetingAfter.getBytes(StandardCharsets.UTF_8);
+        this.tail = tail.getBytes(StandardCharsets.UTF_8);
+        this.html = html;
+    }
+
+    /**
+     * Render into a buffer, replacing its contents.
+     * @param firstName Customer first name
+     * @param withGreeting false to leave out the personal greeting
+     * @return Number of bytes written
+     */
+    public int renderInto(Buffer buffer, String firstName, boolean withGreeting) {
+        buffer.reset();
+        buffer.append(head);
+        if (withGreeting) {
+            buffer.append(greetingBefore);
+            buffer.appendText(String.valueOf(firstName), html);
+            buffer.append(greetingAfter);
+        }
+        buffer.append(tail);
+        return buffer.length();
+    }
+
+    /**
+     * Render to a String (one-off use such as on-screen display).
+     */
+    public String render(String firstName, boolean withGreeting) {
+        Buffer buffer = new Buffer(head.length + tail.length + 128);
+        int length = renderInto(buffer, firstName, withGreeting);
+        return new String(buffer.array(), 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable byte buffer reused between renders. Not thread-safe.
+     */
+    public static final class Buffer {
+        private byte[] data;
+        private int length;
+
+        public Buffer() {
+            this(8 * 1024);
+        }
+
+        public Buffer(int initialCapacity) {
+            this.data = new byte[Math.max(initialCapacity, 64)];
+        }
+
+        /**
+         * Backing array; valid up to {@link #length()}.
+         */
+        public byte[] array() {
+            return data;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        void append(byte[] bytes) {
+            ensureCapacity(length + bytes.length);
+            System.arraycopy(bytes, 0, data, length, bytes.length);
+            length += bytes.length;
+        }
+
+        /**
+         * Encode text as UTF-8 straight into the buffer.
+         */
+        void appendText(String text, boolean escapeHtml) {
+            // Worst case: every char becomes a 6-byte entity
+            ensureCapacity(length + text.length() * 6);
+
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+
+                if (escapeHtml && (c == '<' || c == '>' || c == '&' || c == '"' || c == '\'')) {
+                    appendAscii(c == '<' ? "&lt;" : c == '>' ? "&gt;" : c == '&' ? "&amp;"
+                        : c == '"' ? "&quot;" : "&#39;");
+                } else if (c < 0x80) {
+                    data[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    data[length++] = (byte) (0xC0 | (c >> 6));
+                    data[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, text.charAt(++i));
+                    data[length++] = (byte) (0xF0 | (cp >> 18));
+                    data[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    data[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    data[length++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    data[length++] = (byte) '?';
+                } else {
+                    data[length++] = (byte) (0xE0 | (c >> 12));
+                    data[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    data[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        private void appendAscii(String ascii) {
+            for (int i = 0; i < ascii.length(); i++) {
+                data[length++] = (byte) ascii.charAt(i);
+            }
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed > data.length) {
+                data = Arrays.copyOf(data, Math.max(needed, data.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,617 @@
+package businesslogic.services;
+
+import datalayer.database.DatabaseConnection;
+import datalayer.database.TransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for customer notifications.
+ *
+ * Messages are inserted into notification_outbox on the caller's connection,
+ * inside the same transaction as the change they report, so a rolled-back
+ * change never notifies anyone and a committed one always will. Delivery
+ * happens afterwards: batches of due rows are claimed (SKIP LOCKED plus a
+ * short lease, so several nodes can drain at once) and sent in parallel
+ * through a {@link MailSink}. Failures are retried with exponential backoff
+ * until MAX_ATTEMPTS, then marked FAILED.
+ */
+public class NotificationOutbox {
+
+    public static final int DEFAULT_CONCURRENCY = 32;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int MAX_ATTEMPTS = 5;
+
+    public static final String RETRY_JOB = "notification-outbox";
+    public static final String RETRY_SCHEDULE = "* * * * *";
+
+    // Local stand-in for the email service
+    private static final String DEFAULT_OUTBOX_FILE = "notification_outbox.txt";
+
+    // A claimed row becomes due again if its node dies before recording the outcome
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(2);
+    private static final Duration RETRY_BASE_DELAY = Duration.ofSeconds(30);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String INSERT_SQL_PREFIX =
+        "INSERT INTO notification_outbox " +
+        "(customer_id, recipient, subject, body, status, attempts, next_attempt_at, created_at) VALUES ";
+
+    private static final String INSERT_ROW = "(?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    // Served by idx_notification_outbox_due (status, next_attempt_at)
+    private static final String CLAIM_DUE_SQL =
+        "SELECT outbox_id, recipient, subject, body, attempts FROM notification_outbox " +
+        "WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+        "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String LEASE_SQL =
+        "UPDATE notification_outbox SET next_attempt_at = ? WHERE outbox_id IN (%s)";
+
+    private static final String MARK_SENT_SQL =
+        "UPDATE notification_outbox SET status = 'SENT', sent_at = ?, attempts = attempts + 1 " +
+        "WHERE outbox_id IN (%s)";
+
+    // status is PENDING to retry at next_attempt_at, or FAILED for good
+    private static final String MARK_FAILED_SQL =
+        "UPDATE notification_outbox SET status = ?, " +
+        "attempts = attempts + 1, next_attempt_at = ?, last_error = ? " +
+        "WHERE outbox_id = ?";
+
+    private final int concurrency;
+    private final int batchSize;
+    private volatile MailSink mailSink;
+
+    // Workers for parallel delivery, and one thread that runs drains off the caller's thread
+    private final ExecutorService workers;
+    private final ExecutorService drainer;
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+    // Cumulative metrics
+    private final AtomicLong totalSent = new AtomicLong();
+    private final AtomicLong totalRetried = new AtomicLong();
+    private final AtomicLong totalFailed = new AtomicLong();
+    private volatile DeliveryStats lastDrainStats;
+
+    public NotificationOutbox() {
+        this(new FileMailSink(Paths.get(DEFAULT_OUTBOX_FILE)), DEFAULT_CONCURRENCY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param mailSink Where messages are delivered
+     * @param concurrency Deliveries in flight at once
+     * @param batchSize Rows claimed per round trip
+     */
+    public NotificationOutbox(MailSink mailSink, int concurrency, int batchSize) {
+        if (mailSink == null) {
+            throw new IllegalArgumentException("Mail sink is required.");
+        }
+        if (concurrency <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Concurrency and batch size must be positive.");
+        }
+        this.mailSink = mailSink;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.workers = PromotionNewsSender.newWorkerExecutor(concurrency, "notification-sender");
+        this.drainer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "notification-outbox");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void setMailSink(MailSink mailSink) {
+        if (mailSink == null) {
+            throw new IllegalArgumentException("Mail sink is required.");
+        }
+        this.mailSink = mailSink;
+    }
+
+    /**
+     * Retry failed deliveries (and anything left by a crashed node) every minute.
+     */
+    public void registerJobs(JobScheduler scheduler) {
+        scheduler.register(RETRY_JOB, RETRY_SCHEDULE, scheduledTime -> drain());
+    }
+
+    // ========================================================================
+    // ENQUEUE
+    // ========================================================================
+
+    /**
+     * Insert messages on the given connection; they become visible to delivery
+     * when the caller's transaction commits. Call {@link #deliverAsync()} after that.
+     * @return Number of messages enqueued
+     */
+    public int enqueue(Connection conn, List<OutboxMessage> messages) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<OutboxMessage> chunk = messages.subList(from, Math.min(from + batchSize, messages.size()));
+
+            StringJoiner rows = new StringJoiner(", ", INSERT_SQL_PREFIX, "");
+            for (int i = 0; i < chunk.size(); i++) {
+                rows.add(INSERT_ROW);
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(rows.toString())) {
+                int param = 1;
+                for (OutboxMessage message : chunk) {
+                    stmt.setInt(param++, message.getCustomerId());
+                    stmt.setString(param++, message.getRecipient());
+                    stmt.setString(param++, message.getSubject());
+                    stmt.setString(param++, message.getBody());
+                    stmt.setTimestamp(param++, now);
+                    stmt.setTimestamp(param++, now);
+                }
+                stmt.executeUpdate();
+            }
+        }
+
+        return messages.size();
+    }
+
+    // ========================================================================
+    // DELIVERY
+    // ========================================================================
+
+    /**
+     * Start a drain in the background and return at once.
+     * Requests made while one is already queued are folded into it.
+     */
+    public void deliverAsync() {
+        if (!drainQueued.compareAndSet(false, true)) {
+            return;
+        }
+        drainer.execute(() -> {
+            drainQueued.set(false);
+            try {
+                DeliveryStats stats = drain();
+                if (stats.getSent() + stats.getRetried() + stats.getFailed() > 0) {
+                    System.out.println("[NotificationOutbox] " + stats);
+                }
+            } catch (SQLException e) {
+                System.err.println("[NotificationOutbox] Error delivering notifications: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Deliver every due message, batch by batch, until none are left.
+     * @return Outcome of this drain
+     */
+    public synchronized DeliveryStats drain() throws SQLException {
+        long start = System.currentTimeMillis();
+        int sent = 0;
+        int retried = 0;
+        int failed = 0;
+        MailSink sink = this.mailSink;
+
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            while (true) {
+                List<PendingMessage> batch = claimBatch(conn);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                List<DeliveryOutcome> outcomes;
+                try {
+                    outcomes = deliver(sink, batch);
+                } catch (InterruptedException e) {
+                    // Claimed rows fall due again when their lease runs out
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                int[] outcome = recordOutcome(conn, batch, outcomes);
+                sent += outcome[0];
+                retried += outcome[1];
+                failed += outcome[2];
+
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            try {
+                sink.flush();
+            } catch (IOException e) {
+                System.err.println("[NotificationOutbox] Could not flush mail sink: " + e.getMessage());
+            }
+        }
+
+        totalSent.addAndGet(sent);
+        totalRetried.addAndGet(retried);
+        totalFailed.addAndGet(failed);
+
+        DeliveryStats stats = new DeliveryStats(sent, retried, failed, System.currentTimeMillis() - start);
+        lastDrainStats = stats;
+        return stats;
+    }
+
+    private List<PendingMessage> claimBatch(Connection conn) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingMessage> batch = new ArrayList<>();
+
+        TransactionManager.begin(conn);
+        try {
+            try (PreparedStatement stmt = conn.prepareStatement(CLAIM_DUE_SQL)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(now));
+                stmt.setInt(2, batchSize);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        batch.add(new PendingMessage(
+                            rs.getLong("outbox_id"),
+                            rs.getString("recipient"),
+                            rs.getString("subject"),
+                            rs.getString("body"),
+                            rs.getInt("attempts")
+                        ));
+                    }
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        String.format(LEASE_SQL, placeholders(batch.size())))) {
+                    stmt.setTimestamp(1, Timestamp.valueOf(now.plus(CLAIM_LEASE)));
+                    for (int i = 0; i < batch.size(); i++) {
+                        stmt.setLong(i + 2, batch.get(i).outboxId);
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+
+            TransactionManager.commit(conn);
+            return batch;
+        } catch (SQLException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+    }
+
+    /**
+     * Send claimed messages in parallel through the current mail sink and decide
+     * what becomes of each. Records nothing; the database is left to the caller.
+     * @return Outcome per message, in batch order
+     */
+    public List<DeliveryOutcome> deliver(List<PendingMessage> batch) throws InterruptedException {
+        return deliver(this.mailSink, batch);
+    }
+
+    private List<DeliveryOutcome> deliver(MailSink sink, List<PendingMessage> batch) throws InterruptedException {
+        String[] errors = sendAll(sink, batch);
+        LocalDateTime now = LocalDateTime.now();
+        List<DeliveryOutcome> outcomes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            outcomes.add(DeliveryOutcome.of(batch.get(i).attempts, errors[i], now));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Send one batch in parallel and wait for all of it.
+     * @return Error per message, null where delivery succeeded
+     */
+    private String[] sendAll(MailSink sink, List<PendingMessage> batch) throws InterruptedException {
+        String[] errors = new String[batch.size()];
+        CountDownLatch done = new CountDownLatch(batch.size());
+        Semaphore permits = new Semaphore(concurrency);
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage message = batch.get(i);
+            int index = i;
+
+            permits.acquire();
+            workers.execute(() -> {
+                try {
+                    byte[] body = message.body.getBytes(StandardCharsets.UTF_8);
+                    sink.send(message.recipient, message.subject, body, body.length);
+                } catch (Exception e) {
+                    errors[index] = e.getClass().getSimpleName() + ": " + e.getMessage();
+                } finally {
+                    permits.release();
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        return errors;
+    }
+
+    /**
+     * @return { sent, retried, failed }
+     */
+    private int[] recordOutcome(Connection conn, List<PendingMessage> batch,
+                                List<DeliveryOutcome> outcomes) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>();
+        String firstError = null;
+        int retried = 0;
+        int failed = 0;
+
+        TransactionManager.begin(conn);
+        try {
+            try (PreparedStatement stmt = conn.prepareStatement(MARK_FAILED_SQL)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    PendingMessage message = batch.get(i);
+                    DeliveryOutcome outcome = outcomes.get(i);
+                    if (outcome.getStatus() == DeliveryOutcome.Status.SENT) {
+                        sentIds.add(message.outboxId);
+                        continue;
+                    }
+
+                    if (outcome.getStatus() == DeliveryOutcome.Status.FAILED) {
+                        failed++;
+                    } else {
+                        retried++;
+                    }
+                    if (firstError == null) {
+                        firstError = outcome.getError();
+                    }
+
+                    stmt.setString(1, outcome.getStatus() == DeliveryOutcome.Status.FAILED ? "FAILED" : "PENDING");
+                    stmt.setTimestamp(2, Timestamp.valueOf(outcome.getNextAttemptAt()));
+                    stmt.setString(3, truncate(outcome.getError(), MAX_ERROR_LENGTH));
+                    stmt.setLong(4, message.outboxId);
+                    stmt.addBatch();
+                }
+                if (retried + failed > 0) {
+                    stmt.executeBatch();
+                }
+            }
+
+            if (!sentIds.isEmpty()) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        String.format(MARK_SENT_SQL, placeholders(sentIds.size())))) {
+                    stmt.setTimestamp(1, Timestamp.valueOf(now));
+                    for (int i = 0; i < sentIds.size(); i++) {
+                        stmt.setLong(i + 2, sentIds.get(i));
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+
+            TransactionManager.commit(conn);
+        } catch (SQLException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+
+        if (retried + failed > 0) {
+            System.err.println("[NotificationOutbox] " + (retried + failed) + " deliveries failed, e.g. "
+                + firstError);
+        }
+        return new int[] { sentIds.size(), retried, failed };
+    }
+
+    /**
+     * Wait before the next attempt: 30 s, 1 min, 2 min, 4 min, ...
+     * @param previousAttempts Attempts made before the one that just failed
+     */
+    public static Duration backoff(int previousAttempts) {
+        return RETRY_BASE_DELAY.multipliedBy(1L << Math.min(previousAttempts, 10));
+    }
+
+    private static String placeholders(int count) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            joiner.add("?");
+        }
+        return joiner.toString();
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text.length() <= maxLength ? text : text.substring(0, maxLength);
+    }
+
+    // ========================================================================
+    // METRICS
+    // ========================================================================
+
+    public DeliveryStats getLastDrainStats() {
+        return lastDrainStats;
+    }
+
+    public long getTotalSent() {
+        return totalSent.get();
+    }
+
+    public long getTotalRetried() {
+        return totalRetried.get();
+    }
+
+    public long getTotalFailed() {
+        return totalFailed.get();
+    }
+
+    // ========================================================================
+    // MESSAGE TYPES
+    // ========================================================================
+
+    /**
+     * A message to enqueue.
+     */
+    public static final class OutboxMessage {
+        private final int customerId;
+        private final String recipient;
+        private final String subject;
+        private final String body;
+
+        public OutboxMessage(int customerId, String recipient, String subject, String body) {
+            this.customerId = customerId;
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+        }
+
+        public int getCustomerId() {
+            return customerId;
+        }
+
+        public String getRecipient() {
+            return recipient;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+
+    /**
+     * A claimed message, with the attempts made on it so far.
+     */
+    public static final class PendingMessage {
+        final long outboxId;
+        final String recipient;
+        final String subject;
+        final String body;
+        final int attempts;
+
+        public PendingMessage(long outboxId, String recipient, String subject, String body, int attempts) {
+            this.outboxId = outboxId;
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+            this.attempts = attempts;
+        }
+
+        public long getOutboxId() {
+            return outboxId;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+    }
+
+    /**
+     * What becomes of a message after one delivery attempt.
+     */
+    public static final class DeliveryOutcome {
+
+        public enum Status {
+            SENT,
+            /** Failed; tried again at {@link #getNextAttemptAt()} */
+            RETRY,
+            /** Failed for the MAX_ATTEMPTS-th time; not tried again */
+            FAILED
+        }
+
+        private final Status status;
+        private final LocalDateTime nextAttemptAt;
+        private final String error;
+
+        private DeliveryOutcome(Status status, LocalDateTime nextAttemptAt, String error) {
+            this.status = status;
+            this.nextAttemptAt = nextAttemptAt;
+            this.error = error;
+        }
+
+        /**
+         * @param previousAttempts Attempts made before this one
+         * @param error Why this attempt failed, or null if it succeeded
+         */
+        public static DeliveryOutcome of(int previousAttempts, String error, LocalDateTime now) {
+            if (error == null) {
+                return new DeliveryOutcome(Status.SENT, null, null);
+            }
+            if (previousAttempts + 1 >= MAX_ATTEMPTS) {
+                return new DeliveryOutcome(Status.FAILED, now, error);
+            }
+            return new DeliveryOutcome(Status.RETRY, now.plus(backoff(previousAttempts)), error);
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return When to try again; null once SENT
+         */
+        public LocalDateTime getNextAttemptAt() {
+            return nextAttemptAt;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return status + (error != null ? " (" + error + ")" : "");
+        }
+    }
+
+    /**
+     * Outcome of one drain.
+     */
+    public static class DeliveryStats {
+        private final int sent;
+        private final int retried;
+        private final int failed;
+        private final long durationMillis;
+
+        public DeliveryStats(int sent, int retried, int failed, long durationMillis) {
+            this.sent = sent;
+            this.retried = retried;
+            this.failed = failed;
+            this.durationMillis = durationMillis;
+        }
+
+        public int getSent() {
+            return sent;
+        }
+
+        /**
+         * Deliveries that failed and are scheduled to be tried again.
+         */
+        public int getRetried() {
+            return retried;
+        }
+
+        /**
+         * Deliveries that failed for the last time.
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "DeliveryStats{" +
+                   "sent=" + sent +
+                   ", retried=" + retried +
+                   ", failed=" + failed +
+                   ", durationMillis=" + durationMillis +
+                   '}';
+        }
+    }
+}
@@ -11,7 +11,10 @@ import businesslogic.entities.enums.PaymentStatus;
 import businesslogic.entities.enums.ReservationStatus;
 import businesslogic.entities.enums.SeatClass;
 import datalayer.dao.PaymentDAO;
+import datalayer.database.DatabaseConnection;
+import datalayer.database.TransactionManager;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,11 +27,19 @@ import java.util.UUID;
 public class PaymentService {
     
     private PaymentDAO paymentDAO;
+    private EventOutbox eventOutbox;
     
     public PaymentService(PaymentDAO paymentDAO) {
         this.paymentDAO = paymentDAO;
     }
     
+    /**
+     * Record payment events in the same transaction as each change. Optional.
+     */
+    public void setEventOutbox(EventOutbox eventOutbox) {
+        this.eventOutbox = eventOutbox;
+    }
+    
     /**
      * Process card payment. Cards ending in 0000 are declined for testing.
      */
@@ -52,10 +63,20 @@ public class PaymentService {
         boolean paymentAuthorized = simulatePaymentAuthorization(cardNumber, amount);
         
         if (paymentAuthorized) {
-            Payment savedPayment = paymentDAO.save(payment);
-            savedPayment.setStatus(PaymentStatus.COMPLETED);
-            paymentDAO.update(savedPayment);
-            return savedPayment;
+            Connection conn = DatabaseConnection.getInstance().getConnection();
+            TransactionManager.begin(conn);
+            try {
+                Payment savedPayment = paymentDAO.save(payment);
+                savedPayment.setStatus(PaymentStatus.COMPLETED);
+                paymentDAO.update(savedPayment);
+                recordEvent(conn, DomainEvent.paymentCompleted(savedPayment));
+                TransactionManager.commit(conn);
+                dispatchEvents();
+                return savedPayment;
+            } catch (SQLException | RuntimeException e) {
+                TransactionManager.rollback(conn);
+                throw e;
+            }
         } else {
             payment.setStatus(PaymentStatus.FAILED);
             Payment savedPayment = paymentDAO.save(payment);
@@ -87,7 +108,7 @@ public class PaymentService {
             PaymentStatus.COMPLETED
         );
         
-        return paymentDAO.save(payment);
+        return saveCompletedPayment(payment);
     }
     
     public Payment processBankTransfer(double amount, String bankAccountNumber, 
@@ -115,7 +136,7 @@ public class PaymentService {
             PaymentStatus.COMPLETED
         );
         
-        return paymentDAO.save(payment);
+        return saveCompletedPayment(payment);
     }
     
     public Payment refundPayment(int paymentId) throws SQLException {
@@ -130,11 +151,52 @@ public class PaymentService {
         }
         
         payment.setStatus(PaymentStatus.REFUNDED);
-        paymentDAO.update(payment);
+        
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            paymentDAO.update(payment);
+            recordEvent(conn, DomainEvent.paymentRefunded(payment));
+            TransactionManager.commit(conn);
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+        dispatchEvents();
         
         return payment;
     }
     
+    /**
+     * Save an already completed payment together with its event.
+     */
+    private Payment saveCompletedPayment(Payment payment) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            Payment savedPayment = paymentDAO.save(payment);
+            recordEvent(conn, DomainEvent.paymentCompleted(savedPayment));
+            TransactionManager.commit(conn);
+            dispatchEvents();
+            return savedPayment;
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+    }
+    
+    private void recordEvent(Connection conn, DomainEvent event) throws SQLException {
+        if (eventOutbox != null) {
+            eventOutbox.record(conn, event);
+        }
+    }
+    
+    private void dispatchEvents() {
+        if (eventOutbox != null) {
+            eventOutbox.dispatchAsync();
+        }
+    }
+    
     public Payment getPaymentById(int paymentId) throws SQLException {
         return paymentDAO.findById(paymentId);
     }
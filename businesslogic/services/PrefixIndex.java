@@ -0,0 +1,251 @@
+package businesslogic.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory prefix search from lowercase keys to ids.
+ *
+ * Keys live in one sorted array with a parallel array of ids, so a prefix
+ * is a binary search followed by a forward scan. Writes go to a small
+ * sorted buffer instead of shifting the arrays; a write replaces all keys of
+ * its id, and the id's entries in the main arrays are skipped from then on.
+ * Once the buffer grows past a fraction of the index it is merged in.
+ *
+ * Thread-safe. Searches take time in the number of entries they return,
+ * not in the size of the index.
+ */
+public final class PrefixIndex {
+
+    private static final int MIN_MERGE_THRESHOLD = 4096;
+    private static final int MERGE_FRACTION = 32;
+
+    private String[] keys;
+    private int[] ids;
+    // Written since the last merge, in key order
+    private final TreeSet<Entry> recent = new TreeSet<>();
+    private final Map<Integer, String[]> recentKeys = new HashMap<>();
+    // Ids whose entries in the main arrays are out of date
+    private final Set<Integer> replaced = new HashSet<>();
+
+    public PrefixIndex() {
+        this(new String[0], new int[0]);
+    }
+
+    private PrefixIndex(String[] keys, int[] ids) {
+        this.keys = keys;
+        this.ids = ids;
+    }
+
+    /**
+     * Collects entries for a bulk load, then sorts once.
+     */
+    public static final class Builder {
+        private final List<Entry> entries = new ArrayList<>();
+
+        public Builder add(int id, String... keys) {
+            for (String key : normalize(keys)) {
+                entries.add(new Entry(key, id));
+            }
+            return this;
+        }
+
+        public PrefixIndex build() {
+            Entry[] sorted = entries.toArray(new Entry[0]);
+            Arrays.parallelSort(sorted);
+            String[] keys = new String[sorted.length];
+            int[] ids = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i].key;
+                ids[i] = sorted[i].id;
+            }
+            return new PrefixIndex(keys, ids);
+        }
+    }
+
+    // ========================================================================
+    // WRITES
+    // ========================================================================
+
+    /**
+     * Set an id's keys, replacing any it had. Null and blank keys are ignored.
+     */
+    public synchronized void put(int id, String... keys) {
+        forget(id);
+        String[] normalized = normalize(keys);
+        recentKeys.put(id, normalized);
+        for (String key : normalized) {
+            recent.add(new Entry(key, id));
+        }
+        mergeIfLarge();
+    }
+
+    public synchronized void remove(int id) {
+        forget(id);
+        mergeIfLarge();
+    }
+
+    private void forget(int id) {
+        replaced.add(id);
+        String[] old = recentKeys.remove(id);
+        if (old != null) {
+            for (String key : old) {
+                recent.remove(new Entry(key, id));
+            }
+        }
+    }
+
+    private void mergeIfLarge() {
+        int threshold = Math.max(MIN_MERGE_THRESHOLD, keys.length / MERGE_FRACTION);
+        if (recent.size() + replaced.size() > threshold) {
+            merge();
+        }
+    }
+
+    /**
+     * Fold the write buffer into the main arrays. Linear in the size of the index.
+     */
+    private void merge() {
+        int capacity = keys.length + recent.size();
+        String[] mergedKeys = new String[capacity];
+        int[] mergedIds = new int[capacity];
+        int size = 0;
+
+        Iterator<Entry> fresh = recent.iterator();
+        Entry next = fresh.hasNext() ? fresh.next() : null;
+        for (int i = 0; i < keys.length; i++) {
+            if (replaced.contains(ids[i])) {
+                continue;
+            }
+            while (next != null && next.compareTo(keys[i], ids[i]) < 0) {
+                mergedKeys[size] = next.key;
+                mergedIds[size++] = next.id;
+                next = fresh.hasNext() ? fresh.next() : null;
+            }
+            mergedKeys[size] = keys[i];
+            mergedIds[size++] = ids[i];
+        }
+        while (next != null) {
+            mergedKeys[size] = next.key;
+            mergedIds[size++] = next.id;
+            next = fresh.hasNext() ? fresh.next() : null;
+        }
+
+        keys = Arrays.copyOf(mergedKeys, size);
+        ids = Arrays.copyOf(mergedIds, size);
+        recent.clear();
+        recentKeys.clear();
+        replaced.clear();
+    }
+
+    // ========================================================================
+    // SEARCH
+    // ========================================================================
+
+    /**
+     * Ids with a key starting with the prefix, in key order, each once.
+     * @param prefix Matched case-insensitively; blank matches nothing
+     * @param limit Most ids to return
+     */
+    public synchronized List<Integer> search(String prefix, int limit) {
+        if (prefix == null || prefix.trim().isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String p = prefix.trim().toLowerCase(Locale.ROOT);
+
+        Set<Integer> found = new LinkedHashSet<>();
+        int i = lowerBound(p);
+        Iterator<Entry> fresh = recent.tailSet(new Entry(p, Integer.MIN_VALUE)).iterator();
+        Entry next = fresh.hasNext() ? fresh.next() : null;
+
+        while (found.size() < limit) {
+            boolean mainMatches = i < keys.length && keys[i].startsWith(p);
+            boolean recentMatches = next != null && next.key.startsWith(p);
+            if (!mainMatches && !recentMatches) {
+                break;
+            }
+            // Take whichever side comes first in key order
+            if (mainMatches && (!recentMatches || next.compareTo(keys[i], ids[i]) > 0)) {
+                if (!replaced.contains(ids[i])) {
+                    found.add(ids[i]);
+                }
+                i++;
+            } else {
+                found.add(next.id);
+                next = fresh.hasNext() ? fresh.next() : null;
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * Number of keys held, stale ones included until the next merge.
+     */
+    public synchronized int size() {
+        return keys.length + recent.size();
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String[] normalize(String[] keys) {
+        List<String> normalized = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            if (key != null && !key.trim().isEmpty()) {
+                normalized.add(key.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return normalized.toArray(new String[0]);
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final String key;
+        private final int id;
+
+        private Entry(String key, int id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        private int compareTo(String otherKey, int otherId) {
+            int byKey = key.compareTo(otherKey);
+            return byKey != 0 ? byKey : Integer.compare(id, otherId);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return compareTo(other.key, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry && compareTo((Entry) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + id;
+        }
+    }
+}
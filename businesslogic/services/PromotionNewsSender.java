@@ -0,0 +1,423 @@
+package businesslogic.services;
+
+import datalayer.database.DatabaseConnection;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivery pipeline for monthly promotion news.
+ * Subscribers are read in keyset-paged batches (id, email, first name only) on a
+ * dedicated connection and each page is fanned out to the mail sink in parallel,
+ * with at most {@code concurrency} deliveries in flight.
+ *
+ * Every page's outcomes are written to promotion_news_log with one multi-row
+ * INSERT. A run skips customers already logged as SENT this month, so a rerun
+ * after a restart or an outage finishes the unsent pages and retries the
+ * FAILED deliveries without mailing anyone twice.
+ *
+ * Deliveries run on virtual threads when the JVM provides them (Java 21+),
+ * otherwise on a fixed pool of daemon threads of the same size.
+ */
+public class PromotionNewsSender {
+
+    public static final int DEFAULT_CONCURRENCY = 64;
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    // Served by idx_users_promo_subscribers (role, subscribed_to_promotions, user_id).
+    // Customers without an address are left out: logging them FAILED would retry them forever
+    private static final String SELECT_SUBSCRIBER_PAGE_SQL =
+        "SELECT user_id, email, first_name FROM users " +
+        "WHERE role = 'CUSTOMER' AND subscribed_to_promotions = TRUE AND user_id > ? " +
+        "AND email IS NOT NULL AND TRIM(email) <> '' " +
+        "ORDER BY user_id LIMIT ?";
+
+    // Range on sent_date is served by idx_news_log_date
+    private static final String SELECT_SENT_CUSTOMERS_SQL =
+        "SELECT customer_id FROM promotion_news_log " +
+        "WHERE sent_date BETWEEN ? AND ? AND status = 'SENT'";
+
+    private static final String SELECT_LAST_SENT_DATE_SQL =
+        "SELECT MAX(sent_date) AS last_sent_date FROM promotion_news_log";
+
+    private static final String INSERT_LOG_SQL_PREFIX =
+        "INSERT INTO promotion_news_log (sent_date, customer_id, promotion_ids, status) VALUES ";
+
+    private static final String INSERT_LOG_ROW = "(?, ?, ?, ?)";
+
+    private static final int PROMOTION_IDS_MAX_LENGTH = 255;
+
+    private volatile MailSink mailSink;
+    private final int concurrency;
+    private final int pageSize;
+
+    // Render buffers shared across deliveries; at most one per delivery in flight
+    private final ConcurrentLinkedQueue<NewsTemplate.Buffer> buffers = new ConcurrentLinkedQueue<>();
+
+    public PromotionNewsSender(MailSink mailSink) {
+        this(mailSink, DEFAULT_CONCURRENCY, DEFAULT_PAGE_SIZE);
+    }
+
+    public PromotionNewsSender(MailSink mailSink, int concurrency, int pageSize) {
+        if (concurrency <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Concurrency and page size must be positive.");
+        }
+        setMailSink(mailSink);
+        this.concurrency = concurrency;
+        this.pageSize = pageSize;
+    }
+
+    public void setMailSink(MailSink mailSink) {
+        if (mailSink == null) {
+            throw new IllegalArgumentException("Mail sink is required.");
+        }
+        this.mailSink = mailSink;
+    }
+
+    public MailSink getMailSink() {
+        return mailSink;
+    }
+
+    /**
+     * Send this month's news to every subscriber not yet served this month.
+     * @param subject Subject line shared by all messages
+     * @param promotionIds Ids of the promotions in the news, recorded in the log
+     * @param renderer Produces the body for one subscriber
+     */
+    public NewsRunStats send(String subject, List<Integer> promotionIds,
+                             BodyRenderer renderer) throws SQLException {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        String loggedPromotionIds = joinIds(promotionIds);
+        int sent = 0;
+        int failed = 0;
+
+        MailSink sink = this.mailSink;
+        ExecutorService executor = newWorkerExecutor(concurrency, "promotion-news-sender");
+        Semaphore permits = new Semaphore(concurrency);
+
+        int alreadySent = 0;
+        int lastCustomerId = 0;
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            BitSet sentThisMonth = findSentCustomers(conn, today);
+            if (!sentThisMonth.isEmpty()) {
+                System.out.println("[PromotionNewsSender] Resuming; " + sentThisMonth.cardinality()
+                    + " customers already sent this month");
+            }
+
+            while (true) {
+                List<NewsSubscriber> page = fetchPage(conn, lastCustomerId);
+                if (page.isEmpty()) {
+                    break;
+                }
+                int pageEnd = page.get(page.size() - 1).getCustomerId();
+
+                // FAILED customers are not in the set, so they are retried
+                List<NewsSubscriber> pending = new ArrayList<>(page.size());
+                for (NewsSubscriber subscriber : page) {
+                    if (sentThisMonth.get(subscriber.getCustomerId())) {
+                        alreadySent++;
+                    } else {
+                        pending.add(subscriber);
+                    }
+                }
+
+                boolean[] delivered;
+                try {
+                    delivered = deliverPage(executor, permits, sink, pending, subject, renderer);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println("[PromotionNewsSender] Interrupted after customer " + lastCustomerId);
+                    break;
+                }
+
+                // Logged SENT rows are what a rerun skips
+                writeLog(conn, today, pending, delivered, loggedPromotionIds);
+                for (boolean ok : delivered) {
+                    if (ok) {
+                        sent++;
+                    } else {
+                        failed++;
+                    }
+                }
+                lastCustomerId = pageEnd;
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                sink.flush();
+            } catch (IOException e) {
+                System.err.println("[PromotionNewsSender] Could not flush mail sink: " + e.getMessage());
+            }
+        }
+
+        return new NewsRunStats(sent, failed, alreadySent, lastCustomerId,
+            System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Date of the most recent logged delivery, or null if news was never sent.
+     */
+    public LocalDate getLastSentDate() throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().openConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_LAST_SENT_DATE_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                Date lastSent = rs.getDate("last_sent_date");
+                return lastSent != null ? lastSent.toLocalDate() : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Customers logged as SENT in the month of {@code date}, as a bit per customer id.
+     */
+    private BitSet findSentCustomers(Connection conn, LocalDate date) throws SQLException {
+        LocalDate monthStart = date.withDayOfMonth(1);
+        LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
+        BitSet sent = new BitSet();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_SENT_CUSTOMERS_SQL)) {
+            stmt.setDate(1, Date.valueOf(monthStart));
+            stmt.setDate(2, Date.valueOf(monthEnd));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sent.set(rs.getInt("customer_id"));
+                }
+            }
+        }
+        return sent;
+    }
+
+    private void writeLog(Connection conn, LocalDate sentDate, List<NewsSubscriber> page,
+                          boolean[] delivered, String promotionIds) throws SQLException {
+        if (page.isEmpty()) {
+            return;
+        }
+
+        StringJoiner rows = new StringJoiner(", ", INSERT_LOG_SQL_PREFIX, "");
+        for (int i = 0; i < page.size(); i++) {
+            rows.add(INSERT_LOG_ROW);
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(rows.toString())) {
+            Date date = Date.valueOf(sentDate);
+            int param = 1;
+            for (int i = 0; i < page.size(); i++) {
+                stmt.setDate(param++, date);
+                stmt.setInt(param++, page.get(i).getCustomerId());
+                stmt.setString(param++, promotionIds);
+                stmt.setString(param++, delivered[i] ? "SENT" : "FAILED");
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    private static String joinIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        for (Integer id : ids) {
+            joiner.add(String.valueOf(id));
+        }
+        String joined = joiner.toString();
+        return joined.length() <= PROMOTION_IDS_MAX_LENGTH
+            ? joined : joined.substring(0, joined.lastIndexOf(',', PROMOTION_IDS_MAX_LENGTH));
+    }
+
+    private List<NewsSubscriber> fetchPage(Connection conn, int afterCustomerId) throws SQLException {
+        List<NewsSubscriber> page = new ArrayList<>(pageSize);
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_SUBSCRIBER_PAGE_SQL)) {
+            stmt.setInt(1, afterCustomerId);
+            stmt.setInt(2, pageSize);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(new NewsSubscriber(
+                        rs.getInt("user_id"),
+                        rs.getString("email"),
+                        rs.getString("first_name")
+                    ));
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Deliver one page in parallel and wait for all of it.
+     * @return Outcome per subscriber, in page order
+     */
+    private boolean[] deliverPage(ExecutorService executor, Semaphore permits, MailSink sink,
+                                  List<NewsSubscriber> page, String subject,
+                                  BodyRenderer renderer) throws InterruptedException {
+        boolean[] delivered = new boolean[page.size()];
+        CountDownLatch done = new CountDownLatch(page.size());
+        AtomicInteger errorsLogged = new AtomicInteger();
+
+        for (int i = 0; i < page.size(); i++) {
+            NewsSubscriber subscriber = page.get(i);
+            int index = i;
+
+            permits.acquire();
+            executor.execute(() -> {
+                try {
+                    if (subscriber.getEmail() != null) {
+                        NewsTemplate.Buffer buffer = borrowBuffer();
+                        try {
+                            int length = renderer.render(subscriber, buffer);
+                            sink.send(subscriber.getEmail(), subject, buffer.array(), length);
+                        } finally {
+                            buffers.offer(buffer);
+                        }
+                        delivered[index] = true;
+                    }
+                } catch (Exception e) {
+                    // Keep the log readable when a sink goes down mid-page
+                    if (errorsLogged.getAndIncrement() < 5) {
+                        System.err.println("[PromotionNewsSender] Error notifying customer "
+                            + subscriber.getCustomerId() + ": " + e.getMessage());
+                    }
+                } finally {
+                    permits.release();
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        return delivered;
+    }
+
+    private NewsTemplate.Buffer borrowBuffer() {
+        NewsTemplate.Buffer buffer = buffers.poll();
+        return buffer != null ? buffer : new NewsTemplate.Buffer();
+    }
+
+    /**
+     * Virtual threads when the runtime has them, otherwise a daemon pool of {@code concurrency}.
+     * Shared with other bulk senders in this package.
+     */
+    static ExecutorService newWorkerExecutor(int concurrency, String threadName) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrency, r -> {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Renders the message body for one subscriber as UTF-8 bytes into a reused buffer.
+     */
+    public interface BodyRenderer {
+        /**
+         * @return Number of bytes written to the buffer
+         */
+        int render(NewsSubscriber subscriber, NewsTemplate.Buffer buffer) throws Exception;
+    }
+
+    /**
+     * The columns of a subscriber the news needs.
+     */
+    public static final class NewsSubscriber {
+        private final int customerId;
+        private final String email;
+        private final String firstName;
+
+        public NewsSubscriber(int customerId, String email, String firstName) {
+            this.customerId = customerId;
+            this.email = email;
+            this.firstName = firstName;
+        }
+
+        public int getCustomerId() {
+            return customerId;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+    }
+
+    /**
+     * Outcome of one send.
+     */
+    public static final class NewsRunStats {
+        private final int sent;
+        private final int failed;
+        private final int alreadySent;
+        private final int lastCustomerId;
+        private final long durationMillis;
+
+        NewsRunStats(int sent, int failed, int alreadySent, int lastCustomerId, long durationMillis) {
+            this.sent = sent;
+            this.failed = failed;
+            this.alreadySent = alreadySent;
+            this.lastCustomerId = lastCustomerId;
+            this.durationMillis = durationMillis;
+        }
+
+        public int getSent() {
+            return sent;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * Subscribers skipped because an earlier run this month already reached them.
+         */
+        public int getAlreadySent() {
+            return alreadySent;
+        }
+
+        public int getLastCustomerId() {
+            return lastCustomerId;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "NewsRunStats{sent=" + sent + ", failed=" + failed
+                + ", alreadySent=" + alreadySent
+                + ", lastCustomerId=" + lastCustomerId + ", durationMillis=" + durationMillis + '}';
+        }
+    }
+}
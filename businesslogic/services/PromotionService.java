@@ -2,23 +2,21 @@ package businesslogic.services;
 
 import businesslogic.entities.Customer;
 import businesslogic.entities.Promotion;
+import datalayer.dao.ChangeSet;
 import datalayer.dao.PromotionDAO;
 import datalayer.dao.UserDAO;
 import datalayer.database.DatabaseConnection;
 
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Service class for managing promotions and monthly promotion news.
@@ -28,12 +26,23 @@ public class PromotionService {
 
     private final PromotionDAO promotionDAO;
     private final UserDAO userDAO;
+    private final PromotionNewsSender newsSender;
+
+    // Scheduled job: midnight on the first of each month
+    public static final String NEWS_JOB = "promotion-news";
+    public static final String NEWS_SCHEDULE = "@monthly";
 
-    // Scheduler fields
-    private ScheduledExecutorService scheduler;
-    private boolean isSchedulerRunning;
     private LocalDate lastRunDate;
 
+    // Rendered news for the current month, dropped on promotion writes
+    private volatile MonthlyNews cachedNews;
+
+    // Validity windows of all promotions, rebuilt on promotion writes
+    private volatile PromotionWindowIndex promotionIndex;
+
+    // Local stand-in for the email service
+    private static final String DEFAULT_OUTBOX_FILE = "promotion_news_outbox.txt";
+
     // SQL for customer subscription management
     private static final String CHECK_SUBSCRIPTION_SQL = 
         "SELECT subscribed_to_promotions FROM users WHERE user_id = ?";
@@ -47,7 +56,7 @@ public class PromotionService {
     public PromotionService(PromotionDAO promotionDAO, UserDAO userDAO) {
         this.promotionDAO = promotionDAO;
         this.userDAO = userDAO;
-        this.isSchedulerRunning = false;
+        this.newsSender = new PromotionNewsSender(new FileMailSink(Paths.get(DEFAULT_OUTBOX_FILE)));
         this.lastRunDate = null;
     }
 
@@ -59,7 +68,7 @@ public class PromotionService {
      * Get all active promotions (valid today).
      */
     public List<Promotion> getActivePromotions() throws SQLException {
-        return promotionDAO.findActivePromotions();
+        return windowIndex().findValidOn(LocalDate.now());
     }
 
     /**
@@ -67,7 +76,15 @@ public class PromotionService {
      * Used for monthly promotion news feature.
      */
     public List<Promotion> getMonthlyPromotions() throws SQLException {
-        return promotionDAO.findPromotionsForCurrentMonth();
+        YearMonth month = YearMonth.now();
+        return windowIndex().findOverlapping(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * Get all promotions valid on at least one day of a date range.
+     */
+    public List<Promotion> getPromotionsOverlapping(LocalDate from, LocalDate to) throws SQLException {
+        return windowIndex().findOverlapping(from, to);
     }
 
     /**
@@ -77,6 +94,13 @@ public class PromotionService {
         return promotionDAO.findAll();
     }
 
+    /**
+     * Promotions changed since a watermark; a null watermark loads them all.
+     */
+    public ChangeSet<Promotion> getPromotionChanges(LocalDateTime since) throws SQLException {
+        return promotionDAO.findChangesSince(since);
+    }
+
     /**
      * Get a promotion by ID.
      */
@@ -114,7 +138,10 @@ public class PromotionService {
             null
         );
 
-        return promotionDAO.save(promotion);
+        Promotion saved = promotionDAO.save(promotion);
+        refreshPromotionIndex();
+        invalidateMonthlyNews();
+        return saved;
     }
 
     /**
@@ -124,14 +151,20 @@ public class PromotionService {
         if (promotion == null || promotion.getPromotionId() <= 0) {
             throw new IllegalArgumentException("Valid promotion is required.");
         }
-        return promotionDAO.update(promotion);
+        boolean updated = promotionDAO.update(promotion);
+        refreshPromotionIndex();
+        invalidateMonthlyNews();
+        return updated;
     }
 
     /**
      * Delete a promotion.
      */
     public boolean deletePromotion(int promotionId) throws SQLException {
-        return promotionDAO.delete(promotionId);
+        boolean deleted = promotionDAO.delete(promotionId);
+        refreshPromotionIndex();
+        invalidateMonthlyNews();
+        return deleted;
     }
 
     // ========================================================================
@@ -200,90 +233,87 @@ public class PromotionService {
         return LocalDate.now().getDayOfMonth() == 1;
     }
 
+    /**
+     * This month's promotions with the newsletter pre-rendered.
+     * Built once per month and reused until a promotion is written.
+     */
+    public MonthlyNews getMonthlyNews() throws SQLException {
+        MonthlyNews news = cachedNews;
+        if (news != null && news.getMonth().equals(YearMonth.now())) {
+            return news;
+        }
+        return refreshMonthlyNews();
+    }
+
+    /**
+     * Reload this month's promotions and re-render the newsletter.
+     */
+    public MonthlyNews refreshMonthlyNews() throws SQLException {
+        return refreshMonthlyNews(DatabaseConnection.getInstance().getConnection());
+    }
+
+    private MonthlyNews refreshMonthlyNews(Connection conn) throws SQLException {
+        PromotionWindowIndex index = refreshPromotionIndex(conn);
+        YearMonth month = YearMonth.now();
+        MonthlyNews news = MonthlyNews.build(month, index.findOverlapping(month.atDay(1), month.atEndOfMonth()));
+        cachedNews = news;
+        return news;
+    }
+
+    private void invalidateMonthlyNews() {
+        cachedNews = null;
+    }
+
+    // ========================================================================
+    // PROMOTION WINDOW INDEX
+    // ========================================================================
+
+    /**
+     * Reload all promotions and swap in a fresh validity-window index.
+     * Called after every promotion write; safe to call from other writers too.
+     */
+    public void refreshPromotionIndex() throws SQLException {
+        refreshPromotionIndex(DatabaseConnection.getInstance().getConnection());
+    }
+
+    private PromotionWindowIndex refreshPromotionIndex(Connection conn) throws SQLException {
+        PromotionWindowIndex index = new PromotionWindowIndex(promotionDAO.findAll(conn));
+        promotionIndex = index;
+        return index;
+    }
+
+    private PromotionWindowIndex windowIndex() throws SQLException {
+        PromotionWindowIndex index = promotionIndex;
+        if (index == null) {
+            index = new PromotionWindowIndex(promotionDAO.findAll());
+            promotionIndex = index;
+        }
+        return index;
+    }
+
     /**
      * Generate monthly promotion news content for a customer.
      * Returns formatted HTML content for display.
      */
     public String generateMonthlyNewsContent(Customer customer) throws SQLException {
-        List<Promotion> promotions = getMonthlyPromotions();
-        
-        if (promotions.isEmpty()) {
+        MonthlyNews news = getMonthlyNews();
+        if (news.isEmpty()) {
             return null;
         }
-
-        StringBuilder html = new StringBuilder();
-        String monthYear = LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM yyyy"));
-        
-        html.append("<html><body style='font-family: Arial, sans-serif; padding: 20px;'>");
-        html.append("<h1 style='color: #2E8B57;'>🎉 Monthly Promotions - ").append(monthYear).append("</h1>");
-        
-        if (customer != null) {
-            html.append("<p>Hello <strong>").append(customer.getFirstName()).append("</strong>,</p>");
-        }
-        
-        html.append("<p>Check out our exclusive offers this month:</p>");
-        html.append("<hr style='border: 1px solid #ddd;'/>");
-        
-        for (Promotion promo : promotions) {
-            html.append("<div style='background: #f9f9f9; padding: 15px; margin: 10px 0; border-radius: 8px; border-left: 4px solid #2E8B57;'>");
-            html.append("<h3 style='color: #333; margin: 0 0 10px 0;'>").append(promo.getTitle()).append("</h3>");
-            html.append("<p style='color: #666; margin: 5px 0;'>").append(promo.getDescription()).append("</p>");
-            html.append("<p style='margin: 5px 0;'><strong style='color: #e74c3c; font-size: 18px;'>")
-                .append(String.format("%.0f", promo.getDiscountPercent()))
-                .append("% OFF</strong></p>");
-            html.append("<p style='color: #888; font-size: 12px; margin: 5px 0;'>Valid: ")
-                .append(promo.getValidFrom().format(DateTimeFormatter.ofPattern("MMM d")))
-                .append(" - ")
-                .append(promo.getValidTo().format(DateTimeFormatter.ofPattern("MMM d, yyyy")))
-                .append("</p>");
-            html.append("</div>");
-        }
-        
-        html.append("<hr style='border: 1px solid #ddd;'/>");
-        html.append("<p style='color: #888; font-size: 12px;'>You're receiving this because you're subscribed to monthly promotion news. ");
-        html.append("You can unsubscribe in your account settings.</p>");
-        html.append("</body></html>");
-        
-        return html.toString();
+        return news.getHtmlTemplate().render(
+            customer != null ? customer.getFirstName() : null, customer != null);
     }
 
     /**
      * Generate plain text version of monthly news (for email simulation).
      */
     public String generateMonthlyNewsPlainText(Customer customer) throws SQLException {
-        List<Promotion> promotions = getMonthlyPromotions();
-        
-        if (promotions.isEmpty()) {
+        MonthlyNews news = getMonthlyNews();
+        if (news.isEmpty()) {
             return null;
         }
-
-        StringBuilder text = new StringBuilder();
-        String monthYear = LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM yyyy"));
-        
-        text.append("=== Monthly Promotions - ").append(monthYear).append(" ===\n\n");
-        
-        if (customer != null) {
-            text.append("Hello ").append(customer.getFirstName()).append(",\n\n");
-        }
-        
-        text.append("Check out our exclusive offers this month:\n\n");
-        text.append("-------------------------------------------\n\n");
-        
-        for (Promotion promo : promotions) {
-            text.append("★ ").append(promo.getTitle()).append("\n");
-            text.append("   ").append(promo.getDescription()).append("\n");
-            text.append("   DISCOUNT: ").append(String.format("%.0f", promo.getDiscountPercent())).append("% OFF\n");
-            text.append("   Valid: ")
-                .append(promo.getValidFrom().format(DateTimeFormatter.ofPattern("MMM d")))
-                .append(" - ")
-                .append(promo.getValidTo().format(DateTimeFormatter.ofPattern("MMM d, yyyy")))
-                .append("\n\n");
-        }
-        
-        text.append("-------------------------------------------\n");
-        text.append("You're receiving this because you're subscribed to monthly promotion news.\n");
-        
-        return text.toString();
+        return news.getPlainTextTemplate().render(
+            customer != null ? customer.getFirstName() : null, customer != null);
     }
 
     /**
@@ -300,154 +330,85 @@ public class PromotionService {
     }
 
     // ========================================================================
-    // SCHEDULER METHODS
+    // SCHEDULED JOBS
     // ========================================================================
 
     /**
-     * Start the scheduler. It will check daily if it's the first of the month.
+     * Register monthly promotion news with the shared scheduler: midnight on the 1st.
+     * A month missed while the application was down is sent on the next start;
+     * a send interrupted mid-way is re-run and resumes from its checkpoint.
      */
-    public void startScheduler() {
-        if (isSchedulerRunning) {
-            System.out.println("[PromotionService] Scheduler already running.");
-            return;
-        }
-
-        scheduler = Executors.newSingleThreadScheduledExecutor();
-        isSchedulerRunning = true;
-        System.out.println("[PromotionService] Starting monthly promotion news scheduler...");
-
-        // Calculate delay until next midnight
-        long delayUntilMidnight = calculateDelayUntilMidnight();
-        
-        // Schedule to run daily at midnight
-        scheduler.scheduleAtFixedRate(
-            this::checkAndSendPromotionNews,
-            delayUntilMidnight,
-            TimeUnit.DAYS.toMillis(1),
-            TimeUnit.MILLISECONDS
-        );
-
-        // Also check immediately on startup (in case it's the first of the month)
-        scheduler.execute(this::checkAndSendPromotionNews);
-        
-        System.out.println("[PromotionService] Scheduler started. Will check daily at midnight.");
+    public void registerJobs(JobScheduler scheduler) {
+        scheduler.register(NEWS_JOB, NEWS_SCHEDULE, this::sendScheduledNews);
     }
 
-    /**
-     * Stop the scheduler.
-     */
-    public void stopScheduler() {
-        if (!isSchedulerRunning || scheduler == null) {
-            return;
-        }
+    private void sendScheduledNews(LocalDateTime scheduledTime) throws SQLException {
+        System.out.println("[PromotionService] Sending promotion news scheduled for "
+            + scheduledTime.toLocalDate() + "...");
 
-        isSchedulerRunning = false;
-        scheduler.shutdown();
-        
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-        
-        System.out.println("[PromotionService] Scheduler stopped.");
-    }
+        int notifiedCount = forceSendPromotionNews();
 
-    /**
-     * Check if it's the first of the month and send promotion news if so.
-     */
-    private void checkAndSendPromotionNews() {
-        LocalDate today = LocalDate.now();
-        
-        // Prevent running multiple times on the same day
-        if (lastRunDate != null && lastRunDate.equals(today)) {
-            return;
-        }
-
-        if (today.getDayOfMonth() == 1) {
-            System.out.println("[PromotionService] First day of month detected. Sending promotion news...");
-            
-            try {
-                int notifiedCount = forceSendPromotionNews();
-                lastRunDate = today;
-                
-                System.out.println("[PromotionService] Monthly promotion news sent to " + 
-                    notifiedCount + " customers.");
-                
-            } catch (SQLException e) {
-                System.err.println("[PromotionService] Error sending promotion news: " + e.getMessage());
-                e.printStackTrace();
-            }
-        } else {
-            System.out.println("[PromotionService] Not the first of the month. Day: " + today.getDayOfMonth());
-        }
-    }
-
-    /**
-     * Calculate milliseconds until next midnight.
-     */
-    private long calculateDelayUntilMidnight() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay();
-        return ChronoUnit.MILLIS.between(now, nextMidnight);
+        System.out.println("[PromotionService] Monthly promotion news sent to " +
+            notifiedCount + " customers.");
     }
 
     /**
      * Force send promotion news (for testing or manual trigger).
      * Bypasses the first-of-month check.
+     * The newsletter is rendered once; only the first name is spliced in per customer.
      */
     public int forceSendPromotionNews() throws SQLException {
         System.out.println("[PromotionService] Sending promotion news...");
         
-        List<Promotion> promotions = getMonthlyPromotions();
-        if (promotions.isEmpty()) {
+        // Runs on the scheduler's threads, so it reads off the shared connection like the sender
+        MonthlyNews news;
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            news = refreshMonthlyNews(conn);
+        }
+        if (news.isEmpty()) {
             System.out.println("[PromotionService] No promotions to send.");
             return 0;
         }
 
-        List<Integer> subscribedCustomerIds = getSubscribedCustomerIds();
-        int notifiedCount = 0;
-
-        for (Integer customerId : subscribedCustomerIds) {
-            try {
-                Customer customer = (Customer) userDAO.findById(customerId);
-                if (customer != null && customer.getEmail() != null) {
-                    // In production, this would send an actual email
-                    // For now, we just simulate the notification
-                    String newsContent = generateMonthlyNewsPlainText(customer);
-                    if (newsContent != null) {
-                        // Log the simulated email send
-                        System.out.println("[SIMULATED EMAIL] To: " + customer.getEmail());
-                        System.out.println("[SIMULATED EMAIL] Subject: Monthly Promotions - " + 
-                            LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM yyyy")));
-                        notifiedCount++;
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("[PromotionService] Error notifying customer " + customerId + ": " + e.getMessage());
-            }
+        List<Integer> promotionIds = new ArrayList<>();
+        for (Promotion promo : news.getPromotions()) {
+            promotionIds.add(promo.getPromotionId());
         }
 
+        NewsTemplate template = news.getPlainTextTemplate();
+        PromotionNewsSender.NewsRunStats stats = newsSender.send(news.getSubject(), promotionIds,
+            (subscriber, buffer) -> template.renderInto(buffer, subscriber.getFirstName(), true));
+
         lastRunDate = LocalDate.now();
-        System.out.println("[PromotionService] Send completed. Notified: " + notifiedCount);
+        System.out.println("[PromotionService] Send completed. Notified: " + stats.getSent()
+            + ", failed: " + stats.getFailed() + " in " + stats.getDurationMillis() + " ms");
         
-        return notifiedCount;
+        return stats.getSent();
     }
 
     /**
-     * Check if the scheduler is running.
+     * Replace where promotion news is delivered (default: local outbox file).
      */
-    public boolean isSchedulerRunning() {
-        return isSchedulerRunning;
+    public void setMailSink(MailSink mailSink) {
+        newsSender.setMailSink(mailSink);
+    }
+
+    public PromotionNewsSender getNewsSender() {
+        return newsSender;
     }
 
     /**
      * Get the last date when promotion news was sent.
+     * Falls back to promotion_news_log when nothing was sent since startup.
      */
     public LocalDate getLastRunDate() {
+        if (lastRunDate == null) {
+            try {
+                lastRunDate = newsSender.getLastSentDate();
+            } catch (SQLException e) {
+                System.err.println("Warning: Could not read promotion news log: " + e.getMessage());
+            }
+        }
         return lastRunDate;
     }
 }
\ No newline at end of file
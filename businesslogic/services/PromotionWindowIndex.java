@@ -0,0 +1,99 @@
+package businesslogic.services;
+
+import businesslogic.entities.Promotion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable in-memory interval index over promotion validity windows.
+ * Promotions are sorted by valid_from with a running maximum of valid_to, so
+ * "promotions overlapping [start, end]" is a binary search plus a backward scan
+ * that stops as soon as no earlier promotion can still be valid at {@code start}.
+ *
+ * PromotionService rebuilds the index after every promotion write and swaps it in.
+ */
+public final class PromotionWindowIndex {
+
+    private static final Comparator<Promotion> BY_DISCOUNT_DESC =
+        Comparator.comparingDouble(Promotion::getDiscountPercent).reversed();
+
+    private final Promotion[] byStart;
+    private final LocalDate[] maxEndUpTo;
+
+    public PromotionWindowIndex(List<Promotion> promotions) {
+        List<Promotion> valid = new ArrayList<>(promotions.size());
+        for (Promotion promo : promotions) {
+            if (promo.getValidFrom() != null && promo.getValidTo() != null) {
+                valid.add(promo);
+            }
+        }
+        valid.sort(Comparator.comparing(Promotion::getValidFrom));
+
+        this.byStart = valid.toArray(new Promotion[0]);
+        this.maxEndUpTo = new LocalDate[byStart.length];
+
+        LocalDate maxEnd = null;
+        for (int i = 0; i < byStart.length; i++) {
+            LocalDate end = byStart[i].getValidTo();
+            maxEnd = (maxEnd == null || end.isAfter(maxEnd)) ? end : maxEnd;
+            maxEndUpTo[i] = maxEnd;
+        }
+    }
+
+    public static PromotionWindowIndex empty() {
+        return new PromotionWindowIndex(Collections.emptyList());
+    }
+
+    public int size() {
+        return byStart.length;
+    }
+
+    /**
+     * Promotions valid on at least one day of [start, end], highest discount first.
+     */
+    public List<Promotion> findOverlapping(LocalDate start, LocalDate end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            throw new IllegalArgumentException("A valid date range is required.");
+        }
+
+        List<Promotion> result = new ArrayList<>();
+        for (int i = lastStartingOnOrBefore(end); i >= 0; i--) {
+            if (maxEndUpTo[i].isBefore(start)) {
+                break;
+            }
+            if (!byStart[i].getValidTo().isBefore(start)) {
+                result.add(byStart[i]);
+            }
+        }
+
+        result.sort(BY_DISCOUNT_DESC);
+        return result;
+    }
+
+    /**
+     * Promotions valid on a given date, highest discount first.
+     */
+    public List<Promotion> findValidOn(LocalDate date) {
+        return findOverlapping(date, date);
+    }
+
+    private int lastStartingOnOrBefore(LocalDate date) {
+        int lo = 0;
+        int hi = byStart.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (byStart[mid].getValidFrom().isAfter(date)) {
+                hi = mid - 1;
+            } else {
+                found = mid;
+                lo = mid + 1;
+            }
+        }
+        return found;
+    }
+}
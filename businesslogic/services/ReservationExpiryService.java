@@ -0,0 +1,385 @@
+package businesslogic.services;
+
+import datalayer.database.DatabaseConnection;
+import datalayer.database.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background sweeper that cancels PENDING reservations older than a TTL and
+ * returns their seats to sellable inventory.
+ * Works in set-based batches: one locking SELECT plus three UPDATEs per batch,
+ * regardless of how many reservations or seats are involved.
+ */
+public class ReservationExpiryService {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    public static final String JOB_NAME = "reservation-expiry";
+    public static final String DEFAULT_SCHEDULE = "*/5 * * * *";
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    // Served by idx_reservations_status_booking (status, booking_date)
+    private static final String SELECT_EXPIRED_SQL =
+        "SELECT reservation_id FROM reservations " +
+        "WHERE status = 'PENDING' AND booking_date < ? " +
+        "ORDER BY booking_date LIMIT ? FOR UPDATE";
+
+    private static final String COUNT_SEATS_BY_FLIGHT_SQL =
+        "SELECT r.flight_id, COUNT(*) AS released FROM tickets t " +
+        "JOIN reservations r ON r.reservation_id = t.reservation_id " +
+        "WHERE t.reservation_id IN (%s) GROUP BY r.flight_id";
+
+    private static final String RELEASE_SEATS_SQL =
+        "UPDATE seats s JOIN tickets t ON t.seat_id = s.seat_id " +
+        "SET s.is_available = TRUE WHERE t.reservation_id IN (%s)";
+
+    private static final String RELEASE_FLIGHT_COUNTS_SQL =
+        "UPDATE flights f JOIN (" +
+        "  SELECT r.flight_id, COUNT(*) AS released FROM tickets t " +
+        "  JOIN reservations r ON r.reservation_id = t.reservation_id " +
+        "  WHERE t.reservation_id IN (%s) GROUP BY r.flight_id" +
+        ") x ON x.flight_id = f.flight_id " +
+        "SET f.available_seats = f.available_seats + x.released, f.seat_version = f.seat_version + 1";
+
+    private static final String RELEASE_BOOKING_COUNTS_SQL =
+        "UPDATE users u JOIN (" +
+        "  SELECT customer_id, COUNT(*) AS cancelled FROM reservations " +
+        "  WHERE status = 'PENDING' AND reservation_id IN (%s) GROUP BY customer_id" +
+        ") x ON x.customer_id = u.user_id " +
+        "SET u.booking_count = GREATEST(CAST(u.booking_count AS SIGNED) - x.cancelled, 0)";
+
+    // Read only when events are recorded
+    private static final String SELECT_EXPIRED_DETAILS_SQL =
+        "SELECT r.reservation_id, r.customer_id, f.flight_number, COUNT(t.seat_id) AS seats " +
+        "FROM reservations r JOIN flights f ON f.flight_id = r.flight_id " +
+        "LEFT JOIN tickets t ON t.reservation_id = r.reservation_id " +
+        "WHERE r.reservation_id IN (%s) GROUP BY r.reservation_id, r.customer_id, f.flight_number";
+
+    private static final String CANCEL_RESERVATIONS_SQL =
+        "UPDATE reservations SET status = 'CANCELLED' " +
+        "WHERE status = 'PENDING' AND reservation_id IN (%s)";
+
+    private volatile Duration ttl;
+    private volatile int batchSize;
+    private WaitlistService waitlistService;
+    private EventOutbox eventOutbox;
+
+    // Cumulative metrics across runs
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalReservationsExpired = new AtomicLong();
+    private final AtomicLong totalSeatsReleased = new AtomicLong();
+    private volatile ExpiryRunStats lastRunStats;
+
+    public ReservationExpiryService() {
+        this(DEFAULT_TTL, DEFAULT_BATCH_SIZE);
+    }
+
+    public ReservationExpiryService(Duration ttl, int batchSize) {
+        setTtl(ttl);
+        setBatchSize(batchSize);
+    }
+
+    // ========================================================================
+    // CONFIGURATION
+    // ========================================================================
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive.");
+        }
+        this.ttl = ttl;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Offer reclaimed seats to waitlisted customers after each run. Optional.
+     */
+    public void setWaitlistService(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+     * Record a cancellation event per expired reservation in its batch's transaction. Optional.
+     */
+    public void setEventOutbox(EventOutbox eventOutbox) {
+        this.eventOutbox = eventOutbox;
+    }
+
+    // ========================================================================
+    // SWEEP
+    // ========================================================================
+
+    /**
+     * Expire every PENDING reservation booked before now - TTL.
+     * Runs batches until one comes back short.
+     * @return Metrics for this run
+     */
+    public synchronized ExpiryRunStats expirePendingReservations() throws SQLException {
+        long startNanos = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+
+        int reservationsExpired = 0;
+        int seatsReleased = 0;
+        Map<Integer, Integer> releasedByFlight = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            while (true) {
+                int expired = expireBatch(conn, cutoff, releasedByFlight);
+                reservationsExpired += expired;
+                if (expired < batchSize) {
+                    break;
+                }
+            }
+        }
+
+        for (int released : releasedByFlight.values()) {
+            seatsReleased += released;
+        }
+
+        ExpiryRunStats stats = new ExpiryRunStats(
+            LocalDateTime.now(),
+            reservationsExpired,
+            seatsReleased,
+            releasedByFlight,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)
+        );
+
+        totalRuns.incrementAndGet();
+        totalReservationsExpired.addAndGet(reservationsExpired);
+        totalSeatsReleased.addAndGet(seatsReleased);
+        lastRunStats = stats;
+
+        return stats;
+    }
+
+    /**
+     * Expire one batch inside a single transaction.
+     * @return Number of reservations cancelled
+     */
+    private int expireBatch(Connection conn, LocalDateTime cutoff,
+                            Map<Integer, Integer> releasedByFlight) throws SQLException {
+        TransactionManager.begin(conn);
+        try {
+            List<Integer> ids = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_EXPIRED_SQL)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+                stmt.setInt(2, batchSize);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt("reservation_id"));
+                    }
+                }
+            }
+
+            if (ids.isEmpty()) {
+                TransactionManager.commit(conn);
+                return 0;
+            }
+
+            String placeholders = placeholders(ids.size());
+            List<DomainEvent> events = eventOutbox != null
+                ? expiredEvents(conn, placeholders, ids) : new ArrayList<>();
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    String.format(COUNT_SEATS_BY_FLIGHT_SQL, placeholders))) {
+                bindIds(stmt, ids);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        releasedByFlight.merge(rs.getInt("flight_id"), rs.getInt("released"), Integer::sum);
+                    }
+                }
+            }
+
+            executeForIds(conn, RELEASE_SEATS_SQL, placeholders, ids);
+            executeForIds(conn, RELEASE_FLIGHT_COUNTS_SQL, placeholders, ids);
+            executeForIds(conn, RELEASE_BOOKING_COUNTS_SQL, placeholders, ids);
+            int cancelled = executeForIds(conn, CANCEL_RESERVATIONS_SQL, placeholders, ids);
+            if (!events.isEmpty()) {
+                eventOutbox.record(conn, events);
+            }
+
+            TransactionManager.commit(conn);
+            if (!events.isEmpty()) {
+                eventOutbox.dispatchAsync();
+            }
+            return cancelled;
+        } catch (SQLException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+    }
+
+    private List<DomainEvent> expiredEvents(Connection conn, String placeholders,
+                                            List<Integer> ids) throws SQLException {
+        List<DomainEvent> events = new ArrayList<>(ids.size());
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(SELECT_EXPIRED_DETAILS_SQL, placeholders))) {
+            bindIds(stmt, ids);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    events.add(DomainEvent.reservationExpired(rs.getInt("reservation_id"),
+                        rs.getInt("customer_id"), rs.getString("flight_number"), rs.getInt("seats")));
+                }
+            }
+        }
+        return events;
+    }
+
+    private int executeForIds(Connection conn, String sqlTemplate, String placeholders,
+                              List<Integer> ids) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(sqlTemplate, placeholders))) {
+            bindIds(stmt, ids);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            joiner.add("?");
+        }
+        return joiner.toString();
+    }
+
+    private static void bindIds(PreparedStatement stmt, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setInt(i + 1, ids.get(i));
+        }
+    }
+
+    // ========================================================================
+    // SCHEDULED JOB
+    // ========================================================================
+
+    /**
+     * Register the sweep with the shared scheduler. Missed runs collapse into one.
+     */
+    public void registerJobs(JobScheduler scheduler) {
+        registerJobs(scheduler, DEFAULT_SCHEDULE);
+    }
+
+    public void registerJobs(JobScheduler scheduler, String cronExpression) {
+        scheduler.register(JOB_NAME, cronExpression, scheduledTime -> runSweep());
+    }
+
+    private void runSweep() throws SQLException {
+        ExpiryRunStats stats = expirePendingReservations();
+        if (stats.getReservationsExpired() > 0) {
+            System.out.println("[ReservationExpiryService] " + stats);
+        }
+        promoteWaitlist(stats);
+    }
+
+    private void promoteWaitlist(ExpiryRunStats stats) {
+        if (waitlistService == null) {
+            return;
+        }
+
+        try {
+            waitlistService.expireLapsedOffers();
+            for (Map.Entry<Integer, Integer> released : stats.getSeatsReleasedByFlightId().entrySet()) {
+                waitlistService.onSeatsReleased(released.getKey(), released.getValue());
+            }
+        } catch (SQLException e) {
+            System.err.println("[ReservationExpiryService] Error promoting waitlist: " + e.getMessage());
+        }
+    }
+
+    // ========================================================================
+    // METRICS
+    // ========================================================================
+
+    public ExpiryRunStats getLastRunStats() {
+        return lastRunStats;
+    }
+
+    public long getTotalRuns() {
+        return totalRuns.get();
+    }
+
+    public long getTotalReservationsExpired() {
+        return totalReservationsExpired.get();
+    }
+
+    public long getTotalSeatsReleased() {
+        return totalSeatsReleased.get();
+    }
+
+    /**
+     * Inventory reclaimed by one sweep.
+     */
+    public static class ExpiryRunStats {
+        private final LocalDateTime finishedAt;
+        private final int reservationsExpired;
+        private final int seatsReleased;
+        private final Map<Integer, Integer> seatsReleasedByFlightId;
+        private final long durationMillis;
+
+        public ExpiryRunStats(LocalDateTime finishedAt, int reservationsExpired, int seatsReleased,
+                              Map<Integer, Integer> seatsReleasedByFlightId, long durationMillis) {
+            this.finishedAt = finishedAt;
+            this.reservationsExpired = reservationsExpired;
+            this.seatsReleased = seatsReleased;
+            this.seatsReleasedByFlightId = Collections.unmodifiableMap(new HashMap<>(seatsReleasedByFlightId));
+            this.durationMillis = durationMillis;
+        }
+
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public int getReservationsExpired() {
+            return reservationsExpired;
+        }
+
+        public int getSeatsReleased() {
+            return seatsReleased;
+        }
+
+        public Map<Integer, Integer> getSeatsReleasedByFlightId() {
+            return seatsReleasedByFlightId;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "ExpiryRunStats{" +
+                   "reservationsExpired=" + reservationsExpired +
+                   ", seatsReleased=" + seatsReleased +
+                   ", flightsAffected=" + seatsReleasedByFlightId.size() +
+                   ", durationMillis=" + durationMillis +
+                   '}';
+        }
+    }
+}
@@ -6,25 +6,43 @@ import businesslogic.entities.User;
 import businesslogic.entities.Flight;
 import businesslogic.entities.Seat;
 import businesslogic.entities.Payment;
+import businesslogic.entities.WaitlistEntry;
 import businesslogic.entities.enums.ReservationStatus;
 import businesslogic.entities.enums.MembershipStatus;
+import businesslogic.entities.enums.SeatClass;
+import datalayer.dao.ChangeSet;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 import datalayer.dao.ReservationDAO;
 import datalayer.dao.SeatDAO;
 import datalayer.database.DatabaseConnection;
+import datalayer.database.TransactionManager;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Handles reservation creation, cancellation, and seat management.
  */
 public class ReservationService {
+
+    // Re-run the allocator this many times if another booking takes part of the block
+    private static final int MAX_GROUP_CLAIM_ATTEMPTS = 3;
     
     private final ReservationDAO reservationDAO;
     private final SeatDAO seatDAO;
     private final FlightService flightService;
+    private WaitlistService waitlistService;
+    private EventOutbox eventOutbox;
+    private SeatMapCache seatMapCache;
+    // Seat map prefetches run on the cache's prefetch thread, which alone uses this
+    private Connection prefetchConnection;
 
     public ReservationService(ReservationDAO reservationDAO,
                               SeatDAO seatDAO,
@@ -34,6 +52,53 @@ public class ReservationService {
         this.flightService = flightService;
     }
 
+    /**
+     * Offer released seats to waitlisted customers on cancel. Optional.
+     */
+    public void setWaitlistService(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+     * Record reservation events in the same transaction as each change. Optional.
+     */
+    public void setEventOutbox(EventOutbox eventOutbox) {
+        this.eventOutbox = eventOutbox;
+    }
+
+    /**
+     * Serve seat maps from a cache that result screens can prefetch into. Optional.
+     */
+    public void setSeatMapCache(SeatMapCache seatMapCache) {
+        this.seatMapCache = seatMapCache;
+    }
+
+    private void recordEvent(Connection conn, DomainEvent event) throws SQLException {
+        if (eventOutbox != null) {
+            eventOutbox.record(conn, event);
+        }
+    }
+
+    private void dispatchEvents() {
+        if (eventOutbox != null) {
+            eventOutbox.dispatchAsync();
+        }
+    }
+
+    /**
+     * Offer seats that went back on sale to the flight's waitlist. Call after the change commits.
+     */
+    private void releaseToWaitlist(int flightId, int seatsReleased) {
+        if (waitlistService == null) {
+            return;
+        }
+        try {
+            waitlistService.onSeatsReleased(flightId, seatsReleased);
+        } catch (SQLException e) {
+            System.err.println("Warning: Could not promote waitlisted customers: " + e.getMessage());
+        }
+    }
+
     private Reservation createReservationInternal(Customer customer,
                                                   Flight flight,
                                                   List<Seat> selectedSeats,
@@ -42,18 +107,28 @@ public class ReservationService {
             throw new IllegalArgumentException("Customer, flight, and seats are required.");
         }
 
+        // Seats held for the customer's waitlist offer are theirs to book
+        Set<Integer> heldSeatIds = (waitlistService != null)
+                ? waitlistService.getHeldSeatIds(customer.getUserId(), flight.getFlightNumber())
+                : new HashSet<>();
+
+        int heldSelected = 0;
         for (Seat seat : selectedSeats) {
             Seat dbSeat = seatDAO.findById(seat.getSeatId());
             if (dbSeat == null) {
                 throw new IllegalStateException("Seat " + seat.getSeatNumber() + " not found.");
             }
-            if (!dbSeat.isAvailable()) {
+            if (heldSeatIds.contains(seat.getSeatId())) {
+                heldSelected++;
+            } else if (!dbSeat.isAvailable()) {
                 throw new IllegalStateException("Seat " + seat.getSeatNumber()
                         + " is no longer available. Please select different seats.");
             }
         }
 
-        if (flight.getAvailableSeats() < selectedSeats.size()) {
+        // Held seats were taken off the flight's count when the offer was made
+        int seatsToBook = selectedSeats.size() - heldSelected;
+        if (flight.getAvailableSeats() < seatsToBook) {
             throw new IllegalStateException("Not enough seats available on flight.");
         }
 
@@ -72,22 +147,72 @@ public class ReservationService {
                 new ArrayList<>(selectedSeats)
         );
 
-        Reservation saved = reservationDAO.save(reservation);
+        Reservation saved;
+        WaitlistEntry offer = null;
+        int unusedHolds = 0;
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            // Lock the offer first so the expiry sweep can't release its seats under us
+            if (waitlistService != null) {
+                offer = waitlistService.lockOpenOffer(conn, customer.getUserId(), flight.getFlightNumber());
+                if (heldSelected > 0
+                        && waitlistService.getHeldSeatIds(conn, offer).size() < heldSelected) {
+                    throw new IllegalStateException("Your waitlist offer has expired. Please select different seats.");
+                }
+            }
 
-        for (Seat seat : selectedSeats) {
-            seat.setAvailable(false);
-            seatDAO.update(seat);
+            saved = reservationDAO.save(reservation);
+
+            for (Seat seat : selectedSeats) {
+                seat.setAvailable(false);
+                seatDAO.update(seat);
+            }
+
+            if (seatsToBook > 0) {
+                try {
+                    flightService.bookSeats(flight.getFlightNumber(), seatsToBook);
+                } catch (SQLException e) {
+                    System.err.println("Warning: Could not update flight available seats: " + e.getMessage());
+                }
+            }
+
+            if (offer != null) {
+                List<Integer> bookedSeatIds = new ArrayList<>(selectedSeats.size());
+                for (Seat seat : selectedSeats) {
+                    bookedSeatIds.add(seat.getSeatId());
+                }
+                unusedHolds = waitlistService.acceptOffer(conn, offer, bookedSeatIds);
+            }
+
+            recordEvent(conn, DomainEvent.reservationCreated(saved));
+            TransactionManager.commit(conn);
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            for (Seat seat : selectedSeats) {
+                seat.setAvailable(true);
+            }
+            throw e;
         }
+        dispatchEvents();
 
-        try {
-            flightService.bookSeats(flight.getFlightNumber(), selectedSeats.size());
-        } catch (SQLException e) {
-            System.err.println("Warning: Could not update flight available seats: " + e.getMessage());
+        if (unusedHolds > 0) {
+            releaseToWaitlist(offer.getFlightId(), unusedHolds);
         }
 
         return saved;
     }
 
+    /**
+     * Seats held for the customer's open waitlist offer on a flight; they can book these.
+     */
+    public Set<Integer> getHeldSeatIds(Customer customer, Flight flight) throws SQLException {
+        if (waitlistService == null || customer == null || flight == null) {
+            return new HashSet<>();
+        }
+        return waitlistService.getHeldSeatIds(customer.getUserId(), flight.getFlightNumber());
+    }
+
     public Reservation createReservation(Customer customer,
                                          Flight flight,
                                          List<Seat> selectedSeats,
@@ -135,6 +260,133 @@ public class ReservationService {
         return createReservationForUser(user, flight, selectedSeats, null);
     }
 
+    // ========================================================================
+    // GROUP BOOKING
+    // ========================================================================
+
+    /**
+     * Book a party onto a flight, seated together.
+     * The best block of adjacent seats in the requested class is picked from the
+     * aircraft seat map (same row first, then consecutive rows), claimed with one
+     * UPDATE and saved with the reservation in a single transaction.
+     * @param seatClass Cabin to seat the party in, or null for any cabin
+     * @throws IllegalStateException if the party cannot be seated together
+     */
+    public Reservation createGroupReservation(Customer customer,
+                                              Flight flight,
+                                              int partySize,
+                                              SeatClass seatClass,
+                                              Payment payment) throws SQLException {
+        if (customer == null || flight == null) {
+            throw new IllegalArgumentException("Customer and flight are required.");
+        }
+        if (partySize <= 0) {
+            throw new IllegalArgumentException("Party size must be positive.");
+        }
+
+        Integer flightId = getFlightIdByNumber(flight.getFlightNumber());
+        if (flightId == null) {
+            throw new SQLException("Flight not found: " + flight.getFlightNumber());
+        }
+
+        String seatConfiguration = flight.getAircraft() != null
+                ? flight.getAircraft().getSeatConfiguration() : null;
+        SeatBlockAllocator allocator = new SeatBlockAllocator(seatConfiguration);
+
+        for (int attempt = 0; attempt < MAX_GROUP_CLAIM_ATTEMPTS; attempt++) {
+            List<Seat> cabin = (seatClass != null)
+                    ? seatDAO.findByFlightIdAndSeatClass(flightId, seatClass)
+                    : seatDAO.findByFlightId(flightId);
+
+            List<Seat> block = allocator.findBlock(cabin, partySize);
+            if (block.isEmpty()) {
+                throw new IllegalStateException("No block of " + partySize
+                        + " adjacent seats is available on this flight.");
+            }
+
+            Reservation saved = claimBlockAndSave(customer, flight, flightId, block, payment);
+            if (saved != null) {
+                return saved;
+            }
+        }
+
+        throw new IllegalStateException("Seats were taken by another booking. Please try again.");
+    }
+
+    /**
+     * Claim the block and save the reservation in one transaction.
+     * @return Saved reservation, or null if part of the block was taken meanwhile
+     */
+    private Reservation claimBlockAndSave(Customer customer,
+                                          Flight flight,
+                                          int flightId,
+                                          List<Seat> block,
+                                          Payment payment) throws SQLException {
+        List<Integer> seatIds = new ArrayList<>(block.size());
+        for (Seat seat : block) {
+            seatIds.add(seat.getSeatId());
+        }
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        WaitlistEntry offer = null;
+        int unusedHolds = 0;
+        TransactionManager.begin(conn);
+        try {
+            if (waitlistService != null) {
+                offer = waitlistService.lockOpenOffer(conn, customer.getUserId(), flight.getFlightNumber());
+            }
+
+            if (seatDAO.claimSeats(flightId, seatIds) != block.size()) {
+                TransactionManager.rollback(conn);
+                return null;
+            }
+
+            if (!flightService.adjustAvailableSeats(flightId, flight.getFlightNumber(), -block.size())) {
+                throw new IllegalStateException("Not enough seats available on flight.");
+            }
+
+            for (Seat seat : block) {
+                seat.setAvailable(false);
+            }
+
+            Reservation reservation = new Reservation(
+                    0,
+                    LocalDateTime.now(),
+                    (payment != null) ? ReservationStatus.CONFIRMED : ReservationStatus.PENDING,
+                    calculateTotalPrice(flight, block),
+                    customer,
+                    flight,
+                    payment,
+                    new ArrayList<>(block)
+            );
+            Reservation saved = reservationDAO.save(reservation);
+
+            // The block comes from the open pool, so any held seats go back on sale
+            if (offer != null) {
+                unusedHolds = waitlistService.acceptOffer(conn, offer, null);
+            }
+            recordEvent(conn, DomainEvent.reservationCreated(saved));
+
+            TransactionManager.commit(conn);
+            dispatchEvents();
+            if (unusedHolds > 0) {
+                releaseToWaitlist(flightId, unusedHolds);
+            }
+            return saved;
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            for (Seat seat : block) {
+                seat.setAvailable(true);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Confirm a pending reservation and attach its payment.
+     * @return false if the reservation doesn't exist
+     * @throws IllegalStateException if it isn't pending, including when it expired meanwhile
+     */
     public boolean confirmReservation(int reservationId, Payment payment) throws SQLException {
         Reservation reservation = reservationDAO.findById(reservationId);
         if (reservation == null) {
@@ -145,10 +397,25 @@ public class ReservationService {
             throw new IllegalStateException("Only pending reservations can be confirmed.");
         }
 
-        reservation.setStatus(ReservationStatus.CONFIRMED);
-        reservation.setPayment(payment);
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            // The expiry sweep may have cancelled it since it was read
+            if (!reservationDAO.confirmIfPending(reservationId,
+                    payment != null ? payment.getPaymentId() : null)) {
+                throw new IllegalStateException("Reservation is no longer pending; it may have expired.");
+            }
+            reservation.setStatus(ReservationStatus.CONFIRMED);
+            reservation.setPayment(payment);
+            recordEvent(conn, DomainEvent.reservationConfirmed(reservation));
+            TransactionManager.commit(conn);
 
-        return reservationDAO.update(reservation);
+            dispatchEvents();
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
     }
 
     /**
@@ -169,41 +436,182 @@ public class ReservationService {
         }
 
         List<Seat> seats = reservation.getSeats();
-        if (seats != null) {
-            for (Seat seat : seats) {
-                seat.setAvailable(true);
-                seatDAO.update(seat);
+        boolean updated;
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            if (seats != null) {
+                for (Seat seat : seats) {
+                    seat.setAvailable(true);
+                    seatDAO.update(seat);
+                }
             }
+
+            if (reservation.getFlight() != null && seats != null) {
+                try {
+                    flightService.releaseSeats(
+                            reservation.getFlight().getFlightNumber(),
+                            seats.size()
+                    );
+                } catch (SQLException e) {
+                    System.err.println("Warning: Could not update flight available seats: " + e.getMessage());
+                }
+            }
+
+            reservation.setStatus(ReservationStatus.CANCELLED);
+            updated = reservationDAO.update(reservation);
+            if (updated) {
+                recordEvent(conn, DomainEvent.reservationCancelled(reservation, seats != null ? seats.size() : 0));
+            }
+
+            TransactionManager.commit(conn);
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+
+        if (updated) {
+            dispatchEvents();
         }
 
-        if (reservation.getFlight() != null && seats != null) {
+        if (updated && waitlistService != null && reservation.getFlight() != null
+                && seats != null && !seats.isEmpty()) {
             try {
-                flightService.releaseSeats(
-                        reservation.getFlight().getFlightNumber(),
-                        seats.size()
-                );
+                Integer flightId = getFlightIdByNumber(reservation.getFlight().getFlightNumber());
+                if (flightId != null) {
+                    releaseToWaitlist(flightId, seats.size());
+                }
             } catch (SQLException e) {
-                System.err.println("Warning: Could not update flight available seats: " + e.getMessage());
+                System.err.println("Warning: Could not promote waitlisted customers: " + e.getMessage());
             }
         }
 
-        reservation.setStatus(ReservationStatus.CANCELLED);
-        return reservationDAO.update(reservation);
+        return updated;
     }
 
+    /**
+     * Change the seats of a reservation in place.
+     * In one transaction, seats that were added are claimed, seats that were dropped
+     * are released, only their tickets are touched and available_seats moves by the
+     * net difference. The reservation keeps its ID and payment; kept seats keep
+     * their share of the old total and added seats are charged the current fare.
+     */
     public Reservation modifyReservation(int reservationId, List<Seat> newSeats) throws SQLException {
-        Reservation oldReservation = reservationDAO.findById(reservationId);
-        if (oldReservation == null) {
+        if (newSeats == null || newSeats.isEmpty()) {
+            throw new IllegalArgumentException("At least one seat is required.");
+        }
+
+        Reservation reservation = reservationDAO.findById(reservationId);
+        if (reservation == null) {
             return null;
         }
 
-        if (oldReservation.getStatus() != ReservationStatus.PENDING &&
-            oldReservation.getStatus() != ReservationStatus.CONFIRMED) {
+        if (reservation.getStatus() != ReservationStatus.PENDING &&
+            reservation.getStatus() != ReservationStatus.CONFIRMED) {
             throw new IllegalStateException("Cannot modify cancelled or completed reservations.");
         }
 
-        cancelReservation(reservationId);
-        return createReservation(oldReservation.getCustomer(), oldReservation.getFlight(), newSeats);
+        List<Seat> oldSeats = reservation.getSeats() != null ? reservation.getSeats() : new ArrayList<>();
+        Set<Integer> oldIds = new HashSet<>();
+        for (Seat seat : oldSeats) {
+            oldIds.add(seat.getSeatId());
+        }
+        Set<Integer> newIds = new HashSet<>();
+        for (Seat seat : newSeats) {
+            newIds.add(seat.getSeatId());
+        }
+
+        List<Seat> added = new ArrayList<>();
+        List<Integer> addedIds = new ArrayList<>();
+        for (Seat seat : newSeats) {
+            if (!oldIds.contains(seat.getSeatId()) && !addedIds.contains(seat.getSeatId())) {
+                added.add(seat);
+                addedIds.add(seat.getSeatId());
+            }
+        }
+        List<Integer> removedIds = new ArrayList<>();
+        for (Seat seat : oldSeats) {
+            if (!newIds.contains(seat.getSeatId())) {
+                removedIds.add(seat.getSeatId());
+            }
+        }
+
+        if (added.isEmpty() && removedIds.isEmpty()) {
+            return reservation;
+        }
+
+        Flight flight = reservation.getFlight();
+        Integer flightId = getFlightIdByNumber(flight.getFlightNumber());
+        if (flightId == null) {
+            throw new SQLException("Flight not found: " + flight.getFlightNumber());
+        }
+
+        int netReleased = removedIds.size() - added.size();
+        List<Seat> kept = new ArrayList<>();
+        for (Seat seat : oldSeats) {
+            if (newIds.contains(seat.getSeatId())) {
+                kept.add(seat);
+            }
+        }
+        List<Seat> keptAndAdded = new ArrayList<>(kept);
+        keptAndAdded.addAll(added);
+
+        // Kept seats keep what was paid for them; only added seats are priced at today's fare
+        double oldWeight = priceSeats(1.0, oldSeats);
+        double keptTotal = oldWeight > 0
+                ? reservation.getTotalPrice() * priceSeats(1.0, kept) / oldWeight : 0.0;
+        double addedTotal = priceSeats(flightService.getCurrentFare(flight), added);
+
+        Reservation modified = new Reservation(
+                reservation.getReservationId(),
+                reservation.getBookingDate(),
+                reservation.getStatus(),
+                keptTotal + addedTotal,
+                reservation.getCustomer(),
+                flight,
+                reservation.getPayment(),
+                keptAndAdded
+        );
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        TransactionManager.begin(conn);
+        try {
+            if (seatDAO.claimSeats(flightId, addedIds) != added.size()) {
+                throw new IllegalStateException(
+                        "One or more selected seats are no longer available. Please select different seats.");
+            }
+            seatDAO.releaseSeats(flightId, removedIds);
+
+            reservationDAO.deleteTickets(reservationId, removedIds);
+            reservationDAO.addTickets(reservation, added);
+
+            if (!flightService.adjustAvailableSeats(flightId, flight.getFlightNumber(), netReleased)) {
+                throw new IllegalStateException("Not enough seats available on flight.");
+            }
+
+            if (!reservationDAO.update(modified)) {
+                throw new IllegalStateException("Reservation could not be updated. Please try again.");
+            }
+            recordEvent(conn, DomainEvent.reservationModified(modified, netReleased));
+
+            TransactionManager.commit(conn);
+        } catch (SQLException | RuntimeException e) {
+            TransactionManager.rollback(conn);
+            throw e;
+        }
+
+        dispatchEvents();
+
+        for (Seat seat : added) {
+            seat.setAvailable(false);
+        }
+
+        if (netReleased > 0) {
+            releaseToWaitlist(flightId, netReleased);
+        }
+
+        return modified;
     }
 
     public List<Reservation> getCustomerReservations(Customer customer) throws SQLException {
@@ -220,6 +628,16 @@ public class ReservationService {
         return reservationDAO.findByCustomerId(user.getUserId());
     }
 
+    /**
+     * A user's reservations changed since a watermark; a null watermark loads them all.
+     */
+    public ChangeSet<Reservation> getUserReservationChanges(User user, LocalDateTime since) throws SQLException {
+        if (user == null) {
+            throw new IllegalArgumentException("User is required.");
+        }
+        return reservationDAO.findChangesByCustomerId(user.getUserId(), since);
+    }
+
     public Reservation getReservationById(int reservationId) throws SQLException {
         return reservationDAO.findById(reservationId);
     }
@@ -232,6 +650,24 @@ public class ReservationService {
         return reservationDAO.findAll();
     }
 
+    public int countReservations(PageQuery query) throws SQLException {
+        return reservationDAO.count(query);
+    }
+
+    /**
+     * One page of reservation summaries for a table; load the full
+     * reservation with getReservationById before acting on it.
+     */
+    public KeyedPage<Reservation> getReservationPage(PageQuery query, PageKey after, int offset, int limit)
+            throws SQLException {
+        return reservationDAO.findPage(query, after, offset, limit);
+    }
+
+    public ChangeSet<Reservation> getReservationChanges(PageQuery query, LocalDateTime since, int limit)
+            throws SQLException {
+        return reservationDAO.findChangesSince(query, since, limit);
+    }
+
     public List<Seat> getAvailableSeatsForFlight(Flight flight) throws SQLException {
         if (flight == null) {
             throw new IllegalArgumentException("Flight is required.");
@@ -250,20 +686,79 @@ public class ReservationService {
             throw new IllegalArgumentException("Flight is required.");
         }
 
-        Integer flightId = getFlightIdByNumber(flight.getFlightNumber());
+        // The cache remembers flight ids, so a cached seat map needs no query at all
+        Integer flightId = seatMapCache != null ? seatMapCache.getFlightId(flight.getFlightNumber()) : null;
+        if (flightId == null) {
+            flightId = getFlightIdByNumber(flight.getFlightNumber());
+        }
         if (flightId == null) {
             throw new SQLException("Flight not found: " + flight.getFlightNumber());
         }
 
-        return seatDAO.findByFlightId(flightId);
+        if (seatMapCache == null) {
+            return seatDAO.findByFlightId(flightId);
+        }
+        int id = flightId;
+        return seatMapCache.get(id, flight.getFlightNumber(), () -> seatDAO.findByFlightId(id));
+    }
+
+    /**
+     * Start loading the flight's seat map in the background, so opening it is instant.
+     * Does nothing without a seat map cache; rate-limited by the cache. The
+     * prefetch reads on its own connection, so it never runs inside (or sees
+     * the uncommitted seats of) a booking on the shared one.
+     */
+    public void prefetchSeatsForFlight(Flight flight) {
+        if (seatMapCache == null || flight == null) {
+            return;
+        }
+        String flightNumber = flight.getFlightNumber();
+        seatMapCache.prefetch(flightNumber, () -> {
+            try {
+                Connection conn = prefetchConnection();
+                Integer flightId = seatMapCache.getFlightId(flightNumber);
+                if (flightId == null) {
+                    flightId = getFlightIdByNumber(conn, flightNumber);
+                }
+                if (flightId == null) {
+                    throw new SQLException("Flight not found: " + flightNumber);
+                }
+                int id = flightId;
+                return seatMapCache.get(id, flightNumber, () -> seatDAO.findByFlightId(conn, id));
+            } catch (SQLException e) {
+                closePrefetchConnection();
+                throw e;
+            }
+        });
+    }
+
+    private Connection prefetchConnection() throws SQLException {
+        if (prefetchConnection == null || prefetchConnection.isClosed()) {
+            prefetchConnection = DatabaseConnection.getInstance().openConnection();
+        }
+        return prefetchConnection;
+    }
+
+    private void closePrefetchConnection() {
+        if (prefetchConnection != null) {
+            try {
+                prefetchConnection.close();
+            } catch (SQLException e) {
+                // Already broken; a new one is opened on the next prefetch
+            }
+            prefetchConnection = null;
+        }
     }
 
     private Integer getFlightIdByNumber(String flightNumber) throws SQLException {
+        return getFlightIdByNumber(DatabaseConnection.getInstance().getConnection(), flightNumber);
+    }
+
+    private Integer getFlightIdByNumber(Connection conn, String flightNumber) throws SQLException {
         if (flightNumber == null || flightNumber.isEmpty()) {
             return null;
         }
 
-        java.sql.Connection conn = DatabaseConnection.getInstance().getConnection();
         try (java.sql.PreparedStatement stmt = conn.prepareStatement(
                 "SELECT flight_id FROM flights WHERE flight_number = ?")) {
             stmt.setString(1, flightNumber);
@@ -281,11 +776,20 @@ public class ReservationService {
      * BUSINESS = 1.5x, FIRST = 2.5x, ECONOMY = base price
      */
     public double calculateTotalPrice(Flight flight, List<Seat> seats) {
-        if (flight == null || seats == null || seats.isEmpty()) {
+        if (flight == null) {
+            return 0.0;
+        }
+        return priceSeats(flight.getPrice(), seats);
+    }
+
+    /**
+     * Price seats at a per-seat base fare, with the cabin premiums applied.
+     */
+    private double priceSeats(double basePrice, List<Seat> seats) {
+        if (seats == null || seats.isEmpty()) {
             return 0.0;
         }
 
-        double basePrice = flight.getPrice();
         double total = 0.0;
 
         for (Seat seat : seats) {
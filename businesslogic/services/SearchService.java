@@ -0,0 +1,184 @@
+package businesslogic.services;
+
+import businesslogic.entities.Customer;
+import datalayer.dao.ReservationDAO;
+import datalayer.dao.UserDAO;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Search-as-you-type over customers and reservation ids.
+ *
+ * Customers are indexed by username, email, first name, last name and full
+ * name; reservations by their id. Both indexes are read from the database
+ * once, in id-ordered batches, the first time they are needed, and kept up
+ * to date afterwards: customer writes through {@link CustomerService} and
+ * {@link AdminService} report here, and new reservations arrive as
+ * RESERVATION_CREATED events.
+ *
+ * Searches return ids; callers narrow their table queries to them.
+ */
+public class SearchService {
+
+    public static final int DEFAULT_LIMIT = 50;
+
+    private static final int SCAN_BATCH = 5000;
+
+    private final UserDAO userDAO;
+    private final ReservationDAO reservationDAO;
+
+    // Null until loaded; writes made meanwhile wait for the load to finish
+    private volatile PrefixIndex customers;
+    private volatile PrefixIndex reservations;
+
+    /**
+     * @param eventBus Source of reservation events, or null to index only what was loaded
+     */
+    public SearchService(UserDAO userDAO, ReservationDAO reservationDAO, EventBus eventBus) {
+        this.userDAO = userDAO;
+        this.reservationDAO = reservationDAO;
+        if (eventBus != null) {
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_CREATED,
+                event -> reservationCreated(event.getAttribute("reservationId")));
+        }
+    }
+
+    // ========================================================================
+    // SEARCH
+    // ========================================================================
+
+    /**
+     * Load both indexes if they aren't yet, so the first keystroke doesn't wait.
+     */
+    public void prepare() throws SQLException {
+        customerIndex();
+        reservationIndex();
+    }
+
+    /**
+     * Customers with a username, email or name starting with the prefix.
+     */
+    public List<Integer> searchCustomerIds(String prefix, int limit) throws SQLException {
+        return customerIndex().search(prefix, limit);
+    }
+
+    /**
+     * Reservations whose id starts with the prefix.
+     */
+    public List<Integer> searchReservationIds(String prefix, int limit) throws SQLException {
+        return reservationIndex().search(prefix, limit);
+    }
+
+    // ========================================================================
+    // UPDATES
+    // ========================================================================
+
+    /**
+     * Index a created or updated customer under its current keys.
+     */
+    public void customerSaved(Customer customer) {
+        PrefixIndex index = loaded(true);
+        // Not loaded yet: the load, when it comes, reads the saved row
+        if (index != null) {
+            index.put(customer.getUserId(), keysOf(customer));
+        }
+    }
+
+    /**
+     * Drop a deleted user. Users that aren't customers are ignored.
+     */
+    public void customerRemoved(int userId) {
+        PrefixIndex index = loaded(true);
+        if (index != null) {
+            index.remove(userId);
+        }
+    }
+
+    private void reservationCreated(String reservationId) {
+        if (reservationId == null) {
+            return;
+        }
+        try {
+            int id = Integer.parseInt(reservationId);
+            PrefixIndex index = loaded(false);
+            if (index != null) {
+                index.put(id, reservationId);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Ignoring reservation event with bad id " + reservationId);
+        }
+    }
+
+    /**
+     * Waits for a load in progress, so a write made during it isn't lost.
+     */
+    private synchronized PrefixIndex loaded(boolean customerIndex) {
+        return customerIndex ? customers : reservations;
+    }
+
+    // ========================================================================
+    // LOADING
+    // ========================================================================
+
+    private PrefixIndex customerIndex() throws SQLException {
+        PrefixIndex index = customers;
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            if (customers == null) {
+                long start = System.nanoTime();
+                PrefixIndex.Builder builder = new PrefixIndex.Builder();
+                int afterId = 0;
+                int count = 0;
+                List<Customer> batch;
+                do {
+                    batch = userDAO.findCustomersAfter(afterId, SCAN_BATCH);
+                    for (Customer customer : batch) {
+                        builder.add(customer.getUserId(), keysOf(customer));
+                        afterId = customer.getUserId();
+                    }
+                    count += batch.size();
+                } while (batch.size() == SCAN_BATCH);
+                customers = builder.build();
+                System.out.println("[SearchService] Indexed " + count + " customers in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+            return customers;
+        }
+    }
+
+    private PrefixIndex reservationIndex() throws SQLException {
+        PrefixIndex index = reservations;
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            if (reservations == null) {
+                PrefixIndex.Builder builder = new PrefixIndex.Builder();
+                int afterId = 0;
+                List<Integer> batch;
+                do {
+                    batch = reservationDAO.findIdsAfter(afterId, SCAN_BATCH);
+                    for (int id : batch) {
+                        builder.add(id, String.valueOf(id));
+                        afterId = id;
+                    }
+                } while (batch.size() == SCAN_BATCH);
+                reservations = builder.build();
+            }
+            return reservations;
+        }
+    }
+
+    private static String[] keysOf(Customer customer) {
+        String fullName = customer.getFirstName() != null && customer.getLastName() != null
+            ? customer.getFirstName() + " " + customer.getLastName()
+            : null;
+        return new String[]{
+            customer.getUsername(), customer.getEmail(),
+            customer.getFirstName(), customer.getLastName(), fullName
+        };
+    }
+}
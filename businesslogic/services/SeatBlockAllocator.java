@@ -0,0 +1,262 @@
+package businesslogic.services;
+
+import businesslogic.entities.Seat;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds blocks of adjacent seats for group bookings.
+ * Seats are laid out on a compact row x column availability grid using the
+ * aircraft seat configuration (e.g. "3-3", "2-4-2"), so a search is a single
+ * O(rows x cols) pass.
+ *
+ * Preference order:
+ *   1. Whole party in one row without crossing an aisle (front rows first)
+ *   2. Whole party in one row, fewest aisles crossed
+ *   3. Fewest consecutive rows holding the party
+ */
+public class SeatBlockAllocator {
+
+    private static final int DEFAULT_SEATS_PER_ROW = 6;
+
+    private final int columns;
+    private final int[] sectionOfColumn;
+
+    /**
+     * @param seatConfiguration Seat groups between aisles, e.g. "3-4-3"
+     */
+    public SeatBlockAllocator(String seatConfiguration) {
+        int[] sections = parseSections(seatConfiguration);
+
+        int total = 0;
+        for (int size : sections) {
+            total += size;
+        }
+        this.columns = total;
+        this.sectionOfColumn = new int[total];
+
+        int col = 0;
+        for (int s = 0; s < sections.length; s++) {
+            for (int i = 0; i < sections[s]; i++) {
+                sectionOfColumn[col++] = s;
+            }
+        }
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Find the best block of adjacent available seats.
+     * @param seats All seats of the cabin being searched (occupied ones included,
+     *              so the grid knows where the gaps are)
+     * @param partySize Number of seats needed
+     * @return Seats of the block, or an empty list if the party cannot be seated together
+     */
+    public List<Seat> findBlock(List<Seat> seats, int partySize) {
+        if (partySize <= 0) {
+            throw new IllegalArgumentException("Party size must be positive.");
+        }
+        if (seats == null || seats.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        SeatGrid grid = buildGrid(seats);
+        if (grid == null || grid.free.cardinality() < partySize) {
+            return Collections.emptyList();
+        }
+
+        List<Seat> block = null;
+        if (partySize <= columns) {
+            block = findInSingleRow(grid, partySize);
+        }
+        if (block == null) {
+            block = findAcrossRows(grid, partySize);
+        }
+        return block != null ? block : Collections.emptyList();
+    }
+
+    /**
+     * Scan each row once, keeping the length of the current free run.
+     * Returns the first zero-aisle window (front rows first), otherwise the
+     * window crossing the fewest aisles.
+     */
+    private List<Seat> findInSingleRow(SeatGrid grid, int partySize) {
+        int bestRow = -1;
+        int bestStart = -1;
+        int bestCrossings = Integer.MAX_VALUE;
+
+        for (int r = 0; r < grid.rows; r++) {
+            int run = 0;
+            int base = r * columns;
+            for (int c = 0; c < columns; c++) {
+                run = grid.free.get(base + c) ? run + 1 : 0;
+                if (run >= partySize) {
+                    int start = c - partySize + 1;
+                    int crossings = sectionOfColumn[c] - sectionOfColumn[start];
+                    if (crossings < bestCrossings) {
+                        bestCrossings = crossings;
+                        bestRow = r;
+                        bestStart = start;
+                        if (crossings == 0) {
+                            return collect(grid, bestRow, bestStart, partySize);
+                        }
+                    }
+                }
+            }
+        }
+
+        return bestRow >= 0 ? collect(grid, bestRow, bestStart, partySize) : null;
+    }
+
+    /**
+     * Smallest window of consecutive rows with enough free seats (two-pointer
+     * over per-row free counts), filled row by row in column order.
+     */
+    private List<Seat> findAcrossRows(SeatGrid grid, int partySize) {
+        int[] freeInRow = new int[grid.rows];
+        for (int r = 0; r < grid.rows; r++) {
+            freeInRow[r] = grid.free.get(r * columns, (r + 1) * columns).cardinality();
+        }
+
+        int bestStart = -1;
+        int bestLength = Integer.MAX_VALUE;
+        int sum = 0;
+        int left = 0;
+        for (int right = 0; right < grid.rows; right++) {
+            sum += freeInRow[right];
+            while (sum - freeInRow[left] >= partySize && left < right) {
+                sum -= freeInRow[left];
+                left++;
+            }
+            if (sum >= partySize && right - left + 1 < bestLength) {
+                bestLength = right - left + 1;
+                bestStart = left;
+            }
+        }
+
+        if (bestStart < 0) {
+            return null;
+        }
+
+        List<Seat> block = new ArrayList<>(partySize);
+        for (int r = bestStart; r < bestStart + bestLength && block.size() < partySize; r++) {
+            int base = r * columns;
+            for (int c = grid.free.nextSetBit(base);
+                 c >= 0 && c < base + columns && block.size() < partySize;
+                 c = grid.free.nextSetBit(c + 1)) {
+                block.add(grid.cells[c]);
+            }
+        }
+        return block;
+    }
+
+    private List<Seat> collect(SeatGrid grid, int row, int start, int partySize) {
+        List<Seat> block = new ArrayList<>(partySize);
+        int base = row * columns + start;
+        for (int i = 0; i < partySize; i++) {
+            block.add(grid.cells[base + i]);
+        }
+        return block;
+    }
+
+    private SeatGrid buildGrid(List<Seat> seats) {
+        int minRow = Integer.MAX_VALUE;
+        int maxRow = Integer.MIN_VALUE;
+
+        for (Seat seat : seats) {
+            int row = parseRow(seat.getSeatNumber());
+            if (row > 0) {
+                minRow = Math.min(minRow, row);
+                maxRow = Math.max(maxRow, row);
+            }
+        }
+        if (minRow == Integer.MAX_VALUE) {
+            return null;
+        }
+
+        SeatGrid grid = new SeatGrid(maxRow - minRow + 1, columns);
+        for (Seat seat : seats) {
+            int row = parseRow(seat.getSeatNumber());
+            int col = parseColumn(seat.getSeatNumber());
+            if (row <= 0 || col < 0 || col >= columns) {
+                continue;
+            }
+            int index = (row - minRow) * columns + col;
+            grid.cells[index] = seat;
+            if (seat.isAvailable()) {
+                grid.free.set(index);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Row number from a seat number, e.g. "12C" -> 12. Returns 0 if unparsable.
+     */
+    static int parseRow(String seatNumber) {
+        if (seatNumber == null) {
+            return 0;
+        }
+        int row = 0;
+        for (int i = 0; i < seatNumber.length(); i++) {
+            char ch = seatNumber.charAt(i);
+            if (ch < '0' || ch > '9') {
+                break;
+            }
+            row = row * 10 + (ch - '0');
+        }
+        return row;
+    }
+
+    /**
+     * Zero-based column from a seat number, e.g. "12C" -> 2. Returns -1 if unparsable.
+     */
+    static int parseColumn(String seatNumber) {
+        if (seatNumber == null || seatNumber.isEmpty()) {
+            return -1;
+        }
+        char letter = Character.toUpperCase(seatNumber.charAt(seatNumber.length() - 1));
+        return (letter >= 'A' && letter <= 'Z') ? letter - 'A' : -1;
+    }
+
+    /**
+     * Split a seat configuration into section sizes. Falls back to a single
+     * 6-seat section, matching SeatDAOImpl's seat numbering.
+     */
+    static int[] parseSections(String seatConfiguration) {
+        if (seatConfiguration == null || seatConfiguration.trim().isEmpty()) {
+            return new int[] { DEFAULT_SEATS_PER_ROW };
+        }
+
+        String[] parts = seatConfiguration.split("-");
+        int[] sections = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                sections[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                return new int[] { DEFAULT_SEATS_PER_ROW };
+            }
+            if (sections[i] <= 0) {
+                return new int[] { DEFAULT_SEATS_PER_ROW };
+            }
+        }
+        return sections;
+    }
+
+    private static final class SeatGrid {
+        private final int rows;
+        private final Seat[] cells;
+        private final BitSet free;
+
+        private SeatGrid(int rows, int columns) {
+            this.rows = rows;
+            this.cells = new Seat[rows * columns];
+            this.free = new BitSet(rows * columns);
+        }
+    }
+}
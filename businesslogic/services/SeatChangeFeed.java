@@ -0,0 +1,505 @@
+package businesslogic.services;
+
+import datalayer.database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes seat availability changes of watched flights to open seat maps.
+ *
+ * Each watched flight keeps a snapshot of its seats as a bitmask, one bit
+ * per seat in seat_id order. Reservation and flight events from the
+ * {@link EventBus} trigger a refresh of their flight at once; changes made
+ * on other nodes are caught by polling flights.seat_version, which every
+ * seat availability write bumps. A refresh reloads the flight's seats and
+ * sends listeners only the bits that flipped, so a burst of bookings
+ * arrives as one diff. Refreshes run on the feed thread over one
+ * long-lived connection, reopened after a failure.
+ *
+ * Listeners are called on the feed thread; Swing listeners should hop to
+ * the EDT themselves. A new listener first receives a full snapshot, which
+ * covers anything that changed since its view loaded the seats.
+ */
+public class SeatChangeFeed {
+
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(2);
+    // Events arriving within this window are folded into one refresh
+    private static final Duration COALESCE_DELAY = Duration.ofMillis(150);
+
+    private static final String FLIGHT_ID_BY_NUMBER_SQL =
+        "SELECT flight_id FROM flights WHERE flight_number = ?";
+
+    private static final String SEAT_VERSIONS_SQL =
+        "SELECT flight_id, seat_version FROM flights WHERE flight_id IN (%s)";
+
+    private static final String SEATS_SQL =
+        "SELECT seat_id, is_available FROM seats WHERE flight_id = ? ORDER BY seat_id";
+
+    /**
+     * Receives the seats of one flight that changed since the last call.
+     */
+    public interface Listener {
+        void onSeatChanges(SeatChanges changes);
+    }
+
+    // Keyed by flight number; snapshot fields are only touched on the feed thread
+    private final Map<String, WatchedFlight> flights = new ConcurrentHashMap<>();
+    private final Set<String> dirtyFlights = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService poller;
+    private volatile boolean isRunning = false;
+    // Feed thread only, apart from the close in stop() after the poller has finished
+    private Connection connection;
+
+    /**
+     * @param eventBus Source of reservation and flight events, or null to rely on polling alone
+     */
+    public SeatChangeFeed(EventBus eventBus) {
+        if (eventBus != null) {
+            EventBus.Subscriber onSeatsChanged = event -> flightChanged(event.getAttribute("flightNumber"));
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_CREATED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_MODIFIED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_CANCELLED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.WAITLIST_OFFERED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.WAITLIST_OFFER_EXPIRED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.WAITLIST_OFFER_DECLINED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.FLIGHT_UPDATED, onSeatsChanged);
+        }
+    }
+
+    // ========================================================================
+    // LIFECYCLE
+    // ========================================================================
+
+    public synchronized void start() {
+        if (isRunning) {
+            System.out.println("[SeatChangeFeed] Poller already running.");
+            return;
+        }
+
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+        isRunning = true;
+        poller.scheduleWithFixedDelay(this::refreshQuietly, POLL_INTERVAL.toMillis(),
+                                      POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+        System.out.println("[SeatChangeFeed] Poller started. Interval: " + POLL_INTERVAL.toMillis() + " ms.");
+    }
+
+    public synchronized void stop() {
+        if (!isRunning) {
+            return;
+        }
+
+        isRunning = false;
+        poller.shutdown();
+
+        try {
+            if (!poller.awaitTermination(5, TimeUnit.SECONDS)) {
+                poller.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            poller.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        closeConnection();
+
+        System.out.println("[SeatChangeFeed] Poller stopped.");
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    // ========================================================================
+    // SUBSCRIPTIONS
+    // ========================================================================
+
+    /**
+     * Watch a flight's seats. The listener first receives a full snapshot, then diffs.
+     * @return Handle to close when the seat map goes away
+     */
+    public Subscription subscribe(String flightNumber, Listener listener) {
+        if (flightNumber == null || flightNumber.trim().isEmpty() || listener == null) {
+            throw new IllegalArgumentException("Flight number and listener are required.");
+        }
+
+        Subscription subscription = new Subscription(flightNumber, listener);
+        flights.compute(flightNumber, (number, flight) -> {
+            WatchedFlight watched = flight != null ? flight : new WatchedFlight(number);
+            watched.subscriptions.add(subscription);
+            return watched;
+        });
+        flightChanged(flightNumber);
+        return subscription;
+    }
+
+    /**
+     * Number of flights currently watched, for diagnostics.
+     */
+    public int getWatchedFlightCount() {
+        return flights.size();
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        flights.computeIfPresent(subscription.flightNumber, (number, flight) -> {
+            flight.subscriptions.remove(subscription);
+            return flight.subscriptions.isEmpty() ? null : flight;
+        });
+    }
+
+    /**
+     * Refresh a watched flight soon. Requests made while one is queued are folded into it.
+     */
+    private void flightChanged(String flightNumber) {
+        if (flightNumber == null || !flights.containsKey(flightNumber)) {
+            return;
+        }
+        dirtyFlights.add(flightNumber);
+
+        ScheduledExecutorService current = poller;
+        if (!isRunning || current == null || !refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            current.schedule(() -> {
+                refreshQueued.set(false);
+                refreshQuietly();
+            }, COALESCE_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // Stopped meanwhile; the flight stays dirty for the next start
+            refreshQueued.set(false);
+        }
+    }
+
+    // ========================================================================
+    // REFRESH
+    // ========================================================================
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (SQLException e) {
+            closeConnection();
+            System.err.println("[SeatChangeFeed] Error refreshing seat maps: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Keep the poller alive
+            System.err.println("[SeatChangeFeed] Unexpected error refreshing seat maps: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reload every watched flight that is dirty or whose seat_version moved,
+     * and send each listener what changed. Runs on the feed thread.
+     */
+    private void refresh() throws SQLException {
+        if (flights.isEmpty()) {
+            dirtyFlights.clear();
+            return;
+        }
+
+        Connection conn = connection();
+        Map<Long, WatchedFlight> byId = new HashMap<>();
+        for (WatchedFlight flight : flights.values()) {
+            if (flight.flightId == null) {
+                flight.flightId = findFlightId(conn, flight.flightNumber);
+            }
+            if (flight.flightId != null) {
+                byId.put(flight.flightId, flight);
+            }
+        }
+        if (byId.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> versions = loadSeatVersions(conn, byId.keySet());
+        for (WatchedFlight flight : byId.values()) {
+            Long version = versions.get(flight.flightId);
+            boolean dirty = dirtyFlights.remove(flight.flightNumber);
+            boolean moved = version != null && version != flight.version;
+            if (!dirty && !moved && !flight.hasUnprimedSubscriptions()) {
+                continue;
+            }
+            if (version != null) {
+                flight.version = version;
+            }
+            reloadSeats(conn, flight);
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DatabaseConnection.getInstance().openConnection();
+        }
+        return connection;
+    }
+
+    private void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // Already broken; a new one is opened on the next refresh
+            }
+            connection = null;
+        }
+    }
+
+    private Long findFlightId(Connection conn, String flightNumber) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(FLIGHT_ID_BY_NUMBER_SQL)) {
+            stmt.setString(1, flightNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong("flight_id") : null;
+            }
+        }
+    }
+
+    private Map<Long, Long> loadSeatVersions(Connection conn, Set<Long> flightIds) throws SQLException {
+        StringJoiner placeholders = new StringJoiner(", ");
+        for (int i = 0; i < flightIds.size(); i++) {
+            placeholders.add("?");
+        }
+
+        Map<Long, Long> versions = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(SEAT_VERSIONS_SQL, placeholders))) {
+            int param = 1;
+            for (Long flightId : flightIds) {
+                stmt.setLong(param++, flightId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    versions.put(rs.getLong("flight_id"), rs.getLong("seat_version"));
+                }
+            }
+        }
+        return versions;
+    }
+
+    private void reloadSeats(Connection conn, WatchedFlight flight) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        BitSet available = new BitSet();
+        try (PreparedStatement stmt = conn.prepareStatement(SEATS_SQL)) {
+            stmt.setLong(1, flight.flightId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getBoolean("is_available")) {
+                        available.set(ids.size());
+                    }
+                    ids.add(rs.getInt("seat_id"));
+                }
+            }
+        }
+        int[] seatIds = ids.stream().mapToInt(Integer::intValue).toArray();
+
+        SeatChanges diff = SeatChanges.between(flight.flightNumber, flight.seatIds, flight.available,
+                                               seatIds, available);
+        SeatChanges snapshot = null;
+        flight.seatIds = seatIds;
+        flight.available = available;
+
+        for (Subscription subscription : flight.subscriptions) {
+            SeatChanges changes;
+            if (!subscription.primed) {
+                if (snapshot == null) {
+                    snapshot = SeatChanges.snapshot(flight.flightNumber, seatIds, available);
+                }
+                changes = snapshot;
+                subscription.primed = true;
+            } else {
+                changes = diff;
+            }
+            if (changes.isEmpty() || subscription.closed) {
+                continue;
+            }
+            try {
+                subscription.listener.onSeatChanges(changes);
+            } catch (RuntimeException e) {
+                System.err.println("[SeatChangeFeed] Warning: seat map listener for " + flight.flightNumber +
+                                   " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // ========================================================================
+    // TYPES
+    // ========================================================================
+
+    /**
+     * Handle to one listener's interest in one flight.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final String flightNumber;
+        private final Listener listener;
+        // Feed thread only
+        private boolean primed;
+        private volatile boolean closed;
+
+        private Subscription(String flightNumber, Listener listener) {
+            this.flightNumber = flightNumber;
+            this.listener = listener;
+        }
+
+        public String getFlightNumber() {
+            return flightNumber;
+        }
+
+        /**
+         * Stop receiving changes. Safe to call more than once.
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                unsubscribe(this);
+            }
+        }
+    }
+
+    private static final class WatchedFlight {
+        private final String flightNumber;
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private Long flightId;
+        private long version = -1;
+        private int[] seatIds = new int[0];
+        private BitSet available = new BitSet();
+
+        private WatchedFlight(String flightNumber) {
+            this.flightNumber = flightNumber;
+        }
+
+        private boolean hasUnprimedSubscriptions() {
+            for (Subscription subscription : subscriptions) {
+                if (!subscription.primed) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Seats of one flight whose availability changed. Bit i of both masks is
+     * the seat at index i of {@link #getSeatIds()}.
+     */
+    public static final class SeatChanges {
+        private final String flightNumber;
+        private final int[] seatIds;
+        private final BitSet changed;
+        private final BitSet available;
+        private final boolean snapshot;
+
+        private SeatChanges(String flightNumber, int[] seatIds, BitSet changed, BitSet available, boolean snapshot) {
+            this.flightNumber = flightNumber;
+            this.seatIds = seatIds;
+            this.changed = changed;
+            this.available = available;
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Every seat, as a listener's starting point.
+         */
+        public static SeatChanges snapshot(String flightNumber, int[] seatIds, BitSet available) {
+            BitSet all = new BitSet(seatIds.length);
+            all.set(0, seatIds.length);
+            return new SeatChanges(flightNumber, seatIds, all, (BitSet) available.clone(), true);
+        }
+
+        /**
+         * The seats that flipped between two snapshots of a flight. If the seats
+         * themselves changed (added or removed), the result is a full snapshot.
+         */
+        public static SeatChanges between(String flightNumber, int[] oldSeatIds, BitSet oldAvailable,
+                                          int[] newSeatIds, BitSet newAvailable) {
+            if (!Arrays.equals(oldSeatIds, newSeatIds)) {
+                return snapshot(flightNumber, newSeatIds, newAvailable);
+            }
+            BitSet changed = (BitSet) oldAvailable.clone();
+            changed.xor(newAvailable);
+            return new SeatChanges(flightNumber, newSeatIds, changed, (BitSet) newAvailable.clone(), false);
+        }
+
+        public String getFlightNumber() {
+            return flightNumber;
+        }
+
+        /**
+         * True if this covers every seat of the flight rather than only the ones that flipped.
+         */
+        public boolean isSnapshot() {
+            return snapshot;
+        }
+
+        public boolean isEmpty() {
+            return changed.isEmpty();
+        }
+
+        public int getChangedCount() {
+            return changed.cardinality();
+        }
+
+        public int[] getSeatIds() {
+            return seatIds.clone();
+        }
+
+        public BitSet getChanged() {
+            return (BitSet) changed.clone();
+        }
+
+        public BitSet getAvailable() {
+            return (BitSet) available.clone();
+        }
+
+        /**
+         * Changed seats that are now free.
+         */
+        public List<Integer> getReleasedSeatIds() {
+            return collect(true);
+        }
+
+        /**
+         * Changed seats that are now taken.
+         */
+        public List<Integer> getTakenSeatIds() {
+            return collect(false);
+        }
+
+        private List<Integer> collect(boolean nowAvailable) {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+                if (available.get(i) == nowAvailable) {
+                    ids.add(seatIds[i]);
+                }
+            }
+            return ids;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SeatChanges[%s: %d changed%s]", flightNumber, getChangedCount(),
+                                 snapshot ? ", snapshot" : "");
+        }
+    }
+}
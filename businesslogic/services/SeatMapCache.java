@@ -0,0 +1,436 @@
+package businesslogic.services;
+
+import businesslogic.entities.Seat;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small cache of flight seat maps by flight id, filled ahead of time while
+ * a customer looks through search results.
+ *
+ * Holds the seats of the few flights looked at last, each for a few seconds.
+ * Prefetches run one at a time on a background thread, at most one every
+ * {@link #DEFAULT_PREFETCH_INTERVAL}; a newer request replaces one still
+ * waiting, so scrolling through results queries only where it stops. A seat
+ * map asked for while its prefetch is under way waits for that query instead
+ * of starting another. Reservation and flight events from the {@link EventBus}
+ * drop the flight's seats. Changes from other nodes expire with the TTL, and
+ * an open seat map catches up through {@link SeatChangeFeed} anyway.
+ *
+ * Every caller gets its own copy of the seats, since seat maps update them.
+ */
+public class SeatMapCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_PREFETCH_INTERVAL = Duration.ofMillis(250);
+
+    /**
+     * Loads a flight's seats on a miss.
+     */
+    public interface Loader {
+        List<Seat> load() throws SQLException;
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long prefetchIntervalNanos;
+
+    // All state below is guarded by this
+    private final LinkedHashMap<Integer, Entry> entries;
+    // Flight ids never change, so these outlive the seats they were read with
+    private final LinkedHashMap<String, Integer> flightIds;
+    private final Map<Integer, Load> loading = new HashMap<>();
+    private String pendingFlight;
+    private Runnable pendingPrefetch;
+    private boolean prefetchScheduled;
+    private long lastPrefetchAt;
+    private long hits;
+    private long misses;
+    private long prefetches;
+    private long skippedPrefetches;
+
+    private ScheduledExecutorService prefetcher;
+
+    /**
+     * @param eventBus Source of reservation and flight events, or null to rely on the TTL alone
+     */
+    public SeatMapCache(EventBus eventBus) {
+        this(eventBus, DEFAULT_MAX_ENTRIES, DEFAULT_TTL, DEFAULT_PREFETCH_INTERVAL);
+    }
+
+    public SeatMapCache(EventBus eventBus, int maxEntries, Duration ttl, Duration prefetchInterval) {
+        if (maxEntries <= 0 || ttl == null || ttl.isNegative() || ttl.isZero()
+                || prefetchInterval == null || prefetchInterval.isNegative()) {
+            throw new IllegalArgumentException("Cache size, TTL and prefetch interval must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.prefetchIntervalNanos = prefetchInterval.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.flightIds = new LinkedHashMap<>(16, 0.75f, true);
+        this.lastPrefetchAt = System.nanoTime() - prefetchIntervalNanos;
+
+        if (eventBus != null) {
+            EventBus.Subscriber onSeatsChanged = event -> invalidate(event.getAttribute("flightNumber"));
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_CREATED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_MODIFIED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.RESERVATION_CANCELLED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.WAITLIST_OFFERED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.WAITLIST_OFFER_EXPIRED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.WAITLIST_OFFER_DECLINED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.FLIGHT_UPDATED, onSeatsChanged);
+            eventBus.subscribe(DomainEvent.Type.FLIGHT_DELETED, event -> {
+                String flightNumber = event.getAttribute("flightNumber");
+                invalidate(flightNumber);
+                synchronized (this) {
+                    flightIds.remove(flightNumber);
+                }
+            });
+        }
+    }
+
+    // ========================================================================
+    // LOOKUP
+    // ========================================================================
+
+    /**
+     * The flight's cached seats, or the loader's if there are none.
+     * Waits for a load of the same flight already under way instead of starting another.
+     */
+    public List<Seat> get(int flightId, String flightNumber, Loader loader) throws SQLException {
+        Load load;
+        boolean leader = false;
+        synchronized (this) {
+            rememberFlightId(flightNumber, flightId);
+            Entry entry = entries.get(flightId);
+            if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+                hits++;
+                return copy(entry.seats);
+            }
+            entries.remove(flightId);
+
+            load = loading.get(flightId);
+            if (load != null) {
+                hits++;
+            } else {
+                misses++;
+                load = new Load(flightNumber);
+                loading.put(flightId, load);
+                leader = true;
+            }
+        }
+
+        if (!leader) {
+            return copy(load.await());
+        }
+
+        try {
+            List<Seat> seats = copy(loader.load());
+            synchronized (this) {
+                loading.remove(flightId);
+                // A booking during the load may not be in it
+                if (!load.stale) {
+                    store(flightId, seats);
+                }
+            }
+            load.result.complete(seats);
+            return copy(seats);
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                loading.remove(flightId);
+            }
+            load.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return The id last seen with this flight number, or null if there is none
+     */
+    public synchronized Integer getFlightId(String flightNumber) {
+        return flightNumber == null ? null : flightIds.get(flightNumber);
+    }
+
+    /**
+     * @return Whether the flight's seats are cached or being loaded
+     */
+    public synchronized boolean isCached(String flightNumber) {
+        Integer flightId = getFlightId(flightNumber);
+        if (flightId == null) {
+            return false;
+        }
+        Entry entry = entries.get(flightId);
+        return loading.containsKey(flightId)
+            || (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos);
+    }
+
+    // ========================================================================
+    // PREFETCH
+    // ========================================================================
+
+    /**
+     * Load a flight's seats in the background, if they aren't cached yet.
+     * Replaces a prefetch still waiting for its turn. Failures are only logged.
+     * @param prefetch Loads the seats through {@link #get}
+     */
+    public void prefetch(String flightNumber, Loader prefetch) {
+        if (flightNumber == null || isCached(flightNumber)) {
+            return;
+        }
+        synchronized (this) {
+            if (pendingPrefetch != null) {
+                skippedPrefetches++;
+            }
+            pendingFlight = flightNumber;
+            pendingPrefetch = () -> {
+                try {
+                    prefetch.load();
+                } catch (SQLException | RuntimeException e) {
+                    System.err.println("Warning: Failed to prefetch seats for flight " + flightNumber +
+                        ": " + e.getMessage());
+                }
+            };
+            if (!prefetchScheduled) {
+                schedulePrefetch();
+            }
+        }
+    }
+
+    private void schedulePrefetch() {
+        if (prefetcher == null) {
+            prefetcher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "seat-prefetch");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        long wait = Math.max(0, lastPrefetchAt + prefetchIntervalNanos - System.nanoTime());
+        try {
+            prefetcher.schedule(this::runPrefetch, wait, TimeUnit.NANOSECONDS);
+            prefetchScheduled = true;
+        } catch (RejectedExecutionException e) {
+            pendingFlight = null;
+            pendingPrefetch = null;
+        }
+    }
+
+    private void runPrefetch() {
+        Runnable task;
+        synchronized (this) {
+            task = pendingPrefetch;
+            String flightNumber = pendingFlight;
+            pendingPrefetch = null;
+            pendingFlight = null;
+            prefetchScheduled = false;
+            // Opened or prefetched since it was asked for
+            if (task == null || isCached(flightNumber)) {
+                return;
+            }
+            prefetches++;
+        }
+
+        task.run();
+
+        synchronized (this) {
+            lastPrefetchAt = System.nanoTime();
+            if (pendingPrefetch != null && !prefetchScheduled) {
+                schedulePrefetch();
+            }
+        }
+    }
+
+    /**
+     * Stop the prefetch thread. Prefetches asked for afterwards start it again.
+     */
+    public synchronized void shutdown() {
+        if (prefetcher != null) {
+            prefetcher.shutdownNow();
+            prefetcher = null;
+        }
+        pendingFlight = null;
+        pendingPrefetch = null;
+        prefetchScheduled = false;
+    }
+
+    // ========================================================================
+    // INVALIDATION
+    // ========================================================================
+
+    /**
+     * Drop the flight's seats, and mark a load under way as too old to keep.
+     */
+    public synchronized void invalidate(String flightNumber) {
+        Integer flightId = getFlightId(flightNumber);
+        if (flightId == null) {
+            return;
+        }
+        entries.remove(flightId);
+        Load load = loading.get(flightId);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        for (Load load : loading.values()) {
+            load.stale = true;
+        }
+    }
+
+    // ========================================================================
+    // STATS
+    // ========================================================================
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, prefetches, skippedPrefetches, entries.size());
+    }
+
+    /**
+     * Counts since the cache was created.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long prefetches;
+        private final long skippedPrefetches;
+        private final int size;
+
+        Stats(long hits, long misses, long prefetches, long skippedPrefetches, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.prefetches = prefetches;
+            this.skippedPrefetches = skippedPrefetches;
+            this.size = size;
+        }
+
+        /**
+         * Lookups answered from the cache or from a load already under way.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Prefetches that ran.
+         */
+        public long getPrefetches() {
+            return prefetches;
+        }
+
+        /**
+         * Prefetches replaced by a newer one before their turn came.
+         */
+        public long getSkippedPrefetches() {
+            return skippedPrefetches;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return "SeatMapCache.Stats{" +
+                   "hits=" + hits +
+                   ", misses=" + misses +
+                   ", prefetches=" + prefetches +
+                   ", skippedPrefetches=" + skippedPrefetches +
+                   ", size=" + size +
+                   '}';
+        }
+    }
+
+    // ========================================================================
+    // INTERNALS
+    // ========================================================================
+
+    private void store(int flightId, List<Seat> seats) {
+        entries.put(flightId, new Entry(seats, System.nanoTime()));
+        Iterator<Integer> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void rememberFlightId(String flightNumber, int flightId) {
+        if (flightNumber == null) {
+            return;
+        }
+        flightIds.put(flightNumber, flightId);
+        Iterator<String> eldest = flightIds.keySet().iterator();
+        // Ids are cheap to keep, but a long session still shouldn't collect every flight
+        while (flightIds.size() > maxEntries * 16) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static List<Seat> copy(List<Seat> seats) {
+        List<Seat> copies = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            copies.add(new Seat(seat.getSeatId(), seat.getSeatNumber(), seat.getSeatClass(), seat.isAvailable()));
+        }
+        return copies;
+    }
+
+    private static final class Entry {
+        private final List<Seat> seats;
+        private final long loadedAt;
+
+        private Entry(List<Seat> seats, long loadedAt) {
+            this.seats = seats;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * A flight's seats being loaded, which other lookups of the flight wait for.
+     */
+    private static final class Load {
+        private final String flightNumber;
+        private final CompletableFuture<List<Seat>> result = new CompletableFuture<>();
+        private volatile boolean stale;
+
+        private Load(String flightNumber) {
+            this.flightNumber = flightNumber;
+        }
+
+        private List<Seat> await() throws SQLException {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for seats of flight " + flightNumber + ".", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    throw (SQLException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new SQLException("Seat load failed.", cause);
+            }
+        }
+    }
+}
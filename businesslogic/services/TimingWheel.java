@@ -0,0 +1,166 @@
+package businesslogic.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: O(1) insertion of timers, expired by advancing a clock.
+ *
+ * Level 0 has one slot per tick; each higher level has slots 64 times wider.
+ * A timer goes into the lowest level whose span covers its delay, in the slot
+ * given by that level's digit of its deadline. When a level's slot comes up,
+ * its timers are re-inserted lower down, so every timer moves at most once per
+ * level before it expires. Timers further out than the top level reaches are
+ * rejected; callers keep a bounded horizon and reload.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final long maxDelayTicks;
+    private final ArrayList<Timer<T>>[][] wheels;
+
+    // Timers already due when inserted (added late, or cascaded onto the current tick)
+    private final List<T> overdue = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis Width of one level-0 slot
+     * @param levels Number of levels; reach is tickMillis * 64^levels
+     * @param startMillis Current time
+     */
+    public TimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive.");
+        }
+        if (levels <= 0 || levels * SLOT_BITS >= 62) {
+            throw new IllegalArgumentException("Levels must be between 1 and 10.");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.maxDelayTicks = (1L << (levels * SLOT_BITS)) - 1;
+        this.wheels = newWheels(levels);
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Furthest ahead a timer can be added, from the wheel's current time.
+     */
+    public long getReachMillis() {
+        return maxDelayTicks * tickMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add a timer. Deadlines already passed expire on the next {@link #advance}.
+     * @return false if the deadline is beyond the wheel's reach
+     */
+    public boolean add(long deadlineMillis, T item) {
+        // Round up so a timer never fires before its deadline
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        if (deadlineTick - currentTick > maxDelayTicks) {
+            return false;
+        }
+        insert(new Timer<>(deadlineTick, item));
+        size++;
+        return true;
+    }
+
+    /**
+     * Move the clock forward and collect every timer due by {@code nowMillis}.
+     * Work is proportional to ticks passed plus timers moved or expired.
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Cascade from the top so timers can fall several levels in one tick
+            for (int level = levels - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+                    cascade(level, slotOf(currentTick, level));
+                }
+            }
+
+            ArrayList<Timer<T>> bucket = wheels[0][slotOf(currentTick, 0)];
+            if (bucket != null && !bucket.isEmpty()) {
+                for (Timer<T> timer : bucket) {
+                    expired.add(timer.item);
+                }
+                bucket.clear();
+            }
+        }
+
+        // Includes timers that cascaded onto the current tick
+        expired.addAll(overdue);
+        overdue.clear();
+
+        size -= expired.size();
+        return expired;
+    }
+
+    private void cascade(int level, int slot) {
+        ArrayList<Timer<T>> bucket = wheels[level][slot];
+        if (bucket == null || bucket.isEmpty()) {
+            return;
+        }
+        wheels[level][slot] = null;
+        for (Timer<T> timer : bucket) {
+            insert(timer);
+        }
+    }
+
+    private void insert(Timer<T> timer) {
+        long delay = timer.deadlineTick - currentTick;
+        if (delay <= 0) {
+            overdue.add(timer.item);
+            return;
+        }
+
+        int level = 0;
+        while (level < levels - 1 && delay >= (1L << ((level + 1) * SLOT_BITS))) {
+            level++;
+        }
+
+        int slot = slotOf(timer.deadlineTick, level);
+        ArrayList<Timer<T>> bucket = wheels[level][slot];
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            wheels[level][slot] = bucket;
+        }
+        bucket.add(timer);
+    }
+
+    // Java can't create generic arrays; the slots only ever hold lists of Timer<T>
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayList<Timer<T>>[][] newWheels(int levels) {
+        return (ArrayList<Timer<T>>[][]) new ArrayList<?>[levels][SLOTS];
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >>> (level * SLOT_BITS)) & SLOT_MASK);
+    }
+
+    private static final class Timer<T> {
+        final long deadlineTick;
+        final T item;
+
+        Timer(long deadlineTick, T item) {
+            this.deadlineTick = deadlineTick;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,677 @@
+package businesslogic.services;
+
+import businesslogic.entities.Customer;
+import businesslogic.entities.Flight;
+import businesslogic.entities.WaitlistEntry;
+import businesslogic.entities.enums.MembershipStatus;
+import businesslogic.entities.enums.WaitlistStatus;
+import datalayer.dao.WaitlistDAO;
+import datalayer.database.DatabaseConnection;
+import datalayer.database.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-flight waitlist for sold-out flights.
+ * Entries are persisted in waitlist_entries and mirrored in memory as an ordered
+ * queue per flight, so promotion on seat release never scans the table.
+ * Order is priority (membership tier, unless FIFO mode) then join order.
+ * An offer holds its seats (seats.held_for_waitlist_id) until the customer
+ * books them or the offer lapses.
+ */
+public class WaitlistService {
+
+    public static final Duration DEFAULT_OFFER_TTL = Duration.ofHours(2);
+
+    // How far past a party that doesn't fit we look for a smaller one
+    private static final int MAX_LOOKAHEAD = 50;
+
+    private static final Comparator<WaitlistEntry> SERVICE_ORDER =
+        Comparator.comparingInt(WaitlistEntry::getPriority).reversed()
+                  .thenComparingInt(WaitlistEntry::getWaitlistId);
+
+    private static final DateTimeFormatter OFFER_EXPIRY_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy HH:mm");
+
+    private static final String GET_FLIGHT_ID_SQL =
+        "SELECT flight_id FROM flights WHERE flight_number = ?";
+
+    private static final String GET_FLIGHT_NUMBER_SQL =
+        "SELECT flight_number FROM flights WHERE flight_id = ?";
+
+    // Seats a concurrent booking has locked are left to it
+    private static final String SELECT_FREE_SEATS_SQL =
+        "SELECT seat_id FROM seats WHERE flight_id = ? AND is_available = TRUE " +
+        "ORDER BY seat_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String HOLD_SEATS_SQL =
+        "UPDATE seats SET is_available = FALSE, held_for_waitlist_id = ? WHERE seat_id IN (%s)";
+
+    private static final String CLEAR_HOLDS_SQL =
+        "UPDATE seats SET held_for_waitlist_id = NULL WHERE held_for_waitlist_id = ? AND seat_id IN (%s)";
+
+    private static final String RELEASE_HOLDS_SQL =
+        "UPDATE seats SET is_available = TRUE, held_for_waitlist_id = NULL WHERE held_for_waitlist_id IN (%s)";
+
+    private static final String COUNT_HOLDS_BY_FLIGHT_SQL =
+        "SELECT flight_id, COUNT(*) AS held FROM seats WHERE held_for_waitlist_id IN (%s) GROUP BY flight_id";
+
+    private static final String SELECT_HELD_SEATS_SQL =
+        "SELECT seat_id FROM seats WHERE held_for_waitlist_id = ?";
+
+    private static final String SELECT_HELD_FOR_CUSTOMER_SQL =
+        "SELECT s.seat_id FROM seats s " +
+        "JOIN waitlist_entries w ON w.waitlist_id = s.held_for_waitlist_id " +
+        "JOIN flights f ON f.flight_id = w.flight_id " +
+        "WHERE w.customer_id = ? AND f.flight_number = ? AND w.status = 'OFFERED' AND w.offer_expires_at > ?";
+
+    // Holds count against the flight like bookings; open seat maps see the bump
+    private static final String ADJUST_FLIGHT_SEATS_SQL =
+        "UPDATE flights SET available_seats = available_seats + ?, seat_version = seat_version + 1 " +
+        "WHERE flight_id = ?";
+
+    private static final String SELECT_OFFER_RECIPIENTS_SQL =
+        "SELECT w.customer_id, w.seats_requested, u.email, u.first_name, f.flight_number " +
+        "FROM waitlist_entries w " +
+        "JOIN users u ON u.user_id = w.customer_id " +
+        "JOIN flights f ON f.flight_id = w.flight_id " +
+        "WHERE w.waitlist_id IN (%s)";
+
+    private final WaitlistDAO waitlistDAO;
+    private final boolean priorityByMembership;
+    private volatile Duration offerTtl;
+    private NotificationOutbox notificationOutbox;
+    private EventOutbox eventOutbox;
+
+    // In-memory mirror of WAITING entries, loaded per flight on first use
+    private final Map<Integer, FlightQueue> queues = new ConcurrentHashMap<>();
+    private final Map<Integer, WaitlistEntry> entriesById = new ConcurrentHashMap<>();
+
+    public WaitlistService(WaitlistDAO waitlistDAO) {
+        this(waitlistDAO, true, DEFAULT_OFFER_TTL);
+    }
+
+    /**
+     * @param priorityByMembership true to serve higher tiers first, false for plain FIFO
+     * @param offerTtl How long a customer has to book once offered seats
+     */
+    public WaitlistService(WaitlistDAO waitlistDAO, boolean priorityByMembership, Duration offerTtl) {
+        this.waitlistDAO = waitlistDAO;
+        this.priorityByMembership = priorityByMembership;
+        setOfferTtl(offerTtl);
+    }
+
+    public void setOfferTtl(Duration offerTtl) {
+        if (offerTtl == null || offerTtl.isNegative() || offerTtl.isZero()) {
+            throw new IllegalArgumentException("Offer TTL must be positive.");
+        }
+        this.offerTtl = offerTtl;
+    }
+
+    /**
+     * Email customers their offers through the outbox. Optional.
+     */
+    public void setNotificationOutbox(NotificationOutbox notificationOutbox) {
+        this.notificationOutbox = notificationOutbox;
+    }
+
+    /**
+     * Record offers and lapsed offers, which move seats, in the transaction that makes them. Optional.
+     */
+    public void setEventOutbox(EventOutbox eventOutbox) {
+        this.eventOutbox = eventOutbox;
+    }
+
+    // ========================================================================
+    // JOIN / LEAVE
+    // ========================================================================
+
+    /**
+     * Add a customer to the waitlist of a flight.
+     * Returns the existing entry if the customer is already waiting or holds an open offer.
+     */
+    public WaitlistEntry joinWaitlist(Customer customer, Flight flight, int seatsRequested) throws SQLException {
+        if (customer == null || flight == null) {
+            throw new IllegalArgumentException("Customer and flight are required.");
+        }
+        if (seatsRequested <= 0) {
+            throw new IllegalArgumentException("Number of seats must be positive");
+        }
+
+        Integer flightId = getFlightIdByNumber(flight.getFlightNumber());
+        if (flightId == null) {
+            throw new SQLException("Flight not found: " + flight.getFlightNumber());
+        }
+
+        FlightQueue queue = getQueue(flightId);
+        synchronized (queue) {
+            WaitlistEntry existing = queue.byCustomer.get(customer.getUserId());
+            if (existing == null) {
+                existing = waitlistDAO.findOpenOfferByFlightId(customer.getUserId(), flightId, LocalDateTime.now());
+            }
+            if (existing != null) {
+                return existing;
+            }
+
+            WaitlistEntry entry = new WaitlistEntry(
+                0,
+                flightId,
+                customer.getUserId(),
+                seatsRequested,
+                priorityFor(customer.getMembershipStatus()),
+                WaitlistStatus.WAITING,
+                LocalDateTime.now(),
+                null
+            );
+
+            WaitlistEntry saved = waitlistDAO.save(entry);
+            queue.add(saved);
+            entriesById.put(saved.getWaitlistId(), saved);
+            return saved;
+        }
+    }
+
+    /**
+     * Take an entry off the waitlist. An open offer is declined: its held seats
+     * go back on sale in the same transaction and are offered to the next
+     * customers in line. Runs on a dedicated connection.
+     * @return false if the entry doesn't exist or was no longer waiting or offered
+     */
+    public boolean leaveWaitlist(int waitlistId) throws SQLException {
+        WaitlistEntry entry;
+        int released = 0;
+
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            TransactionManager.begin(conn);
+            try {
+                // Locks the entry so a booking can't accept its offer while the seats are released
+                entry = waitlistDAO.findByIdForUpdate(conn, waitlistId);
+                if (entry == null || !waitlistDAO.markCancelled(conn, waitlistId)) {
+                    TransactionManager.commit(conn);
+                    return false;
+                }
+
+                if (entry.getStatus() == WaitlistStatus.OFFERED) {
+                    try (PreparedStatement stmt = conn.prepareStatement(String.format(RELEASE_HOLDS_SQL, "?"))) {
+                        stmt.setInt(1, waitlistId);
+                        released = stmt.executeUpdate();
+                    }
+                    adjustFlightSeats(conn, entry.getFlightId(), released);
+                    if (eventOutbox != null) {
+                        eventOutbox.record(conn, DomainEvent.waitlistOfferDeclined(entry,
+                            findFlightNumber(conn, entry.getFlightId())));
+                    }
+                }
+                TransactionManager.commit(conn);
+            } catch (SQLException | RuntimeException e) {
+                TransactionManager.rollback(conn);
+                throw e;
+            }
+        }
+
+        WaitlistEntry cached = entriesById.remove(waitlistId);
+        FlightQueue queue = queues.get(entry.getFlightId());
+        if (queue != null && cached != null) {
+            synchronized (queue) {
+                queue.remove(cached);
+            }
+        }
+        entry.setStatus(WaitlistStatus.CANCELLED);
+
+        if (eventOutbox != null && released > 0) {
+            eventOutbox.dispatchAsync();
+        }
+        if (released > 0) {
+            onSeatsReleased(entry.getFlightId(), released);
+        }
+        return true;
+    }
+
+    /**
+     * Waiting entries for a flight, in service order.
+     */
+    public List<WaitlistEntry> getWaitingEntries(int flightId) throws SQLException {
+        FlightQueue queue = getQueue(flightId);
+        synchronized (queue) {
+            return new ArrayList<>(queue.entries);
+        }
+    }
+
+    public int getWaitlistSize(int flightId) throws SQLException {
+        FlightQueue queue = getQueue(flightId);
+        synchronized (queue) {
+            return queue.entries.size();
+        }
+    }
+
+    /**
+     * 1-based place of a waiting entry in its flight's queue, or 0 if it is no longer waiting.
+     */
+    public int getPosition(WaitlistEntry entry) throws SQLException {
+        FlightQueue queue = getQueue(entry.getFlightId());
+        synchronized (queue) {
+            if (!queue.entries.contains(entry)) {
+                return 0;
+            }
+            return queue.entries.headSet(entry).size() + 1;
+        }
+    }
+
+    // ========================================================================
+    // PROMOTION
+    // ========================================================================
+
+    /**
+     * Offer released seats to the next waiting customers of a flight.
+     * Each offer holds free seats for its customer until it lapses; the holds,
+     * the offers and their emails are written in one transaction on a
+     * dedicated connection, so this is safe to call from background jobs.
+     * @return Entries that received an offer
+     */
+    public List<WaitlistEntry> onSeatsReleased(int flightId, int seatsReleased) throws SQLException {
+        if (seatsReleased <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<WaitlistEntry> offered = new ArrayList<>();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(offerTtl);
+
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            FlightQueue queue = getQueue(conn, flightId);
+
+            synchronized (queue) {
+                if (queue.entries.isEmpty()) {
+                    return offered;
+                }
+
+                TransactionManager.begin(conn);
+                try {
+                    // Another booking may have taken part of the release already
+                    List<Integer> freeSeats = findFreeSeats(conn, flightId, seatsReleased);
+
+                    int remaining = freeSeats.size();
+                    int skipped = 0;
+                    Iterator<WaitlistEntry> it = queue.entries.iterator();
+
+                    while (it.hasNext() && remaining > 0 && skipped < MAX_LOOKAHEAD) {
+                        WaitlistEntry entry = it.next();
+                        if (entry.getSeatsRequested() <= remaining) {
+                            offered.add(entry);
+                            remaining -= entry.getSeatsRequested();
+                        } else {
+                            skipped++;
+                        }
+                    }
+
+                    if (offered.isEmpty()) {
+                        TransactionManager.commit(conn);
+                        return offered;
+                    }
+
+                    List<Integer> ids = new ArrayList<>();
+                    int held = 0;
+                    for (WaitlistEntry entry : offered) {
+                        ids.add(entry.getWaitlistId());
+                        List<Integer> seats = freeSeats.subList(held, held + entry.getSeatsRequested());
+                        executeForIds(conn, HOLD_SEATS_SQL, entry.getWaitlistId(), seats);
+                        held += seats.size();
+                    }
+                    adjustFlightSeats(conn, flightId, -held);
+                    waitlistDAO.markOffered(conn, ids, expiresAt);
+                    enqueueOffers(conn, ids, expiresAt);
+                    if (eventOutbox != null) {
+                        String flightNumber = findFlightNumber(conn, flightId);
+                        List<DomainEvent> events = new ArrayList<>(offered.size());
+                        for (WaitlistEntry entry : offered) {
+                            events.add(DomainEvent.waitlistOffered(entry, flightNumber, expiresAt));
+                        }
+                        eventOutbox.record(conn, events);
+                    }
+
+                    TransactionManager.commit(conn);
+                } catch (SQLException | RuntimeException e) {
+                    TransactionManager.rollback(conn);
+                    throw e;
+                }
+
+                for (WaitlistEntry entry : offered) {
+                    queue.remove(entry);
+                    entriesById.remove(entry.getWaitlistId());
+                    entry.setStatus(WaitlistStatus.OFFERED);
+                    entry.setOfferExpiresAt(expiresAt);
+                }
+            }
+        }
+
+        if (notificationOutbox != null) {
+            notificationOutbox.deliverAsync();
+        }
+        if (eventOutbox != null) {
+            eventOutbox.dispatchAsync();
+        }
+        return offered;
+    }
+
+    /**
+     * Lock a customer's open offer on a flight for the caller's booking transaction.
+     * @return The offer, or null if the customer has none or it has lapsed
+     */
+    public WaitlistEntry lockOpenOffer(Connection conn, int customerId, String flightNumber) throws SQLException {
+        return waitlistDAO.findOpenOffer(conn, customerId, flightNumber, LocalDateTime.now());
+    }
+
+    /**
+     * Seats held for a locked offer, inside the caller's transaction.
+     */
+    public Set<Integer> getHeldSeatIds(Connection conn, WaitlistEntry offer) throws SQLException {
+        Set<Integer> seatIds = new HashSet<>();
+        if (offer == null) {
+            return seatIds;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_HELD_SEATS_SQL)) {
+            stmt.setInt(1, offer.getWaitlistId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    seatIds.add(rs.getInt("seat_id"));
+                }
+            }
+        }
+        return seatIds;
+    }
+
+    /**
+     * Seats held for a customer's open offer on a flight, for the seat map.
+     */
+    public Set<Integer> getHeldSeatIds(int customerId, String flightNumber) throws SQLException {
+        Set<Integer> seatIds = new HashSet<>();
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_HELD_FOR_CUSTOMER_SQL)) {
+            stmt.setInt(1, customerId);
+            stmt.setString(2, flightNumber);
+            stmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    seatIds.add(rs.getInt("seat_id"));
+                }
+            }
+        }
+        return seatIds;
+    }
+
+    /**
+     * Accept a locked offer inside the caller's booking transaction.
+     * Holds on the booked seats are cleared; the offer's other held seats go
+     * back on sale. Pass the returned count to {@link #onSeatsReleased} once
+     * the transaction commits.
+     * @param bookedSeatIds Seats the customer booked on the offer's flight
+     * @return Number of held seats returned to sale
+     */
+    public int acceptOffer(Connection conn, WaitlistEntry offer, Collection<Integer> bookedSeatIds) throws SQLException {
+        if (bookedSeatIds != null && !bookedSeatIds.isEmpty()) {
+            executeForIds(conn, CLEAR_HOLDS_SQL, offer.getWaitlistId(), new ArrayList<>(bookedSeatIds));
+        }
+
+        int unused;
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(RELEASE_HOLDS_SQL, "?"))) {
+            stmt.setInt(1, offer.getWaitlistId());
+            unused = stmt.executeUpdate();
+        }
+        adjustFlightSeats(conn, offer.getFlightId(), unused);
+
+        waitlistDAO.markAccepted(conn, offer.getWaitlistId());
+        return unused;
+    }
+
+    /**
+     * Expire lapsed offers, put their held seats back on sale and pass them to
+     * the next customers in line. Runs on a dedicated connection.
+     * @return Number of offers expired
+     */
+    public int expireLapsedOffers() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        Map<Integer, Integer> seatsByFlight = new HashMap<>();
+        int expired;
+
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            TransactionManager.begin(conn);
+            try {
+                // Locks the offers so a booking can't accept one while its seats are released
+                List<WaitlistEntry> lapsed = waitlistDAO.findLapsedOffers(conn, LocalDateTime.now());
+                if (lapsed.isEmpty()) {
+                    TransactionManager.commit(conn);
+                    return 0;
+                }
+
+                for (WaitlistEntry entry : lapsed) {
+                    ids.add(entry.getWaitlistId());
+                }
+                String placeholders = placeholders(ids.size());
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        String.format(COUNT_HOLDS_BY_FLIGHT_SQL, placeholders))) {
+                    bindIds(stmt, 1, ids);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            seatsByFlight.put(rs.getInt("flight_id"), rs.getInt("held"));
+                        }
+                    }
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        String.format(RELEASE_HOLDS_SQL, placeholders))) {
+                    bindIds(stmt, 1, ids);
+                    stmt.executeUpdate();
+                }
+                for (Map.Entry<Integer, Integer> flightSeats : seatsByFlight.entrySet()) {
+                    adjustFlightSeats(conn, flightSeats.getKey(), flightSeats.getValue());
+                }
+
+                expired = waitlistDAO.markExpired(conn, ids);
+                if (eventOutbox != null) {
+                    Map<Integer, String> flightNumbers = new HashMap<>();
+                    List<DomainEvent> events = new ArrayList<>(lapsed.size());
+                    for (WaitlistEntry entry : lapsed) {
+                        String flightNumber = flightNumbers.get(entry.getFlightId());
+                        if (flightNumber == null) {
+                            flightNumber = findFlightNumber(conn, entry.getFlightId());
+                            flightNumbers.put(entry.getFlightId(), flightNumber);
+                        }
+                        events.add(DomainEvent.waitlistOfferExpired(entry, flightNumber));
+                    }
+                    eventOutbox.record(conn, events);
+                }
+                TransactionManager.commit(conn);
+            } catch (SQLException | RuntimeException e) {
+                TransactionManager.rollback(conn);
+                throw e;
+            }
+        }
+
+        if (eventOutbox != null) {
+            eventOutbox.dispatchAsync();
+        }
+        for (Map.Entry<Integer, Integer> flightSeats : seatsByFlight.entrySet()) {
+            onSeatsReleased(flightSeats.getKey(), flightSeats.getValue());
+        }
+        return expired;
+    }
+
+    // ========================================================================
+    // HELPERS
+    // ========================================================================
+
+    private FlightQueue getQueue(int flightId) throws SQLException {
+        return getQueue(DatabaseConnection.getInstance().getConnection(), flightId);
+    }
+
+    private FlightQueue getQueue(Connection conn, int flightId) throws SQLException {
+        FlightQueue queue = queues.get(flightId);
+        if (queue != null) {
+            return queue;
+        }
+
+        FlightQueue loaded = new FlightQueue();
+        for (WaitlistEntry entry : waitlistDAO.findWaitingByFlightId(conn, flightId)) {
+            loaded.add(entry);
+            entriesById.put(entry.getWaitlistId(), entry);
+        }
+
+        FlightQueue raced = queues.putIfAbsent(flightId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private List<Integer> findFreeSeats(Connection conn, int flightId, int limit) throws SQLException {
+        List<Integer> seatIds = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_FREE_SEATS_SQL)) {
+            stmt.setInt(1, flightId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    seatIds.add(rs.getInt("seat_id"));
+                }
+            }
+        }
+        return seatIds;
+    }
+
+    private String findFlightNumber(Connection conn, int flightId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(GET_FLIGHT_NUMBER_SQL)) {
+            stmt.setInt(1, flightId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("flight_number") : null;
+            }
+        }
+    }
+
+    private void adjustFlightSeats(Connection conn, int flightId, int delta) throws SQLException {
+        if (delta == 0) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(ADJUST_FLIGHT_SEATS_SQL)) {
+            stmt.setInt(1, delta);
+            stmt.setInt(2, flightId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void enqueueOffers(Connection conn, List<Integer> waitlistIds,
+                               LocalDateTime expiresAt) throws SQLException {
+        if (notificationOutbox == null) {
+            return;
+        }
+
+        List<NotificationOutbox.OutboxMessage> messages = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(SELECT_OFFER_RECIPIENTS_SQL, placeholders(waitlistIds.size())))) {
+            bindIds(stmt, 1, waitlistIds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String email = rs.getString("email");
+                    if (email == null) {
+                        continue;
+                    }
+                    messages.add(new NotificationOutbox.OutboxMessage(rs.getInt("customer_id"), email,
+                        "Seats are available on flight " + rs.getString("flight_number"),
+                        offerBody(rs.getString("first_name"), rs.getString("flight_number"),
+                            rs.getInt("seats_requested"), expiresAt)));
+                }
+            }
+        }
+        notificationOutbox.enqueue(conn, messages);
+    }
+
+    private static String offerBody(String firstName, String flightNumber, int seats, LocalDateTime expiresAt) {
+        return "Hello " + (firstName != null ? firstName : "") + ",\n\n"
+            + "Good news: " + seats + " seat(s) on flight " + flightNumber
+            + " are being held for you from the waitlist.\n\n"
+            + "Book them from Search Flights before " + expiresAt.format(OFFER_EXPIRY_FORMAT)
+            + "; after that they go back on sale.\n";
+    }
+
+    private void executeForIds(Connection conn, String sqlTemplate, int waitlistId,
+                               List<Integer> seatIds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(sqlTemplate, placeholders(seatIds.size())))) {
+            stmt.setInt(1, waitlistId);
+            bindIds(stmt, 2, seatIds);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            joiner.add("?");
+        }
+        return joiner.toString();
+    }
+
+    private static void bindIds(PreparedStatement stmt, int firstParam, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setInt(firstParam + i, ids.get(i));
+        }
+    }
+
+    private int priorityFor(MembershipStatus status) {
+        if (!priorityByMembership || status == null) {
+            return 0;
+        }
+        return status.ordinal();
+    }
+
+    private Integer getFlightIdByNumber(String flightNumber) throws SQLException {
+        if (flightNumber == null || flightNumber.isEmpty()) {
+            return null;
+        }
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(GET_FLIGHT_ID_SQL)) {
+            stmt.setString(1, flightNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("flight_id");
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ordered WAITING entries of one flight plus a customer index for duplicate checks.
+     * Callers synchronize on the queue.
+     */
+    private static final class FlightQueue {
+        private final TreeSet<WaitlistEntry> entries = new TreeSet<>(SERVICE_ORDER);
+        private final Map<Integer, WaitlistEntry> byCustomer = new HashMap<>();
+
+        private void add(WaitlistEntry entry) {
+            entries.add(entry);
+            byCustomer.put(entry.getCustomerId(), entry);
+        }
+
+        private void remove(WaitlistEntry entry) {
+            entries.remove(entry);
+            byCustomer.remove(entry.getCustomerId());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package datalayer.dao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rows written since a watermark, for refreshing a table without reloading it.
+ *
+ * Rows are stamped with updated_at by the database whenever they are
+ * written. Pass {@link #getWatermark()} as the "since" of the next request
+ * to get only what changed in between. A deleted row leaves nothing behind
+ * to find, so change sets that track deletions also carry the ids of every
+ * row that still exists; rows missing from it are gone.
+ */
+public final class ChangeSet<T> {
+
+    private final List<T> changed;
+    private final Set<Integer> liveIds;
+    private final LocalDateTime watermark;
+    private final boolean full;
+
+    private ChangeSet(List<T> changed, Set<Integer> liveIds, LocalDateTime watermark, boolean full) {
+        this.changed = Collections.unmodifiableList(new ArrayList<>(changed));
+        this.liveIds = liveIds != null ? Collections.unmodifiableSet(new HashSet<>(liveIds)) : null;
+        this.watermark = watermark;
+        this.full = full;
+    }
+
+    /**
+     * Every row, for a first load. Anything not in it is gone.
+     */
+    public static <T> ChangeSet<T> full(List<T> rows, LocalDateTime watermark) {
+        return new ChangeSet<>(rows, null, watermark, true);
+    }
+
+    /**
+     * @param changed Rows inserted or updated since the last watermark
+     * @param liveIds Ids of all rows that still exist, or null if deletions are not tracked
+     */
+    public static <T> ChangeSet<T> since(List<T> changed, Set<Integer> liveIds, LocalDateTime watermark) {
+        return new ChangeSet<>(changed, liveIds, watermark, false);
+    }
+
+    /**
+     * Rows inserted or updated; for a full set, every row.
+     */
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return Ids of all rows that still exist, or null if not tracked (or the set is full)
+     */
+    public Set<Integer> getLiveIds() {
+        return liveIds;
+    }
+
+    /**
+     * Database time the set was read at, less a safety margin. Use as the next "since".
+     */
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @return true if nothing was inserted or updated (deletions are not counted)
+     */
+    public boolean isEmpty() {
+        return changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeSet[" + (full ? "full, " : "") + changed.size() + " changed" +
+               (liveIds != null ? ", " + liveIds.size() + " live" : "") + ", watermark=" + watermark + "]";
+    }
+}
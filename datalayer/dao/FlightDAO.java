@@ -1,11 +1,13 @@
 package datalayer.dao;
 
 import businesslogic.entities.Flight;
+import businesslogic.entities.enums.FlightStatus;
 
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface FlightDAO extends BaseDAO<Flight, Integer> {
+public interface FlightDAO extends BaseDAO<Flight, Integer>, PagedDAO<Flight> {
     
     /**
      * Find flight by flight number (e.g., "AC123").
@@ -14,6 +16,15 @@ public interface FlightDAO extends BaseDAO<Flight, Integer> {
      * @throws SQLException if database error occurs
      */
     Flight findByFlightNumber(String flightNumber) throws SQLException;
+
+    /**
+     * Find flights matching a query's filter that were written since a watermark, in page order.
+     * Deletions are not listed; compare counts to spot them.
+     * @param since Watermark of the last read, or null to only read a new watermark
+     * @param limit Maximum number of rows
+     * @throws SQLException if database error occurs
+     */
+    ChangeSet<Flight> findChangesSince(PageQuery query, LocalDateTime since, int limit) throws SQLException;
     
     /**
      * Find all flights for a specific aircraft.
@@ -38,4 +49,29 @@ public interface FlightDAO extends BaseDAO<Flight, Integer> {
      * @throws SQLException if database error occurs
      */
     List<Flight> findByRouteId(Integer routeId) throws SQLException;
+
+    /**
+     * Adjust the available seat count of a flight by a delta in one statement.
+     * The update is refused if it would take the count below zero.
+     * @param flightId Flight ID
+     * @param delta Seats to add (positive) or remove (negative)
+     * @return true if the count was adjusted
+     * @throws SQLException if database error occurs
+     */
+    boolean adjustAvailableSeats(Integer flightId, int delta) throws SQLException;
+
+    /**
+     * Move an aircraft's upcoming flights to a new status in one conditional UPDATE.
+     * Only flights departing after {@code after} and currently in one of
+     * {@code fromStatuses} are changed.
+     * @param aircraftId Aircraft ID
+     * @param after Flights departing at or before this time are left alone
+     * @param fromStatuses Statuses eligible for the change
+     * @param toStatus New status
+     * @return Flight numbers of the flights changed
+     * @throws SQLException if database error occurs
+     */
+    List<String> updateUpcomingStatusByAircraft(Integer aircraftId, LocalDateTime after,
+                                                List<FlightStatus> fromStatuses,
+                                                FlightStatus toStatus) throws SQLException;
 }
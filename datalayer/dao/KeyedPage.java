@@ -0,0 +1,42 @@
+package datalayer.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of rows, with the key to read the page after it from.
+ */
+public final class KeyedPage<T> {
+
+    private final List<T> items;
+    private final PageKey lastKey;
+
+    /**
+     * @param lastKey Key of the last row, or null if the page is empty
+     */
+    public KeyedPage(List<T> items, PageKey lastKey) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.lastKey = lastKey;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return Key to pass as "after" for the next page, or null if the page is empty
+     */
+    public PageKey getLastKey() {
+        return lastKey;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public String toString() {
+        return "KeyedPage[" + items.size() + " rows, last=" + lastKey + "]";
+    }
+}
@@ -0,0 +1,58 @@
+package datalayer.dao;
+
+import java.util.Objects;
+
+/**
+ * Where a row sits in a query's order: its sort column value and its id.
+ *
+ * Returned with each {@link KeyedPage} for its last row. Passing it back
+ * as the "after" of the next read makes the database seek straight to the
+ * following row through the sort index instead of reading and skipping
+ * every row before it, and keeps the next page from overlapping the last
+ * one when rows are added or removed in between. Only valid for the query
+ * it was read with.
+ */
+public final class PageKey {
+
+    private final Object sortValue;
+    private final int rowId;
+
+    /**
+     * @param sortValue Value of the sort column, or null if it is NULL or the query uses the default order
+     * @param rowId Value of the unique tie-breaker column
+     */
+    public PageKey(Object sortValue, int rowId) {
+        this.sortValue = sortValue;
+        this.rowId = rowId;
+    }
+
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    public int getRowId() {
+        return rowId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PageKey)) {
+            return false;
+        }
+        PageKey other = (PageKey) o;
+        return rowId == other.rowId && Objects.equals(sortValue, other.sortValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortValue, rowId);
+    }
+
+    @Override
+    public String toString() {
+        return "PageKey[" + sortValue + ", " + rowId + "]";
+    }
+}
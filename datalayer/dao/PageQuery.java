@@ -0,0 +1,115 @@
+package datalayer.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sort order and filter for one page of a table.
+ *
+ * Fields are logical names such as "bookingDate"; each {@link PagedDAO}
+ * maps the ones it supports to columns and rejects the rest. Instances are
+ * immutable, so a query can be handed to a background load and changed on
+ * the EDT at the same time.
+ *
+ * A query can also be narrowed to rows whose id fields hold given ids, as
+ * found by a search index. A row matches if any one of the fields does.
+ */
+public final class PageQuery {
+
+    /**
+     * No filter, in the DAO's default order.
+     */
+    public static final PageQuery ALL = new PageQuery(null, true, null, null, Collections.emptyMap());
+
+    private final String sortField;
+    private final boolean ascending;
+    private final String filterField;
+    private final String filterValue;
+    private final Map<String, List<Integer>> idMatches;
+
+    private PageQuery(String sortField, boolean ascending, String filterField, String filterValue,
+                      Map<String, List<Integer>> idMatches) {
+        this.sortField = sortField;
+        this.ascending = ascending;
+        this.filterField = filterField;
+        this.filterValue = filterValue;
+        this.idMatches = idMatches;
+    }
+
+    /**
+     * @param field Field to sort by, or null for the default order
+     */
+    public PageQuery sortedBy(String field, boolean ascending) {
+        return new PageQuery(field, ascending, filterField, filterValue, idMatches);
+    }
+
+    /**
+     * @param field Field to filter on
+     * @param value Value to match; null or blank removes the filter
+     */
+    public PageQuery filteredBy(String field, String value) {
+        if (field == null || value == null || value.trim().isEmpty()) {
+            return new PageQuery(sortField, ascending, null, null, idMatches);
+        }
+        return new PageQuery(sortField, ascending, field, value.trim(), idMatches);
+    }
+
+    /**
+     * Also accept rows whose id field holds one of the ids.
+     * @param field Id field to match on
+     * @param ids Ids to accept; empty accepts none through this field
+     */
+    public PageQuery matchingIds(String field, List<Integer> ids) {
+        Map<String, List<Integer>> matches = new LinkedHashMap<>(idMatches);
+        matches.put(field, Collections.unmodifiableList(new ArrayList<>(ids)));
+        return new PageQuery(sortField, ascending, filterField, filterValue, Collections.unmodifiableMap(matches));
+    }
+
+    /**
+     * The same query without id matches.
+     */
+    public PageQuery withoutIdMatches() {
+        return new PageQuery(sortField, ascending, filterField, filterValue, Collections.emptyMap());
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public String getFilterField() {
+        return filterField;
+    }
+
+    public String getFilterValue() {
+        return filterValue;
+    }
+
+    public boolean hasFilter() {
+        return filterField != null;
+    }
+
+    /**
+     * @return Ids to match by field, in the order they were added; empty if unrestricted
+     */
+    public Map<String, List<Integer>> getIdMatches() {
+        return idMatches;
+    }
+
+    public boolean hasIdMatches() {
+        return !idMatches.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "PageQuery[sort=" + (sortField != null ? sortField + (ascending ? " asc" : " desc") : "default") +
+               (hasFilter() ? ", " + filterField + "=" + filterValue : "") +
+               (hasIdMatches() ? ", ids in " + idMatches.keySet() : "") + "]";
+    }
+}
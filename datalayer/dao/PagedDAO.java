@@ -0,0 +1,31 @@
+package datalayer.dao;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Range reads for tables too large to load whole.
+ * Sorting and filtering happen in the database.
+ */
+public interface PagedDAO<T> {
+
+    /**
+     * Count the rows matching a query's filter.
+     * @throws IllegalArgumentException if the filter field is not supported
+     * @throws SQLException if database error occurs
+     */
+    int count(PageQuery query) throws SQLException;
+
+    /**
+     * Find one page of rows, sorted and filtered as the query says.
+     * Rows with equal sort values keep a stable order, so pages never overlap.
+     * To read on from a loaded page, pass its last key and no offset: the
+     * database then seeks to the next row instead of skipping all before it.
+     * @param after Key of the last row already loaded, or null to start from the first row
+     * @param offset Rows to skip after that, to jump to a page with nothing loaded before it
+     * @param limit Maximum number of rows
+     * @throws IllegalArgumentException if the sort or filter field is not supported
+     * @throws SQLException if database error occurs
+     */
+    KeyedPage<T> findPage(PageQuery query, PageKey after, int offset, int limit) throws SQLException;
+}
@@ -2,8 +2,10 @@ package datalayer.dao;
 
 import businesslogic.entities.Promotion;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -34,6 +36,22 @@ public interface PromotionDAO {
      * @throws SQLException if database operation fails
      */
     List<Promotion> findAll() throws SQLException;
+
+    /**
+     * Get all promotions, on the caller's connection.
+     * @param conn Connection to read on, for work off the shared connection
+     * @return List of all promotions
+     * @throws SQLException if database operation fails
+     */
+    List<Promotion> findAll(Connection conn) throws SQLException;
+
+    /**
+     * Get promotions written since a watermark, with the ids of all promotions.
+     * @param since Watermark of the last read, or null for all promotions
+     * @return The changes, newest validity first
+     * @throws SQLException if database operation fails
+     */
+    ChangeSet<Promotion> findChangesSince(LocalDateTime since) throws SQLException;
     
     /**
      * Get all currently active promotions (valid today).
@@ -57,6 +75,15 @@ public interface PromotionDAO {
      */
     List<Promotion> findPromotionsForCurrentMonth() throws SQLException;
     
+    /**
+     * Get all promotions whose validity window overlaps a date range.
+     * @param start First day of the range (inclusive)
+     * @param end Last day of the range (inclusive)
+     * @return List of overlapping promotions, highest discount first
+     * @throws SQLException if database operation fails
+     */
+    List<Promotion> findPromotionsOverlapping(LocalDate start, LocalDate end) throws SQLException;
+    
     /**
      * Update an existing promotion.
      * @param promotion The promotion with updated values
@@ -1,11 +1,18 @@
 package datalayer.dao;
 
 import businesslogic.entities.Reservation;
+import businesslogic.entities.Seat;
 
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface ReservationDAO extends BaseDAO<Reservation, Integer> {
+/**
+ * Pages from {@link #findPage} are summaries for tables: customer, flight and
+ * seats carry only the names and numbers shown, and payment is not loaded.
+ * Use {@link #findById} for the full reservation.
+ */
+public interface ReservationDAO extends BaseDAO<Reservation, Integer>, PagedDAO<Reservation> {
     
     /**
      * Find all reservations for a specific customer.
@@ -14,7 +21,33 @@ public interface ReservationDAO extends BaseDAO<Reservation, Integer> {
      * @throws SQLException if database error occurs
      */
     List<Reservation> findByCustomerId(Integer customerId) throws SQLException;
+
+    /**
+     * Find a customer's reservations written since a watermark, including those whose
+     * flight or payment changed, with the ids of all the customer's reservations.
+     * @param customerId Customer ID
+     * @param since Watermark of the last read, or null for all reservations
+     * @throws SQLException if database error occurs
+     */
+    ChangeSet<Reservation> findChangesByCustomerId(Integer customerId, LocalDateTime since) throws SQLException;
+
+    /**
+     * Find reservation summaries matching a query's filter that were written since a
+     * watermark, in page order. Deletions are not listed; compare counts to spot them.
+     * @param since Watermark of the last read, or null to only read a new watermark
+     * @param limit Maximum number of rows
+     * @throws SQLException if database error occurs
+     */
+    ChangeSet<Reservation> findChangesSince(PageQuery query, LocalDateTime since, int limit) throws SQLException;
     
+    /**
+     * Find reservation ids in ascending order, for scanning the whole table in batches.
+     * @param afterId Last id of the previous batch, or 0 to start
+     * @param limit Maximum number of ids
+     * @throws SQLException if database error occurs
+     */
+    List<Integer> findIdsAfter(int afterId, int limit) throws SQLException;
+
     /**
      * Find all reservations for a specific flight.
      * @param flightId Flight ID
@@ -22,4 +55,31 @@ public interface ReservationDAO extends BaseDAO<Reservation, Integer> {
      * @throws SQLException if database error occurs
      */
     List<Reservation> findByFlightId(Integer flightId) throws SQLException;
+
+    /**
+     * Issue tickets on an existing reservation for additional seats.
+     * @param reservation Reservation (ID and customer are used)
+     * @param seats Seats to issue tickets for
+     * @throws SQLException if database error occurs
+     */
+    void addTickets(Reservation reservation, List<Seat> seats) throws SQLException;
+
+    /**
+     * Delete the tickets of a reservation for the given seats.
+     * @param reservationId Reservation ID
+     * @param seatIds Seat IDs whose tickets are removed
+     * @return Number of tickets deleted
+     * @throws SQLException if database error occurs
+     */
+    int deleteTickets(int reservationId, List<Integer> seatIds) throws SQLException;
+
+    /**
+     * Confirm a reservation only if it is still PENDING, so a confirmation
+     * can't revive one the expiry sweep cancelled meanwhile.
+     * @param reservationId Reservation ID
+     * @param paymentId Payment to attach, or null
+     * @return true if the reservation was PENDING and is now CONFIRMED
+     * @throws SQLException if database error occurs
+     */
+    boolean confirmIfPending(int reservationId, Integer paymentId) throws SQLException;
 }
@@ -5,7 +5,7 @@ import businesslogic.entities.Route;
 import java.sql.SQLException;
 import java.util.List;
 
-public interface RouteDAO extends BaseDAO<Route, Integer> {
+public interface RouteDAO extends BaseDAO<Route, Integer>, PagedDAO<Route> {
     /**
      * Find all routes where the airport is either the origin or destination.
      * @param airportCode Airport code
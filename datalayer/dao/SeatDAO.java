@@ -3,6 +3,7 @@ package datalayer.dao;
 import businesslogic.entities.Seat;
 import businesslogic.entities.enums.SeatClass;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -15,6 +16,15 @@ public interface SeatDAO extends BaseDAO<Seat, Integer> {
      * @throws SQLException if database error occurs
      */
     List<Seat> findByFlightId(Integer flightId) throws SQLException;
+
+    /**
+     * Find all seats for a specific flight, on the caller's connection.
+     * @param conn Connection to read on, for work off the shared connection
+     * @param flightId Flight ID
+     * @return List of seats for the flight
+     * @throws SQLException if database error occurs
+     */
+    List<Seat> findByFlightId(Connection conn, Integer flightId) throws SQLException;
     
     /**
      * Find available seats for a specific flight.
@@ -51,4 +61,24 @@ public interface SeatDAO extends BaseDAO<Seat, Integer> {
      * @throws SQLException if database error occurs
      */
     void updateSeatAvailability(int flightId, int availableSeats) throws SQLException;
+
+    /**
+     * Mark a set of seats on a flight as taken in a single statement.
+     * Only seats that are still available are claimed, so the caller can compare
+     * the returned count with the number requested to detect a lost race.
+     * @param flightId Flight ID
+     * @param seatIds Seat IDs to claim
+     * @return Number of seats actually claimed
+     * @throws SQLException if database error occurs
+     */
+    int claimSeats(int flightId, List<Integer> seatIds) throws SQLException;
+
+    /**
+     * Mark a set of seats on a flight as available again in a single statement.
+     * @param flightId Flight ID
+     * @param seatIds Seat IDs to release
+     * @return Number of seats released
+     * @throws SQLException if database error occurs
+     */
+    int releaseSeats(int flightId, List<Integer> seatIds) throws SQLException;
 }
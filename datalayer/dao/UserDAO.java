@@ -5,7 +5,9 @@ import businesslogic.entities.Customer;
 import businesslogic.entities.FlightAgent;
 import businesslogic.entities.SystemAdmin;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UserDAO extends BaseDAO<User, Integer> {
@@ -17,4 +19,64 @@ public interface UserDAO extends BaseDAO<User, Integer> {
     List<FlightAgent> findAllFlightAgents() throws SQLException;
 
     List<SystemAdmin> findAllSystemAdmins() throws SQLException;
+
+    /**
+     * Count customers matching a query's filter.
+     * @throws SQLException if database error occurs
+     */
+    int countCustomers(PageQuery query) throws SQLException;
+
+    /**
+     * Find one page of customers, sorted and filtered in the database.
+     * @param after Key of the last row already loaded, or null to start from the first row
+     * @param offset Rows to skip after that; 0 when reading on from a loaded page
+     * @param limit Maximum number of rows
+     * @throws SQLException if database error occurs
+     */
+    KeyedPage<Customer> findCustomerPage(PageQuery query, PageKey after, int offset, int limit) throws SQLException;
+
+    /**
+     * Find customers matching a query's filter that were written since a watermark, in page order.
+     * @param since Watermark of the last read, or null to only read a new watermark
+     * @param limit Maximum number of rows
+     * @throws SQLException if database error occurs
+     */
+    ChangeSet<Customer> findCustomerChangesSince(PageQuery query, LocalDateTime since, int limit) throws SQLException;
+
+    /**
+     * Find customers by ascending id, for scanning the whole table in batches.
+     * @param afterUserId Last id of the previous batch, or 0 to start
+     * @param limit Maximum number of rows
+     * @throws SQLException if database error occurs
+     */
+    List<Customer> findCustomersAfter(int afterUserId, int limit) throws SQLException;
+
+    /**
+     * Recompute every customer's booking counter from the reservations table.
+     * Used to backfill or repair the counters.
+     * @return Number of customers updated
+     * @throws SQLException if database error occurs
+     */
+    int recomputeBookingCounts() throws SQLException;
+
+    /**
+     * @param conn Connection to write on, for work off the shared connection
+     */
+    int recomputeBookingCounts(Connection conn) throws SQLException;
+
+    /**
+     * Re-tier all customers from their booking counters in one statement.
+     * @param silverThreshold Bookings needed for SILVER
+     * @param goldThreshold Bookings needed for GOLD
+     * @param platinumThreshold Bookings needed for PLATINUM
+     * @return Number of customers whose tier changed
+     * @throws SQLException if database error occurs
+     */
+    int updateMembershipTiers(int silverThreshold, int goldThreshold, int platinumThreshold) throws SQLException;
+
+    /**
+     * @param conn Connection to write on, for work off the shared connection
+     */
+    int updateMembershipTiers(Connection conn, int silverThreshold, int goldThreshold,
+                              int platinumThreshold) throws SQLException;
 }
@@ -0,0 +1,100 @@
+package datalayer.dao;
+
+import businesslogic.entities.WaitlistEntry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WaitlistDAO extends BaseDAO<WaitlistEntry, Integer> {
+
+    /**
+     * Find WAITING entries for a flight in service order (priority, then join order).
+     * @param flightId Flight ID
+     * @return Waiting entries, best first
+     * @throws SQLException if database error occurs
+     */
+    List<WaitlistEntry> findWaitingByFlightId(Integer flightId) throws SQLException;
+
+    /**
+     * Same as {@link #findWaitingByFlightId(Integer)}, on the given connection.
+     */
+    List<WaitlistEntry> findWaitingByFlightId(Connection conn, Integer flightId) throws SQLException;
+
+    /**
+     * Mark a batch of entries as OFFERED with a single UPDATE.
+     * @param waitlistIds Entries to offer
+     * @param offerExpiresAt When the offers lapse
+     * @return Number of entries updated
+     * @throws SQLException if database error occurs
+     */
+    int markOffered(List<Integer> waitlistIds, LocalDateTime offerExpiresAt) throws SQLException;
+
+    /**
+     * Same as {@link #markOffered(List, LocalDateTime)}, inside the caller's transaction.
+     */
+    int markOffered(Connection conn, List<Integer> waitlistIds, LocalDateTime offerExpiresAt) throws SQLException;
+
+    /**
+     * Find and lock a customer's offer on a flight that is still open at the given time.
+     * Call inside a transaction; the row stays locked until it ends.
+     * @return The offer, or null if there is none
+     * @throws SQLException if database error occurs
+     */
+    WaitlistEntry findOpenOffer(Connection conn, Integer customerId, String flightNumber,
+                                LocalDateTime now) throws SQLException;
+
+    /**
+     * Find a customer's offer on a flight that is still open at the given time, without locking it.
+     * @return The offer, or null if there is none
+     * @throws SQLException if database error occurs
+     */
+    WaitlistEntry findOpenOfferByFlightId(Integer customerId, Integer flightId, LocalDateTime now)
+            throws SQLException;
+
+    /**
+     * Find and lock an entry by id. Call inside a transaction; the row stays locked until it ends.
+     * @return The entry, or null if there is none
+     * @throws SQLException if database error occurs
+     */
+    WaitlistEntry findByIdForUpdate(Connection conn, Integer waitlistId) throws SQLException;
+
+    /**
+     * Mark a WAITING or OFFERED entry as CANCELLED, inside the caller's transaction.
+     * @return true if the entry was still waiting or offered
+     * @throws SQLException if database error occurs
+     */
+    boolean markCancelled(Connection conn, Integer waitlistId) throws SQLException;
+
+    /**
+     * Mark an OFFERED entry as ACCEPTED, inside the caller's transaction.
+     * @return true if the entry was still offered
+     * @throws SQLException if database error occurs
+     */
+    boolean markAccepted(Connection conn, Integer waitlistId) throws SQLException;
+
+    /**
+     * Find OFFERED entries whose offer lapsed before the given time.
+     * Inside a transaction the rows stay locked until it ends.
+     * @throws SQLException if database error occurs
+     */
+    List<WaitlistEntry> findLapsedOffers(LocalDateTime now) throws SQLException;
+
+    /**
+     * Same as {@link #findLapsedOffers(LocalDateTime)}, on the given connection.
+     */
+    List<WaitlistEntry> findLapsedOffers(Connection conn, LocalDateTime now) throws SQLException;
+
+    /**
+     * Mark a batch of entries as EXPIRED with a single UPDATE.
+     * @return Number of entries updated
+     * @throws SQLException if database error occurs
+     */
+    int markExpired(List<Integer> waitlistIds) throws SQLException;
+
+    /**
+     * Same as {@link #markExpired(List)}, inside the caller's transaction.
+     */
+    int markExpired(Connection conn, List<Integer> waitlistIds) throws SQLException;
+}
@@ -35,6 +35,19 @@ public final class DatabaseConnection {
         return connection;
     }
 
+    /**
+     * Open a separate connection for background work that runs its own transactions,
+     * so it never interleaves with statements on the shared connection.
+     * Caller is responsible for closing it.
+     */
+    public Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(
+                DatabaseConfig.DB_URL,
+                DatabaseConfig.DB_USER,
+                DatabaseConfig.DB_PASSWORD
+        );
+    }
+
     // Optional: helper for testing connectivity
     public boolean isValid(int timeoutSeconds) {
         try {
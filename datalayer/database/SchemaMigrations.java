@@ -0,0 +1,176 @@
+package datalayer.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Brings a database created from an older schema.sql up to date.
+ *
+ * schema.sql only creates what is missing with CREATE TABLE IF NOT EXISTS,
+ * so columns and indexes added to or dropped from existing tables since
+ * never reach a database that was set up before them. Each step here checks
+ * information_schema first and is skipped once applied, so this is safe to
+ * run on every startup and from several nodes at once.
+ */
+public final class SchemaMigrations {
+
+    /** Added by {@link #apply}; its counters start at 0 and need a backfill. */
+    public static final String USERS_BOOKING_COUNT = "users.booking_count";
+
+    private static final String UPDATED_AT =
+        "DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)";
+
+    private static final String[][] COLUMNS = {
+        // table, column, definition
+        {"users", "booking_count", "INT NOT NULL DEFAULT 0 AFTER membership_status"},
+        {"users", "updated_at", UPDATED_AT},
+        {"flights", "seat_version", "BIGINT NOT NULL DEFAULT 0"},
+        {"flights", "updated_at", UPDATED_AT},
+        {"seats", "held_for_waitlist_id", "BIGINT"},
+        {"payments", "updated_at", UPDATED_AT},
+        {"reservations", "updated_at", UPDATED_AT},
+        {"promotions", "updated_at", UPDATED_AT},
+    };
+
+    private static final String[][] INDEXES = {
+        // table, index, columns
+        {"users", "idx_users_promo_subscribers", "role, subscribed_to_promotions, user_id"},
+        {"users", "idx_users_role_updated", "role, updated_at"},
+        {"flights", "idx_flights_status_departure", "status, departure_time"},
+        {"flights", "idx_flights_status_arrival", "status, arrival_time"},
+        {"flights", "idx_flights_aircraft_departure", "aircraft_id, departure_time"},
+        {"flights", "idx_flights_updated", "updated_at"},
+        {"seats", "idx_seats_waitlist_hold", "held_for_waitlist_id"},
+        {"payments", "idx_payments_updated", "updated_at"},
+        {"reservations", "idx_reservations_status_booking", "status, booking_date"},
+        {"reservations", "idx_reservations_booking_date", "booking_date, reservation_id"},
+        {"reservations", "idx_reservations_updated", "updated_at"},
+        {"reservations", "idx_reservations_customer_updated", "customer_id, updated_at"},
+        {"promotions", "idx_promotions_updated", "updated_at"},
+        {"event_outbox", "idx_event_outbox_occurred", "occurred_at"},
+    };
+
+    // Left from when the outbox also queued events for claim-once dispatch
+    private static final String[][] DROPPED_INDEXES = {
+        {"event_outbox", "idx_event_outbox_pending"},
+        {"event_outbox", "idx_event_outbox_aggregate"},
+    };
+
+    private static final String[][] DROPPED_COLUMNS = {
+        {"event_outbox", "status"},
+        {"event_outbox", "attempts"},
+        {"event_outbox", "next_attempt_at"},
+        {"event_outbox", "dispatched_at"},
+        {"event_outbox", "last_error"},
+    };
+
+    private static final String TABLE_EXISTS_SQL =
+        "SELECT 1 FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+    private static final String COLUMN_EXISTS_SQL =
+        "SELECT 1 FROM information_schema.COLUMNS " +
+        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+
+    private static final String INDEX_EXISTS_SQL =
+        "SELECT 1 FROM information_schema.STATISTICS " +
+        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?";
+
+    // Another node applied the same step between our check and our ALTER
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Drop what is no longer used, then add every missing column and index.
+     * DDL commits implicitly in MySQL, so each step stands on its own.
+     * @param conn Connection to migrate on, not the shared one
+     * @return "table.column" of each column added by this call, in order
+     */
+    public static List<String> apply(Connection conn) throws SQLException {
+        for (String[] index : DROPPED_INDEXES) {
+            if (exists(conn, INDEX_EXISTS_SQL, index[0], index[1])) {
+                execute(conn, "DROP INDEX " + index[1] + " ON " + index[0], ER_CANT_DROP_FIELD_OR_KEY);
+            }
+        }
+        for (String[] column : DROPPED_COLUMNS) {
+            if (exists(conn, COLUMN_EXISTS_SQL, column[0], column[1])) {
+                execute(conn, "ALTER TABLE " + column[0] + " DROP COLUMN " + column[1], ER_CANT_DROP_FIELD_OR_KEY);
+            }
+        }
+
+        List<String> added = new ArrayList<>();
+        for (String[] column : COLUMNS) {
+            if (addColumnIfMissing(conn, column[0], column[1], column[2])) {
+                added.add(column[0] + "." + column[1]);
+            }
+        }
+        for (String[] index : INDEXES) {
+            addIndexIfMissing(conn, index[0], index[1], index[2]);
+        }
+        if (!added.isEmpty()) {
+            System.out.println("[SchemaMigrations] Added " + String.join(", ", added));
+        }
+        return Collections.unmodifiableList(added);
+    }
+
+    private static boolean addColumnIfMissing(Connection conn, String table, String column,
+                                              String definition) throws SQLException {
+        if (exists(conn, COLUMN_EXISTS_SQL, table, column)) {
+            return false;
+        }
+        return execute(conn, "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition,
+            ER_DUP_FIELDNAME);
+    }
+
+    private static void addIndexIfMissing(Connection conn, String table, String index,
+                                          String columns) throws SQLException {
+        // Tables added since are created with their indexes by schema.sql
+        if (!tableExists(conn, table) || exists(conn, INDEX_EXISTS_SQL, table, index)) {
+            return;
+        }
+        execute(conn, "CREATE INDEX " + index + " ON " + table + "(" + columns + ")", ER_DUP_KEYNAME);
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(TABLE_EXISTS_SQL)) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean exists(Connection conn, String sql, String table, String name) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * @return false if another node got there first
+     */
+    private static boolean execute(Connection conn, String ddl, int alreadyAppliedCode) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl);
+            return true;
+        } catch (SQLException e) {
+            if (e.getErrorCode() == alreadyAppliedCode) {
+                return false;
+            }
+            throw e;
+        }
+    }
+}
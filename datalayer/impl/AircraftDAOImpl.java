@@ -2,6 +2,9 @@ package datalayer.impl;
 
 import businesslogic.entities.Aircraft;
 import datalayer.dao.AircraftDAO;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 import datalayer.database.DatabaseConnection;
 
 import java.sql.*;
@@ -27,6 +30,14 @@ public class AircraftDAOImpl implements AircraftDAO {
     private static final String DELETE_SQL =
             "DELETE FROM aircraft WHERE aircraft_id = ?";
 
+    private static final PageSql PAGE_SQL = new PageSql(
+            "SELECT * FROM aircraft", "SELECT COUNT(*) FROM aircraft", null, "aircraft_id")
+            .sort("aircraftId", "aircraft_id")
+            .sort("model", "model")
+            .sort("manufacturer", "manufacturer")
+            .sort("totalSeats", "total_seats")
+            .sort("status", "status");
+
     @Override
     public Aircraft save(Aircraft aircraft) throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -88,6 +99,29 @@ public class AircraftDAOImpl implements AircraftDAO {
         return list;
     }
 
+    @Override
+    public int count(PageQuery query) throws SQLException {
+        return PAGE_SQL.count(DatabaseConnection.getInstance().getConnection(), query);
+    }
+
+    @Override
+    public KeyedPage<Aircraft> findPage(PageQuery query, PageKey after, int offset, int limit) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        List<Aircraft> list = new ArrayList<>();
+        PageKey last = null;
+
+        try (PreparedStatement stmt = PAGE_SQL.preparePage(conn, query, after, offset, limit);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                list.add(mapRow(rs));
+                last = PAGE_SQL.keyOf(rs, query);
+            }
+        }
+
+        return new KeyedPage<>(list, last);
+    }
+
     @Override
     public boolean update(Aircraft aircraft) throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
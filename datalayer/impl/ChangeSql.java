@@ -0,0 +1,61 @@
+package datalayer.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Helpers for the updated-since reads behind ChangeSet.
+ */
+final class ChangeSql {
+
+    // A transaction open when the clock is read can still commit rows stamped
+    // just before it; starting the next read this far back picks them up.
+    // Rows inside the margin are read twice, which the receiving tables ignore.
+    private static final int WATERMARK_MARGIN_SECONDS = 10;
+
+    private static final String WATERMARK_SQL =
+            "SELECT NOW(3) - INTERVAL " + WATERMARK_MARGIN_SECONDS + " SECOND";
+
+    private ChangeSql() {
+    }
+
+    /**
+     * Read the next watermark from the database clock, so every client agrees
+     * with the updated_at stamps whatever its own clock says. Read it before
+     * the rows, not after.
+     */
+    static LocalDateTime watermark(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(WATERMARK_SQL)) {
+            if (!rs.next()) {
+                throw new SQLException("Database clock returned no row.");
+            }
+            return rs.getTimestamp(1).toLocalDateTime();
+        }
+    }
+
+    /**
+     * Read the first column of a query of ids.
+     * @param param Bound to the query's only parameter, or null if it has none
+     */
+    static Set<Integer> ids(Connection conn, String sql, Integer param) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            if (param != null) {
+                stmt.setInt(1, param);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+}
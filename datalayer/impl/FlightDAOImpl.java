@@ -4,18 +4,24 @@ import businesslogic.entities.Flight;
 import businesslogic.entities.Aircraft;
 import businesslogic.entities.Route;
 import businesslogic.entities.enums.FlightStatus;
+import datalayer.dao.ChangeSet;
 import datalayer.dao.FlightDAO;
 import datalayer.dao.AircraftDAO;
 import datalayer.dao.RouteDAO;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 import datalayer.dao.SeatDAO;
 import datalayer.database.DatabaseConnection;
 import datalayer.database.TransactionManager;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.TimeZone;
 
 public class FlightDAOImpl implements FlightDAO {
@@ -54,12 +60,45 @@ public class FlightDAOImpl implements FlightDAO {
     private static final String DELETE_SQL =
             "DELETE FROM flights WHERE flight_id = ?";
 
-    private AircraftDAO aircraftDAO;
-    private RouteDAO routeDAO;
+    private static final PageSql PAGE_SQL = new PageSql(
+            "SELECT * FROM flights", "SELECT COUNT(*) FROM flights", null, "flight_id")
+            .sort("flightNumber", "flight_number")
+            .sort("departure", "departure_time")
+            .sort("arrival", "arrival_time")
+            .sort("status", "status")
+            .sort("availableSeats", "available_seats")
+            .sort("price", "price")
+            .filter("flightNumber", "flight_number LIKE ?")
+            .trackChanges("updated_at");
+
+    private static final String ADJUST_AVAILABLE_SEATS_SQL =
+            "UPDATE flights SET available_seats = available_seats + ? " +
+            "WHERE flight_id = ? AND available_seats + ? >= 0";
+
+    // Both served by idx_flights_aircraft_departure (aircraft_id, departure_time)
+    private static final String SELECT_UPCOMING_BY_AIRCRAFT_STATUS_SQL =
+            "SELECT flight_number FROM flights " +
+            "WHERE aircraft_id = ? AND departure_time > ? AND status IN (%s) FOR UPDATE";
+
+    private static final String UPDATE_UPCOMING_STATUS_BY_AIRCRAFT_SQL =
+            "UPDATE flights SET status = ? " +
+            "WHERE aircraft_id = ? AND departure_time > ? AND status IN (%s)";
+
+    private final AircraftDAO aircraftDAO;
+    private final RouteDAO routeDAO;
+    private final SeatDAO seatDAO;
 
     public FlightDAOImpl() throws SQLException {
-        this.aircraftDAO = new AircraftDAOImpl();
-        this.routeDAO = new RouteDAOImpl();
+        this(new AircraftDAOImpl(), new RouteDAOImpl(), new SeatDAOImpl());
+    }
+
+    /**
+     * Use shared instances of the DAOs flights are loaded and saved with.
+     */
+    public FlightDAOImpl(AircraftDAO aircraftDAO, RouteDAO routeDAO, SeatDAO seatDAO) {
+        this.aircraftDAO = aircraftDAO;
+        this.routeDAO = routeDAO;
+        this.seatDAO = seatDAO;
     }
 
     @Override
@@ -93,8 +132,12 @@ public class FlightDAOImpl implements FlightDAO {
             flight.setAvailableSeats(availableSeats);
         }
         
-        // Begin transaction to ensure atomicity of flight and seat creation
-        TransactionManager.begin(conn);
+        // Begin transaction to ensure atomicity of flight and seat creation,
+        // or join the caller's so the flight commits with whatever it records alongside
+        boolean ownTransaction = conn.getAutoCommit();
+        if (ownTransaction) {
+            TransactionManager.begin(conn);
+        }
         int generatedFlightId;
         
         try {
@@ -134,7 +177,6 @@ public class FlightDAOImpl implements FlightDAO {
             // Automatically create seats for the new flight
             // Use aircraft's totalSeats and seatConfiguration
             // For new flights, all seats are available (availableSeats = totalSeats)
-            SeatDAO seatDAO = new SeatDAOImpl();
             String seatConfig = aircraft.getSeatConfiguration();
             if (isNewFlight) {
                 // New flight: all seats are available
@@ -142,11 +184,15 @@ public class FlightDAOImpl implements FlightDAO {
             }
             
             // Commit transaction if everything succeeded
-            TransactionManager.commit(conn);
+            if (ownTransaction) {
+                TransactionManager.commit(conn);
+            }
         
         } catch (SQLException e) {
             // Rollback transaction if anything fails
-            TransactionManager.rollback(conn);
+            if (ownTransaction) {
+                TransactionManager.rollback(conn);
+            }
             throw e;
         }
     
@@ -261,6 +307,48 @@ public class FlightDAOImpl implements FlightDAO {
         return list;
     }
 
+    @Override
+    public int count(PageQuery query) throws SQLException {
+        return PAGE_SQL.count(DatabaseConnection.getInstance().getConnection(), query);
+    }
+
+    @Override
+    public KeyedPage<Flight> findPage(PageQuery query, PageKey after, int offset, int limit) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        List<Flight> list = new ArrayList<>();
+        PageKey last = null;
+
+        try (PreparedStatement stmt = PAGE_SQL.preparePage(conn, query, after, offset, limit);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                list.add(mapRow(rs));
+                last = PAGE_SQL.keyOf(rs, query);
+            }
+        }
+
+        return new KeyedPage<>(list, last);
+    }
+
+    @Override
+    public ChangeSet<Flight> findChangesSince(PageQuery query, LocalDateTime since, int limit) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        LocalDateTime watermark = ChangeSql.watermark(conn);
+        List<Flight> changed = new ArrayList<>();
+
+        if (since != null) {
+            try (PreparedStatement stmt = PAGE_SQL.prepareChanged(conn, query, since, limit);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    changed.add(mapRow(rs));
+                }
+            }
+        }
+
+        return ChangeSet.since(changed, null, watermark);
+    }
+
     @Override
     public boolean update(Flight flight) throws SQLException {
         // Since Flight doesn't have flightId, we need to find it by flightNumber first
@@ -311,7 +399,6 @@ public class FlightDAOImpl implements FlightDAO {
             
             // If available seats changed, update seat availability
             if (affected > 0 && availableSeatsChanged) {
-                SeatDAO seatDAO = new SeatDAOImpl();
                 seatDAO.updateSeatAvailability(flightId, newAvailableSeats);
             }
             
@@ -331,6 +418,81 @@ public class FlightDAOImpl implements FlightDAO {
         }
     }
 
+    @Override
+    public boolean adjustAvailableSeats(Integer flightId, int delta) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(ADJUST_AVAILABLE_SEATS_SQL)) {
+            stmt.setInt(1, delta);
+            stmt.setInt(2, flightId);
+            stmt.setInt(3, delta);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public List<String> updateUpcomingStatusByAircraft(Integer aircraftId, LocalDateTime after,
+                                                       List<FlightStatus> fromStatuses,
+                                                       FlightStatus toStatus) throws SQLException {
+        List<String> flightNumbers = new ArrayList<>();
+        if (fromStatuses == null || fromStatuses.isEmpty()) {
+            return flightNumbers;
+        }
+
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < fromStatuses.size(); i++) {
+            joiner.add("?");
+        }
+        String placeholders = joiner.toString();
+        Timestamp afterTs = Timestamp.from(after.atZone(ZoneId.of("UTC")).toInstant());
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        boolean ownTransaction = conn.getAutoCommit();
+        if (ownTransaction) {
+            TransactionManager.begin(conn);
+        }
+
+        try {
+            // Lock and collect the rows first: MySQL's UPDATE can't return them
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    String.format(SELECT_UPCOMING_BY_AIRCRAFT_STATUS_SQL, placeholders))) {
+                stmt.setInt(1, aircraftId);
+                stmt.setTimestamp(2, afterTs, UTC_CALENDAR);
+                for (int i = 0; i < fromStatuses.size(); i++) {
+                    stmt.setString(i + 3, fromStatuses.get(i).name());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        flightNumbers.add(rs.getString("flight_number"));
+                    }
+                }
+            }
+
+            if (!flightNumbers.isEmpty()) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        String.format(UPDATE_UPCOMING_STATUS_BY_AIRCRAFT_SQL, placeholders))) {
+                    stmt.setString(1, toStatus.name());
+                    stmt.setInt(2, aircraftId);
+                    stmt.setTimestamp(3, afterTs, UTC_CALENDAR);
+                    for (int i = 0; i < fromStatuses.size(); i++) {
+                        stmt.setString(i + 4, fromStatuses.get(i).name());
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+
+            if (ownTransaction) {
+                TransactionManager.commit(conn);
+            }
+            return flightNumbers;
+        } catch (SQLException e) {
+            if (ownTransaction) {
+                TransactionManager.rollback(conn);
+            }
+            throw e;
+        }
+    }
+
     private Integer getFlightIdByNumber(String flightNumber) throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
         try (PreparedStatement stmt = conn.prepareStatement(
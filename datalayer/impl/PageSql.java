@@ -0,0 +1,266 @@
+package datalayer.impl;
+
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the COUNT and paged SELECT statements behind the PagedDAO methods.
+ *
+ * Sort and filter fields are looked up in each DAO's own whitelist, so no
+ * caller-supplied text ever reaches the SQL. A unique tie-breaker column
+ * follows the sort column, so every row has a distinct (sort value, id)
+ * key. A page that follows a loaded one seeks past that row's key, which
+ * the database resolves through the sort index however deep the page is;
+ * OFFSET is only used to jump to a page with nothing loaded before it.
+ * Id matches become IN lists over whitelisted id columns. Tables with an
+ * updated_at column can also list the rows of a query that changed since a
+ * watermark.
+ */
+final class PageSql {
+
+    private final String select;
+    private final String countSql;
+    private final String baseCondition;
+    private final String tieBreaker;
+    private String updatedColumn;
+    private final Map<String, String> sortColumns = new HashMap<>();
+    private final Map<String, String> filterConditions = new HashMap<>();
+    private final Map<String, String> idColumns = new HashMap<>();
+
+    /**
+     * @param select SELECT and FROM clauses, joins included
+     * @param countSql SELECT COUNT(*) with the same FROM clause
+     * @param baseCondition Condition every row must meet, or null
+     * @param tieBreaker Unique column, also the default sort
+     */
+    PageSql(String select, String countSql, String baseCondition, String tieBreaker) {
+        this.select = select;
+        this.countSql = countSql;
+        this.baseCondition = baseCondition;
+        this.tieBreaker = tieBreaker;
+    }
+
+    PageSql sort(String field, String column) {
+        sortColumns.put(field, column);
+        return this;
+    }
+
+    /**
+     * @param condition SQL condition with one parameter; a trailing "LIKE ?" matches by prefix
+     */
+    PageSql filter(String field, String condition) {
+        filterConditions.put(field, condition);
+        return this;
+    }
+
+    /**
+     * @param column Integer column holding the field's ids, qualified as in the SELECT
+     */
+    PageSql idMatch(String field, String column) {
+        idColumns.put(field, column);
+        return this;
+    }
+
+    /**
+     * @param column The updated_at column, qualified as in the SELECT
+     */
+    PageSql trackChanges(String column) {
+        this.updatedColumn = column;
+        return this;
+    }
+
+    int count(Connection conn, PageQuery query) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(countSql + where(query))) {
+            bindConditions(stmt, query, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Prepare the page's SELECT with all parameters bound. The caller maps the
+     * rows, reads each one's key with {@link #keyOf}, and closes it.
+     * @param after Key of the row before the page, or null to count the offset from the first row
+     * @param offset Rows to skip after that; 0 when reading on from a loaded page
+     */
+    PreparedStatement preparePage(Connection conn, PageQuery query, PageKey after, int offset, int limit)
+            throws SQLException {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Page offset must not be negative and limit must be positive.");
+        }
+
+        String where = where(query);
+        if (after != null) {
+            String seek = seekCondition(query, after);
+            where = where.isEmpty() ? " WHERE " + seek : where + " AND " + seek;
+        }
+        String sql = select + where + orderBy(query) + (offset > 0 ? " LIMIT ? OFFSET ?" : " LIMIT ?");
+        PreparedStatement stmt = conn.prepareStatement(sql);
+        try {
+            int param = bindConditions(stmt, query, 1);
+            if (after != null) {
+                param = bindSeek(stmt, query, after, param);
+            }
+            stmt.setInt(param++, limit);
+            if (offset > 0) {
+                stmt.setInt(param, offset);
+            }
+            return stmt;
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Prepare a SELECT of the query's rows written at or after a watermark, in page order.
+     */
+    PreparedStatement prepareChanged(Connection conn, PageQuery query, LocalDateTime since, int limit)
+            throws SQLException {
+        if (updatedColumn == null) {
+            throw new IllegalStateException("Changes are not tracked for this table.");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+
+        String where = where(query);
+        String changed = updatedColumn + " >= ?";
+        where = where.isEmpty() ? " WHERE " + changed : where + " AND " + changed;
+        PreparedStatement stmt = conn.prepareStatement(select + where + orderBy(query) + " LIMIT ?");
+        try {
+            int param = bindConditions(stmt, query, 1);
+            stmt.setTimestamp(param++, Timestamp.valueOf(since));
+            stmt.setInt(param, limit);
+            return stmt;
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The key of the current row of a page read with {@link #preparePage}.
+     */
+    PageKey keyOf(ResultSet rs, PageQuery query) throws SQLException {
+        Object sortValue = query.getSortField() != null ? rs.getObject(label(sortColumn(query))) : null;
+        return new PageKey(sortValue, rs.getInt(label(tieBreaker)));
+    }
+
+    private String where(PageQuery query) {
+        List<String> conditions = new ArrayList<>(3);
+        if (baseCondition != null) {
+            conditions.add(baseCondition);
+        }
+        if (query.hasFilter()) {
+            String condition = filterConditions.get(query.getFilterField());
+            if (condition == null) {
+                throw new IllegalArgumentException("Cannot filter on " + query.getFilterField() + ".");
+            }
+            conditions.add(condition);
+        }
+        if (query.hasIdMatches()) {
+            conditions.add(idCondition(query));
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private String orderBy(PageQuery query) {
+        String direction = query.isAscending() ? " ASC" : " DESC";
+        if (query.getSortField() == null) {
+            return " ORDER BY " + tieBreaker + direction;
+        }
+
+        // Same direction on both keys lets the database walk one index either way
+        return " ORDER BY " + sortColumn(query) + direction + ", " + tieBreaker + direction;
+    }
+
+    private String sortColumn(PageQuery query) {
+        String column = sortColumns.get(query.getSortField());
+        if (column == null) {
+            throw new IllegalArgumentException("Cannot sort by " + query.getSortField() + ".");
+        }
+        return column;
+    }
+
+    /**
+     * Rows that come after a key in the query's order. NULL sort values come
+     * first in ascending order and last in descending order, as MySQL sorts them.
+     */
+    private String seekCondition(PageQuery query, PageKey after) {
+        String compare = query.isAscending() ? " > ?" : " < ?";
+        if (query.getSortField() == null) {
+            return tieBreaker + compare;
+        }
+
+        String column = sortColumn(query);
+        String sameValue = column + " = ? AND " + tieBreaker + compare;
+        if (after.getSortValue() == null) {
+            String sameNull = column + " IS NULL AND " + tieBreaker + compare;
+            return query.isAscending() ? "((" + sameNull + ") OR " + column + " IS NOT NULL)" : "(" + sameNull + ")";
+        }
+        String next = "(" + column + compare + " OR (" + sameValue + ")";
+        return query.isAscending() ? next + ")" : next + " OR " + column + " IS NULL)";
+    }
+
+    private int bindSeek(PreparedStatement stmt, PageQuery query, PageKey after, int param) throws SQLException {
+        if (query.getSortField() != null && after.getSortValue() != null) {
+            stmt.setObject(param++, after.getSortValue());
+            stmt.setObject(param++, after.getSortValue());
+        }
+        stmt.setInt(param++, after.getRowId());
+        return param;
+    }
+
+    /**
+     * The result set label of a column, which drops any table alias.
+     */
+    private static String label(String column) {
+        return column.substring(column.indexOf('.') + 1);
+    }
+
+    private String idCondition(PageQuery query) {
+        List<String> alternatives = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> match : query.getIdMatches().entrySet()) {
+            String column = idColumns.get(match.getKey());
+            if (column == null) {
+                throw new IllegalArgumentException("Cannot match ids on " + match.getKey() + ".");
+            }
+            if (!match.getValue().isEmpty()) {
+                String placeholders = String.join(", ", Collections.nCopies(match.getValue().size(), "?"));
+                alternatives.add(column + " IN (" + placeholders + ")");
+            }
+        }
+        // Nothing to match on means no rows, not all of them
+        return alternatives.isEmpty() ? "1 = 0" : "(" + String.join(" OR ", alternatives) + ")";
+    }
+
+    private int bindConditions(PreparedStatement stmt, PageQuery query, int param) throws SQLException {
+        if (query.hasFilter()) {
+            String value = query.getFilterValue();
+            if (filterConditions.get(query.getFilterField()).endsWith("LIKE ?")) {
+                value = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            }
+            stmt.setString(param++, value);
+        }
+        for (List<Integer> ids : query.getIdMatches().values()) {
+            for (Integer id : ids) {
+                stmt.setInt(param++, id);
+            }
+        }
+        return param;
+    }
+}
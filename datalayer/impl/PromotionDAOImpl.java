@@ -2,11 +2,13 @@ package datalayer.impl;
 
 import businesslogic.entities.Promotion;
 import businesslogic.entities.Route;
+import datalayer.dao.ChangeSet;
 import datalayer.dao.PromotionDAO;
 import datalayer.database.DatabaseConnection;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,19 +27,16 @@ public class PromotionDAOImpl implements PromotionDAO {
     private static final String SELECT_ALL_SQL = 
         "SELECT * FROM promotions ORDER BY valid_from DESC";
     
-    private static final String SELECT_ACTIVE_SQL = 
-        "SELECT * FROM promotions WHERE valid_from <= CURDATE() AND valid_to >= CURDATE() " +
-        "ORDER BY discount_percent DESC";
+    private static final String SELECT_CHANGED_SQL = 
+        "SELECT * FROM promotions WHERE updated_at >= ? ORDER BY valid_from DESC";
     
-    private static final String SELECT_BY_DATE_SQL = 
-        "SELECT * FROM promotions WHERE valid_from <= ? AND valid_to >= ? " +
-        "ORDER BY discount_percent DESC";
+    private static final String SELECT_IDS_SQL = 
+        "SELECT promotion_id FROM promotions";
     
-    private static final String SELECT_CURRENT_MONTH_SQL = 
-        "SELECT * FROM promotions WHERE " +
-        "(YEAR(valid_from) = YEAR(CURDATE()) AND MONTH(valid_from) = MONTH(CURDATE())) OR " +
-        "(YEAR(valid_to) = YEAR(CURDATE()) AND MONTH(valid_to) = MONTH(CURDATE())) OR " +
-        "(valid_from <= CURDATE() AND valid_to >= CURDATE()) " +
+    // Overlap with [start, end]; plain range predicates so idx_promotions_valid_dates applies.
+    // Used for a single date (active promotions) and for a whole month (monthly news).
+    private static final String SELECT_OVERLAPPING_SQL = 
+        "SELECT * FROM promotions WHERE valid_from <= ? AND valid_to >= ? " +
         "ORDER BY discount_percent DESC";
     
     private static final String UPDATE_SQL = 
@@ -101,27 +100,15 @@ public class PromotionDAOImpl implements PromotionDAO {
 
     @Override
     public List<Promotion> findAll() throws SQLException {
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-        List<Promotion> promotions = new ArrayList<>();
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
-
-            while (rs.next()) {
-                promotions.add(mapRow(rs));
-            }
-        }
-
-        return promotions;
+        return findAll(DatabaseConnection.getInstance().getConnection());
     }
 
     @Override
-    public List<Promotion> findActivePromotions() throws SQLException {
-        Connection conn = DatabaseConnection.getInstance().getConnection();
+    public List<Promotion> findAll(Connection conn) throws SQLException {
         List<Promotion> promotions = new ArrayList<>();
 
         try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(SELECT_ACTIVE_SQL)) {
+             ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
 
             while (rs.next()) {
                 promotions.add(mapRow(rs));
@@ -132,34 +119,58 @@ public class PromotionDAOImpl implements PromotionDAO {
     }
 
     @Override
-    public List<Promotion> findPromotionsByDate(LocalDate date) throws SQLException {
+    public ChangeSet<Promotion> findChangesSince(LocalDateTime since) throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
-        List<Promotion> promotions = new ArrayList<>();
+        LocalDateTime watermark = ChangeSql.watermark(conn);
 
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_BY_DATE_SQL)) {
-            stmt.setDate(1, Date.valueOf(date));
-            stmt.setDate(2, Date.valueOf(date));
+        if (since == null) {
+            return ChangeSet.full(findAll(), watermark);
+        }
+
+        List<Promotion> changed = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_CHANGED_SQL)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(since));
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    promotions.add(mapRow(rs));
+                    changed.add(mapRow(rs));
                 }
             }
         }
 
-        return promotions;
+        return ChangeSet.since(changed, ChangeSql.ids(conn, SELECT_IDS_SQL, null), watermark);
+    }
+
+    @Override
+    public List<Promotion> findActivePromotions() throws SQLException {
+        LocalDate today = LocalDate.now();
+        return findPromotionsOverlapping(today, today);
+    }
+
+    @Override
+    public List<Promotion> findPromotionsByDate(LocalDate date) throws SQLException {
+        return findPromotionsOverlapping(date, date);
     }
 
     @Override
     public List<Promotion> findPromotionsForCurrentMonth() throws SQLException {
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        return findPromotionsOverlapping(monthStart, monthStart.plusMonths(1).minusDays(1));
+    }
+
+    @Override
+    public List<Promotion> findPromotionsOverlapping(LocalDate start, LocalDate end) throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
         List<Promotion> promotions = new ArrayList<>();
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(SELECT_CURRENT_MONTH_SQL)) {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_OVERLAPPING_SQL)) {
+            stmt.setDate(1, Date.valueOf(end));
+            stmt.setDate(2, Date.valueOf(start));
 
-            while (rs.next()) {
-                promotions.add(mapRow(rs));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    promotions.add(mapRow(rs));
+                }
             }
         }
 
@@ -7,17 +7,23 @@ import businesslogic.entities.Flight;
 import businesslogic.entities.Payment;
 import businesslogic.entities.Seat;
 import businesslogic.entities.enums.ReservationStatus;
+import datalayer.dao.ChangeSet;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 import datalayer.dao.ReservationDAO;
 import datalayer.dao.UserDAO;
 import datalayer.dao.FlightDAO;
 import datalayer.dao.PaymentDAO;
 import datalayer.dao.SeatDAO;
 import datalayer.database.DatabaseConnection;
+import datalayer.database.TransactionManager;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.StringJoiner;
 
 public class ReservationDAOImpl implements ReservationDAO {
 
@@ -31,6 +37,19 @@ public class ReservationDAOImpl implements ReservationDAO {
     private static final String SELECT_BY_CUSTOMER_ID_SQL =
             "SELECT * FROM reservations WHERE customer_id = ?";
 
+    // A customer's reservation shows its flight's times and its payment, so changes to either count
+    private static final String SELECT_CHANGED_BY_CUSTOMER_ID_SQL =
+            "SELECT r.* FROM reservations r " +
+            "JOIN flights f ON f.flight_id = r.flight_id " +
+            "LEFT JOIN payments p ON p.payment_id = r.payment_id " +
+            "WHERE r.customer_id = ? AND (r.updated_at >= ? OR f.updated_at >= ? OR p.updated_at >= ?)";
+
+    private static final String SELECT_IDS_BY_CUSTOMER_ID_SQL =
+            "SELECT reservation_id FROM reservations WHERE customer_id = ?";
+
+    private static final String SELECT_IDS_AFTER_SQL =
+            "SELECT reservation_id FROM reservations WHERE reservation_id > ? ORDER BY reservation_id LIMIT ?";
+
     private static final String SELECT_BY_FLIGHT_ID_SQL =
             "SELECT * FROM reservations WHERE flight_id = ?";
 
@@ -44,16 +63,70 @@ public class ReservationDAOImpl implements ReservationDAO {
     private static final String DELETE_SQL =
             "DELETE FROM reservations WHERE reservation_id = ?";
 
+    // Compare-and-set on status; the expiry sweep cancels with the same guard
+    private static final String CONFIRM_IF_PENDING_SQL =
+            "UPDATE reservations SET status = 'CONFIRMED', payment_id = ? " +
+            "WHERE reservation_id = ? AND status = 'PENDING'";
+
+    private static final String INCREMENT_BOOKING_COUNT_SQL =
+            "UPDATE users SET booking_count = booking_count + 1 WHERE user_id = ?";
+
+    // Applies the delta only when the reservation moves into or out of CANCELLED
+    private static final String ADJUST_BOOKING_COUNT_ON_STATUS_SQL =
+            "UPDATE users u JOIN reservations r ON r.customer_id = u.user_id " +
+            "SET u.booking_count = GREATEST(CAST(u.booking_count AS SIGNED) + ?, 0) " +
+            "WHERE r.reservation_id = ? AND (r.status = 'CANCELLED') <> ?";
+
+    private static final String DELETE_TICKETS_FOR_SEATS_SQL =
+            "DELETE FROM tickets WHERE reservation_id = ? AND seat_id IN (%s)";
+
+    // Ticket changes leave the reservation row alone, so stamp it for change readers
+    private static final String TOUCH_SQL =
+            "UPDATE reservations SET updated_at = CURRENT_TIMESTAMP(3) WHERE reservation_id = ?";
+
+    // One row per reservation with just what a table shows, instead of a lookup per related entity
+    private static final PageSql PAGE_SQL = new PageSql(
+            "SELECT r.reservation_id, r.booking_date, r.status, r.total_price, r.customer_id, " +
+            "u.username, u.first_name, u.last_name, f.flight_number, " +
+            "(SELECT GROUP_CONCAT(s.seat_number ORDER BY s.seat_number SEPARATOR ',') " +
+            " FROM tickets t JOIN seats s ON s.seat_id = t.seat_id " +
+            " WHERE t.reservation_id = r.reservation_id) AS seat_numbers " +
+            "FROM reservations r " +
+            "JOIN users u ON u.user_id = r.customer_id " +
+            "JOIN flights f ON f.flight_id = r.flight_id",
+            "SELECT COUNT(*) FROM reservations r " +
+            "JOIN users u ON u.user_id = r.customer_id " +
+            "JOIN flights f ON f.flight_id = r.flight_id",
+            null, "r.reservation_id")
+            .sort("reservationId", "r.reservation_id")
+            .sort("customer", "u.first_name")
+            .sort("flight", "f.flight_number")
+            .sort("status", "r.status")
+            .sort("totalPrice", "r.total_price")
+            .sort("bookingDate", "r.booking_date")
+            .filter("reservationId", "r.reservation_id = ?")
+            .filter("customerUsername", "u.username = ?")
+            .idMatch("reservationId", "r.reservation_id")
+            .idMatch("customerId", "r.customer_id")
+            .trackChanges("r.updated_at");
+
     private final UserDAO userDAO;
     private final FlightDAO flightDAO;
     private final PaymentDAO paymentDAO;
     private final SeatDAO seatDAO;
 
     public ReservationDAOImpl() throws SQLException {
-        this.userDAO = new UserDAOImpl();
-        this.flightDAO = new FlightDAOImpl();
-        this.paymentDAO = new PaymentDAOImpl();
-        this.seatDAO = new SeatDAOImpl();
+        this(new UserDAOImpl(), new FlightDAOImpl(), new PaymentDAOImpl(), new SeatDAOImpl());
+    }
+
+    /**
+     * Use shared instances of the DAOs reservations are loaded with.
+     */
+    public ReservationDAOImpl(UserDAO userDAO, FlightDAO flightDAO, PaymentDAO paymentDAO, SeatDAO seatDAO) {
+        this.userDAO = userDAO;
+        this.flightDAO = flightDAO;
+        this.paymentDAO = paymentDAO;
+        this.seatDAO = seatDAO;
     }
 
     // -------------------------------------------------------------------------
@@ -64,6 +137,32 @@ public class ReservationDAOImpl implements ReservationDAO {
     public Reservation save(Reservation reservation) throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
 
+        // Join the caller's transaction if there is one, otherwise run our own
+        boolean ownTransaction = conn.getAutoCommit();
+        if (ownTransaction) {
+            TransactionManager.begin(conn);
+        }
+        try {
+            Reservation saved = insertReservation(conn, reservation);
+            if (reservation.getStatus() != ReservationStatus.CANCELLED) {
+                try (PreparedStatement stmt = conn.prepareStatement(INCREMENT_BOOKING_COUNT_SQL)) {
+                    stmt.setInt(1, reservation.getCustomer().getUserId());
+                    stmt.executeUpdate();
+                }
+            }
+            if (ownTransaction) {
+                TransactionManager.commit(conn);
+            }
+            return saved;
+        } catch (SQLException | RuntimeException e) {
+            if (ownTransaction) {
+                TransactionManager.rollback(conn);
+            }
+            throw e;
+        }
+    }
+
+    private Reservation insertReservation(Connection conn, Reservation reservation) throws SQLException {
         try (PreparedStatement stmt = conn.prepareStatement(
                 INSERT_SQL, Statement.RETURN_GENERATED_KEYS
         )) {
@@ -150,6 +249,53 @@ public class ReservationDAOImpl implements ReservationDAO {
         return list;
     }
 
+    @Override
+    public ChangeSet<Reservation> findChangesByCustomerId(Integer customerId, LocalDateTime since)
+            throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        LocalDateTime watermark = ChangeSql.watermark(conn);
+
+        if (since == null) {
+            return ChangeSet.full(findByCustomerId(customerId), watermark);
+        }
+
+        List<Reservation> changed = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_CHANGED_BY_CUSTOMER_ID_SQL)) {
+            Timestamp sinceTs = Timestamp.valueOf(since);
+            stmt.setInt(1, customerId);
+            stmt.setTimestamp(2, sinceTs);
+            stmt.setTimestamp(3, sinceTs);
+            stmt.setTimestamp(4, sinceTs);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    changed.add(mapRow(rs, conn));
+                }
+            }
+        }
+
+        return ChangeSet.since(changed, ChangeSql.ids(conn, SELECT_IDS_BY_CUSTOMER_ID_SQL, customerId), watermark);
+    }
+
+    @Override
+    public List<Integer> findIdsAfter(int afterId, int limit) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        List<Integer> ids = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_IDS_AFTER_SQL)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+
+        return ids;
+    }
+
     @Override
     public List<Reservation> findByFlightId(Integer flightId) throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -185,33 +331,101 @@ public class ReservationDAOImpl implements ReservationDAO {
     }
 
     @Override
-    public boolean update(Reservation reservation) throws SQLException {
+    public int count(PageQuery query) throws SQLException {
+        return PAGE_SQL.count(DatabaseConnection.getInstance().getConnection(), query);
+    }
+
+    @Override
+    public KeyedPage<Reservation> findPage(PageQuery query, PageKey after, int offset, int limit)
+            throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
+        List<Reservation> list = new ArrayList<>();
+        PageKey last = null;
 
-        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
-            stmt.setTimestamp(1, Timestamp.valueOf(reservation.getBookingDate()));
-            stmt.setString(2, reservation.getStatus().name());
-            stmt.setDouble(3, reservation.getTotalPrice());
-            stmt.setInt(4, reservation.getCustomer().getUserId());
+        try (PreparedStatement stmt = PAGE_SQL.preparePage(conn, query, after, offset, limit);
+             ResultSet rs = stmt.executeQuery()) {
 
-            Integer flightId = getFlightIdByNumber(reservation.getFlight().getFlightNumber());
-            if (flightId == null) {
-                return false;
+            while (rs.next()) {
+                list.add(mapSummaryRow(rs));
+                last = PAGE_SQL.keyOf(rs, query);
             }
-            stmt.setInt(5, flightId);
+        }
 
-            if (reservation.getPayment() != null) {
-                stmt.setInt(6, reservation.getPayment().getPaymentId());
-            } else {
-                stmt.setNull(6, Types.INTEGER);
+        return new KeyedPage<>(list, last);
+    }
+
+    @Override
+    public ChangeSet<Reservation> findChangesSince(PageQuery query, LocalDateTime since, int limit)
+            throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        LocalDateTime watermark = ChangeSql.watermark(conn);
+        List<Reservation> changed = new ArrayList<>();
+
+        if (since != null) {
+            try (PreparedStatement stmt = PAGE_SQL.prepareChanged(conn, query, since, limit);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    changed.add(mapSummaryRow(rs));
+                }
             }
+        }
 
-            stmt.setInt(7, reservation.getReservationId());
+        return ChangeSet.since(changed, null, watermark);
+    }
 
-            int affected = stmt.executeUpdate();
+    @Override
+    public boolean update(Reservation reservation) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        Integer flightId = getFlightIdByNumber(reservation.getFlight().getFlightNumber());
+        if (flightId == null) {
+            return false;
+        }
+
+        boolean ownTransaction = conn.getAutoCommit();
+        if (ownTransaction) {
+            TransactionManager.begin(conn);
+        }
+        try {
+            // Must run before the row update so it still sees the old status
+            boolean cancelling = reservation.getStatus() == ReservationStatus.CANCELLED;
+            try (PreparedStatement stmt = conn.prepareStatement(ADJUST_BOOKING_COUNT_ON_STATUS_SQL)) {
+                stmt.setInt(1, cancelling ? -1 : 1);
+                stmt.setInt(2, reservation.getReservationId());
+                stmt.setBoolean(3, cancelling);
+                stmt.executeUpdate();
+            }
+
+            int affected;
+            try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(reservation.getBookingDate()));
+                stmt.setString(2, reservation.getStatus().name());
+                stmt.setDouble(3, reservation.getTotalPrice());
+                stmt.setInt(4, reservation.getCustomer().getUserId());
+                stmt.setInt(5, flightId);
+
+                if (reservation.getPayment() != null) {
+                    stmt.setInt(6, reservation.getPayment().getPaymentId());
+                } else {
+                    stmt.setNull(6, Types.INTEGER);
+                }
+
+                stmt.setInt(7, reservation.getReservationId());
 
+                affected = stmt.executeUpdate();
+            }
+
+            if (ownTransaction) {
+                TransactionManager.commit(conn);
+            }
             // Seats and tickets can be managed separately if you add modification logic later
             return affected > 0;
+        } catch (SQLException | RuntimeException e) {
+            if (ownTransaction) {
+                TransactionManager.rollback(conn);
+            }
+            throw e;
         }
     }
 
@@ -219,12 +433,95 @@ public class ReservationDAOImpl implements ReservationDAO {
     public boolean delete(Integer id) throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
 
-        try (PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
-            stmt.setInt(1, id);
-            int affected = stmt.executeUpdate();
+        boolean ownTransaction = conn.getAutoCommit();
+        if (ownTransaction) {
+            TransactionManager.begin(conn);
+        }
+        try {
+            // A deleted booking stops counting, like a cancelled one; must run while the row exists
+            try (PreparedStatement stmt = conn.prepareStatement(ADJUST_BOOKING_COUNT_ON_STATUS_SQL)) {
+                stmt.setInt(1, -1);
+                stmt.setInt(2, id);
+                stmt.setBoolean(3, true);
+                stmt.executeUpdate();
+            }
+
+            int affected;
+            try (PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
+                stmt.setInt(1, id);
+                affected = stmt.executeUpdate();
+            }
+
+            if (ownTransaction) {
+                TransactionManager.commit(conn);
+            }
             // Tickets and seat availability should be handled by ON DELETE CASCADE
             // and by your service layer when cancelling reservations
             return affected > 0;
+        } catch (SQLException | RuntimeException e) {
+            if (ownTransaction) {
+                TransactionManager.rollback(conn);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void addTickets(Reservation reservation, List<Seat> seats) throws SQLException {
+        if (seats == null || seats.isEmpty()) {
+            return;
+        }
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        createTickets(conn, reservation.getReservationId(), reservation.getCustomer(), seats);
+        touch(conn, reservation.getReservationId());
+    }
+
+    @Override
+    public boolean confirmIfPending(int reservationId, Integer paymentId) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(CONFIRM_IF_PENDING_SQL)) {
+            if (paymentId != null) {
+                stmt.setInt(1, paymentId);
+            } else {
+                stmt.setNull(1, Types.INTEGER);
+            }
+            stmt.setInt(2, reservationId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public int deleteTickets(int reservationId, List<Integer> seatIds) throws SQLException {
+        if (seatIds == null || seatIds.isEmpty()) {
+            return 0;
+        }
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        StringJoiner placeholders = new StringJoiner(", ");
+        for (int i = 0; i < seatIds.size(); i++) {
+            placeholders.add("?");
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(DELETE_TICKETS_FOR_SEATS_SQL, placeholders))) {
+            stmt.setInt(1, reservationId);
+            for (int i = 0; i < seatIds.size(); i++) {
+                stmt.setInt(i + 2, seatIds.get(i));
+            }
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                touch(conn, reservationId);
+            }
+            return deleted;
+        }
+    }
+
+    private void touch(Connection conn, int reservationId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(TOUCH_SQL)) {
+            stmt.setInt(1, reservationId);
+            stmt.executeUpdate();
         }
     }
 
@@ -277,12 +574,19 @@ public class ReservationDAOImpl implements ReservationDAO {
     private void createTicketsForReservation(Connection conn,
                                              int reservationId,
                                              Reservation reservation) throws SQLException {
-        if (reservation.getSeats() == null || reservation.getSeats().isEmpty()) {
+        createTickets(conn, reservationId, reservation.getCustomer(), reservation.getSeats());
+    }
+
+    private void createTickets(Connection conn,
+                               int reservationId,
+                               Customer customer,
+                               List<Seat> seats) throws SQLException {
+        if (seats == null || seats.isEmpty()) {
             System.err.println("Warning: No seats provided for reservation " + reservationId);
             return;
         }
 
-        String passengerName = buildPassengerName(reservation.getCustomer());
+        String passengerName = buildPassengerName(customer);
 
         String sql = "INSERT INTO tickets (issue_date, passenger_name, reservation_id, seat_id, barcode) " +
                      "VALUES (?, ?, ?, ?, ?)";
@@ -290,7 +594,7 @@ public class ReservationDAOImpl implements ReservationDAO {
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             Timestamp now = Timestamp.valueOf(LocalDateTime.now());
 
-            for (Seat seat : reservation.getSeats()) {
+            for (Seat seat : seats) {
                 if (seat == null || seat.getSeatId() <= 0) {
                     System.err.println("Warning: Invalid seat for reservation " + reservationId + ": " + seat);
                     continue;
@@ -344,6 +648,42 @@ public class ReservationDAOImpl implements ReservationDAO {
     // Row mapping
     // -------------------------------------------------------------------------
 
+    private Reservation mapSummaryRow(ResultSet rs) throws SQLException {
+        Timestamp bookingDateTs = rs.getTimestamp("booking_date");
+        String statusStr = rs.getString("status");
+
+        Customer customer = new Customer();
+        customer.setUserId(rs.getInt("customer_id"));
+        customer.setUsername(rs.getString("username"));
+        String firstName = rs.getString("first_name");
+        customer.setFirstName(firstName != null ? firstName : customer.getUsername());
+        customer.setLastName(rs.getString("last_name"));
+
+        Flight flight = new Flight();
+        flight.setFlightNumber(rs.getString("flight_number"));
+
+        List<Seat> seats = new ArrayList<>();
+        String seatNumbers = rs.getString("seat_numbers");
+        if (seatNumbers != null) {
+            for (String seatNumber : seatNumbers.split(",")) {
+                Seat seat = new Seat();
+                seat.setSeatNumber(seatNumber);
+                seats.add(seat);
+            }
+        }
+
+        return new Reservation(
+                rs.getInt("reservation_id"),
+                bookingDateTs != null ? bookingDateTs.toLocalDateTime() : null,
+                statusStr != null ? ReservationStatus.valueOf(statusStr) : null,
+                rs.getDouble("total_price"),
+                customer,
+                flight,
+                null,
+                seats
+        );
+    }
+
     private Reservation mapRow(ResultSet rs, Connection conn) throws SQLException {
         int reservationId = rs.getInt("reservation_id");
         Timestamp bookingDateTs = rs.getTimestamp("booking_date");
@@ -4,6 +4,9 @@ import businesslogic.entities.Airport;
 import businesslogic.entities.Route;
 import datalayer.dao.RouteDAO;
 import datalayer.dao.AirportDAO;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 import datalayer.database.DatabaseConnection;
 
 import java.sql.*;
@@ -35,17 +38,31 @@ public class RouteDAOImpl implements RouteDAO {
     private static final String DELETE_SQL =
             "DELETE FROM routes WHERE route_id = ?";
 
-    private final Connection connection;
-    private AirportDAO airportDAO;
+    private static final PageSql PAGE_SQL = new PageSql(
+            "SELECT route_id, origin_code, destination_code, distance_km, estimated_duration_minutes " +
+            "FROM routes", "SELECT COUNT(*) FROM routes", null, "route_id")
+            .sort("routeId", "route_id")
+            .sort("origin", "origin_code")
+            .sort("destination", "destination_code")
+            .sort("distance", "distance_km")
+            .sort("duration", "estimated_duration_minutes");
+
+    private final AirportDAO airportDAO;
 
     public RouteDAOImpl() throws SQLException {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-        this.airportDAO = new AirportDAOImpl();
+        this(new AirportDAOImpl());
+    }
+
+    /**
+     * Use a shared AirportDAO. Nothing connects until the first query.
+     */
+    public RouteDAOImpl(AirportDAO airportDAO) {
+        this.airportDAO = airportDAO;
     }
 
     @Override
     public Route save(Route route) throws SQLException {
-        try (PreparedStatement ps = connection.prepareStatement(
+        try (PreparedStatement ps = connection().prepareStatement(
                 INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setString(1, route.getOrigin().getAirportCode());
@@ -67,7 +84,7 @@ public class RouteDAOImpl implements RouteDAO {
 
     @Override
     public Route findById(Integer id) throws SQLException {
-        try (PreparedStatement ps = connection.prepareStatement(SELECT_BY_ID_SQL)) {
+        try (PreparedStatement ps = connection().prepareStatement(SELECT_BY_ID_SQL)) {
             ps.setInt(1, id);  // Integer autoboxes to int
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -82,7 +99,7 @@ public class RouteDAOImpl implements RouteDAO {
     public List<Route> findAll() throws SQLException {
         List<Route> routes = new ArrayList<>();
 
-        try (PreparedStatement ps = connection.prepareStatement(SELECT_ALL_SQL);
+        try (PreparedStatement ps = connection().prepareStatement(SELECT_ALL_SQL);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
@@ -92,11 +109,32 @@ public class RouteDAOImpl implements RouteDAO {
         return routes;
     }
 
+    @Override
+    public int count(PageQuery query) throws SQLException {
+        return PAGE_SQL.count(connection(), query);
+    }
+
+    @Override
+    public KeyedPage<Route> findPage(PageQuery query, PageKey after, int offset, int limit) throws SQLException {
+        List<Route> routes = new ArrayList<>();
+        PageKey last = null;
+
+        try (PreparedStatement ps = PAGE_SQL.preparePage(connection(), query, after, offset, limit);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                routes.add(mapRowToRoute(rs));
+                last = PAGE_SQL.keyOf(rs, query);
+            }
+        }
+        return new KeyedPage<>(routes, last);
+    }
+
     @Override
     public List<Route> findByAirportCode(String airportCode) throws SQLException {
         List<Route> routes = new ArrayList<>();
 
-        try (PreparedStatement ps = connection.prepareStatement(SELECT_BY_AIRPORT_CODE_SQL)) {
+        try (PreparedStatement ps = connection().prepareStatement(SELECT_BY_AIRPORT_CODE_SQL)) {
             ps.setString(1, airportCode);
             ps.setString(2, airportCode);
 
@@ -111,7 +149,7 @@ public class RouteDAOImpl implements RouteDAO {
 
     @Override
     public boolean update(Route route) throws SQLException {
-        try (PreparedStatement ps = connection.prepareStatement(UPDATE_SQL)) {
+        try (PreparedStatement ps = connection().prepareStatement(UPDATE_SQL)) {
 
             ps.setString(1, route.getOrigin().getAirportCode());
             ps.setString(2, route.getDestination().getAirportCode());
@@ -126,13 +164,17 @@ public class RouteDAOImpl implements RouteDAO {
 
     @Override
     public boolean delete(Integer id) throws SQLException {
-        try (PreparedStatement ps = connection.prepareStatement(DELETE_SQL)) {
+        try (PreparedStatement ps = connection().prepareStatement(DELETE_SQL)) {
             ps.setInt(1, id);
             int affected = ps.executeUpdate();
             return affected == 1;
         }
     }
 
+    private Connection connection() {
+        return DatabaseConnection.getInstance().getConnection();
+    }
+
     private Route mapRowToRoute(ResultSet rs) throws SQLException {
         int routeId = rs.getInt("route_id");
         String originCode = rs.getString("origin_code");
@@ -8,6 +8,7 @@ import datalayer.database.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.StringJoiner;
 
 public class SeatDAOImpl implements SeatDAO {
 
@@ -37,6 +38,18 @@ public class SeatDAOImpl implements SeatDAO {
     private static final String DELETE_SQL =
             "DELETE FROM seats WHERE seat_id = ?";
 
+    private static final String CLAIM_SEATS_SQL =
+            "UPDATE seats SET is_available = FALSE " +
+            "WHERE flight_id = ? AND is_available = TRUE AND seat_id IN (%s)";
+
+    private static final String RELEASE_SEATS_SQL =
+            "UPDATE seats SET is_available = TRUE " +
+            "WHERE flight_id = ? AND seat_id IN (%s)";
+
+    // Tells open seat maps on every node that the flight's seats changed
+    private static final String BUMP_SEAT_VERSION_SQL =
+            "UPDATE flights SET seat_version = seat_version + 1 WHERE flight_id = ?";
+
     @Override
     public Seat save(Seat seat) throws SQLException {
         Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -101,7 +114,11 @@ public class SeatDAOImpl implements SeatDAO {
 
     @Override
     public List<Seat> findByFlightId(Integer flightId) throws SQLException {
-        Connection conn = DatabaseConnection.getInstance().getConnection();
+        return findByFlightId(DatabaseConnection.getInstance().getConnection(), flightId);
+    }
+
+    @Override
+    public List<Seat> findByFlightId(Connection conn, Integer flightId) throws SQLException {
         List<Seat> list = new ArrayList<>();
 
         try (PreparedStatement stmt = conn.prepareStatement(SELECT_BY_FLIGHT_ID_SQL)) {
@@ -172,6 +189,9 @@ public class SeatDAOImpl implements SeatDAO {
             stmt.setInt(5, seat.getSeatId());
 
             int affected = stmt.executeUpdate();
+            if (affected > 0) {
+                bumpSeatVersion(conn, existingFlightId);
+            }
             return affected > 0;
         }
     }
@@ -201,6 +221,49 @@ public class SeatDAOImpl implements SeatDAO {
         }
     }
 
+    @Override
+    public int claimSeats(int flightId, List<Integer> seatIds) throws SQLException {
+        return updateSeatsForFlight(CLAIM_SEATS_SQL, flightId, seatIds);
+    }
+
+    @Override
+    public int releaseSeats(int flightId, List<Integer> seatIds) throws SQLException {
+        return updateSeatsForFlight(RELEASE_SEATS_SQL, flightId, seatIds);
+    }
+
+    private int updateSeatsForFlight(String sqlTemplate, int flightId, List<Integer> seatIds) throws SQLException {
+        if (seatIds == null || seatIds.isEmpty()) {
+            return 0;
+        }
+
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        StringJoiner placeholders = new StringJoiner(", ");
+        for (int i = 0; i < seatIds.size(); i++) {
+            placeholders.add("?");
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(sqlTemplate, placeholders))) {
+            stmt.setInt(1, flightId);
+            for (int i = 0; i < seatIds.size(); i++) {
+                stmt.setInt(i + 2, seatIds.get(i));
+            }
+            int affected = stmt.executeUpdate();
+            if (affected > 0) {
+                bumpSeatVersion(conn, flightId);
+            }
+            return affected;
+        }
+    }
+
+    private void bumpSeatVersion(Connection conn, int flightId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(BUMP_SEAT_VERSION_SQL)) {
+            stmt.setInt(1, flightId);
+            stmt.executeUpdate();
+        }
+    }
+
     private Seat mapRow(ResultSet rs) throws SQLException {
         Seat seat = new Seat();
 
@@ -334,5 +397,7 @@ public class SeatDAOImpl implements SeatDAO {
 
             stmt.executeBatch();
         }
+
+        bumpSeatVersion(conn, flightId);
     }
 }
@@ -7,11 +7,16 @@ import businesslogic.entities.SystemAdmin;
 import businesslogic.entities.enums.MembershipStatus;
 import businesslogic.entities.enums.SystemAdminPermission;
 import businesslogic.entities.enums.UserRole;
+import datalayer.dao.ChangeSet;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 import datalayer.dao.UserDAO;
 import datalayer.database.DatabaseConnection;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
@@ -38,6 +43,20 @@ public class UserDAOImpl implements UserDAO {
     private static final String SELECT_BY_ROLE_SQL =
             "SELECT * FROM users WHERE role = ?";
 
+    private static final String SELECT_CUSTOMERS_AFTER_SQL =
+            "SELECT * FROM users WHERE role = 'CUSTOMER' AND user_id > ? ORDER BY user_id LIMIT ?";
+
+    private static final PageSql CUSTOMER_PAGE_SQL = new PageSql(
+            "SELECT * FROM users", "SELECT COUNT(*) FROM users", "role = 'CUSTOMER'", "user_id")
+            .sort("userId", "user_id")
+            .sort("username", "username")
+            .sort("name", "first_name")
+            .sort("email", "email")
+            .sort("membership", "membership_status")
+            .filter("username", "username LIKE ?")
+            .idMatch("userId", "user_id")
+            .trackChanges("updated_at");
+
     private static final String UPDATE_SQL =
             "UPDATE users SET " +
                     "username = ?, password_hash = ?, email = ?, role = ?, " +
@@ -50,6 +69,24 @@ public class UserDAOImpl implements UserDAO {
     private static final String DELETE_SQL =
             "DELETE FROM users WHERE user_id = ?";
 
+    private static final String RECOMPUTE_BOOKING_COUNTS_SQL =
+            "UPDATE users u LEFT JOIN (" +
+            "  SELECT customer_id, COUNT(*) AS bookings FROM reservations " +
+            "  WHERE status <> 'CANCELLED' GROUP BY customer_id" +
+            ") r ON r.customer_id = u.user_id " +
+            "SET u.booking_count = COALESCE(r.bookings, 0) " +
+            "WHERE u.role = 'CUSTOMER'";
+
+    private static final String TIER_FOR_COUNT =
+            "CASE WHEN booking_count >= ? THEN 'PLATINUM' " +
+            "WHEN booking_count >= ? THEN 'GOLD' " +
+            "WHEN booking_count >= ? THEN 'SILVER' " +
+            "ELSE 'REGULAR' END";
+
+    private static final String UPDATE_MEMBERSHIP_TIERS_SQL =
+            "UPDATE users SET membership_status = " + TIER_FOR_COUNT + " " +
+            "WHERE role = 'CUSTOMER' AND NOT (membership_status <=> " + TIER_FOR_COUNT + ")";
+
     // System admin permissions table
     private static final String INSERT_PERMISSION_SQL =
             "INSERT INTO system_admin_permissions (user_id, permission) VALUES (?, ?)";
@@ -180,6 +217,78 @@ public class UserDAOImpl implements UserDAO {
         return findByRole(UserRole.CUSTOMER, Customer.class);
     }
 
+    @Override
+    public int countCustomers(PageQuery query) throws SQLException {
+        return CUSTOMER_PAGE_SQL.count(DatabaseConnection.getInstance().getConnection(), query);
+    }
+
+    @Override
+    public KeyedPage<Customer> findCustomerPage(PageQuery query, PageKey after, int offset, int limit)
+            throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        List<Customer> result = new ArrayList<>();
+        PageKey last = null;
+
+        try (PreparedStatement stmt = CUSTOMER_PAGE_SQL.preparePage(conn, query, after, offset, limit);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                User u = mapRowToUser(rs);
+                if (u instanceof Customer) {
+                    result.add((Customer) u);
+                }
+                last = CUSTOMER_PAGE_SQL.keyOf(rs, query);
+            }
+        }
+
+        return new KeyedPage<>(result, last);
+    }
+
+    @Override
+    public List<Customer> findCustomersAfter(int afterUserId, int limit) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        List<Customer> result = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_CUSTOMERS_AFTER_SQL)) {
+            stmt.setInt(1, afterUserId);
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    User u = mapRowToUser(rs);
+                    if (u instanceof Customer) {
+                        result.add((Customer) u);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public ChangeSet<Customer> findCustomerChangesSince(PageQuery query, LocalDateTime since, int limit)
+            throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        LocalDateTime watermark = ChangeSql.watermark(conn);
+        List<Customer> changed = new ArrayList<>();
+
+        if (since != null) {
+            try (PreparedStatement stmt = CUSTOMER_PAGE_SQL.prepareChanged(conn, query, since, limit);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    User u = mapRowToUser(rs);
+                    if (u instanceof Customer) {
+                        changed.add((Customer) u);
+                    }
+                }
+            }
+        }
+
+        return ChangeSet.since(changed, null, watermark);
+    }
+
     @Override
     public List<FlightAgent> findAllFlightAgents() throws SQLException {
         return findByRole(UserRole.FLIGHT_AGENT, FlightAgent.class);
@@ -268,6 +377,38 @@ public class UserDAOImpl implements UserDAO {
         }
     }
 
+    @Override
+    public int recomputeBookingCounts() throws SQLException {
+        return recomputeBookingCounts(DatabaseConnection.getInstance().getConnection());
+    }
+
+    @Override
+    public int recomputeBookingCounts(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(RECOMPUTE_BOOKING_COUNTS_SQL)) {
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public int updateMembershipTiers(int silverThreshold, int goldThreshold, int platinumThreshold) throws SQLException {
+        return updateMembershipTiers(DatabaseConnection.getInstance().getConnection(),
+                silverThreshold, goldThreshold, platinumThreshold);
+    }
+
+    @Override
+    public int updateMembershipTiers(Connection conn, int silverThreshold, int goldThreshold,
+                                     int platinumThreshold) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_MEMBERSHIP_TIERS_SQL)) {
+            // The tier CASE appears twice: in SET and in the changed-rows filter
+            for (int offset = 0; offset <= 3; offset += 3) {
+                stmt.setInt(offset + 1, platinumThreshold);
+                stmt.setInt(offset + 2, goldThreshold);
+                stmt.setInt(offset + 3, silverThreshold);
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
     private User mapRowToUser(ResultSet rs) throws SQLException {
         String roleStr = rs.getString("role");
         UserRole role = roleStr != null ? UserRole.valueOf(roleStr) : null;
@@ -309,6 +450,8 @@ public class UserDAOImpl implements UserDAO {
             if (msStr != null) {
                 c.setMembershipStatus(MembershipStatus.valueOf(msStr));
             }
+
+            c.setBookingCount(rs.getInt("booking_count"));
         }
 
         // FlightAgent fields
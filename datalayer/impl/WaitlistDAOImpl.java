@@ -0,0 +1,356 @@
+package datalayer.impl;
+
+import businesslogic.entities.WaitlistEntry;
+import businesslogic.entities.enums.WaitlistStatus;
+import datalayer.dao.WaitlistDAO;
+import datalayer.database.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+public class WaitlistDAOImpl implements WaitlistDAO {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO waitlist_entries (flight_id, customer_id, seats_requested, priority, status, " +
+            "created_at, offer_expires_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_BY_ID_SQL =
+            "SELECT * FROM waitlist_entries WHERE waitlist_id = ?";
+
+    private static final String SELECT_ALL_SQL =
+            "SELECT * FROM waitlist_entries";
+
+    // Served by idx_waitlist_flight_queue (flight_id, status, priority, waitlist_id)
+    private static final String SELECT_WAITING_BY_FLIGHT_SQL =
+            "SELECT * FROM waitlist_entries WHERE flight_id = ? AND status = 'WAITING' " +
+            "ORDER BY priority DESC, waitlist_id ASC";
+
+    // Served by idx_waitlist_offer_expiry (status, offer_expires_at)
+    private static final String SELECT_LAPSED_OFFERS_SQL =
+            "SELECT * FROM waitlist_entries WHERE status = 'OFFERED' AND offer_expires_at < ? FOR UPDATE";
+
+    private static final String SELECT_OPEN_OFFER_SQL =
+            "SELECT w.* FROM waitlist_entries w JOIN flights f ON f.flight_id = w.flight_id " +
+            "WHERE w.customer_id = ? AND f.flight_number = ? AND w.status = 'OFFERED' " +
+            "AND w.offer_expires_at > ? ORDER BY w.waitlist_id LIMIT 1 FOR UPDATE";
+
+    private static final String SELECT_OPEN_OFFER_BY_FLIGHT_SQL =
+            "SELECT * FROM waitlist_entries WHERE customer_id = ? AND flight_id = ? AND status = 'OFFERED' " +
+            "AND offer_expires_at > ? ORDER BY waitlist_id LIMIT 1";
+
+    private static final String SELECT_BY_ID_FOR_UPDATE_SQL =
+            "SELECT * FROM waitlist_entries WHERE waitlist_id = ? FOR UPDATE";
+
+    private static final String UPDATE_SQL =
+            "UPDATE waitlist_entries SET flight_id = ?, customer_id = ?, seats_requested = ?, " +
+            "priority = ?, status = ?, offer_expires_at = ? WHERE waitlist_id = ?";
+
+    private static final String MARK_OFFERED_SQL =
+            "UPDATE waitlist_entries SET status = 'OFFERED', offer_expires_at = ? " +
+            "WHERE status = 'WAITING' AND waitlist_id IN (%s)";
+
+    private static final String MARK_ACCEPTED_SQL =
+            "UPDATE waitlist_entries SET status = 'ACCEPTED' WHERE waitlist_id = ? AND status = 'OFFERED'";
+
+    private static final String MARK_CANCELLED_SQL =
+            "UPDATE waitlist_entries SET status = 'CANCELLED' " +
+            "WHERE waitlist_id = ? AND status IN ('WAITING', 'OFFERED')";
+
+    private static final String MARK_EXPIRED_SQL =
+            "UPDATE waitlist_entries SET status = 'EXPIRED' " +
+            "WHERE status = 'OFFERED' AND waitlist_id IN (%s)";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM waitlist_entries WHERE waitlist_id = ?";
+
+    @Override
+    public WaitlistEntry save(WaitlistEntry entry) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                INSERT_SQL, Statement.RETURN_GENERATED_KEYS
+        )) {
+            stmt.setInt(1, entry.getFlightId());
+            stmt.setInt(2, entry.getCustomerId());
+            stmt.setInt(3, entry.getSeatsRequested());
+            stmt.setInt(4, entry.getPriority());
+            stmt.setString(5, entry.getStatus().name());
+            stmt.setTimestamp(6, Timestamp.valueOf(entry.getCreatedAt()));
+            setNullableTimestamp(stmt, 7, entry.getOfferExpiresAt());
+
+            int affected = stmt.executeUpdate();
+            if (affected == 0) {
+                throw new SQLException("Saving waitlist entry failed, no rows affected.");
+            }
+
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    entry.setWaitlistId(keys.getInt(1));
+                }
+            }
+        }
+
+        return entry;
+    }
+
+    @Override
+    public WaitlistEntry findById(Integer id) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRow(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<WaitlistEntry> findAll() throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        List<WaitlistEntry> list = new ArrayList<>();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
+
+            while (rs.next()) {
+                list.add(mapRow(rs));
+            }
+        }
+
+        return list;
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaitingByFlightId(Integer flightId) throws SQLException {
+        return findWaitingByFlightId(DatabaseConnection.getInstance().getConnection(), flightId);
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaitingByFlightId(Connection conn, Integer flightId) throws SQLException {
+        List<WaitlistEntry> list = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_WAITING_BY_FLIGHT_SQL)) {
+            stmt.setInt(1, flightId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        }
+
+        return list;
+    }
+
+    @Override
+    public List<WaitlistEntry> findLapsedOffers(LocalDateTime now) throws SQLException {
+        return findLapsedOffers(DatabaseConnection.getInstance().getConnection(), now);
+    }
+
+    @Override
+    public List<WaitlistEntry> findLapsedOffers(Connection conn, LocalDateTime now) throws SQLException {
+        List<WaitlistEntry> list = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_LAPSED_OFFERS_SQL)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(now));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        }
+
+        return list;
+    }
+
+    @Override
+    public boolean update(WaitlistEntry entry) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+            stmt.setInt(1, entry.getFlightId());
+            stmt.setInt(2, entry.getCustomerId());
+            stmt.setInt(3, entry.getSeatsRequested());
+            stmt.setInt(4, entry.getPriority());
+            stmt.setString(5, entry.getStatus().name());
+            setNullableTimestamp(stmt, 6, entry.getOfferExpiresAt());
+            stmt.setInt(7, entry.getWaitlistId());
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public int markOffered(List<Integer> waitlistIds, LocalDateTime offerExpiresAt) throws SQLException {
+        return markOffered(DatabaseConnection.getInstance().getConnection(), waitlistIds, offerExpiresAt);
+    }
+
+    @Override
+    public int markOffered(Connection conn, List<Integer> waitlistIds,
+                           LocalDateTime offerExpiresAt) throws SQLException {
+        if (waitlistIds == null || waitlistIds.isEmpty()) {
+            return 0;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(MARK_OFFERED_SQL, placeholders(waitlistIds.size())))) {
+            stmt.setTimestamp(1, Timestamp.valueOf(offerExpiresAt));
+            for (int i = 0; i < waitlistIds.size(); i++) {
+                stmt.setInt(i + 2, waitlistIds.get(i));
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public WaitlistEntry findOpenOffer(Connection conn, Integer customerId, String flightNumber,
+                                       LocalDateTime now) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_OPEN_OFFER_SQL)) {
+            stmt.setInt(1, customerId);
+            stmt.setString(2, flightNumber);
+            stmt.setTimestamp(3, Timestamp.valueOf(now));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRow(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public WaitlistEntry findOpenOfferByFlightId(Integer customerId, Integer flightId,
+                                                 LocalDateTime now) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_OPEN_OFFER_BY_FLIGHT_SQL)) {
+            stmt.setInt(1, customerId);
+            stmt.setInt(2, flightId);
+            stmt.setTimestamp(3, Timestamp.valueOf(now));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRow(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public WaitlistEntry findByIdForUpdate(Connection conn, Integer waitlistId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_FOR_UPDATE_SQL)) {
+            stmt.setInt(1, waitlistId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRow(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean markCancelled(Connection conn, Integer waitlistId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(MARK_CANCELLED_SQL)) {
+            stmt.setInt(1, waitlistId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public boolean markAccepted(Connection conn, Integer waitlistId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(MARK_ACCEPTED_SQL)) {
+            stmt.setInt(1, waitlistId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public int markExpired(List<Integer> waitlistIds) throws SQLException {
+        return markExpired(DatabaseConnection.getInstance().getConnection(), waitlistIds);
+    }
+
+    @Override
+    public int markExpired(Connection conn, List<Integer> waitlistIds) throws SQLException {
+        if (waitlistIds == null || waitlistIds.isEmpty()) {
+            return 0;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(MARK_EXPIRED_SQL, placeholders(waitlistIds.size())))) {
+            for (int i = 0; i < waitlistIds.size(); i++) {
+                stmt.setInt(i + 1, waitlistIds.get(i));
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public boolean delete(Integer id) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
+            stmt.setInt(1, id);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    private String placeholders(int count) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            joiner.add("?");
+        }
+        return joiner.toString();
+    }
+
+    private void setNullableTimestamp(PreparedStatement stmt, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            stmt.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            stmt.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    private WaitlistEntry mapRow(ResultSet rs) throws SQLException {
+        WaitlistEntry entry = new WaitlistEntry();
+
+        entry.setWaitlistId(rs.getInt("waitlist_id"));
+        entry.setFlightId(rs.getInt("flight_id"));
+        entry.setCustomerId(rs.getInt("customer_id"));
+        entry.setSeatsRequested(rs.getInt("seats_requested"));
+        entry.setPriority(rs.getInt("priority"));
+
+        String statusStr = rs.getString("status");
+        if (statusStr != null) {
+            entry.setStatus(WaitlistStatus.valueOf(statusStr));
+        }
+
+        Timestamp createdTs = rs.getTimestamp("created_at");
+        if (createdTs != null) {
+            entry.setCreatedAt(createdTs.toLocalDateTime());
+        }
+
+        Timestamp expiresTs = rs.getTimestamp("offer_expires_at");
+        if (expiresTs != null) {
+            entry.setOfferExpiresAt(expiresTs.toLocalDateTime());
+        }
+
+        return entry;
+    }
+}
@@ -6,15 +6,19 @@ import gui.common.ServiceManager;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.SQLException;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main application entry point.
- * Initializes services and sets up the GUI with CardLayout navigation.
- * Starts with role selection view.
+ * Sets up the GUI with CardLayout navigation, starting with role selection view.
+ * Services connect and start in the background once the window is up.
  */
 public class MainApp extends JFrame {
 
+    private static final long LAUNCHED_AT = System.nanoTime();
+
     private ViewManager viewManager;
 
     public MainApp() {
@@ -23,16 +27,8 @@ public class MainApp extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         
-        ServiceManager serviceManager;
-        try {
-            serviceManager = new ServiceManager();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                "Failed to initialize services: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
-            System.exit(1);
-            return;
-        }
+        // Builds nothing yet; services are created on first use
+        ServiceManager serviceManager = new ServiceManager();
         
         Container contentPane = this.getContentPane();
         CardLayout cardLayout = new CardLayout();
@@ -41,7 +37,25 @@ public class MainApp extends JFrame {
         viewManager = new ViewManager(cardLayout, contentPane, serviceManager);
         viewManager.showView("ROLE_SELECTION", new RoleSelectionView(viewManager));
 
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                System.out.println("[MainApp] First frame after " +
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - LAUNCHED_AT) + " ms");
+            }
+        });
         setVisible(true);
+        
+        serviceManager.start().exceptionally(e -> {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            SwingUtilities.invokeLater(() -> {
+                JOptionPane.showMessageDialog(this,
+                    "Failed to initialize services: " + cause.getMessage(),
+                    "Database Error", JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            });
+            return null;
+        });
     }
 
     public static void main(String[] args) {
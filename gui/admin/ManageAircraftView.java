@@ -2,11 +2,15 @@ package gui.admin;
 
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
+import gui.common.LazyTableModel;
 import businesslogic.services.AdminService;
 import businesslogic.entities.Aircraft;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
 import java.util.List;
@@ -21,8 +25,8 @@ public class ManageAircraftView extends JPanel {
     private ViewManager viewManager;
     private AdminService adminService;
     private JTable aircraftTable;
-    private DefaultTableModel tableModel;
-    private List<Aircraft> aircraftList;
+    private LazyTableModel<Aircraft> tableModel;
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public ManageAircraftView(ViewManager viewManager) {
         this.viewManager = viewManager;
@@ -46,18 +50,31 @@ public class ManageAircraftView extends JPanel {
             "ID", "Model", "Manufacturer", "Total Seats", 
             "Seat Configuration", "Status"
         };
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Table is read-only, use buttons for editing
-            }
+        String[] sortFields = {
+            "aircraftId", "model", "manufacturer", "totalSeats", null, "status"
         };
+        // Read-only, use buttons for editing. Rows are paged in as they scroll into view
+        tableModel = new LazyTableModel<>(tasks, "aircraft", columnNames, sortFields,
+            new LazyTableModel.RowSource<>() {
+                @Override
+                public int count(PageQuery query) throws SQLException {
+                    return adminService.countAircraft(query);
+                }
+                
+                @Override
+                public KeyedPage<Aircraft> fetch(PageQuery query, PageKey after, int offset, int limit)
+                        throws SQLException {
+                    return adminService.getAircraftPage(query, after, offset, limit);
+                }
+            },
+            ManageAircraftView::toRow);
         
         aircraftTable = new JTable(tableModel);
         aircraftTable.setRowHeight(25);
         aircraftTable.setFont(new Font("Arial", Font.PLAIN, 12));
         aircraftTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
         aircraftTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableModel.installHeaderSorting(aircraftTable);
         
         JScrollPane scrollPane = new JScrollPane(aircraftTable);
         scrollPane.setPreferredSize(new Dimension(1000, 400));
@@ -111,34 +128,37 @@ public class ManageAircraftView extends JPanel {
     }
     
     /**
-     * Load all aircraft using AdminService.getAllAircraft().
+     * Reload the aircraft count and first page; the rest load as they scroll into view.
      */
     private void loadAircraft() {
-        try {
-            aircraftList = adminService.getAllAircraft();
-            updateTable();
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading aircraft: " + e.getMessage(), e);
-        }
+        tableModel.refresh("Loading aircraft...");
+    }
+    
+    private static Object[] toRow(Aircraft aircraft) {
+        return new Object[]{
+            aircraft.getAircraftId(),
+            aircraft.getModel() != null ? aircraft.getModel() : "N/A",
+            aircraft.getManufacturer() != null ? aircraft.getManufacturer() : "N/A",
+            aircraft.getTotalSeats(),
+            aircraft.getSeatConfiguration() != null ? aircraft.getSeatConfiguration() : "N/A",
+            aircraft.getStatus() != null ? aircraft.getStatus() : "N/A"
+        };
     }
     
     /**
-     * Update the table with current aircraft.
+     * The selected row's aircraft, or null (after telling the user) if there is none.
      */
-    private void updateTable() {
-        tableModel.setRowCount(0); // Clear existing rows
-        
-        for (Aircraft aircraft : aircraftList) {
-            Object[] row = {
-                aircraft.getAircraftId(),
-                aircraft.getModel() != null ? aircraft.getModel() : "N/A",
-                aircraft.getManufacturer() != null ? aircraft.getManufacturer() : "N/A",
-                aircraft.getTotalSeats(),
-                aircraft.getSeatConfiguration() != null ? aircraft.getSeatConfiguration() : "N/A",
-                aircraft.getStatus() != null ? aircraft.getStatus() : "N/A"
-            };
-            tableModel.addRow(row);
+    private Aircraft getSelectedAircraft(String action) {
+        int selectedRow = aircraftTable.getSelectedRow();
+        if (selectedRow < 0) {
+            ErrorDialog.show(this, "Please select an aircraft to " + action + ".");
+            return null;
+        }
+        Aircraft aircraft = tableModel.getItem(selectedRow);
+        if (aircraft == null) {
+            ErrorDialog.show(this, "The selected aircraft is still loading. Please try again.");
         }
+        return aircraft;
     }
     
     /**
@@ -159,14 +179,11 @@ public class ManageAircraftView extends JPanel {
      * Show dialog for editing an existing aircraft.
      */
     private void showEditAircraftDialog() {
-        int selectedRow = aircraftTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select an aircraft to edit.");
+        Aircraft selectedAircraft = getSelectedAircraft("edit");
+        if (selectedAircraft == null) {
             return;
         }
         
-        Aircraft selectedAircraft = aircraftList.get(selectedRow);
-        
         AircraftFormDialog dialog = new AircraftFormDialog(
             (JFrame) SwingUtilities.getWindowAncestor(this),
             "Edit Aircraft", selectedAircraft);
@@ -181,14 +198,11 @@ public class ManageAircraftView extends JPanel {
      * Delete the selected aircraft.
      */
     private void deleteSelectedAircraft() {
-        int selectedRow = aircraftTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select an aircraft to delete.");
+        Aircraft selectedAircraft = getSelectedAircraft("delete");
+        if (selectedAircraft == null) {
             return;
         }
         
-        Aircraft selectedAircraft = aircraftList.get(selectedRow);
-        
         int confirm = JOptionPane.showConfirmDialog(this,
             "Are you sure you want to delete aircraft " + selectedAircraft.getModel() + 
             " (ID: " + selectedAircraft.getAircraftId() + ")?\n\n" +
@@ -198,19 +212,18 @@ public class ManageAircraftView extends JPanel {
             JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = adminService.removeAircraft(selectedAircraft.getAircraftId());
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                        "Aircraft deleted successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadAircraft(); // Refresh table
-                } else {
-                    ErrorDialog.show(this, "Failed to delete aircraft.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error deleting aircraft: " + e.getMessage(), e);
-            }
+            tasks.perform("Deleting aircraft...", "deleting aircraft",
+                progress -> adminService.removeAircraft(selectedAircraft.getAircraftId()),
+                success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(this,
+                            "Aircraft deleted successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                        loadAircraft(); // Refresh table
+                    } else {
+                        ErrorDialog.show(this, "Failed to delete aircraft.");
+                    }
+                });
         }
     }
     
@@ -218,14 +231,11 @@ public class ManageAircraftView extends JPanel {
      * Show dialog for changing aircraft status.
      */
     private void showChangeStatusDialog() {
-        int selectedRow = aircraftTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select an aircraft to change status.");
+        Aircraft selectedAircraft = getSelectedAircraft("change status");
+        if (selectedAircraft == null) {
             return;
         }
         
-        Aircraft selectedAircraft = aircraftList.get(selectedRow);
-        
         // Create status selection dialog
         String[] statusOptions = {"ACTIVE", "INACTIVE", "MAINTENANCE"};
         String currentStatus = selectedAircraft.getStatus() != null ? selectedAircraft.getStatus() : "ACTIVE";
@@ -242,22 +252,24 @@ public class ManageAircraftView extends JPanel {
         );
         
         if (newStatus != null && !newStatus.equals(currentStatus)) {
-            try {
-                selectedAircraft.setStatus(newStatus);
-                boolean success = adminService.updateAircraft(selectedAircraft);
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                        "Aircraft status updated successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
+            selectedAircraft.setStatus(newStatus);
+            // Updating status also cascades to the aircraft's flights, which can take a moment
+            tasks.perform("Updating aircraft status...", "updating aircraft status",
+                progress -> adminService.updateAircraft(selectedAircraft),
+                success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(this,
+                            "Aircraft status updated successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        ErrorDialog.show(this, "Failed to update aircraft status.");
+                    }
                     loadAircraft(); // Refresh table
-                } else {
-                    ErrorDialog.show(this, "Failed to update aircraft status.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error updating aircraft status: " + e.getMessage(), e);
-            } catch (IllegalArgumentException e) {
-                ErrorDialog.show(this, e.getMessage());
-            }
+                },
+                e -> {
+                    tasks.showError("updating aircraft status", e);
+                    loadAircraft(); // Undo the unsaved status change in the table
+                });
         }
     }
     
@@ -267,6 +279,7 @@ public class ManageAircraftView extends JPanel {
     private class AircraftFormDialog extends JDialog {
         private Aircraft aircraft;
         private boolean confirmed = false;
+        private final AsyncTasks tasks = new AsyncTasks(getRootPane());
         
         private JTextField modelField;
         private JTextField manufacturerField;
@@ -371,12 +384,7 @@ public class ManageAircraftView extends JPanel {
             JButton saveBtn = new JButton("Save");
             JButton cancelBtn = new JButton("Cancel");
             
-            saveBtn.addActionListener(e -> {
-                if (validateAndSave()) {
-                    confirmed = true;
-                    dispose();
-                }
-            });
+            saveBtn.addActionListener(e -> validateAndSave(saveBtn));
             
             cancelBtn.addActionListener(e -> {
                 confirmed = false;
@@ -394,19 +402,22 @@ public class ManageAircraftView extends JPanel {
             setLocationRelativeTo(getParent());
         }
         
-        private boolean validateAndSave() {
+        /**
+         * Validate the form, then save in the background and close on success.
+         */
+        private void validateAndSave(JButton saveBtn) {
             // Validate model
             String model = modelField.getText().trim();
             if (model.isEmpty()) {
                 ErrorDialog.show(this, "Model is required.");
-                return false;
+                return;
             }
             
             // Validate manufacturer
             String manufacturer = manufacturerField.getText().trim();
             if (manufacturer.isEmpty()) {
                 ErrorDialog.show(this, "Manufacturer is required.");
-                return false;
+                return;
             }
             
             // Validate total seats
@@ -415,11 +426,11 @@ public class ManageAircraftView extends JPanel {
                 totalSeats = Integer.parseInt(totalSeatsField.getText().trim());
                 if (totalSeats <= 0) {
                     ErrorDialog.show(this, "Total seats must be greater than 0.");
-                    return false;
+                    return;
                 }
             } catch (NumberFormatException e) {
                 ErrorDialog.show(this, "Total seats must be a valid number.");
-                return false;
+                return;
             }
             
             // Seat configuration is optional, but validate format if provided
@@ -428,53 +439,35 @@ public class ManageAircraftView extends JPanel {
             // Get status
             String status = (String) statusComboBox.getSelectedItem();
             
-            try {
-                Aircraft aircraftToSave;
-                if (aircraft == null) {
-                    // Creating new aircraft
-                    aircraftToSave = new Aircraft();
-                    aircraftToSave.setModel(model);
-                    aircraftToSave.setManufacturer(manufacturer);
-                    aircraftToSave.setTotalSeats(totalSeats);
-                    aircraftToSave.setSeatConfiguration(seatConfiguration.isEmpty() ? null : seatConfiguration);
-                    aircraftToSave.setStatus(status);
-                    
-                    Aircraft created = adminService.addAircraft(aircraftToSave);
-                    if (created != null) {
-                        JOptionPane.showMessageDialog(this,
-                            "Aircraft added successfully!",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                        return true;
-                    } else {
-                        ErrorDialog.show(this, "Failed to add aircraft.");
-                        return false;
-                    }
-                } else {
-                    // Updating existing aircraft
-                    aircraft.setModel(model);
-                    aircraft.setManufacturer(manufacturer);
-                    aircraft.setTotalSeats(totalSeats);
-                    aircraft.setSeatConfiguration(seatConfiguration.isEmpty() ? null : seatConfiguration);
-                    aircraft.setStatus(status);
-                    
-                    boolean success = adminService.updateAircraft(aircraft);
-                    if (success) {
+            boolean adding = aircraft == null;
+            Aircraft aircraftToSave = adding ? new Aircraft() : aircraft;
+            aircraftToSave.setModel(model);
+            aircraftToSave.setManufacturer(manufacturer);
+            aircraftToSave.setTotalSeats(totalSeats);
+            aircraftToSave.setSeatConfiguration(seatConfiguration.isEmpty() ? null : seatConfiguration);
+            aircraftToSave.setStatus(status);
+            
+            saveBtn.setEnabled(false);
+            tasks.perform("Saving aircraft...", "saving aircraft",
+                progress -> adding
+                    ? adminService.addAircraft(aircraftToSave) != null
+                    : adminService.updateAircraft(aircraftToSave),
+                saved -> {
+                    saveBtn.setEnabled(true);
+                    if (saved) {
                         JOptionPane.showMessageDialog(this,
-                            "Aircraft updated successfully!",
+                            adding ? "Aircraft added successfully!" : "Aircraft updated successfully!",
                             "Success", JOptionPane.INFORMATION_MESSAGE);
-                        return true;
+                        confirmed = true;
+                        dispose();
                     } else {
-                        ErrorDialog.show(this, "Failed to update aircraft.");
-                        return false;
+                        ErrorDialog.show(this, adding ? "Failed to add aircraft." : "Failed to update aircraft.");
                     }
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error saving aircraft: " + e.getMessage(), e);
-                return false;
-            } catch (IllegalArgumentException e) {
-                ErrorDialog.show(this, e.getMessage());
-                return false;
-            }
+                },
+                e -> {
+                    saveBtn.setEnabled(true);
+                    tasks.showError("saving aircraft", e);
+                });
         }
         
         public boolean isConfirmed() {
@@ -2,13 +2,13 @@ package gui.admin;
 
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
 import businesslogic.services.AdminService;
 import businesslogic.entities.Airline;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -22,7 +22,8 @@ public class ManageAirlinesView extends JPanel {
     private AdminService adminService;
     private JTable airlineTable;
     private DefaultTableModel tableModel;
-    private List<Airline> airlineList;
+    private List<Airline> airlineList = List.of();
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public ManageAirlinesView(ViewManager viewManager) {
         this.viewManager = viewManager;
@@ -107,12 +108,12 @@ public class ManageAirlinesView extends JPanel {
      * Load all airlines using AdminService.getAllAirlines().
      */
     private void loadAirlines() {
-        try {
-            airlineList = adminService.getAllAirlines();
-            updateTable();
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading airlines: " + e.getMessage(), e);
-        }
+        tasks.load("airlines", "Loading airlines...", "loading airlines",
+            progress -> adminService.getAllAirlines(),
+            loaded -> {
+                airlineList = loaded;
+                updateTable();
+            });
     }
     
     /**
@@ -189,19 +190,18 @@ public class ManageAirlinesView extends JPanel {
             JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = adminService.removeAirline(selectedAirline.getAirlineId());
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                        "Airline deleted successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadAirlines(); // Refresh table
-                } else {
-                    ErrorDialog.show(this, "Failed to delete airline.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error deleting airline: " + e.getMessage(), e);
-            }
+            tasks.perform("Deleting airline...", "deleting airline",
+                progress -> adminService.removeAirline(selectedAirline.getAirlineId()),
+                success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(this,
+                            "Airline deleted successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                        loadAirlines(); // Refresh table
+                    } else {
+                        ErrorDialog.show(this, "Failed to delete airline.");
+                    }
+                });
         }
     }
     
@@ -211,6 +211,7 @@ public class ManageAirlinesView extends JPanel {
     private class AirlineFormDialog extends JDialog {
         private Airline airline;
         private boolean confirmed = false;
+        private final AsyncTasks tasks = new AsyncTasks(getRootPane());
         
         private JTextField nameField;
         private JTextField codeField;
@@ -285,12 +286,7 @@ public class ManageAirlinesView extends JPanel {
             JButton saveBtn = new JButton("Save");
             JButton cancelBtn = new JButton("Cancel");
             
-            saveBtn.addActionListener(e -> {
-                if (validateAndSave()) {
-                    confirmed = true;
-                    dispose();
-                }
-            });
+            saveBtn.addActionListener(e -> validateAndSave(saveBtn));
             
             cancelBtn.addActionListener(e -> {
                 confirmed = false;
@@ -308,75 +304,65 @@ public class ManageAirlinesView extends JPanel {
             setLocationRelativeTo(getParent());
         }
         
-        private boolean validateAndSave() {
+        /**
+         * Validate the form, then save in the background and close on success.
+         */
+        private void validateAndSave(JButton saveBtn) {
             // Validate name
             String name = nameField.getText().trim();
             if (name.isEmpty()) {
                 ErrorDialog.show(this, "Name is required.");
-                return false;
+                return;
             }
             
             // Validate code
             String code = codeField.getText().trim().toUpperCase();
             if (code.isEmpty()) {
                 ErrorDialog.show(this, "Code is required.");
-                return false;
+                return;
             }
             if (code.length() < 2 || code.length() > 10) {
                 ErrorDialog.show(this, "Code must be between 2 and 10 characters.");
-                return false;
+                return;
             }
             
             // Validate country
             String country = countryField.getText().trim();
             if (country.isEmpty()) {
                 ErrorDialog.show(this, "Country is required.");
-                return false;
+                return;
             }
             
-            try {
-                Airline airlineToSave;
-                if (airline == null) {
-                    // Creating new airline
-                    airlineToSave = new Airline();
-                    airlineToSave.setName(name);
-                    airlineToSave.setCode(code);
-                    airlineToSave.setCountry(country);
-                    
-                    Airline created = adminService.addAirline(airlineToSave);
-                    if (created != null) {
-                        JOptionPane.showMessageDialog(this,
-                            "Airline added successfully!",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                        return true;
-                    } else {
-                        ErrorDialog.show(this, "Failed to add airline.");
-                        return false;
-                    }
-                } else {
-                    // Updating existing airline
-                    airline.setName(name);
-                    // Code is not editable when editing
-                    airline.setCountry(country);
-                    
-                    boolean success = adminService.updateAirline(airline);
-                    if (success) {
+            boolean adding = airline == null;
+            Airline airlineToSave = adding ? new Airline() : airline;
+            airlineToSave.setName(name);
+            if (adding) {
+                // Code is not editable when editing
+                airlineToSave.setCode(code);
+            }
+            airlineToSave.setCountry(country);
+            
+            saveBtn.setEnabled(false);
+            tasks.perform("Saving airline...", "saving airline",
+                progress -> adding
+                    ? adminService.addAirline(airlineToSave) != null
+                    : adminService.updateAirline(airlineToSave),
+                saved -> {
+                    saveBtn.setEnabled(true);
+                    if (saved) {
                         JOptionPane.showMessageDialog(this,
-                            "Airline updated successfully!",
+                            adding ? "Airline added successfully!" : "Airline updated successfully!",
                             "Success", JOptionPane.INFORMATION_MESSAGE);
-                        return true;
+                        confirmed = true;
+                        dispose();
                     } else {
-                        ErrorDialog.show(this, "Failed to update airline.");
-                        return false;
+                        ErrorDialog.show(this, adding ? "Failed to add airline." : "Failed to update airline.");
                     }
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error saving airline: " + e.getMessage(), e);
-                return false;
-            } catch (IllegalArgumentException e) {
-                ErrorDialog.show(this, e.getMessage());
-                return false;
-            }
+                },
+                e -> {
+                    saveBtn.setEnabled(true);
+                    tasks.showError("saving airline", e);
+                });
         }
         
         public boolean isConfirmed() {
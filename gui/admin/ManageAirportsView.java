@@ -2,13 +2,13 @@ package gui.admin;
 
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
 import businesslogic.services.AdminService;
 import businesslogic.entities.Airport;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -22,7 +22,8 @@ public class ManageAirportsView extends JPanel {
     private AdminService adminService;
     private JTable airportTable;
     private DefaultTableModel tableModel;
-    private List<Airport> airportList;
+    private List<Airport> airportList = List.of();
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public ManageAirportsView(ViewManager viewManager) {
         this.viewManager = viewManager;
@@ -107,12 +108,12 @@ public class ManageAirportsView extends JPanel {
      * Load all airports using AdminService.getAllAirports().
      */
     private void loadAirports() {
-        try {
-            airportList = adminService.getAllAirports();
-            updateTable();
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading airports: " + e.getMessage(), e);
-        }
+        tasks.load("airports", "Loading airports...", "loading airports",
+            progress -> adminService.getAllAirports(),
+            loaded -> {
+                airportList = loaded;
+                updateTable();
+            });
     }
     
     /**
@@ -190,19 +191,18 @@ public class ManageAirportsView extends JPanel {
             JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = adminService.removeAirport(selectedAirport.getAirportCode());
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                        "Airport deleted successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadAirports(); // Refresh table
-                } else {
-                    ErrorDialog.show(this, "Failed to delete airport.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error deleting airport: " + e.getMessage(), e);
-            }
+            tasks.perform("Deleting airport...", "deleting airport",
+                progress -> adminService.removeAirport(selectedAirport.getAirportCode()),
+                success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(this,
+                            "Airport deleted successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                        loadAirports(); // Refresh table
+                    } else {
+                        ErrorDialog.show(this, "Failed to delete airport.");
+                    }
+                });
         }
     }
     
@@ -212,6 +212,7 @@ public class ManageAirportsView extends JPanel {
     private class AirportFormDialog extends JDialog {
         private Airport airport;
         private boolean confirmed = false;
+        private final AsyncTasks tasks = new AsyncTasks(getRootPane());
         
         private JTextField codeField;
         private JTextField nameField;
@@ -318,12 +319,7 @@ public class ManageAirportsView extends JPanel {
             JButton saveBtn = new JButton("Save");
             JButton cancelBtn = new JButton("Cancel");
             
-            saveBtn.addActionListener(e -> {
-                if (validateAndSave()) {
-                    confirmed = true;
-                    dispose();
-                }
-            });
+            saveBtn.addActionListener(e -> validateAndSave(saveBtn));
             
             cancelBtn.addActionListener(e -> {
                 confirmed = false;
@@ -341,93 +337,81 @@ public class ManageAirportsView extends JPanel {
             setLocationRelativeTo(getParent());
         }
         
-        private boolean validateAndSave() {
+        /**
+         * Validate the form, then save in the background and close on success.
+         */
+        private void validateAndSave(JButton saveBtn) {
             // Validate airport code
             String code = codeField.getText().trim().toUpperCase();
             if (code.isEmpty()) {
                 ErrorDialog.show(this, "Airport code is required.");
-                return false;
+                return;
             }
             if (code.length() < 2 || code.length() > 10) {
                 ErrorDialog.show(this, "Airport code must be between 2 and 10 characters.");
-                return false;
+                return;
             }
             
             // Validate name
             String name = nameField.getText().trim();
             if (name.isEmpty()) {
                 ErrorDialog.show(this, "Name is required.");
-                return false;
+                return;
             }
             
             // Validate city
             String city = cityField.getText().trim();
             if (city.isEmpty()) {
                 ErrorDialog.show(this, "City is required.");
-                return false;
+                return;
             }
             
             // Validate country
             String country = countryField.getText().trim();
             if (country.isEmpty()) {
                 ErrorDialog.show(this, "Country is required.");
-                return false;
+                return;
             }
             
             // Validate timezone
             String timezone = timezoneField.getText().trim();
             if (timezone.isEmpty()) {
                 ErrorDialog.show(this, "Timezone is required.");
-                return false;
+                return;
             }
             
-            try {
-                Airport airportToSave;
-                if (airport == null) {
-                    // Creating new airport
-                    airportToSave = new Airport();
-                    airportToSave.setAirportCode(code);
-                    airportToSave.setName(name);
-                    airportToSave.setCity(city);
-                    airportToSave.setCountry(country);
-                    airportToSave.setTimezone(timezone);
-                    
-                    Airport created = adminService.addAirport(airportToSave);
-                    if (created != null) {
-                        JOptionPane.showMessageDialog(this,
-                            "Airport added successfully!",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                        return true;
-                    } else {
-                        ErrorDialog.show(this, "Failed to add airport.");
-                        return false;
-                    }
-                } else {
-                    // Updating existing airport
-                    // Code is not editable when editing
-                    airport.setName(name);
-                    airport.setCity(city);
-                    airport.setCountry(country);
-                    airport.setTimezone(timezone);
-                    
-                    boolean success = adminService.updateAirport(airport);
-                    if (success) {
+            boolean adding = airport == null;
+            Airport airportToSave = adding ? new Airport() : airport;
+            if (adding) {
+                // Code is not editable when editing
+                airportToSave.setAirportCode(code);
+            }
+            airportToSave.setName(name);
+            airportToSave.setCity(city);
+            airportToSave.setCountry(country);
+            airportToSave.setTimezone(timezone);
+            
+            saveBtn.setEnabled(false);
+            tasks.perform("Saving airport...", "saving airport",
+                progress -> adding
+                    ? adminService.addAirport(airportToSave) != null
+                    : adminService.updateAirport(airportToSave),
+                saved -> {
+                    saveBtn.setEnabled(true);
+                    if (saved) {
                         JOptionPane.showMessageDialog(this,
-                            "Airport updated successfully!",
+                            adding ? "Airport added successfully!" : "Airport updated successfully!",
                             "Success", JOptionPane.INFORMATION_MESSAGE);
-                        return true;
+                        confirmed = true;
+                        dispose();
                     } else {
-                        ErrorDialog.show(this, "Failed to update airport.");
-                        return false;
+                        ErrorDialog.show(this, adding ? "Failed to add airport." : "Failed to update airport.");
                     }
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error saving airport: " + e.getMessage(), e);
-                return false;
-            } catch (IllegalArgumentException e) {
-                ErrorDialog.show(this, e.getMessage());
-                return false;
-            }
+                },
+                e -> {
+                    saveBtn.setEnabled(true);
+                    tasks.showError("saving airport", e);
+                });
         }
         
         public boolean isConfirmed() {
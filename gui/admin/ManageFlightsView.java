@@ -2,14 +2,19 @@ package gui.admin;
 
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
+import gui.common.LazyTableModel;
 import businesslogic.services.AdminService;
 import businesslogic.entities.Flight;
 import businesslogic.entities.Aircraft;
 import businesslogic.entities.Route;
 import businesslogic.entities.enums.FlightStatus;
+import datalayer.dao.ChangeSet;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -27,10 +32,12 @@ public class ManageFlightsView extends JPanel {
     private ViewManager viewManager;
     private AdminService adminService;
     private JTable flightTable;
-    private DefaultTableModel tableModel;
-    private List<Flight> flights;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    
+    private LazyTableModel<Flight> tableModel;
     private List<Aircraft> aircraftList;
     private List<Route> routesList;
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public ManageFlightsView(ViewManager viewManager) {
         this.viewManager = viewManager;
@@ -54,18 +61,37 @@ public class ManageFlightsView extends JPanel {
             "Flight Number", "Departure", "Arrival", "Status", 
             "Available Seats", "Price", "Aircraft", "Route"
         };
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Table is read-only, use buttons for editing
-            }
+        String[] sortFields = {
+            "flightNumber", "departure", "arrival", "status", "availableSeats", "price", null, null
         };
+        // Read-only, use buttons for editing. Rows are paged in as they scroll into view
+        tableModel = new LazyTableModel<>(tasks, "flights", columnNames, sortFields,
+            new LazyTableModel.RowSource<>() {
+                @Override
+                public int count(PageQuery query) throws SQLException {
+                    return adminService.countFlights(query);
+                }
+                
+                @Override
+                public KeyedPage<Flight> fetch(PageQuery query, PageKey after, int offset, int limit)
+                        throws SQLException {
+                    return adminService.getFlightPage(query, after, offset, limit);
+                }
+                
+                @Override
+                public ChangeSet<Flight> changes(PageQuery query, LocalDateTime since, int limit)
+                        throws SQLException {
+                    return adminService.getFlightChanges(query, since, limit);
+                }
+            },
+            ManageFlightsView::toRow);
         
         flightTable = new JTable(tableModel);
         flightTable.setRowHeight(25);
         flightTable.setFont(new Font("Arial", Font.PLAIN, 12));
         flightTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
         flightTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableModel.installHeaderSorting(flightTable);
         
         JScrollPane scrollPane = new JScrollPane(flightTable);
         scrollPane.setPreferredSize(new Dimension(1000, 400));
@@ -98,7 +124,7 @@ public class ManageFlightsView extends JPanel {
         JButton refreshBtn = new JButton("Refresh");
         refreshBtn.setPreferredSize(new Dimension(120, 35));
         refreshBtn.setFont(new Font("Arial", Font.PLAIN, 14));
-        refreshBtn.addActionListener(e -> loadFlights());
+        refreshBtn.addActionListener(e -> tableModel.refreshChanges());
         
         JButton backBtn = new JButton("Back");
         backBtn.setPreferredSize(new Dimension(120, 35));
@@ -119,61 +145,65 @@ public class ManageFlightsView extends JPanel {
     }
     
     /**
-     * Load all flights using AdminService.getAllFlights().
+     * Reload the flight count and first page; the rest load as they scroll into view.
      */
     private void loadFlights() {
-        try {
-            flights = adminService.getAllFlights();
-            updateTable();
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading flights: " + e.getMessage(), e);
+        tableModel.refresh("Loading flights...");
+    }
+    
+    private static Object[] toRow(Flight flight) {
+        String departure = flight.getDepartureTime() != null
+            ? flight.getDepartureTime().format(DATE_FORMAT) : "N/A";
+        String arrival = flight.getArrivalTime() != null
+            ? flight.getArrivalTime().format(DATE_FORMAT) : "N/A";
+        String status = flight.getStatus() != null ? flight.getStatus().toString() : "N/A";
+        String aircraft = flight.getAircraft() != null 
+            ? flight.getAircraft().getModel() : "N/A";
+        String route = "N/A";
+        if (flight.getRoute() != null) {
+            String origin = flight.getRoute().getOrigin() != null
+                ? flight.getRoute().getOrigin().getAirportCode() : "?";
+            String dest = flight.getRoute().getDestination() != null
+                ? flight.getRoute().getDestination().getAirportCode() : "?";
+            route = origin + " → " + dest;
         }
+        
+        return new Object[]{
+            flight.getFlightNumber(),
+            departure,
+            arrival,
+            status,
+            flight.getAvailableSeats(),
+            String.format("$%.2f", flight.getPrice()),
+            aircraft,
+            route
+        };
     }
     
     /**
-     * Update the table with current flights.
+     * The selected row's flight, or null (after telling the user) if there is none.
      */
-    private void updateTable() {
-        tableModel.setRowCount(0); // Clear existing rows
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        
-        for (Flight flight : flights) {
-            String departure = flight.getDepartureTime() != null
-                ? flight.getDepartureTime().format(formatter) : "N/A";
-            String arrival = flight.getArrivalTime() != null
-                ? flight.getArrivalTime().format(formatter) : "N/A";
-            String status = flight.getStatus() != null ? flight.getStatus().toString() : "N/A";
-            String aircraft = flight.getAircraft() != null 
-                ? flight.getAircraft().getModel() : "N/A";
-            String route = "N/A";
-            if (flight.getRoute() != null) {
-                String origin = flight.getRoute().getOrigin() != null
-                    ? flight.getRoute().getOrigin().getAirportCode() : "?";
-                String dest = flight.getRoute().getDestination() != null
-                    ? flight.getRoute().getDestination().getAirportCode() : "?";
-                route = origin + " → " + dest;
-            }
-            
-            tableModel.addRow(new Object[]{
-                flight.getFlightNumber(),
-                departure,
-                arrival,
-                status,
-                flight.getAvailableSeats(),
-                String.format("$%.2f", flight.getPrice()),
-                aircraft,
-                route
-            });
+    private Flight getSelectedFlight(String action) {
+        int selectedRow = flightTable.getSelectedRow();
+        if (selectedRow < 0) {
+            ErrorDialog.show(this, "Please select a flight to " + action + ".");
+            return null;
         }
+        Flight flight = tableModel.getItem(selectedRow);
+        if (flight == null) {
+            ErrorDialog.show(this, "The selected flight is still loading. Please try again.");
+        }
+        return flight;
     }
     
     /**
      * Show dialog to add a new flight.
      */
     private void showAddFlightDialog() {
-        loadDependencies(); // Load aircraft and routes for dropdowns
-        
+        loadDependencies(this::openAddFlightDialog); // Load aircraft and routes for dropdowns
+    }
+    
+    private void openAddFlightDialog() {
         // Check if dependencies are loaded
         if (aircraftList == null || aircraftList.isEmpty()) {
             ErrorDialog.show(this, 
@@ -213,53 +243,64 @@ public class ManageFlightsView extends JPanel {
         if (dialog.isConfirmed()) {
             Flight newFlight = dialog.getFlight();
             if (newFlight != null) {
-                try {
-                    adminService.addFlight(newFlight);
-                    JOptionPane.showMessageDialog(this,
-                        "Flight added successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadFlights(); // Refresh table
-                } catch (SQLException e) {
-                    // Provide helpful error messages
-                    String errorMsg = "Error adding flight: " + e.getMessage();
-                    if (e.getMessage() != null) {
-                        if (e.getMessage().contains("airline") || e.getMessage().contains("Cannot find airline")) {
-                            String airlineCode = newFlight.getFlightNumber() != null && 
-                                newFlight.getFlightNumber().length() >= 2 
-                                ? newFlight.getFlightNumber().substring(0, 2).toUpperCase()
-                                : "XX";
-                            errorMsg += "\n\nTip: The airline code (first 2 letters of flight number) must exist in the database.\n" +
-                                       "Flight '" + newFlight.getFlightNumber() + "' requires an airline with code '" + airlineCode + "'.\n" +
-                                       "Please add the airline first using 'Manage Airlines'.";
-                        } else if (e.getMessage().contains("Aircraft") || e.getMessage().contains("aircraft")) {
-                            errorMsg += "\n\nTip: Make sure the selected aircraft exists in the database.\n" +
-                                       "Aircraft ID: " + (newFlight.getAircraft() != null ? newFlight.getAircraft().getAircraftId() : "null");
-                        } else if (e.getMessage().contains("Route") || e.getMessage().contains("route")) {
-                            errorMsg += "\n\nTip: Make sure the selected route exists in the database.\n" +
-                                       "Route ID: " + (newFlight.getRoute() != null ? newFlight.getRoute().getRouteId() : "null");
+                tasks.perform("Adding flight...", "adding flight",
+                    progress -> adminService.addFlight(newFlight),
+                    added -> {
+                        JOptionPane.showMessageDialog(this,
+                            "Flight added successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                        tableModel.refreshChanges();
+                    },
+                    e -> {
+                        if (e instanceof SQLException) {
+                            showAddFlightError(newFlight, (SQLException) e);
+                        } else {
+                            tasks.showError("adding flight", e);
                         }
-                    }
-                    ErrorDialog.show(this, errorMsg, e);
-                } catch (IllegalArgumentException | IllegalStateException e) {
-                    ErrorDialog.show(this, e.getMessage());
-                }
+                    });
             }
         }
     }
     
+    /**
+     * Explain the usual causes of a failed insert.
+     */
+    private void showAddFlightError(Flight newFlight, SQLException e) {
+        // Provide helpful error messages
+        String errorMsg = "Error adding flight: " + e.getMessage();
+        if (e.getMessage() != null) {
+            if (e.getMessage().contains("airline") || e.getMessage().contains("Cannot find airline")) {
+                String airlineCode = newFlight.getFlightNumber() != null && 
+                    newFlight.getFlightNumber().length() >= 2 
+                    ? newFlight.getFlightNumber().substring(0, 2).toUpperCase()
+                    : "XX";
+                errorMsg += "\n\nTip: The airline code (first 2 letters of flight number) must exist in the database.\n" +
+                           "Flight '" + newFlight.getFlightNumber() + "' requires an airline with code '" + airlineCode + "'.\n" +
+                           "Please add the airline first using 'Manage Airlines'.";
+            } else if (e.getMessage().contains("Aircraft") || e.getMessage().contains("aircraft")) {
+                errorMsg += "\n\nTip: Make sure the selected aircraft exists in the database.\n" +
+                           "Aircraft ID: " + (newFlight.getAircraft() != null ? newFlight.getAircraft().getAircraftId() : "null");
+            } else if (e.getMessage().contains("Route") || e.getMessage().contains("route")) {
+                errorMsg += "\n\nTip: Make sure the selected route exists in the database.\n" +
+                           "Route ID: " + (newFlight.getRoute() != null ? newFlight.getRoute().getRouteId() : "null");
+            }
+        }
+        ErrorDialog.show(this, errorMsg, e);
+    }
+    
     /**
      * Show dialog to edit selected flight.
      */
     private void showEditFlightDialog() {
-        int selectedRow = flightTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select a flight to edit.");
+        Flight selectedFlight = getSelectedFlight("edit");
+        if (selectedFlight == null) {
             return;
         }
-        
-        Flight selectedFlight = flights.get(selectedRow);
-        loadDependencies(); // Load aircraft and routes for dropdowns
-        
+        // Load aircraft and routes for dropdowns
+        loadDependencies(() -> openEditFlightDialog(selectedFlight));
+    }
+    
+    private void openEditFlightDialog(Flight selectedFlight) {
         JFrame parentFrame = (JFrame) SwingUtilities.getWindowAncestor(this);
         if (parentFrame == null) {
             Container container = viewManager.getContainer();
@@ -283,21 +324,18 @@ public class ManageFlightsView extends JPanel {
         if (dialog.isConfirmed()) {
             Flight updatedFlight = dialog.getFlight();
             if (updatedFlight != null) {
-                try {
-                    boolean success = adminService.updateFlight(updatedFlight);
-                    if (success) {
-                        JOptionPane.showMessageDialog(this,
-                            "Flight updated successfully!",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                        loadFlights(); // Refresh table
-                    } else {
-                        ErrorDialog.show(this, "Failed to update flight.");
-                    }
-                } catch (SQLException e) {
-                    ErrorDialog.show(this, "Error updating flight: " + e.getMessage(), e);
-                } catch (IllegalArgumentException e) {
-                    ErrorDialog.show(this, e.getMessage());
-                }
+                tasks.perform("Updating flight...", "updating flight",
+                    progress -> adminService.updateFlight(updatedFlight),
+                    success -> {
+                        if (success) {
+                            JOptionPane.showMessageDialog(this,
+                                "Flight updated successfully!",
+                                "Success", JOptionPane.INFORMATION_MESSAGE);
+                            tableModel.refreshChanges();
+                        } else {
+                            ErrorDialog.show(this, "Failed to update flight.");
+                        }
+                    });
             }
         }
     }
@@ -306,14 +344,11 @@ public class ManageFlightsView extends JPanel {
      * Cancel the selected flight.
      */
     private void cancelSelectedFlight() {
-        int selectedRow = flightTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select a flight to cancel.");
+        Flight selectedFlight = getSelectedFlight("cancel");
+        if (selectedFlight == null) {
             return;
         }
         
-        Flight selectedFlight = flights.get(selectedRow);
-        
         int confirm = JOptionPane.showConfirmDialog(this,
             "Are you sure you want to cancel flight " + selectedFlight.getFlightNumber() + "?",
             "Confirm Cancellation",
@@ -321,19 +356,18 @@ public class ManageFlightsView extends JPanel {
             JOptionPane.QUESTION_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = adminService.removeFlight(selectedFlight.getFlightNumber());
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                        "Flight cancelled successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadFlights(); // Refresh table
-                } else {
-                    ErrorDialog.show(this, "Failed to cancel flight.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error cancelling flight: " + e.getMessage(), e);
-            }
+            tasks.perform("Cancelling flight...", "cancelling flight",
+                progress -> adminService.removeFlight(selectedFlight.getFlightNumber()),
+                success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(this,
+                            "Flight cancelled successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                        tableModel.refreshChanges();
+                    } else {
+                        ErrorDialog.show(this, "Failed to cancel flight.");
+                    }
+                });
         }
     }
     
@@ -341,14 +375,11 @@ public class ManageFlightsView extends JPanel {
      * Permanently delete the selected flight.
      */
     private void deleteSelectedFlight() {
-        int selectedRow = flightTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select a flight to delete.");
+        Flight selectedFlight = getSelectedFlight("delete");
+        if (selectedFlight == null) {
             return;
         }
         
-        Flight selectedFlight = flights.get(selectedRow);
-        
         int confirm = JOptionPane.showConfirmDialog(this,
             "Are you sure you want to PERMANENTLY DELETE flight " + selectedFlight.getFlightNumber() + "?\n\n" +
             "This action cannot be undone. All associated seats and reservations will also be deleted.",
@@ -357,31 +388,41 @@ public class ManageFlightsView extends JPanel {
             JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = adminService.deleteFlight(selectedFlight.getFlightNumber());
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                        "Flight deleted successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadFlights(); // Refresh table
-                } else {
-                    ErrorDialog.show(this, "Failed to delete flight.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error deleting flight: " + e.getMessage(), e);
-            }
+            tasks.perform("Deleting flight...", "deleting flight",
+                progress -> adminService.deleteFlight(selectedFlight.getFlightNumber()),
+                success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(this,
+                            "Flight deleted successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                        tableModel.refreshChanges();
+                    } else {
+                        ErrorDialog.show(this, "Failed to delete flight.");
+                    }
+                });
         }
     }
     
     /**
-     * Load aircraft and routes for dropdowns.
+     * Load aircraft and routes for dropdowns, then continue on the EDT.
      */
-    private void loadDependencies() {
-        try {
-            aircraftList = adminService.getAllAircraft();
-            routesList = adminService.getAllRoutes();
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading dependencies: " + e.getMessage(), e);
+    private void loadDependencies(Runnable then) {
+        tasks.load("dependencies", "Loading aircraft and routes...", "loading aircraft and routes",
+            progress -> new Dependencies(adminService.getAllAircraft(), adminService.getAllRoutes()),
+            dependencies -> {
+                aircraftList = dependencies.aircraft;
+                routesList = dependencies.routes;
+                then.run();
+            });
+    }
+    
+    private static class Dependencies {
+        private final List<Aircraft> aircraft;
+        private final List<Route> routes;
+        
+        Dependencies(List<Aircraft> aircraft, List<Route> routes) {
+            this.aircraft = aircraft;
+            this.routes = routes;
         }
     }
     
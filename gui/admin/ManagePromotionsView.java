@@ -4,15 +4,16 @@ import businesslogic.entities.Promotion;
 import businesslogic.services.PromotionService;
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
+import gui.common.KeyedTableModel;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.List;
+import java.util.Comparator;
 
 /**
  * Admin view for managing promotions.
@@ -23,7 +24,10 @@ public class ManagePromotionsView extends JPanel {
     private final ViewManager viewManager;
     private final PromotionService promotionService;
     private JTable promotionsTable;
-    private DefaultTableModel tableModel;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    
+    private KeyedTableModel<Promotion> tableModel;
+    private final AsyncTasks tasks = new AsyncTasks(this);
 
     public ManagePromotionsView(ViewManager viewManager) {
         this.viewManager = viewManager;
@@ -45,12 +49,9 @@ public class ManagePromotionsView extends JPanel {
 
         // Table
         String[] columnNames = {"ID", "Title", "Description", "Discount %", "Valid From", "Valid To", "Status"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Same order as the database list; refresh applies only the rows that changed
+        tableModel = new KeyedTableModel<>(columnNames, Promotion::getPromotionId,
+            ManagePromotionsView::toRow, Comparator.comparing(Promotion::getValidFrom).reversed());
 
         promotionsTable = new JTable(tableModel);
         promotionsTable.setRowHeight(25);
@@ -110,38 +111,37 @@ public class ManagePromotionsView extends JPanel {
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
+    /**
+     * First call loads every promotion; later calls load only those changed since.
+     */
     private void loadPromotions() {
-        tableModel.setRowCount(0);
-
-        try {
-            List<Promotion> promotions = promotionService.getAllPromotions();
-            LocalDate today = LocalDate.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-            for (Promotion promo : promotions) {
-                String status;
-                if (today.isBefore(promo.getValidFrom())) {
-                    status = "Upcoming";
-                } else if (today.isAfter(promo.getValidTo())) {
-                    status = "Expired";
-                } else {
-                    status = "Active";
-                }
-
-                tableModel.addRow(new Object[]{
-                    promo.getPromotionId(),
-                    promo.getTitle(),
-                    promo.getDescription(),
-                    String.format("%.0f%%", promo.getDiscountPercent()),
-                    promo.getValidFrom().format(formatter),
-                    promo.getValidTo().format(formatter),
-                    status
-                });
-            }
+        LocalDateTime since = tableModel.getWatermark();
+        tasks.load("promotions", since == null ? "Loading promotions..." : null, "loading promotions",
+            progress -> promotionService.getPromotionChanges(since),
+            tableModel::apply,
+            e -> ErrorDialog.show(this, "Failed to load promotions: " + e.getMessage()));
+    }
 
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Failed to load promotions: " + e.getMessage());
+    private static Object[] toRow(Promotion promo) {
+        LocalDate today = LocalDate.now();
+        String status;
+        if (today.isBefore(promo.getValidFrom())) {
+            status = "Upcoming";
+        } else if (today.isAfter(promo.getValidTo())) {
+            status = "Expired";
+        } else {
+            status = "Active";
         }
+
+        return new Object[]{
+            promo.getPromotionId(),
+            promo.getTitle(),
+            promo.getDescription(),
+            String.format("%.0f%%", promo.getDiscountPercent()),
+            promo.getValidFrom().format(DATE_FORMAT),
+            promo.getValidTo().format(DATE_FORMAT),
+            status
+        };
     }
 
     private void showPromotionDialog(Promotion existing) {
@@ -223,44 +223,56 @@ public class ManagePromotionsView extends JPanel {
 
         JButton saveBtn = new JButton("Save");
         saveBtn.addActionListener(e -> {
+            String title;
+            String description;
+            double discount;
+            LocalDate validFrom;
+            LocalDate validTo;
             try {
-                String title = titleField.getText().trim();
-                String description = descArea.getText().trim();
-                double discount = (Double) discountSpinner.getValue();
-                LocalDate validFrom = LocalDate.parse(validFromField.getText().trim());
-                LocalDate validTo = LocalDate.parse(validToField.getText().trim());
-
-                if (title.isEmpty()) {
-                    ErrorDialog.show(dialog, "Title is required.");
-                    return;
-                }
+                title = titleField.getText().trim();
+                description = descArea.getText().trim();
+                discount = (Double) discountSpinner.getValue();
+                validFrom = LocalDate.parse(validFromField.getText().trim());
+                validTo = LocalDate.parse(validToField.getText().trim());
+            } catch (DateTimeParseException ex) {
+                ErrorDialog.show(dialog, "Invalid date format. Use YYYY-MM-DD.");
+                return;
+            }
 
-                if (validTo.isBefore(validFrom)) {
-                    ErrorDialog.show(dialog, "End date cannot be before start date.");
-                    return;
-                }
+            if (title.isEmpty()) {
+                ErrorDialog.show(dialog, "Title is required.");
+                return;
+            }
 
-                if (existing == null) {
-                    promotionService.createPromotion(title, description, discount, validFrom, validTo);
-                    JOptionPane.showMessageDialog(dialog, "Promotion created successfully!");
-                } else {
+            if (validTo.isBefore(validFrom)) {
+                ErrorDialog.show(dialog, "End date cannot be before start date.");
+                return;
+            }
+
+            saveBtn.setEnabled(false);
+            tasks.perform(null, "saving promotion",
+                progress -> {
+                    if (existing == null) {
+                        promotionService.createPromotion(title, description, discount, validFrom, validTo);
+                        return "Promotion created successfully!";
+                    }
                     Promotion updated = new Promotion(
                         existing.getPromotionId(),
                         title, description, discount,
                         validFrom, validTo, null
                     );
                     promotionService.updatePromotion(updated);
-                    JOptionPane.showMessageDialog(dialog, "Promotion updated successfully!");
-                }
-
-                dialog.dispose();
-                loadPromotions();
-
-            } catch (DateTimeParseException ex) {
-                ErrorDialog.show(dialog, "Invalid date format. Use YYYY-MM-DD.");
-            } catch (Exception ex) {
-                ErrorDialog.show(dialog, "Error: " + ex.getMessage());
-            }
+                    return "Promotion updated successfully!";
+                },
+                message -> {
+                    JOptionPane.showMessageDialog(dialog, message);
+                    dialog.dispose();
+                    loadPromotions();
+                },
+                ex -> {
+                    saveBtn.setEnabled(true);
+                    ErrorDialog.show(dialog, "Error: " + ex.getMessage());
+                });
         });
         btnPanel.add(saveBtn);
 
@@ -278,14 +290,14 @@ public class ManagePromotionsView extends JPanel {
 
         int promotionId = (Integer) tableModel.getValueAt(row, 0);
         
-        try {
-            Promotion promo = promotionService.getPromotionById(promotionId);
-            if (promo != null) {
-                showPromotionDialog(promo);
-            }
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading promotion: " + e.getMessage());
-        }
+        tasks.load("promotion", null, "loading promotion",
+            progress -> promotionService.getPromotionById(promotionId),
+            promo -> {
+                if (promo != null) {
+                    showPromotionDialog(promo);
+                }
+            },
+            e -> ErrorDialog.show(this, "Error loading promotion: " + e.getMessage()));
     }
 
     private void deleteSelectedPromotion() {
@@ -308,17 +320,17 @@ public class ManagePromotionsView extends JPanel {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean deleted = promotionService.deletePromotion(promotionId);
-                if (deleted) {
-                    JOptionPane.showMessageDialog(this, "Promotion deleted successfully.");
-                    loadPromotions();
-                } else {
-                    ErrorDialog.show(this, "Failed to delete promotion.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error deleting promotion: " + e.getMessage());
-            }
+            tasks.perform("Deleting promotion...", "deleting promotion",
+                progress -> promotionService.deletePromotion(promotionId),
+                deleted -> {
+                    if (deleted) {
+                        JOptionPane.showMessageDialog(this, "Promotion deleted successfully.");
+                        loadPromotions();
+                    } else {
+                        ErrorDialog.show(this, "Failed to delete promotion.");
+                    }
+                },
+                e -> ErrorDialog.show(this, "Error deleting promotion: " + e.getMessage()));
         }
     }
 }
\ No newline at end of file
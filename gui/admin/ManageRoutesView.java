@@ -2,12 +2,16 @@ package gui.admin;
 
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
+import gui.common.LazyTableModel;
 import businesslogic.services.AdminService;
 import businesslogic.entities.Route;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 import businesslogic.entities.Airport;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
 import java.util.List;
@@ -22,9 +26,9 @@ public class ManageRoutesView extends JPanel {
     private ViewManager viewManager;
     private AdminService adminService;
     private JTable routeTable;
-    private DefaultTableModel tableModel;
-    private List<Route> routeList;
+    private LazyTableModel<Route> tableModel;
     private List<Airport> airportList;
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public ManageRoutesView(ViewManager viewManager) {
         this.viewManager = viewManager;
@@ -48,18 +52,31 @@ public class ManageRoutesView extends JPanel {
         String[] columnNames = {
             "ID", "Origin", "Destination", "Distance (km)", "Duration (min)"
         };
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Table is read-only, use buttons for editing
-            }
+        String[] sortFields = {
+            "routeId", "origin", "destination", "distance", "duration"
         };
+        // Read-only, use buttons for editing. Rows are paged in as they scroll into view
+        tableModel = new LazyTableModel<>(tasks, "routes", columnNames, sortFields,
+            new LazyTableModel.RowSource<>() {
+                @Override
+                public int count(PageQuery query) throws SQLException {
+                    return adminService.countRoutes(query);
+                }
+                
+                @Override
+                public KeyedPage<Route> fetch(PageQuery query, PageKey after, int offset, int limit)
+                        throws SQLException {
+                    return adminService.getRoutePage(query, after, offset, limit);
+                }
+            },
+            ManageRoutesView::toRow);
         
         routeTable = new JTable(tableModel);
         routeTable.setRowHeight(25);
         routeTable.setFont(new Font("Arial", Font.PLAIN, 12));
         routeTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
         routeTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableModel.installHeaderSorting(routeTable);
         
         JScrollPane scrollPane = new JScrollPane(routeTable);
         scrollPane.setPreferredSize(new Dimension(1000, 400));
@@ -110,49 +127,50 @@ public class ManageRoutesView extends JPanel {
     }
     
     /**
-     * Load all routes using AdminService.getAllRoutes().
+     * Reload the route count and first page; the rest load as they scroll into view.
      */
     private void loadRoutes() {
-        try {
-            routeList = adminService.getAllRoutes();
-            updateTable();
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading routes: " + e.getMessage(), e);
-        }
+        tableModel.refresh("Loading routes...");
     }
     
     /**
      * Load all airports for dropdowns.
      */
     private void loadAirports() {
-        try {
-            airportList = adminService.getAllAirports();
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading airports: " + e.getMessage(), e);
-        }
+        tasks.load("airports", "loading airports",
+            progress -> adminService.getAllAirports(),
+            airports -> airportList = airports);
+    }
+    
+    private static Object[] toRow(Route route) {
+        String origin = route.getOrigin() != null && route.getOrigin().getAirportCode() != null
+            ? route.getOrigin().getAirportCode() : "N/A";
+        String destination = route.getDestination() != null && route.getDestination().getAirportCode() != null
+            ? route.getDestination().getAirportCode() : "N/A";
+        
+        return new Object[]{
+            route.getRouteId(),
+            origin,
+            destination,
+            route.getDistance() > 0 ? String.format("%.2f", route.getDistance()) : "N/A",
+            route.getEstimatedDuration() > 0 ? route.getEstimatedDuration() : "N/A"
+        };
     }
     
     /**
-     * Update the table with current routes.
+     * The selected row's route, or null (after telling the user) if there is none.
      */
-    private void updateTable() {
-        tableModel.setRowCount(0); // Clear existing rows
-        
-        for (Route route : routeList) {
-            String origin = route.getOrigin() != null && route.getOrigin().getAirportCode() != null
-                ? route.getOrigin().getAirportCode() : "N/A";
-            String destination = route.getDestination() != null && route.getDestination().getAirportCode() != null
-                ? route.getDestination().getAirportCode() : "N/A";
-            
-            Object[] row = {
-                route.getRouteId(),
-                origin,
-                destination,
-                route.getDistance() > 0 ? String.format("%.2f", route.getDistance()) : "N/A",
-                route.getEstimatedDuration() > 0 ? route.getEstimatedDuration() : "N/A"
-            };
-            tableModel.addRow(row);
+    private Route getSelectedRoute(String action) {
+        int selectedRow = routeTable.getSelectedRow();
+        if (selectedRow < 0) {
+            ErrorDialog.show(this, "Please select a route to " + action + ".");
+            return null;
+        }
+        Route route = tableModel.getItem(selectedRow);
+        if (route == null) {
+            ErrorDialog.show(this, "The selected route is still loading. Please try again.");
         }
+        return route;
     }
     
     /**
@@ -178,18 +196,15 @@ public class ManageRoutesView extends JPanel {
      * Show dialog for editing an existing route.
      */
     private void showEditRouteDialog() {
-        int selectedRow = routeTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select a route to edit.");
-            return;
-        }
-        
         if (airportList == null || airportList.isEmpty()) {
             ErrorDialog.show(this, "No airports available. Please add airports first.");
             return;
         }
         
-        Route selectedRoute = routeList.get(selectedRow);
+        Route selectedRoute = getSelectedRoute("edit");
+        if (selectedRoute == null) {
+            return;
+        }
         
         RouteFormDialog dialog = new RouteFormDialog(
             (JFrame) SwingUtilities.getWindowAncestor(this),
@@ -205,13 +220,10 @@ public class ManageRoutesView extends JPanel {
      * Delete the selected route.
      */
     private void deleteSelectedRoute() {
-        int selectedRow = routeTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select a route to delete.");
+        Route selectedRoute = getSelectedRoute("delete");
+        if (selectedRoute == null) {
             return;
         }
-        
-        Route selectedRoute = routeList.get(selectedRow);
         String originCode = selectedRoute.getOrigin() != null ? 
             selectedRoute.getOrigin().getAirportCode() : "N/A";
         String destCode = selectedRoute.getDestination() != null ? 
@@ -226,19 +238,18 @@ public class ManageRoutesView extends JPanel {
             JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = adminService.removeRoute(selectedRoute.getRouteId());
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                        "Route deleted successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadRoutes(); // Refresh table
-                } else {
-                    ErrorDialog.show(this, "Failed to delete route.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error deleting route: " + e.getMessage(), e);
-            }
+            tasks.perform("Deleting route...", "deleting route",
+                progress -> adminService.removeRoute(selectedRoute.getRouteId()),
+                success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(this,
+                            "Route deleted successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                        loadRoutes(); // Refresh table
+                    } else {
+                        ErrorDialog.show(this, "Failed to delete route.");
+                    }
+                });
         }
     }
     
@@ -248,6 +259,7 @@ public class ManageRoutesView extends JPanel {
     private class RouteFormDialog extends JDialog {
         private Route route;
         private boolean confirmed = false;
+        private final AsyncTasks tasks = new AsyncTasks(getRootPane());
         
         private JComboBox<String> originComboBox;
         private JComboBox<String> destinationComboBox;
@@ -358,12 +370,7 @@ public class ManageRoutesView extends JPanel {
             JButton saveBtn = new JButton("Save");
             JButton cancelBtn = new JButton("Cancel");
             
-            saveBtn.addActionListener(e -> {
-                if (validateAndSave()) {
-                    confirmed = true;
-                    dispose();
-                }
-            });
+            saveBtn.addActionListener(e -> validateAndSave(saveBtn));
             
             cancelBtn.addActionListener(e -> {
                 confirmed = false;
@@ -381,18 +388,21 @@ public class ManageRoutesView extends JPanel {
             setLocationRelativeTo(getParent());
         }
         
-        private boolean validateAndSave() {
+        /**
+         * Validate the form, then save in the background and close on success.
+         */
+        private void validateAndSave(JButton saveBtn) {
             // Validate origin and destination selection
             if (originComboBox.getSelectedItem() == null || 
                 originComboBox.getSelectedItem().toString().equals("No airports available")) {
                 ErrorDialog.show(this, "Please select an origin airport.");
-                return false;
+                return;
             }
             
             if (destinationComboBox.getSelectedItem() == null || 
                 destinationComboBox.getSelectedItem().toString().equals("No airports available")) {
                 ErrorDialog.show(this, "Please select a destination airport.");
-                return false;
+                return;
             }
             
             // Extract airport codes from selected items
@@ -406,7 +416,7 @@ public class ManageRoutesView extends JPanel {
             // Validate origin != destination
             if (originCode.equals(destCode)) {
                 ErrorDialog.show(this, "Origin and destination airports must be different.");
-                return false;
+                return;
             }
             
             // Find Airport objects
@@ -423,7 +433,7 @@ public class ManageRoutesView extends JPanel {
             
             if (originAirport == null || destAirport == null) {
                 ErrorDialog.show(this, "Selected airport not found.");
-                return false;
+                return;
             }
             
             // Validate distance (optional, but if provided must be positive)
@@ -434,11 +444,11 @@ public class ManageRoutesView extends JPanel {
                     distance = Double.parseDouble(distanceStr);
                     if (distance < 0) {
                         ErrorDialog.show(this, "Distance must be a positive number.");
-                        return false;
+                        return;
                     }
                 } catch (NumberFormatException e) {
                     ErrorDialog.show(this, "Distance must be a valid number.");
-                    return false;
+                    return;
                 }
             }
             
@@ -450,59 +460,42 @@ public class ManageRoutesView extends JPanel {
                     duration = Integer.parseInt(durationStr);
                     if (duration < 0) {
                         ErrorDialog.show(this, "Duration must be a positive number.");
-                        return false;
+                        return;
                     }
                 } catch (NumberFormatException e) {
                     ErrorDialog.show(this, "Duration must be a valid number.");
-                    return false;
+                    return;
                 }
             }
             
-            try {
-                Route routeToSave;
-                if (route == null) {
-                    // Creating new route
-                    routeToSave = new Route();
-                    routeToSave.setOrigin(originAirport);
-                    routeToSave.setDestination(destAirport);
-                    routeToSave.setDistance(distance);
-                    routeToSave.setEstimatedDuration(duration);
-                    
-                    Route created = adminService.addRoute(routeToSave);
-                    if (created != null) {
-                        JOptionPane.showMessageDialog(this,
-                            "Route added successfully!",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                        return true;
-                    } else {
-                        ErrorDialog.show(this, "Failed to add route.");
-                        return false;
-                    }
-                } else {
-                    // Updating existing route
-                    route.setOrigin(originAirport);
-                    route.setDestination(destAirport);
-                    route.setDistance(distance);
-                    route.setEstimatedDuration(duration);
-                    
-                    boolean success = adminService.updateRoute(route);
-                    if (success) {
+            boolean adding = route == null;
+            Route routeToSave = adding ? new Route() : route;
+            routeToSave.setOrigin(originAirport);
+            routeToSave.setDestination(destAirport);
+            routeToSave.setDistance(distance);
+            routeToSave.setEstimatedDuration(duration);
+            
+            saveBtn.setEnabled(false);
+            tasks.perform("Saving route...", "saving route",
+                progress -> adding
+                    ? adminService.addRoute(routeToSave) != null
+                    : adminService.updateRoute(routeToSave),
+                saved -> {
+                    saveBtn.setEnabled(true);
+                    if (saved) {
                         JOptionPane.showMessageDialog(this,
-                            "Route updated successfully!",
+                            adding ? "Route added successfully!" : "Route updated successfully!",
                             "Success", JOptionPane.INFORMATION_MESSAGE);
-                        return true;
+                        confirmed = true;
+                        dispose();
                     } else {
-                        ErrorDialog.show(this, "Failed to update route.");
-                        return false;
+                        ErrorDialog.show(this, adding ? "Failed to add route." : "Failed to update route.");
                     }
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error saving route: " + e.getMessage(), e);
-                return false;
-            } catch (IllegalArgumentException e) {
-                ErrorDialog.show(this, e.getMessage());
-                return false;
-            }
+                },
+                e -> {
+                    saveBtn.setEnabled(true);
+                    tasks.showError("saving route", e);
+                });
         }
         
         public boolean isConfirmed() {
@@ -1,8 +1,9 @@
 package gui.admin;
 
 import gui.common.ViewManager;
-import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
 import businesslogic.services.AdminService;
+import businesslogic.services.FlightSearchCache;
 import businesslogic.entities.*;
 import businesslogic.entities.enums.FlightStatus;
 import businesslogic.entities.enums.ReservationStatus;
@@ -28,6 +29,7 @@ public class ReportsView extends JPanel {
     private ViewManager viewManager;
     private AdminService adminService;
     private JTextArea reportTextArea;
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public ReportsView(ViewManager viewManager) {
         this.viewManager = viewManager;
@@ -90,174 +92,198 @@ public class ReportsView extends JPanel {
     }
     
     private void generateReports() {
-        try {
-            StringBuilder report = new StringBuilder();
-            report.append("FLIGHT RESERVATION SYSTEM - REPORTS\n");
-            report.append("Generated: ").append(LocalDateTime.now()).append("\n\n");
-            
-            List<Flight> flights = adminService.getAllFlights();
-            List<Reservation> reservations = adminService.getAllReservations();
-            List<Payment> payments = adminService.getAllPayments();
-            List<Customer> customers = adminService.getAllCustomers();
-            List<Route> routes = adminService.getAllRoutes();
-            List<Aircraft> aircraft = adminService.getAllAircraft();
-            List<Airline> airlines = adminService.getAllAirlines();
-            List<Airport> airports = adminService.getAllAirports();
-            
-            report.append("OPERATIONAL STATISTICS\n");
-            report.append("----------------------\n");
-            report.append("Total Flights:      ").append(flights.size()).append("\n");
-            report.append("Total Routes:       ").append(routes.size()).append("\n");
-            report.append("Total Aircraft:     ").append(aircraft.size()).append("\n");
-            report.append("Total Airlines:     ").append(airlines.size()).append("\n");
-            report.append("Total Airports:     ").append(airports.size()).append("\n");
-            report.append("Total Customers:    ").append(customers.size()).append("\n");
-            report.append("Total Reservations:  ").append(reservations.size()).append("\n");
-            report.append("Total Payments:      ").append(payments.size()).append("\n\n");
-            
-            report.append("FLIGHT PERFORMANCE\n");
-            report.append("------------------\n");
-            Map<FlightStatus, Long> flightStatusCounts = flights.stream()
-                .collect(Collectors.groupingBy(Flight::getStatus, Collectors.counting()));
-            
-            long scheduled = flightStatusCounts.getOrDefault(FlightStatus.SCHEDULED, 0L);
-            long delayed = flightStatusCounts.getOrDefault(FlightStatus.DELAYED, 0L);
-            long cancelled = flightStatusCounts.getOrDefault(FlightStatus.CANCELLED, 0L);
-            long departed = flightStatusCounts.getOrDefault(FlightStatus.DEPARTED, 0L);
-            long arrived = flightStatusCounts.getOrDefault(FlightStatus.ARRIVED, 0L);
-            
-            double totalFlights = flights.size();
-            report.append("Scheduled:  ").append(scheduled).append(" (").append(formatPercent(scheduled, totalFlights)).append(")\n");
-            report.append("Delayed:    ").append(delayed).append(" (").append(formatPercent(delayed, totalFlights)).append(")\n");
-            report.append("Cancelled:  ").append(cancelled).append(" (").append(formatPercent(cancelled, totalFlights)).append(")\n");
-            report.append("Departed:    ").append(departed).append(" (").append(formatPercent(departed, totalFlights)).append(")\n");
-            report.append("Arrived:     ").append(arrived).append(" (").append(formatPercent(arrived, totalFlights)).append(")\n\n");
-            
-            report.append("REVENUE SUMMARY\n");
-            report.append("---------------\n");
-            
-            double totalRevenue = payments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.COMPLETED)
-                .mapToDouble(Payment::getAmount)
-                .sum();
-            
-            double pendingRevenue = payments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.PENDING)
-                .mapToDouble(Payment::getAmount)
-                .sum();
-            
-            double refundedAmount = payments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.REFUNDED)
-                .mapToDouble(Payment::getAmount)
-                .sum();
-            
-            Map<PaymentMethod, Double> revenueByMethod = payments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.COMPLETED)
-                .collect(Collectors.groupingBy(
-                    Payment::getPaymentMethod,
-                    Collectors.summingDouble(Payment::getAmount)
-                ));
-            
-            report.append("Total Revenue:    $").append(String.format("%.2f", totalRevenue)).append("\n");
-            report.append("Pending Payments: $").append(String.format("%.2f", pendingRevenue)).append("\n");
-            report.append("Refunded:         $").append(String.format("%.2f", refundedAmount)).append("\n");
-            report.append("Total Payments:   ").append(payments.size()).append("\n\n");
-            
-            if (!revenueByMethod.isEmpty()) {
-                report.append("Revenue by Payment Method:\n");
-                revenueByMethod.forEach((method, amount) -> 
-                    report.append("  ").append(method).append(": $").append(String.format("%.2f", amount)).append("\n"));
-                report.append("\n");
-            }
-            
-            report.append("BOOKING TRENDS\n");
-            report.append("--------------\n");
-            
-            Map<ReservationStatus, Long> reservationStatusCounts = reservations.stream()
-                .collect(Collectors.groupingBy(Reservation::getStatus, Collectors.counting()));
-            
-            long pendingRes = reservationStatusCounts.getOrDefault(ReservationStatus.PENDING, 0L);
-            long confirmedRes = reservationStatusCounts.getOrDefault(ReservationStatus.CONFIRMED, 0L);
-            long cancelledRes = reservationStatusCounts.getOrDefault(ReservationStatus.CANCELLED, 0L);
-            long completedRes = reservationStatusCounts.getOrDefault(ReservationStatus.COMPLETED, 0L);
-            
-            double totalReservations = reservations.size();
-            report.append("Pending:   ").append(pendingRes).append(" (").append(formatPercent(pendingRes, totalReservations)).append(")\n");
-            report.append("Confirmed: ").append(confirmedRes).append(" (").append(formatPercent(confirmedRes, totalReservations)).append(")\n");
-            report.append("Cancelled: ").append(cancelledRes).append(" (").append(formatPercent(cancelledRes, totalReservations)).append(")\n");
-            report.append("Completed: ").append(completedRes).append(" (").append(formatPercent(completedRes, totalReservations)).append(")\n\n");
-            
-            report.append("ROUTE UTILIZATION (Top 10)\n");
-            report.append("--------------------------\n");
-            
-            Map<String, Long> routeUsage = reservations.stream()
-                .filter(r -> r.getFlight() != null && r.getFlight().getRoute() != null)
-                .collect(Collectors.groupingBy(
-                    r -> {
-                        Route route = r.getFlight().getRoute();
-                        String origin = route.getOrigin() != null ? route.getOrigin().getAirportCode() : "N/A";
-                        String dest = route.getDestination() != null ? route.getDestination().getAirportCode() : "N/A";
-                        return origin + " -> " + dest;
-                    },
-                    Collectors.counting()
-                ));
-            
-            routeUsage.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(10)
-                .forEach(entry -> 
-                    report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append(" bookings\n"));
+        tasks.load("reports", "Generating reports...", "generating reports",
+            this::buildReport,
+            report -> {
+                reportTextArea.setText(report);
+                reportTextArea.setCaretPosition(0);
+            });
+    }
+    
+    /**
+     * Runs in the background; reports progress as each table is loaded.
+     */
+    private String buildReport(AsyncTasks.Progress progress) throws SQLException {
+        StringBuilder report = new StringBuilder();
+        report.append("FLIGHT RESERVATION SYSTEM - REPORTS\n");
+        report.append("Generated: ").append(LocalDateTime.now()).append("\n\n");
+        
+        List<Flight> flights = adminService.getAllFlights();
+        List<Reservation> reservations = adminService.getAllReservations();
+        progress.update(25, "Loading payments and customers...");
+        List<Payment> payments = adminService.getAllPayments();
+        List<Customer> customers = adminService.getAllCustomers();
+        progress.update(50, "Loading routes and fleet...");
+        List<Route> routes = adminService.getAllRoutes();
+        List<Aircraft> aircraft = adminService.getAllAircraft();
+        progress.update(75, "Loading airlines and airports...");
+        List<Airline> airlines = adminService.getAllAirlines();
+        List<Airport> airports = adminService.getAllAirports();
+        progress.update(100, "Building reports...");
+        
+        report.append("OPERATIONAL STATISTICS\n");
+        report.append("----------------------\n");
+        report.append("Total Flights:      ").append(flights.size()).append("\n");
+        report.append("Total Routes:       ").append(routes.size()).append("\n");
+        report.append("Total Aircraft:     ").append(aircraft.size()).append("\n");
+        report.append("Total Airlines:     ").append(airlines.size()).append("\n");
+        report.append("Total Airports:     ").append(airports.size()).append("\n");
+        report.append("Total Customers:    ").append(customers.size()).append("\n");
+        report.append("Total Reservations:  ").append(reservations.size()).append("\n");
+        report.append("Total Payments:      ").append(payments.size()).append("\n\n");
+        
+        report.append("FLIGHT PERFORMANCE\n");
+        report.append("------------------\n");
+        Map<FlightStatus, Long> flightStatusCounts = flights.stream()
+            .collect(Collectors.groupingBy(Flight::getStatus, Collectors.counting()));
+        
+        long scheduled = flightStatusCounts.getOrDefault(FlightStatus.SCHEDULED, 0L);
+        long delayed = flightStatusCounts.getOrDefault(FlightStatus.DELAYED, 0L);
+        long cancelled = flightStatusCounts.getOrDefault(FlightStatus.CANCELLED, 0L);
+        long departed = flightStatusCounts.getOrDefault(FlightStatus.DEPARTED, 0L);
+        long arrived = flightStatusCounts.getOrDefault(FlightStatus.ARRIVED, 0L);
+        
+        double totalFlights = flights.size();
+        report.append("Scheduled:  ").append(scheduled).append(" (").append(formatPercent(scheduled, totalFlights)).append(")\n");
+        report.append("Delayed:    ").append(delayed).append(" (").append(formatPercent(delayed, totalFlights)).append(")\n");
+        report.append("Cancelled:  ").append(cancelled).append(" (").append(formatPercent(cancelled, totalFlights)).append(")\n");
+        report.append("Departed:    ").append(departed).append(" (").append(formatPercent(departed, totalFlights)).append(")\n");
+        report.append("Arrived:     ").append(arrived).append(" (").append(formatPercent(arrived, totalFlights)).append(")\n\n");
+        
+        report.append("REVENUE SUMMARY\n");
+        report.append("---------------\n");
+        
+        double totalRevenue = payments.stream()
+            .filter(p -> p.getStatus() == PaymentStatus.COMPLETED)
+            .mapToDouble(Payment::getAmount)
+            .sum();
+        
+        double pendingRevenue = payments.stream()
+            .filter(p -> p.getStatus() == PaymentStatus.PENDING)
+            .mapToDouble(Payment::getAmount)
+            .sum();
+        
+        double refundedAmount = payments.stream()
+            .filter(p -> p.getStatus() == PaymentStatus.REFUNDED)
+            .mapToDouble(Payment::getAmount)
+            .sum();
+        
+        Map<PaymentMethod, Double> revenueByMethod = payments.stream()
+            .filter(p -> p.getStatus() == PaymentStatus.COMPLETED)
+            .collect(Collectors.groupingBy(
+                Payment::getPaymentMethod,
+                Collectors.summingDouble(Payment::getAmount)
+            ));
+        
+        report.append("Total Revenue:    $").append(String.format("%.2f", totalRevenue)).append("\n");
+        report.append("Pending Payments: $").append(String.format("%.2f", pendingRevenue)).append("\n");
+        report.append("Refunded:         $").append(String.format("%.2f", refundedAmount)).append("\n");
+        report.append("Total Payments:   ").append(payments.size()).append("\n\n");
+        
+        if (!revenueByMethod.isEmpty()) {
+            report.append("Revenue by Payment Method:\n");
+            revenueByMethod.forEach((method, amount) -> 
+                report.append("  ").append(method).append(": $").append(String.format("%.2f", amount)).append("\n"));
             report.append("\n");
-            
-            report.append("CUSTOMER ACTIVITY\n");
-            report.append("-----------------\n");
-            
-            Map<MembershipStatus, Long> membershipCounts = customers.stream()
-                .filter(c -> c != null && c.getMembershipStatus() != null)
-                .collect(Collectors.groupingBy(
-                    Customer::getMembershipStatus,
-                    Collectors.counting()
-                ));
-            
-            report.append("Regular:   ").append(membershipCounts.getOrDefault(MembershipStatus.REGULAR, 0L)).append("\n");
-            report.append("Silver:    ").append(membershipCounts.getOrDefault(MembershipStatus.SILVER, 0L)).append("\n");
-            report.append("Gold:      ").append(membershipCounts.getOrDefault(MembershipStatus.GOLD, 0L)).append("\n");
-            report.append("Platinum:  ").append(membershipCounts.getOrDefault(MembershipStatus.PLATINUM, 0L)).append("\n\n");
-            
-            report.append("AIRCRAFT STATUS\n");
-            report.append("---------------\n");
-            
-            long activeAircraft = aircraft.stream()
-                .filter(a -> "ACTIVE".equals(a.getStatus()))
-                .count();
-            long inactiveAircraft = aircraft.stream()
-                .filter(a -> "INACTIVE".equals(a.getStatus()))
-                .count();
-            long maintenanceAircraft = aircraft.stream()
-                .filter(a -> "MAINTENANCE".equals(a.getStatus()))
-                .count();
-            
-            double totalAircraft = aircraft.size();
-            report.append("Active:        ").append(activeAircraft).append(" (").append(formatPercent(activeAircraft, totalAircraft)).append(")\n");
-            report.append("Inactive:      ").append(inactiveAircraft).append(" (").append(formatPercent(inactiveAircraft, totalAircraft)).append(")\n");
-            report.append("Maintenance:   ").append(maintenanceAircraft).append(" (").append(formatPercent(maintenanceAircraft, totalAircraft)).append(")\n\n");
-            
-            report.append("PAYMENT STATUS\n");
-            report.append("--------------\n");
-            
-            Map<PaymentStatus, Long> paymentStatusCounts = payments.stream()
-                .collect(Collectors.groupingBy(Payment::getStatus, Collectors.counting()));
-            
-            double totalPayments = payments.size();
-            paymentStatusCounts.forEach((status, count) -> 
-                report.append(status).append(": ").append(count).append(" (").append(formatPercent(count, totalPayments)).append(")\n"));
-            
-            reportTextArea.setText(report.toString());
-            reportTextArea.setCaretPosition(0);
-            
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error generating reports: " + e.getMessage(), e);
         }
+        
+        report.append("BOOKING TRENDS\n");
+        report.append("--------------\n");
+        
+        Map<ReservationStatus, Long> reservationStatusCounts = reservations.stream()
+            .collect(Collectors.groupingBy(Reservation::getStatus, Collectors.counting()));
+        
+        long pendingRes = reservationStatusCounts.getOrDefault(ReservationStatus.PENDING, 0L);
+        long confirmedRes = reservationStatusCounts.getOrDefault(ReservationStatus.CONFIRMED, 0L);
+        long cancelledRes = reservationStatusCounts.getOrDefault(ReservationStatus.CANCELLED, 0L);
+        long completedRes = reservationStatusCounts.getOrDefault(ReservationStatus.COMPLETED, 0L);
+        
+        double totalReservations = reservations.size();
+        report.append("Pending:   ").append(pendingRes).append(" (").append(formatPercent(pendingRes, totalReservations)).append(")\n");
+        report.append("Confirmed: ").append(confirmedRes).append(" (").append(formatPercent(confirmedRes, totalReservations)).append(")\n");
+        report.append("Cancelled: ").append(cancelledRes).append(" (").append(formatPercent(cancelledRes, totalReservations)).append(")\n");
+        report.append("Completed: ").append(completedRes).append(" (").append(formatPercent(completedRes, totalReservations)).append(")\n\n");
+        
+        report.append("ROUTE UTILIZATION (Top 10)\n");
+        report.append("--------------------------\n");
+        
+        Map<String, Long> routeUsage = reservations.stream()
+            .filter(r -> r.getFlight() != null && r.getFlight().getRoute() != null)
+            .collect(Collectors.groupingBy(
+                r -> {
+                    Route route = r.getFlight().getRoute();
+                    String origin = route.getOrigin() != null ? route.getOrigin().getAirportCode() : "N/A";
+                    String dest = route.getDestination() != null ? route.getDestination().getAirportCode() : "N/A";
+                    return origin + " -> " + dest;
+                },
+                Collectors.counting()
+            ));
+        
+        routeUsage.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(10)
+            .forEach(entry -> 
+                report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append(" bookings\n"));
+        report.append("\n");
+        
+        report.append("CUSTOMER ACTIVITY\n");
+        report.append("-----------------\n");
+        
+        Map<MembershipStatus, Long> membershipCounts = customers.stream()
+            .filter(c -> c != null && c.getMembershipStatus() != null)
+            .collect(Collectors.groupingBy(
+                Customer::getMembershipStatus,
+                Collectors.counting()
+            ));
+        
+        report.append("Regular:   ").append(membershipCounts.getOrDefault(MembershipStatus.REGULAR, 0L)).append("\n");
+        report.append("Silver:    ").append(membershipCounts.getOrDefault(MembershipStatus.SILVER, 0L)).append("\n");
+        report.append("Gold:      ").append(membershipCounts.getOrDefault(MembershipStatus.GOLD, 0L)).append("\n");
+        report.append("Platinum:  ").append(membershipCounts.getOrDefault(MembershipStatus.PLATINUM, 0L)).append("\n\n");
+        
+        report.append("AIRCRAFT STATUS\n");
+        report.append("---------------\n");
+        
+        long activeAircraft = aircraft.stream()
+            .filter(a -> "ACTIVE".equals(a.getStatus()))
+            .count();
+        long inactiveAircraft = aircraft.stream()
+            .filter(a -> "INACTIVE".equals(a.getStatus()))
+            .count();
+        long maintenanceAircraft = aircraft.stream()
+            .filter(a -> "MAINTENANCE".equals(a.getStatus()))
+            .count();
+        
+        double totalAircraft = aircraft.size();
+        report.append("Active:        ").append(activeAircraft).append(" (").append(formatPercent(activeAircraft, totalAircraft)).append(")\n");
+        report.append("Inactive:      ").append(inactiveAircraft).append(" (").append(formatPercent(inactiveAircraft, totalAircraft)).append(")\n");
+        report.append("Maintenance:   ").append(maintenanceAircraft).append(" (").append(formatPercent(maintenanceAircraft, totalAircraft)).append(")\n\n");
+        
+        report.append("PAYMENT STATUS\n");
+        report.append("--------------\n");
+        
+        Map<PaymentStatus, Long> paymentStatusCounts = payments.stream()
+            .collect(Collectors.groupingBy(Payment::getStatus, Collectors.counting()));
+        
+        double totalPayments = payments.size();
+        paymentStatusCounts.forEach((status, count) -> 
+            report.append(status).append(": ").append(count).append(" (").append(formatPercent(count, totalPayments)).append(")\n"));
+        
+        FlightSearchCache.Stats cacheStats = viewManager.getFlightService().getSearchCacheStats();
+        if (cacheStats != null) {
+            long lookups = cacheStats.getHits() + cacheStats.getMisses() + cacheStats.getCoalesced();
+            report.append("\nFLIGHT SEARCH CACHE (this session)\n");
+            report.append("----------------------------------\n");
+            report.append("Searches:       ").append(lookups).append("\n");
+            report.append("Cache Hits:     ").append(cacheStats.getHits()).append("\n");
+            report.append("Shared Queries: ").append(cacheStats.getCoalesced()).append("\n");
+            report.append("Hit Ratio:      ").append(String.format("%.1f%%", cacheStats.getHitRatio() * 100)).append("\n");
+            report.append("Invalidations:  ").append(cacheStats.getInvalidations()).append("\n");
+            report.append("Evictions:      ").append(cacheStats.getEvictions()).append("\n");
+            report.append("Cached:         ").append(cacheStats.getSize()).append("\n");
+        }
+        
+        return report.toString();
     }
     
     private String formatPercent(long value, double total) {
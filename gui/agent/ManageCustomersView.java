@@ -2,36 +2,48 @@ package gui.agent;
 
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
+import gui.common.LazyTableModel;
+import gui.common.SearchField;
 import businesslogic.entities.Customer;
 import businesslogic.entities.enums.MembershipStatus;
 import businesslogic.services.CustomerService;
+import businesslogic.services.SearchService;
+import datalayer.dao.ChangeSet;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 
 /**
  * Manage customers (Add, Update, Delete).
  * Allows agents to create, modify, and remove customer accounts.
- * All database operations are performed through CustomerService.
+ * All database operations are performed through CustomerService;
+ * search matches by prefix through SearchService as the agent types.
  */
 public class ManageCustomersView extends JPanel {
     
     private ViewManager viewManager;
     private CustomerService customerService;
+    private SearchService searchService;
     private JTable customerTable;
-    private DefaultTableModel tableModel;
-    private List<Customer> customers;
+    private LazyTableModel<Customer> tableModel;
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public ManageCustomersView(ViewManager viewManager) {
         this.viewManager = viewManager;
         this.customerService = viewManager.getCustomerService();
+        this.searchService = viewManager.getServiceManager().getSearchService();
         initComponents();
         loadCustomers();
+        prepareSearch();
     }
     
     private void initComponents() {
@@ -42,22 +54,58 @@ public class ManageCustomersView extends JPanel {
         JLabel title = new JLabel("Manage Customers");
         title.setFont(new Font("Arial", Font.BOLD, 24));
         titlePanel.add(title);
-        add(titlePanel, BorderLayout.NORTH);
+        
+        // Search panel
+        JPanel searchPanel = new JPanel();
+        searchPanel.setBorder(BorderFactory.createTitledBorder("Search Customers"));
+        searchPanel.setLayout(new FlowLayout());
+        
+        SearchField searchField = new SearchField(20, this::performSearch);
+        searchField.setToolTipText("Username, email or name");
+        searchPanel.add(new JLabel("Search:"));
+        searchPanel.add(searchField);
+        
+        JButton clearBtn = new JButton("Clear");
+        clearBtn.addActionListener(e -> searchField.setText(""));
+        searchPanel.add(clearBtn);
+        
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.add(titlePanel, BorderLayout.NORTH);
+        topPanel.add(searchPanel, BorderLayout.SOUTH);
+        add(topPanel, BorderLayout.NORTH);
         
         // Table panel
         String[] columnNames = {
             "Customer ID", "Username", "Name", "Email", "Phone", "Membership"
         };
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
+        String[] sortFields = {
+            "userId", "username", "name", "email", null, "membership"
         };
+        tableModel = new LazyTableModel<>(tasks, "customers", columnNames, sortFields,
+            new LazyTableModel.RowSource<>() {
+                @Override
+                public int count(PageQuery query) throws SQLException {
+                    return customerService.countCustomers(query);
+                }
+                
+                @Override
+                public KeyedPage<Customer> fetch(PageQuery query, PageKey after, int offset, int limit)
+                        throws SQLException {
+                    return customerService.getCustomerPage(query, after, offset, limit);
+                }
+                
+                @Override
+                public ChangeSet<Customer> changes(PageQuery query, LocalDateTime since, int limit)
+                        throws SQLException {
+                    return customerService.getCustomerChanges(query, since, limit);
+                }
+            },
+            ManageCustomersView::toRow);
         
         customerTable = new JTable(tableModel);
         customerTable.setRowHeight(25);
         customerTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableModel.installHeaderSorting(customerTable);
         
         JScrollPane scrollPane = new JScrollPane(customerTable);
         scrollPane.setPreferredSize(new Dimension(1000, 400));
@@ -85,7 +133,7 @@ public class ManageCustomersView extends JPanel {
         JButton refreshBtn = new JButton("Refresh");
         refreshBtn.setPreferredSize(new Dimension(150, 35));
         refreshBtn.setFont(new Font("Arial", Font.PLAIN, 14));
-        refreshBtn.addActionListener(e -> loadCustomers());
+        refreshBtn.addActionListener(e -> tableModel.refreshChanges());
         
         JButton backBtn = new JButton("Back");
         backBtn.setPreferredSize(new Dimension(150, 35));
@@ -105,27 +153,67 @@ public class ManageCustomersView extends JPanel {
     }
     
     private void loadCustomers() {
-        try {
-            customers = customerService.getAllCustomers();
-            tableModel.setRowCount(0);
-            
-            for (Customer customer : customers) {
-                String name = customer.getFirstName() + " " + 
-                             (customer.getLastName() != null ? customer.getLastName() : "");
-                
-                tableModel.addRow(new Object[]{
-                    customer.getUserId(),
-                    customer.getUsername(),
-                    name,
-                    customer.getEmail(),
-                    customer.getPhone() != null ? customer.getPhone() : "N/A",
-                    customer.getMembershipStatus() != null ? 
-                        customer.getMembershipStatus().name() : "REGULAR"
-                });
+        tableModel.refresh("Loading customers...");
+    }
+    
+    /**
+     * Load the search index now, so the first keystroke doesn't wait for it.
+     */
+    private void prepareSearch() {
+        tasks.load("search-index", null, "preparing search", progress -> {
+            searchService.prepare();
+            return null;
+        }, ignored -> { });
+    }
+    
+    /**
+     * Show customers whose username, email or name starts with the text.
+     * Blank text shows all customers again.
+     */
+    private void performSearch(String text) {
+        PageQuery query = tableModel.getQuery().withoutIdMatches();
+        if (text.isEmpty()) {
+            if (tableModel.getQuery().hasIdMatches()) {
+                tableModel.setQuery(query);
             }
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading customers: " + e.getMessage(), e);
+            return;
         }
+        
+        tasks.load("search", null, "searching customers", progress -> {
+            List<Integer> customerIds = searchService.searchCustomerIds(text, SearchService.DEFAULT_LIMIT);
+            return query.matchingIds("userId", customerIds);
+        }, tableModel::setQuery);
+    }
+    
+    private static Object[] toRow(Customer customer) {
+        String name = customer.getFirstName() + " " + 
+                     (customer.getLastName() != null ? customer.getLastName() : "");
+        
+        return new Object[]{
+            customer.getUserId(),
+            customer.getUsername(),
+            name,
+            customer.getEmail(),
+            customer.getPhone() != null ? customer.getPhone() : "N/A",
+            customer.getMembershipStatus() != null ? 
+                customer.getMembershipStatus().name() : "REGULAR"
+        };
+    }
+    
+    /**
+     * The selected row's customer, or null (after telling the user) if there is none.
+     */
+    private Customer getSelectedCustomer(String action) {
+        int selectedRow = customerTable.getSelectedRow();
+        if (selectedRow < 0) {
+            ErrorDialog.show(this, "Please select a customer to " + action + ".");
+            return null;
+        }
+        Customer customer = tableModel.getItem(selectedRow);
+        if (customer == null) {
+            ErrorDialog.show(this, "The selected customer is still loading. Please try again.");
+        }
+        return customer;
     }
     
     private void showAddCustomerDialog() {
@@ -137,25 +225,13 @@ public class ManageCustomersView extends JPanel {
         dialog.setVisible(true);
         
         if (dialog.isSaved()) {
-            loadCustomers();
+            tableModel.refreshChanges();
         }
     }
     
     private void showEditCustomerDialog() {
-        int selectedRow = customerTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select a customer to edit.");
-            return;
-        }
-        
-        int customerId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        Customer customer = customers.stream()
-            .filter(c -> c.getUserId() == customerId)
-            .findFirst()
-            .orElse(null);
-        
+        Customer customer = getSelectedCustomer("edit");
         if (customer == null) {
-            ErrorDialog.show(this, "Customer not found.");
             return;
         }
         
@@ -167,19 +243,18 @@ public class ManageCustomersView extends JPanel {
         dialog.setVisible(true);
         
         if (dialog.isSaved()) {
-            loadCustomers();
+            tableModel.refreshChanges();
         }
     }
     
     private void deleteSelectedCustomer() {
-        int selectedRow = customerTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select a customer to delete.");
+        Customer customer = getSelectedCustomer("delete");
+        if (customer == null) {
             return;
         }
         
-        int customerId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        String username = (String) tableModel.getValueAt(selectedRow, 1);
+        int customerId = customer.getUserId();
+        String username = customer.getUsername();
         
         int confirm = JOptionPane.showConfirmDialog(
             this,
@@ -189,23 +264,23 @@ public class ManageCustomersView extends JPanel {
         );
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean deleted = customerService.deleteCustomer(customerId);
-                if (deleted) {
-                    JOptionPane.showMessageDialog(this, "Customer deleted successfully.");
-                    loadCustomers();
-                } else {
-                    ErrorDialog.show(this, "Failed to delete customer.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error deleting customer: " + e.getMessage(), e);
-            }
+            tasks.perform("Deleting customer...", "deleting customer",
+                progress -> customerService.deleteCustomer(customerId),
+                deleted -> {
+                    if (deleted) {
+                        JOptionPane.showMessageDialog(this, "Customer deleted successfully.");
+                        tableModel.refreshChanges();
+                    } else {
+                        ErrorDialog.show(this, "Failed to delete customer.");
+                    }
+                });
         }
     }
     
     private class CustomerFormDialog extends JDialog {
         private Customer customer;
         private boolean saved = false;
+        private final AsyncTasks tasks = new AsyncTasks(getRootPane());
         
         private JTextField usernameField;
         private JPasswordField passwordField;
@@ -367,12 +442,7 @@ public class ManageCustomersView extends JPanel {
             // Button panel
             JPanel buttonPanel = new JPanel();
             JButton saveBtn = new JButton("Save");
-            saveBtn.addActionListener(e -> {
-                if (validateAndSave()) {
-                    saved = true;
-                    dispose();
-                }
-            });
+            saveBtn.addActionListener(e -> validateAndSave(saveBtn));
             
             JButton cancelBtn = new JButton("Cancel");
             cancelBtn.addActionListener(e -> dispose());
@@ -385,7 +455,10 @@ public class ManageCustomersView extends JPanel {
             setLocationRelativeTo(getParent());
         }
         
-        private boolean validateAndSave() {
+        /**
+         * Validate the form, then save in the background and close on success.
+         */
+        private void validateAndSave(JButton saveBtn) {
             String username = usernameField.getText().trim();
             String password = new String(passwordField.getPassword());
             String email = emailField.getText().trim();
@@ -397,19 +470,19 @@ public class ManageCustomersView extends JPanel {
             
             if (username.isEmpty()) {
                 ErrorDialog.show(this, "Username is required.");
-                return false;
+                return;
             }
             if (customer == null && password.isEmpty()) {
                 ErrorDialog.show(this, "Password is required for new customers.");
-                return false;
+                return;
             }
             if (email.isEmpty()) {
                 ErrorDialog.show(this, "Email is required.");
-                return false;
+                return;
             }
             if (firstName.isEmpty()) {
                 ErrorDialog.show(this, "First name is required.");
-                return false;
+                return;
             }
             
             LocalDate dateOfBirth = null;
@@ -418,61 +491,63 @@ public class ManageCustomersView extends JPanel {
                     dateOfBirth = LocalDate.parse(dateOfBirthStr);
                 } catch (DateTimeParseException e) {
                     ErrorDialog.show(this, "Invalid date format. Use YYYY-MM-DD.");
-                    return false;
+                    return;
                 }
             }
             
-            try {
-                if (customer == null) {
+            boolean adding = customer == null;
+            LocalDate birthDate = dateOfBirth;
+            MembershipStatus selectedStatus = (MembershipStatus) membershipComboBox.getSelectedItem();
+            if (!adding) {
+                customer.setEmail(email);
+                customer.setFirstName(firstName);
+                customer.setLastName(lastName.isEmpty() ? null : lastName);
+                customer.setPhone(phone.isEmpty() ? null : phone);
+                customer.setAddress(address.isEmpty() ? null : address);
+                customer.setDateOfBirth(birthDate);
+                customer.setMembershipStatus(selectedStatus);
+                
+                if (!password.isEmpty()) {
+                    customer.setPassword(password);
+                }
+            }
+            
+            saveBtn.setEnabled(false);
+            tasks.perform("Saving customer...", "saving customer",
+                progress -> {
+                    if (!adding) {
+                        return customerService.updateCustomer(customer);
+                    }
                     // Create new customer
                     Customer newCustomer = customerService.createCustomer(
                         username, password, email, firstName, lastName,
                         phone.isEmpty() ? null : phone,
                         address.isEmpty() ? null : address,
-                        dateOfBirth
+                        birthDate
                     );
                     
                     // Update membership status if different from default
-                    MembershipStatus selectedStatus = (MembershipStatus) membershipComboBox.getSelectedItem();
                     if (selectedStatus != MembershipStatus.REGULAR) {
                         newCustomer.setMembershipStatus(selectedStatus);
                         customerService.updateCustomer(newCustomer);
                     }
-                    
-                    JOptionPane.showMessageDialog(this, "Customer created successfully.");
-                } else {
-                    // Update existing customer
-                    customer.setEmail(email);
-                    customer.setFirstName(firstName);
-                    customer.setLastName(lastName.isEmpty() ? null : lastName);
-                    customer.setPhone(phone.isEmpty() ? null : phone);
-                    customer.setAddress(address.isEmpty() ? null : address);
-                    customer.setDateOfBirth(dateOfBirth);
-                    customer.setMembershipStatus((MembershipStatus) membershipComboBox.getSelectedItem());
-                    
-                    if (!password.isEmpty()) {
-                        customer.setPassword(password);
-                    }
-                    
-                    boolean updated = customerService.updateCustomer(customer);
-                    if (updated) {
-                        JOptionPane.showMessageDialog(this, "Customer updated successfully.");
+                    return true;
+                },
+                success -> {
+                    saveBtn.setEnabled(true);
+                    if (success) {
+                        JOptionPane.showMessageDialog(this,
+                            adding ? "Customer created successfully." : "Customer updated successfully.");
+                        saved = true;
+                        dispose();
                     } else {
                         ErrorDialog.show(this, "Failed to update customer.");
-                        return false;
                     }
-                }
-                return true;
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error saving customer: " + e.getMessage(), e);
-                return false;
-            } catch (IllegalStateException e) {
-                ErrorDialog.show(this, e.getMessage());
-                return false;
-            } catch (IllegalArgumentException e) {
-                ErrorDialog.show(this, e.getMessage());
-                return false;
-            }
+                },
+                e -> {
+                    saveBtn.setEnabled(true);
+                    tasks.showError("saving customer", e);
+                });
         }
         
         public boolean isSaved() {
@@ -2,18 +2,25 @@ package gui.agent;
 
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
+import gui.common.LazyTableModel;
+import gui.common.SearchField;
 import businesslogic.entities.Reservation;
 import businesslogic.entities.Customer;
 import businesslogic.entities.Flight;
 import businesslogic.entities.Seat;
 import businesslogic.entities.enums.ReservationStatus;
 import businesslogic.services.ReservationService;
-import businesslogic.services.CustomerService;
+import businesslogic.services.SearchService;
+import datalayer.dao.ChangeSet;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,26 +28,29 @@ import java.util.stream.Collectors;
 /**
  * Manage all customer reservations.
  * Allows agents to view, search, and cancel reservations.
- * All database operations are performed through ReservationService, CustomerService, and FlightService.
+ * All database operations are performed through ReservationService;
+ * search matches by prefix through SearchService as the agent types.
  */
 public class ManageReservationsView extends JPanel {
     
     private ViewManager viewManager;
     private ReservationService reservationService;
-    private CustomerService customerService;
+    private SearchService searchService;
     
     private JTable reservationsTable;
-    private DefaultTableModel tableModel;
-    private JTextField searchField;
-    private JComboBox<String> searchTypeComboBox;
-    private List<Reservation> allReservations;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    
+    private LazyTableModel<Reservation> tableModel;
+    private SearchField searchField;
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public ManageReservationsView(ViewManager viewManager) {
         this.viewManager = viewManager;
         this.reservationService = viewManager.getReservationService();
-        this.customerService = viewManager.getCustomerService();
+        this.searchService = viewManager.getServiceManager().getSearchService();
         initComponents();
         loadAllReservations();
+        prepareSearch();
     }
     
     private void initComponents() {
@@ -58,23 +68,13 @@ public class ManageReservationsView extends JPanel {
         searchPanel.setBorder(BorderFactory.createTitledBorder("Search Reservations"));
         searchPanel.setLayout(new FlowLayout());
         
-        searchTypeComboBox = new JComboBox<>(new String[]{"All", "Reservation ID", "Customer Username"});
-        searchPanel.add(new JLabel("Search by:"));
-        searchPanel.add(searchTypeComboBox);
-        
-        searchField = new JTextField(20);
+        searchField = new SearchField(20, this::performSearch);
+        searchField.setToolTipText("Reservation ID, or customer username, email or name");
         searchPanel.add(new JLabel("Search:"));
         searchPanel.add(searchField);
         
-        JButton searchBtn = new JButton("Search");
-        searchBtn.addActionListener(e -> performSearch());
-        searchPanel.add(searchBtn);
-        
         JButton clearBtn = new JButton("Clear");
-        clearBtn.addActionListener(e -> {
-            searchField.setText("");
-            loadAllReservations();
-        });
+        clearBtn.addActionListener(e -> searchField.setText(""));
         searchPanel.add(clearBtn);
         
         add(searchPanel, BorderLayout.NORTH);
@@ -83,16 +83,35 @@ public class ManageReservationsView extends JPanel {
         String[] columnNames = {
             "Reservation ID", "Customer", "Flight", "Status", "Total Price", "Booking Date", "Seats"
         };
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
+        String[] sortFields = {
+            "reservationId", "customer", "flight", "status", "totalPrice", "bookingDate", null
         };
+        // Rows are paged in as they scroll into view; sorting and search run in the database
+        tableModel = new LazyTableModel<>(tasks, "reservations", columnNames, sortFields,
+            new LazyTableModel.RowSource<>() {
+                @Override
+                public int count(PageQuery query) throws SQLException {
+                    return reservationService.countReservations(query);
+                }
+                
+                @Override
+                public KeyedPage<Reservation> fetch(PageQuery query, PageKey after, int offset, int limit)
+                        throws SQLException {
+                    return reservationService.getReservationPage(query, after, offset, limit);
+                }
+                
+                @Override
+                public ChangeSet<Reservation> changes(PageQuery query, LocalDateTime since, int limit)
+                        throws SQLException {
+                    return reservationService.getReservationChanges(query, since, limit);
+                }
+            },
+            ManageReservationsView::toRow);
         
         reservationsTable = new JTable(tableModel);
         reservationsTable.setRowHeight(25);
         reservationsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableModel.installHeaderSorting(reservationsTable);
         
         JScrollPane scrollPane = new JScrollPane(reservationsTable);
         scrollPane.setPreferredSize(new Dimension(1000, 400));
@@ -115,7 +134,7 @@ public class ManageReservationsView extends JPanel {
         JButton refreshBtn = new JButton("Refresh");
         refreshBtn.setPreferredSize(new Dimension(150, 35));
         refreshBtn.setFont(new Font("Arial", Font.PLAIN, 14));
-        refreshBtn.addActionListener(e -> loadAllReservations());
+        refreshBtn.addActionListener(e -> tableModel.refreshChanges());
         
         JButton backBtn = new JButton("Back");
         backBtn.setPreferredSize(new Dimension(150, 35));
@@ -134,108 +153,104 @@ public class ManageReservationsView extends JPanel {
     }
     
     private void loadAllReservations() {
-        try {
-            allReservations = reservationService.getAllReservations();
-            displayReservations(allReservations);
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading reservations: " + e.getMessage(), e);
-        }
+        tableModel.refresh("Loading reservations...");
     }
     
-    private void performSearch() {
-        String searchValue = searchField.getText().trim();
-        String searchType = (String) searchTypeComboBox.getSelectedItem();
-        
-        try {
-            List<Reservation> filteredReservations;
-            
-            if ("All".equals(searchType) || searchValue.isEmpty()) {
-                filteredReservations = reservationService.getAllReservations();
-            } else if ("Reservation ID".equals(searchType)) {
-                try {
-                    int reservationId = Integer.parseInt(searchValue);
-                    Reservation reservation = reservationService.getReservationById(reservationId);
-                    filteredReservations = reservation != null ? 
-                        List.of(reservation) : List.of();
-                } catch (NumberFormatException e) {
-                    ErrorDialog.show(this, "Reservation ID must be a number.");
-                    return;
-                }
-            } else if ("Customer Username".equals(searchType)) {
-                Customer customer = customerService.getCustomerByUsername(searchValue);
-                if (customer == null) {
-                    ErrorDialog.show(this, "Customer not found: " + searchValue);
-                    return;
-                }
-                filteredReservations = reservationService.getCustomerReservations(customer);
-            } else {
-                filteredReservations = allReservations;
+    /**
+     * Load the search index now, so the first keystroke doesn't wait for it.
+     */
+    private void prepareSearch() {
+        tasks.load("search-index", null, "preparing search", progress -> {
+            searchService.prepare();
+            return null;
+        }, ignored -> { });
+    }
+    
+    /**
+     * Show reservations whose id, or whose customer's username, email or name,
+     * starts with the text. Blank text shows all reservations again.
+     */
+    private void performSearch(String text) {
+        PageQuery query = tableModel.getQuery().withoutIdMatches();
+        if (text.isEmpty()) {
+            if (tableModel.getQuery().hasIdMatches()) {
+                tableModel.setQuery(query);
             }
-            
-            displayReservations(filteredReservations);
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error searching reservations: " + e.getMessage(), e);
+            return;
         }
+        
+        tasks.load("search", null, "searching reservations", progress -> {
+            List<Integer> reservationIds = searchService.searchReservationIds(text, SearchService.DEFAULT_LIMIT);
+            List<Integer> customerIds = searchService.searchCustomerIds(text, SearchService.DEFAULT_LIMIT);
+            return query.matchingIds("reservationId", reservationIds).matchingIds("customerId", customerIds);
+        }, tableModel::setQuery);
     }
     
-    private void displayReservations(List<Reservation> reservations) {
-        tableModel.setRowCount(0);
+    private static Object[] toRow(Reservation reservation) {
+        String customerName = "N/A";
+        if (reservation.getCustomer() != null) {
+            customerName = reservation.getCustomer().getFirstName() + " " + 
+                          (reservation.getCustomer().getLastName() != null ? 
+                           reservation.getCustomer().getLastName() : "");
+        }
         
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        String flightNumber = reservation.getFlight() != null ? 
+            reservation.getFlight().getFlightNumber() : "N/A";
         
-        for (Reservation reservation : reservations) {
-            String customerName = "N/A";
-            if (reservation.getCustomer() != null) {
-                customerName = reservation.getCustomer().getFirstName() + " " + 
-                              (reservation.getCustomer().getLastName() != null ? 
-                               reservation.getCustomer().getLastName() : "");
-            }
-            
-            String flightNumber = reservation.getFlight() != null ? 
-                reservation.getFlight().getFlightNumber() : "N/A";
-            
-            String bookingDate = reservation.getBookingDate() != null ? 
-                reservation.getBookingDate().format(formatter) : "N/A";
-            
-            String seats = "N/A";
-            if (reservation.getSeats() != null && !reservation.getSeats().isEmpty()) {
-                seats = reservation.getSeats().stream()
-                    .map(Seat::getSeatNumber)
-                    .collect(Collectors.joining(", "));
-            }
-            
-            tableModel.addRow(new Object[]{
-                reservation.getReservationId(),
-                customerName,
-                flightNumber,
-                reservation.getStatus() != null ? reservation.getStatus().name() : "N/A",
-                String.format("$%.2f", reservation.getTotalPrice()),
-                bookingDate,
-                seats
-            });
+        String bookingDate = reservation.getBookingDate() != null ? 
+            reservation.getBookingDate().format(DATE_FORMAT) : "N/A";
+        
+        String seats = "N/A";
+        if (reservation.getSeats() != null && !reservation.getSeats().isEmpty()) {
+            seats = reservation.getSeats().stream()
+                .map(Seat::getSeatNumber)
+                .collect(Collectors.joining(", "));
         }
+        
+        return new Object[]{
+            reservation.getReservationId(),
+            customerName,
+            flightNumber,
+            reservation.getStatus() != null ? reservation.getStatus().name() : "N/A",
+            String.format("$%.2f", reservation.getTotalPrice()),
+            bookingDate,
+            seats
+        };
     }
     
-    private void showReservationDetails() {
+    /**
+     * The selected row's reservation summary, or null (after telling the user) if there is none.
+     */
+    private Reservation getSelectedReservation(String action) {
         int selectedRow = reservationsTable.getSelectedRow();
         if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select a reservation to view details.");
+            ErrorDialog.show(this, "Please select a reservation to " + action + ".");
+            return null;
+        }
+        Reservation reservation = tableModel.getItem(selectedRow);
+        if (reservation == null) {
+            ErrorDialog.show(this, "The selected reservation is still loading. Please try again.");
+        }
+        return reservation;
+    }
+    
+    private void showReservationDetails() {
+        Reservation selected = getSelectedReservation("view details");
+        if (selected == null) {
             return;
         }
         
-        int reservationId = (Integer) tableModel.getValueAt(selectedRow, 0);
+        int reservationId = selected.getReservationId();
         
-        try {
-            Reservation reservation = reservationService.getReservationById(reservationId);
-            if (reservation == null) {
-                ErrorDialog.show(this, "Reservation not found.");
-                return;
-            }
-            
-            showDetailsDialog(reservation);
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading reservation details: " + e.getMessage(), e);
-        }
+        tasks.load("details", "loading reservation details",
+            progress -> reservationService.getReservationById(reservationId),
+            reservation -> {
+                if (reservation == null) {
+                    ErrorDialog.show(this, "Reservation not found.");
+                    return;
+                }
+                showDetailsDialog(reservation);
+            });
     }
     
     private void showDetailsDialog(Reservation reservation) {
@@ -329,21 +344,20 @@ public class ManageReservationsView extends JPanel {
     }
     
     private void cancelSelectedReservation() {
-        int selectedRow = reservationsTable.getSelectedRow();
-        if (selectedRow < 0) {
-            ErrorDialog.show(this, "Please select a reservation to cancel.");
+        Reservation selected = getSelectedReservation("cancel");
+        if (selected == null) {
             return;
         }
         
-        int reservationId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        String status = (String) tableModel.getValueAt(selectedRow, 3);
+        int reservationId = selected.getReservationId();
+        ReservationStatus status = selected.getStatus();
         
-        if (ReservationStatus.CANCELLED.name().equals(status)) {
+        if (status == ReservationStatus.CANCELLED) {
             ErrorDialog.show(this, "This reservation is already cancelled.");
             return;
         }
         
-        if (ReservationStatus.COMPLETED.name().equals(status)) {
+        if (status == ReservationStatus.COMPLETED) {
             ErrorDialog.show(this, "Cannot cancel a completed reservation.");
             return;
         }
@@ -356,19 +370,16 @@ public class ManageReservationsView extends JPanel {
         );
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean cancelled = reservationService.cancelReservation(reservationId);
-                if (cancelled) {
-                    JOptionPane.showMessageDialog(this, "Reservation cancelled successfully.");
-                    loadAllReservations();
-                } else {
-                    ErrorDialog.show(this, "Failed to cancel reservation.");
-                }
-            } catch (SQLException e) {
-                ErrorDialog.show(this, "Error cancelling reservation: " + e.getMessage(), e);
-            } catch (IllegalStateException e) {
-                ErrorDialog.show(this, e.getMessage());
-            }
+            tasks.perform("Cancelling reservation...", "cancelling reservation",
+                progress -> reservationService.cancelReservation(reservationId),
+                cancelled -> {
+                    if (cancelled) {
+                        JOptionPane.showMessageDialog(this, "Reservation cancelled successfully.");
+                        tableModel.refreshChanges();
+                    } else {
+                        ErrorDialog.show(this, "Failed to cancel reservation.");
+                    }
+                });
         }
     }
 }
@@ -1,17 +1,16 @@
 package gui.auth;
 
 import gui.common.ViewManager;
+import gui.common.AsyncTasks;
 import gui.customer.CustomerDashboardView;
 import gui.agent.AgentDashboardView;
 import gui.admin.AdminDashboardView;
 import businesslogic.entities.User;
 import businesslogic.entities.enums.UserRole;
-import datalayer.dao.UserDAO;
-import datalayer.impl.UserDAOImpl;
+import businesslogic.services.CustomerService;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.SQLException;
 
 /**
  * Login screen for all user types (Customer, Agent, Admin).
@@ -21,13 +20,14 @@ import java.sql.SQLException;
 public class LoginView extends JPanel {
 
     private ViewManager viewManager;
-    private UserDAO userDAO;
+    private CustomerService customerService;
     private UserRole selectedRole;
+    private final AsyncTasks tasks = new AsyncTasks(this);
 
     public LoginView(ViewManager viewManager, UserRole selectedRole) {
         this.viewManager = viewManager;
         this.selectedRole = selectedRole;
-        this.userDAO = new UserDAOImpl();
+        this.customerService = viewManager.getCustomerService();
         initComponents();
     }
 
@@ -96,74 +96,79 @@ public class LoginView extends JPanel {
                 return;
             }
             
-            try {
-                User user = userDAO.findByUsername(username);
-                
-                if (user == null || !password.equals(user.getPassword())) {
-                    JOptionPane.showMessageDialog(this,
-                        "Invalid username or password.",
-                        "Login Failed", JOptionPane.ERROR_MESSAGE);
-                    passwordField.setText("");
-                    return;
-                }
-                
-                // Validate role match
-                UserRole userRole = user.getRole();
-                boolean roleValid = false;
-                
-                if (selectedRole == UserRole.CUSTOMER) {
-                    // Customer selection: anyone can login (Customer, Agent, Admin)
-                    roleValid = true;
-                } else if (selectedRole == UserRole.FLIGHT_AGENT) {
-                    // Agent selection: only Agent can login
-                    if (userRole == UserRole.FLIGHT_AGENT) {
-                        roleValid = true;
-                    } else {
-                        JOptionPane.showMessageDialog(this,
-                            "You selected Flight Agent role, but this account is not an Agent.\n" +
-                            "Please go back to role selection and choose the correct role.",
-                            "Role Mismatch", JOptionPane.ERROR_MESSAGE);
-                        viewManager.showView("ROLE_SELECTION", new RoleSelectionView(viewManager));
-                        return;
-                    }
-                } else if (selectedRole == UserRole.SYSTEM_ADMIN) {
-                    // Admin selection: only Admin can login
-                    if (userRole == UserRole.SYSTEM_ADMIN) {
-                        roleValid = true;
-                    } else {
+            loginBtn.setEnabled(false);
+            tasks.perform(null, "signing in",
+                progress -> customerService.getUserByUsername(username),
+                user -> {
+                    loginBtn.setEnabled(true);
+                    
+                    if (user == null || !password.equals(user.getPassword())) {
                         JOptionPane.showMessageDialog(this,
-                            "You selected System Admin role, but this account is not an Admin.\n" +
-                            "Please go back to role selection and choose the correct role.",
-                            "Role Mismatch", JOptionPane.ERROR_MESSAGE);
-                        viewManager.showView("ROLE_SELECTION", new RoleSelectionView(viewManager));
+                            "Invalid username or password.",
+                            "Login Failed", JOptionPane.ERROR_MESSAGE);
+                        passwordField.setText("");
                         return;
                     }
-                }
-                
-                if (roleValid) {
-                    viewManager.setCurrentUser(user);
                     
-                    // Route to dashboard based on selected role, not user's actual role
+                    // Validate role match
+                    UserRole userRole = user.getRole();
+                    boolean roleValid = false;
+                    
                     if (selectedRole == UserRole.CUSTOMER) {
-                        // If Customer role selected, always go to Customer Dashboard
-                        // (Admin and Agent can access customer features this way)
-                        viewManager.showView("CUSTOMER_DASHBOARD", 
-                            new CustomerDashboardView(viewManager));
+                        // Customer selection: anyone can login (Customer, Agent, Admin)
+                        roleValid = true;
                     } else if (selectedRole == UserRole.FLIGHT_AGENT) {
-                        // Agent selected - go to Agent Dashboard
-                        viewManager.showView("AGENT_DASHBOARD", 
-                            new AgentDashboardView(viewManager));
+                        // Agent selection: only Agent can login
+                        if (userRole == UserRole.FLIGHT_AGENT) {
+                            roleValid = true;
+                        } else {
+                            JOptionPane.showMessageDialog(this,
+                                "You selected Flight Agent role, but this account is not an Agent.\n" +
+                                "Please go back to role selection and choose the correct role.",
+                                "Role Mismatch", JOptionPane.ERROR_MESSAGE);
+                            viewManager.showView("ROLE_SELECTION", new RoleSelectionView(viewManager));
+                            return;
+                        }
                     } else if (selectedRole == UserRole.SYSTEM_ADMIN) {
-                        // Admin selected - go to Admin Dashboard
-                        viewManager.showView("ADMIN_DASHBOARD", 
-                            new AdminDashboardView(viewManager));
+                        // Admin selection: only Admin can login
+                        if (userRole == UserRole.SYSTEM_ADMIN) {
+                            roleValid = true;
+                        } else {
+                            JOptionPane.showMessageDialog(this,
+                                "You selected System Admin role, but this account is not an Admin.\n" +
+                                "Please go back to role selection and choose the correct role.",
+                                "Role Mismatch", JOptionPane.ERROR_MESSAGE);
+                            viewManager.showView("ROLE_SELECTION", new RoleSelectionView(viewManager));
+                            return;
+                        }
                     }
-                }
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(this, 
-                    "Database error: " + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                    
+                    if (roleValid) {
+                        viewManager.setCurrentUser(user);
+                    
+                        // Route to dashboard based on selected role, not user's actual role
+                        if (selectedRole == UserRole.CUSTOMER) {
+                            // If Customer role selected, always go to Customer Dashboard
+                            // (Admin and Agent can access customer features this way)
+                            viewManager.showView("CUSTOMER_DASHBOARD", 
+                                new CustomerDashboardView(viewManager));
+                        } else if (selectedRole == UserRole.FLIGHT_AGENT) {
+                            // Agent selected - go to Agent Dashboard
+                            viewManager.showView("AGENT_DASHBOARD", 
+                                new AgentDashboardView(viewManager));
+                        } else if (selectedRole == UserRole.SYSTEM_ADMIN) {
+                            // Admin selected - go to Admin Dashboard
+                            viewManager.showView("ADMIN_DASHBOARD", 
+                                new AdminDashboardView(viewManager));
+                        }
+                    }
+                },
+                ex -> {
+                    loginBtn.setEnabled(true);
+                    JOptionPane.showMessageDialog(this, 
+                        "Database error: " + ex.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                });
         });
 
         if (createAccountBtn != null) {
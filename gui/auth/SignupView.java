@@ -1,13 +1,13 @@
 package gui.auth;
 
 import gui.common.ViewManager;
+import gui.common.AsyncTasks;
 import businesslogic.services.CustomerService;
 import businesslogic.entities.Customer;
 import businesslogic.entities.enums.UserRole;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.SQLException;
 
 /**
  * Customer registration form.
@@ -17,6 +17,7 @@ public class SignupView extends JPanel {
 
     private ViewManager viewManager;
     private CustomerService customerService;
+    private final AsyncTasks tasks = new AsyncTasks(this);
 
     public SignupView(ViewManager viewManager) {
         this.viewManager = viewManager;
@@ -134,31 +135,36 @@ public class SignupView extends JPanel {
                 return;
             }
 
-            try {
-                Customer customer = customerService.createCustomer(
+            createBtn.setEnabled(false);
+            tasks.perform("Creating account...", "creating account",
+                progress -> customerService.createCustomer(
                     username, pass, email, firstName, lastName, 
                         null, null, null
-                );
-                
-                JOptionPane.showMessageDialog(this,
-                        "Account created successfully! Welcome, " + customer.getFirstName() + ".",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                
-                viewManager.showView("LOGIN", new LoginView(viewManager, UserRole.CUSTOMER));
-                
-            } catch (IllegalStateException ex) {
-                JOptionPane.showMessageDialog(this,
-                        "Username already exists. Please choose a different one.",
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            } catch (IllegalArgumentException ex) {
-                JOptionPane.showMessageDialog(this,
-                    ex.getMessage(), "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(this,
-                        "Database error: " + ex.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                ),
+                customer -> {
+                    createBtn.setEnabled(true);
+                    JOptionPane.showMessageDialog(this,
+                            "Account created successfully! Welcome, " + customer.getFirstName() + ".",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                    
+                    viewManager.showView("LOGIN", new LoginView(viewManager, UserRole.CUSTOMER));
+                },
+                ex -> {
+                    createBtn.setEnabled(true);
+                    if (ex instanceof IllegalStateException) {
+                        JOptionPane.showMessageDialog(this,
+                                "Username already exists. Please choose a different one.",
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    } else if (ex instanceof IllegalArgumentException) {
+                        JOptionPane.showMessageDialog(this,
+                            ex.getMessage(), "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "Database error: " + ex.getMessage(),
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
         });
 
         backBtn.addActionListener(e -> {
@@ -0,0 +1,332 @@
+package gui.common;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs a view's database work off the Event Dispatch Thread.
+ *
+ * Each view owns one instance. Work runs on a single shared background
+ * thread, because all services share one JDBC connection and its
+ * transactions must not interleave. Results and errors come back on the EDT.
+ *
+ * Loads are keyed: starting a load cancels the previous one with the same
+ * key, and all loads are cancelled when the view is hidden or replaced, so
+ * a slow result never lands on a screen the user has left. Actions (saves,
+ * deletes) are never cancelled. Work that takes longer than a moment shows a
+ * {@link LoadingIndicator}, with a Cancel button for loads; errors go to
+ * {@link ErrorDialog}.
+ */
+public class AsyncTasks {
+
+    // Don't flash the indicator for work that finishes almost at once
+    private static final int INDICATOR_DELAY_MILLIS = 300;
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ui-data");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Work to run in the background.
+     */
+    public interface Work<T> {
+        T call(Progress progress) throws Exception;
+    }
+
+    /**
+     * Lets work report progress and notice cancellation.
+     */
+    public interface Progress {
+        /**
+         * @param percent 0-100, or negative to keep the spinning indicator
+         * @param message New message, or null to keep the current one
+         */
+        void update(int percent, String message);
+
+        boolean isCancelled();
+    }
+
+    private final JComponent owner;
+    private final Map<String, Task<?>> loads = new HashMap<>();
+
+    /**
+     * The shared background thread, for connection work that belongs to no
+     * view, such as warming caches at startup. Nothing comes back on the EDT.
+     */
+    static Executor worker() {
+        return WORKER;
+    }
+
+    public AsyncTasks(JComponent owner) {
+        this.owner = owner;
+
+        // Leaving the view (card switch, or replaced by showView) drops its pending loads
+        owner.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && !owner.isShowing()) {
+                cancelLoads();
+            }
+        });
+    }
+
+    // ========================================================================
+    // LOADS
+    // ========================================================================
+
+    /**
+     * Load data quietly in the background.
+     * @param key Loads with the same key replace each other
+     * @param operation What is being done, for error messages (e.g. "loading flights")
+     */
+    public <T> Task<T> load(String key, String operation, Work<T> work, Consumer<T> onSuccess) {
+        return load(key, null, operation, work, onSuccess, null);
+    }
+
+    /**
+     * Load data, showing a loading indicator if it takes a while.
+     * @param loadingMessage Indicator text, or null for no indicator
+     */
+    public <T> Task<T> load(String key, String loadingMessage, String operation,
+                            Work<T> work, Consumer<T> onSuccess) {
+        return load(key, loadingMessage, operation, work, onSuccess, null);
+    }
+
+    /**
+     * Load data with custom error handling.
+     * @param onError Called on the EDT instead of the default error dialog, or null
+     */
+    public <T> Task<T> load(String key, String loadingMessage, String operation,
+                            Work<T> work, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        checkEdt();
+        Task<?> previous = loads.get(key);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        Task<T> task = new Task<>(key, loadingMessage, operation, work, onSuccess, onError, true);
+        loads.put(key, task);
+        task.start();
+        return task;
+    }
+
+    // ========================================================================
+    // ACTIONS
+    // ========================================================================
+
+    /**
+     * Run an action that changes data. It always runs to completion.
+     */
+    public <T> Task<T> perform(String loadingMessage, String operation, Work<T> work, Consumer<T> onSuccess) {
+        return perform(loadingMessage, operation, work, onSuccess, null);
+    }
+
+    public <T> Task<T> perform(String loadingMessage, String operation, Work<T> work,
+                               Consumer<T> onSuccess, Consumer<Exception> onError) {
+        checkEdt();
+        Task<T> task = new Task<>(null, loadingMessage, operation, work, onSuccess, onError, false);
+        task.start();
+        return task;
+    }
+
+    /**
+     * Cancel every pending load of this view.
+     */
+    public void cancelLoads() {
+        for (Task<?> task : new ArrayList<>(loads.values())) {
+            task.cancel();
+        }
+    }
+
+    private static void checkEdt() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("Tasks must be started on the Event Dispatch Thread.");
+        }
+    }
+
+    // ========================================================================
+    // ERROR ROUTING
+    // ========================================================================
+
+    /**
+     * Default error handling, for custom handlers that only need to tidy up first.
+     */
+    public void showError(String operation, Exception e) {
+        if (e instanceof IllegalArgumentException || e instanceof IllegalStateException) {
+            // Business rule messages are written for the user
+            ErrorDialog.show(owner, e.getMessage());
+        } else if (e instanceof SQLException) {
+            ErrorDialog.showDatabaseError(owner, operation, e);
+        } else {
+            ErrorDialog.showDetailed(owner, "Unexpected error while " + operation + ".", e);
+        }
+    }
+
+    // ========================================================================
+    // TASK
+    // ========================================================================
+
+    /**
+     * Handle to a running load or action. Touched on the EDT only,
+     * apart from the cancelled flag.
+     */
+    public final class Task<T> implements Progress {
+        private final String key;
+        private final String loadingMessage;
+        private final String operation;
+        private final Work<T> work;
+        private final Consumer<T> onSuccess;
+        private final Consumer<Exception> onError;
+        private final boolean cancellable;
+
+        private volatile boolean cancelled;
+        private boolean done;
+        private Future<?> future;
+        private Timer indicatorTimer;
+        private LoadingIndicator indicator;
+        private int lastPercent = -1;
+        private String lastMessage;
+
+        private Task(String key, String loadingMessage, String operation, Work<T> work,
+                     Consumer<T> onSuccess, Consumer<Exception> onError, boolean cancellable) {
+            this.key = key;
+            this.loadingMessage = loadingMessage;
+            this.operation = operation;
+            this.work = work;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+            this.cancellable = cancellable;
+        }
+
+        private void start() {
+            if (loadingMessage != null) {
+                indicatorTimer = new Timer(INDICATOR_DELAY_MILLIS, e -> showIndicator());
+                indicatorTimer.setRepeats(false);
+                indicatorTimer.start();
+            }
+
+            future = WORKER.submit(() -> {
+                if (cancelled) {
+                    return;
+                }
+                try {
+                    T result = work.call(this);
+                    SwingUtilities.invokeLater(() -> finish(result, null));
+                } catch (Exception e) {
+                    SwingUtilities.invokeLater(() -> finish(null, e));
+                }
+            });
+        }
+
+        private void showIndicator() {
+            if (done) {
+                return;
+            }
+            Window window = SwingUtilities.getWindowAncestor(owner);
+            indicator = new LoadingIndicator(window instanceof JFrame ? (JFrame) window : null,
+                                             lastMessage != null ? lastMessage : loadingMessage);
+            if (lastPercent >= 0) {
+                indicator.setIndeterminate(false);
+                indicator.setProgress(lastPercent);
+            }
+            if (cancellable) {
+                indicator.setCancelAction(this::cancel);
+            }
+            // Modal: blocks here, in a nested event loop, until finish() closes it
+            indicator.setVisible(true);
+        }
+
+        private void closeIndicator() {
+            if (indicatorTimer != null) {
+                indicatorTimer.stop();
+            }
+            if (indicator != null) {
+                indicator.setVisible(false);
+                indicator.dispose();
+                indicator = null;
+            }
+        }
+
+        private void finish(T result, Exception error) {
+            if (done) {
+                return;
+            }
+            done = true;
+            closeIndicator();
+            if (key != null && loads.get(key) == this) {
+                loads.remove(key);
+            }
+
+            if (error != null) {
+                if (onError != null) {
+                    onError.accept(error);
+                } else {
+                    showError(operation, error);
+                }
+            } else if (onSuccess != null) {
+                onSuccess.accept(result);
+            }
+        }
+
+        /**
+         * Drop a load's result. A load that has not started yet is skipped entirely;
+         * running work is left to finish, since the shared connection can't be interrupted safely.
+         * Has no effect on actions. Call on the EDT.
+         */
+        public void cancel() {
+            if (!cancellable || done) {
+                return;
+            }
+            cancelled = true;
+            done = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+            closeIndicator();
+            if (loads.get(key) == this) {
+                loads.remove(key);
+            }
+        }
+
+        @Override
+        public void update(int percent, String message) {
+            SwingUtilities.invokeLater(() -> {
+                if (percent >= 0) {
+                    lastPercent = percent;
+                }
+                if (message != null) {
+                    lastMessage = message;
+                }
+                if (indicator == null) {
+                    return;
+                }
+                if (percent >= 0) {
+                    indicator.setIndeterminate(false);
+                    indicator.setProgress(percent);
+                }
+                if (message != null) {
+                    indicator.setMessage(message);
+                }
+            });
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+    }
+}
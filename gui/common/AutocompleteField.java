@@ -0,0 +1,178 @@
+package gui.common;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Text field with a dropdown of suggestions for what has been typed.
+ *
+ * Suggestions come from an in-memory lookup and are asked for on every
+ * keystroke, so the lookup must be fast and must not touch the database.
+ * Up and Down move through the list, Enter or a click picks an item and
+ * Escape closes the list. Picking an item replaces the text with its value.
+ */
+public class AutocompleteField<T> extends JTextField {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final Function<T, String> label;
+    private final Function<T, String> value;
+    private Function<String, List<T>> suggester = text -> List.of();
+
+    private final DefaultListModel<T> suggestions = new DefaultListModel<>();
+    private final JList<T> list = new JList<>(suggestions);
+    private final JScrollPane scrollPane = new JScrollPane(list);
+    private final JPopupMenu popup = new JPopupMenu();
+    // Set while picking, so the text change it makes doesn't reopen the list
+    private boolean picking;
+
+    /**
+     * @param label Text shown for an item in the list
+     * @param value Text put in the field when an item is picked
+     */
+    public AutocompleteField(int columns, Function<T, String> label, Function<T, String> value) {
+        super(columns);
+        this.label = label;
+        this.value = value;
+
+        list.setFocusable(false);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Component getListCellRendererComponent(JList<?> l, Object item, int index,
+                                                          boolean selected, boolean focused) {
+                return super.getListCellRendererComponent(l, AutocompleteField.this.label.apply((T) item),
+                    index, selected, focused);
+            }
+        });
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                pick(list.locationToIndex(e.getPoint()));
+            }
+        });
+
+        popup.setFocusable(false);
+        popup.add(scrollPane);
+
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                textChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                textChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                textChanged();
+            }
+        });
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) {
+                    return;
+                }
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        move(1);
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        move(-1);
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        pick(list.getSelectedIndex());
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        popup.setVisible(false);
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                popup.setVisible(false);
+            }
+        });
+    }
+
+    /**
+     * @param suggester Items for the typed text, best first; called on the EDT
+     */
+    public void setSuggester(Function<String, List<T>> suggester) {
+        this.suggester = suggester;
+    }
+
+    private void textChanged() {
+        if (picking) {
+            return;
+        }
+        // The document is mid-change while its listeners run
+        SwingUtilities.invokeLater(this::showSuggestions);
+    }
+
+    private void showSuggestions() {
+        List<T> items = isFocusOwner() ? suggester.apply(getText()) : List.of();
+        suggestions.clear();
+        for (int i = 0; i < items.size() && i < MAX_SUGGESTIONS; i++) {
+            suggestions.addElement(items.get(i));
+        }
+        if (suggestions.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+
+        list.setSelectedIndex(0);
+        list.setVisibleRowCount(suggestions.size());
+        Dimension rows = list.getPreferredScrollableViewportSize();
+        Insets border = scrollPane.getInsets();
+        scrollPane.setPreferredSize(new Dimension(
+            Math.max(getWidth(), rows.width + border.left + border.right),
+            rows.height + border.top + border.bottom));
+        popup.pack();
+        if (!popup.isVisible()) {
+            popup.show(this, 0, getHeight());
+        }
+    }
+
+    private void move(int step) {
+        int index = Math.max(0, Math.min(suggestions.size() - 1, list.getSelectedIndex() + step));
+        list.setSelectedIndex(index);
+        list.ensureIndexIsVisible(index);
+    }
+
+    private void pick(int index) {
+        if (index < 0 || index >= suggestions.size()) {
+            return;
+        }
+        picking = true;
+        try {
+            setText(value.apply(suggestions.get(index)));
+        } finally {
+            picking = false;
+        }
+        popup.setVisible(false);
+    }
+}
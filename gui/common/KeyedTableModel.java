@@ -0,0 +1,187 @@
+package gui.common;
+
+import datalayer.dao.ChangeSet;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Table model for a whole list that refreshes from {@link ChangeSet}s.
+ *
+ * Rows are matched by id. Applying a change set inserts, updates and
+ * removes only the rows that differ, each with its own table event, so the
+ * table keeps its selection and scroll position. The watermark of the last
+ * change set is kept for asking what changed next.
+ *
+ * Use on the EDT only.
+ */
+public class KeyedTableModel<T> extends AbstractTableModel {
+
+    private final String[] columnNames;
+    private final Function<T, Integer> idOf;
+    private final Function<T, Object[]> toRow;
+    private final Comparator<T> order;
+
+    private final List<T> items = new ArrayList<>();
+    private final List<Object[]> rows = new ArrayList<>();
+    private final Map<Integer, Integer> rowById = new HashMap<>();
+    private LocalDateTime watermark;
+
+    /**
+     * @param columnNames Column headers
+     * @param idOf An item's id
+     * @param toRow Turns an item into its cell values, one per column
+     * @param order Where new rows go, or null to add them at the end. Changed rows stay put
+     */
+    public KeyedTableModel(String[] columnNames, Function<T, Integer> idOf,
+                           Function<T, Object[]> toRow, Comparator<T> order) {
+        this.columnNames = columnNames.clone();
+        this.idOf = idOf;
+        this.toRow = toRow;
+        this.order = order;
+    }
+
+    /**
+     * @return The watermark to load changes since, or null before the first load
+     */
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Apply inserts, updates and removals, firing an event for each row that changed.
+     */
+    public void apply(ChangeSet<T> changes) {
+        if (changes.isFull() && items.isEmpty()) {
+            // First load: one event for the lot
+            for (T item : changes.getChanged()) {
+                items.add(item);
+                rows.add(toRow.apply(item));
+            }
+            reindex();
+            watermark = changes.getWatermark();
+            fireTableDataChanged();
+            return;
+        }
+
+        Set<Integer> liveIds = changes.getLiveIds();
+        if (changes.isFull()) {
+            liveIds = new HashSet<>();
+            for (T item : changes.getChanged()) {
+                liveIds.add(idOf.apply(item));
+            }
+        }
+
+        if (liveIds != null) {
+            // Back to front so the rows still to check keep their indexes
+            boolean removed = false;
+            for (int row = items.size() - 1; row >= 0; row--) {
+                if (!liveIds.contains(idOf.apply(items.get(row)))) {
+                    items.remove(row);
+                    rows.remove(row);
+                    fireTableRowsDeleted(row, row);
+                    removed = true;
+                }
+            }
+            if (removed) {
+                reindex();
+            }
+        }
+
+        for (T item : changes.getChanged()) {
+            Integer id = idOf.apply(item);
+            Object[] values = toRow.apply(item);
+            Integer row = rowById.get(id);
+            if (row != null) {
+                items.set(row, item);
+                // Rows inside the watermark margin come round twice; only repaint real changes
+                if (!Arrays.equals(rows.get(row), values)) {
+                    rows.set(row, values);
+                    fireTableRowsUpdated(row, row);
+                }
+            } else {
+                int at = insertionPoint(item);
+                items.add(at, item);
+                rows.add(at, values);
+                if (at == items.size() - 1) {
+                    rowById.put(id, at);
+                } else {
+                    reindex();
+                }
+                fireTableRowsInserted(at, at);
+            }
+        }
+
+        watermark = changes.getWatermark();
+    }
+
+    /**
+     * Forget everything, so the next load is a full one.
+     */
+    public void clear() {
+        int size = items.size();
+        items.clear();
+        rows.clear();
+        rowById.clear();
+        watermark = null;
+        if (size > 0) {
+            fireTableRowsDeleted(0, size - 1);
+        }
+    }
+
+    public T getItem(int row) {
+        return items.get(row);
+    }
+
+    private int insertionPoint(T item) {
+        if (order == null) {
+            return items.size();
+        }
+        int at = items.size();
+        while (at > 0 && order.compare(items.get(at - 1), item) > 0) {
+            at--;
+        }
+        return at;
+    }
+
+    private void reindex() {
+        rowById.clear();
+        for (int row = 0; row < items.size(); row++) {
+            rowById.put(idOf.apply(items.get(row)), row);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return items.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return rows.get(row)[column];
+    }
+}
@@ -0,0 +1,53 @@
+package gui.common;
+
+import java.sql.SQLException;
+
+/**
+ * A shared instance, built the first time it is asked for.
+ *
+ * Safe to use from any thread: the factory runs once, and threads asking
+ * while it runs wait for its result. A factory that ends up asking for its
+ * own instance again fails instead of recursing.
+ */
+final class Lazy<T> {
+
+    interface Factory<T> {
+        T create() throws SQLException;
+    }
+
+    private final String name;
+    private final Factory<T> factory;
+    private volatile T value;
+    private boolean creating;
+
+    Lazy(String name, Factory<T> factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    /**
+     * @throws IllegalStateException if the instance could not be built
+     */
+    T get() {
+        T result = value;
+        if (result != null) {
+            return result;
+        }
+        synchronized (this) {
+            if (value == null) {
+                if (creating) {
+                    throw new IllegalStateException("Circular dependency while creating " + name + ".");
+                }
+                creating = true;
+                try {
+                    value = factory.create();
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to create " + name + ": " + e.getMessage(), e);
+                } finally {
+                    creating = false;
+                }
+            }
+            return value;
+        }
+    }
+}
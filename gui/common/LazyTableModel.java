@@ -0,0 +1,487 @@
+package gui.common;
+
+import datalayer.dao.ChangeSet;
+import datalayer.dao.KeyedPage;
+import datalayer.dao.PageKey;
+import datalayer.dao.PageQuery;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableColumn;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Table model that loads rows a page at a time, as the table asks for them.
+ *
+ * Only the row count is loaded up front. A row the table paints before its
+ * page has arrived shows as loading, and its page is fetched in the
+ * background through the view's {@link AsyncTasks}. A page that follows a
+ * loaded one is read from that page's last key, so scrolling down costs
+ * the same however far the user has gone; only a jump to a page with
+ * nothing loaded before it counts an offset. At most
+ * {@link #MAX_PAGES} pages are kept; the ones furthest from where the user
+ * is looking are dropped first, so memory stays the same however long the
+ * table is. Sorting and filtering are done by the database: changing
+ * either reloads the count and starts again from an empty cache.
+ * {@link #refreshChanges()} instead keeps the cache, selection and scroll
+ * position, and reads only as much as changed.
+ *
+ * Use on the EDT only.
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+
+    public static final int PAGE_SIZE = 100;
+    public static final int MAX_PAGES = 10;
+
+    private static final String LOADING = "Loading...";
+
+    /**
+     * Where rows come from; called on the background thread.
+     */
+    public interface RowSource<T> {
+        int count(PageQuery query) throws SQLException;
+
+        /**
+         * @param after Key of the row before the page, or null to count the offset from the first row
+         * @param offset Rows to skip after that; 0 when reading on from a loaded page
+         */
+        KeyedPage<T> fetch(PageQuery query, PageKey after, int offset, int limit) throws SQLException;
+
+        /**
+         * Rows matching the query written since a watermark, or null if the source
+         * doesn't track changes.
+         * @param since Watermark of the last read, or null to only read a new one
+         */
+        default ChangeSet<T> changes(PageQuery query, LocalDateTime since, int limit) throws SQLException {
+            return null;
+        }
+    }
+
+    private final AsyncTasks tasks;
+    private final String name;
+    private final String[] columnNames;
+    private final String[] sortFields;
+    private final RowSource<T> source;
+    private final Function<T, Object[]> toRow;
+
+    private PageQuery query = PageQuery.ALL;
+    private int sortColumn = -1;
+    private int rowCount;
+    // Database time of the last load, or null if the source doesn't track changes
+    private LocalDateTime watermark;
+    // Bumped whenever the cache is reset, so late pages of an old query are dropped
+    private int generation;
+    private final Map<Integer, Page<T>> pages = new HashMap<>();
+    private final Map<Integer, AsyncTasks.Task<?>> pendingPages = new HashMap<>();
+    // Set after a page fails, so painting doesn't retry (and report) it endlessly
+    private boolean pageLoadFailed;
+
+    /**
+     * @param tasks The owning view's task runner
+     * @param name What the rows are, for task keys and error messages (e.g. "flights")
+     * @param columnNames Column headers
+     * @param sortFields Per column, the {@link PageQuery} sort field, or null if the column can't be sorted
+     * @param source Loads counts and pages
+     * @param toRow Turns an item into its cell values, one per column
+     */
+    public LazyTableModel(AsyncTasks tasks, String name, String[] columnNames, String[] sortFields,
+                          RowSource<T> source, Function<T, Object[]> toRow) {
+        if (sortFields.length != columnNames.length) {
+            throw new IllegalArgumentException("Need one sort field (or null) per column.");
+        }
+        this.tasks = tasks;
+        this.name = name;
+        this.columnNames = columnNames.clone();
+        this.sortFields = sortFields.clone();
+        this.source = source;
+        this.toRow = toRow;
+    }
+
+    // ========================================================================
+    // QUERY
+    // ========================================================================
+
+    /**
+     * Reload the row count and the first page, keeping the sort and filter.
+     */
+    public void refresh() {
+        refresh(null);
+    }
+
+    /**
+     * @param loadingMessage Indicator text while counting, or null for none
+     */
+    public void refresh(String loadingMessage) {
+        PageQuery current = query;
+        tasks.load(name + "-count", loadingMessage, "loading " + name,
+            progress -> {
+                // Watermark first, so rows written while the page loads are seen next time
+                ChangeSet<T> mark = source.changes(current, null, 1);
+                int count = source.count(current);
+                KeyedPage<T> first = count > 0 ? source.fetch(current, null, 0, PAGE_SIZE)
+                                               : new KeyedPage<>(List.of(), null);
+                Map<Integer, Page<T>> firstPage = new HashMap<>();
+                firstPage.put(0, toPage(first));
+                return new Reload<>(mark != null ? mark.getWatermark() : null, count, firstPage);
+            },
+            result -> {
+                if (current != query) {
+                    return; // The query changed meanwhile; its own refresh is on the way
+                }
+                reset();
+                watermark = result.watermark;
+                rowCount = result.count;
+                pages.putAll(result.pages);
+                fireTableDataChanged();
+            });
+    }
+
+    /**
+     * Bring the table up to date without starting over, keeping selection and
+     * scroll position. If no row matching the query was written since the last
+     * load and the count is unchanged, that is all that is read. Otherwise the
+     * cached pages are reloaded, the count change is reported as rows added or
+     * removed at the end, and only rows that now show something different are
+     * repainted. Sources that don't track changes get a full {@link #refresh()}.
+     */
+    public void refreshChanges() {
+        if (watermark == null) {
+            refresh();
+            return;
+        }
+
+        PageQuery current = query;
+        LocalDateTime since = watermark;
+        int knownCount = rowCount;
+        int requestGeneration = generation;
+        Set<Integer> cached = new TreeSet<>(pages.keySet());
+        tasks.load(name + "-count", null, "loading " + name,
+            progress -> {
+                // Only whether anything changed matters; the pages show where it went
+                ChangeSet<T> changes = source.changes(current, since, 1);
+                int count = source.count(current);
+                if (changes.isEmpty() && count == knownCount) {
+                    return new Reload<T>(changes.getWatermark(), count, null);
+                }
+                // In page order, so a run of cached pages reads on from the page before
+                Map<Integer, Page<T>> reloaded = new HashMap<>();
+                for (int pageIndex : cached) {
+                    if (pageIndex * PAGE_SIZE < count) {
+                        reloaded.put(pageIndex, fetchPage(current, pageIndex, reloaded.get(pageIndex - 1)));
+                    }
+                }
+                return new Reload<>(changes.getWatermark(), count, reloaded);
+            },
+            result -> {
+                if (current == query && requestGeneration == generation) {
+                    applyReload(result);
+                }
+            });
+    }
+
+    /**
+     * Show only rows whose field matches the value. A null or blank value shows everything.
+     */
+    public void setFilter(String field, String value) {
+        query = query.filteredBy(field, value);
+        refresh();
+    }
+
+    public PageQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Replace the whole query, for callers that narrow it in ways setFilter can't,
+     * such as to the ids a search found.
+     */
+    public void setQuery(PageQuery query) {
+        this.query = query;
+        refresh();
+    }
+
+    /**
+     * Sort by a column; asking for the current column again flips the direction.
+     * Columns without a sort field are ignored.
+     */
+    public void sortBy(int column) {
+        if (column < 0 || column >= sortFields.length || sortFields[column] == null) {
+            return;
+        }
+        boolean ascending = column != sortColumn || !query.isAscending();
+        sortColumn = column;
+        query = query.sortedBy(sortFields[column], ascending);
+        refresh();
+    }
+
+    /**
+     * Sort when the user clicks a column header, and mark the sorted column.
+     */
+    public void installHeaderSorting(JTable table) {
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = header.columnAtPoint(e.getPoint());
+                if (viewColumn < 0) {
+                    return;
+                }
+                sortBy(table.convertColumnIndexToModel(viewColumn));
+                for (int i = 0; i < table.getColumnCount(); i++) {
+                    TableColumn tableColumn = table.getColumnModel().getColumn(i);
+                    int modelColumn = tableColumn.getModelIndex();
+                    String arrow = modelColumn != sortColumn ? "" : query.isAscending() ? " ▲" : " ▼";
+                    tableColumn.setHeaderValue(columnNames[modelColumn] + arrow);
+                }
+                header.repaint();
+            }
+        });
+    }
+
+    private void reset() {
+        cancelPendingPages();
+        pages.clear();
+    }
+
+    private void cancelPendingPages() {
+        generation++;
+        for (AsyncTasks.Task<?> task : pendingPages.values()) {
+            task.cancel();
+        }
+        pendingPages.clear();
+        pageLoadFailed = false;
+    }
+
+    private void applyReload(Reload<T> result) {
+        watermark = result.watermark;
+        if (result.pages == null) {
+            return; // Nothing changed
+        }
+
+        // Pages still on the way, or that arrived meanwhile, may predate the change
+        cancelPendingPages();
+        Map<Integer, Page<T>> old = new HashMap<>(pages);
+        pages.clear();
+        pages.putAll(result.pages);
+
+        int oldCount = rowCount;
+        rowCount = result.count;
+        if (rowCount > oldCount) {
+            fireTableRowsInserted(oldCount, rowCount - 1);
+        } else if (rowCount < oldCount) {
+            fireTableRowsDeleted(rowCount, oldCount - 1);
+        }
+
+        Set<Integer> touched = new HashSet<>(old.keySet());
+        touched.addAll(pages.keySet());
+        for (int pageIndex : touched) {
+            firePageDifferences(pageIndex, old.get(pageIndex), pages.get(pageIndex));
+        }
+    }
+
+    /**
+     * Repaint the rows of a page that show something different, one event per run of rows.
+     * A missing page counts as rows still loading.
+     */
+    private void firePageDifferences(int pageIndex, Page<T> before, Page<T> after) {
+        int first = pageIndex * PAGE_SIZE;
+        int end = Math.min(first + PAGE_SIZE, rowCount);
+        int runStart = -1;
+        for (int row = first; row < end; row++) {
+            int index = row - first;
+            Object[] was = before != null && index < before.rows.length ? before.rows[index] : null;
+            Object[] now = after != null && index < after.rows.length ? after.rows[index] : null;
+            boolean differs = was == null || now == null || !Arrays.equals(was, now);
+            if (differs && runStart < 0) {
+                runStart = row;
+            } else if (!differs && runStart >= 0) {
+                fireTableRowsUpdated(runStart, row - 1);
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            fireTableRowsUpdated(runStart, end - 1);
+        }
+    }
+
+    // ========================================================================
+    // ROWS
+    // ========================================================================
+
+    /**
+     * @return The item shown in a row, or null if its page is not loaded
+     */
+    public T getItem(int row) {
+        Page<T> page = pages.get(row / PAGE_SIZE);
+        int index = row % PAGE_SIZE;
+        return page != null && index < page.items.size() ? page.items.get(index) : null;
+    }
+
+    /**
+     * Rows currently held in memory, for diagnostics.
+     */
+    public int getCachedRowCount() {
+        int cached = 0;
+        for (Page<T> page : pages.values()) {
+            cached += page.items.size();
+        }
+        return cached;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / PAGE_SIZE;
+        Page<T> page = pages.get(pageIndex);
+        if (page == null) {
+            if (!pageLoadFailed) {
+                requestPage(pageIndex);
+            }
+            return column == 0 ? LOADING : null;
+        }
+        int index = row % PAGE_SIZE;
+        // Rows past the end of a short page were removed since the count was taken
+        return index < page.rows.length ? page.rows[index][column] : null;
+    }
+
+    private void requestPage(int pageIndex) {
+        AsyncTasks.Task<?> pending = pendingPages.get(pageIndex);
+        if (pending != null && !pending.isDone()) {
+            return;
+        }
+
+        // The user has scrolled on: skip queued pages that would be evicted on arrival
+        Iterator<Map.Entry<Integer, AsyncTasks.Task<?>>> it = pendingPages.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, AsyncTasks.Task<?>> entry = it.next();
+            if (Math.abs(entry.getKey() - pageIndex) >= MAX_PAGES / 2) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+
+        int requestGeneration = generation;
+        PageQuery current = query;
+        Page<T> previous = pages.get(pageIndex - 1);
+        AsyncTasks.Task<Page<T>> task = tasks.load(name + "-page-" + pageIndex, null, "loading " + name,
+            progress -> fetchPage(current, pageIndex, previous),
+            page -> pageLoaded(requestGeneration, pageIndex, page),
+            e -> {
+                if (requestGeneration == generation && !pageLoadFailed) {
+                    // Refresh tries again
+                    pageLoadFailed = true;
+                    tasks.showError("loading " + name, e);
+                }
+            });
+        pendingPages.put(pageIndex, task);
+    }
+
+    private void pageLoaded(int requestGeneration, int pageIndex, Page<T> page) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        pendingPages.remove(pageIndex);
+        pages.put(pageIndex, page);
+        evictFarthestFrom(pageIndex);
+
+        int first = pageIndex * PAGE_SIZE;
+        int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+        if (first <= last) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private void evictFarthestFrom(int pageIndex) {
+        while (pages.size() > MAX_PAGES) {
+            int farthest = pageIndex;
+            for (int cached : pages.keySet()) {
+                if (Math.abs(cached - pageIndex) > Math.abs(farthest - pageIndex)) {
+                    farthest = cached;
+                }
+            }
+            pages.remove(farthest);
+        }
+    }
+
+    /**
+     * Read a page, seeking from the end of the page before it when that one is loaded and full.
+     * @param previous The page before, or null if not loaded
+     */
+    private Page<T> fetchPage(PageQuery query, int pageIndex, Page<T> previous) throws SQLException {
+        if (previous != null && previous.lastKey != null && previous.items.size() == PAGE_SIZE) {
+            return toPage(source.fetch(query, previous.lastKey, 0, PAGE_SIZE));
+        }
+        return toPage(source.fetch(query, null, pageIndex * PAGE_SIZE, PAGE_SIZE));
+    }
+
+    private Page<T> toPage(KeyedPage<T> loaded) {
+        return new Page<>(loaded.getItems(), toRows(loaded.getItems()), loaded.getLastKey());
+    }
+
+    private Object[][] toRows(List<T> items) {
+        Object[][] rows = new Object[items.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = toRow.apply(items.get(i));
+        }
+        return rows;
+    }
+
+    private static final class Page<T> {
+        private final List<T> items;
+        private final Object[][] rows;
+        // Key of the last row, where the next page starts
+        private final PageKey lastKey;
+
+        private Page(List<T> items, Object[][] rows, PageKey lastKey) {
+            this.items = new ArrayList<>(items);
+            this.rows = rows;
+            this.lastKey = lastKey;
+        }
+    }
+
+    private static final class Reload<T> {
+        private final LocalDateTime watermark;
+        private final int count;
+        // Null when nothing changed
+        private final Map<Integer, Page<T>> pages;
+
+        private Reload(LocalDateTime watermark, int count, Map<Integer, Page<T>> pages) {
+            this.watermark = watermark;
+            this.count = count;
+            this.pages = pages;
+        }
+    }
+}
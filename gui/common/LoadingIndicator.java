@@ -2,6 +2,7 @@ package gui.common;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionListener;
 
 /**
  * Loading indicator for database operations.
@@ -11,6 +12,7 @@ public class LoadingIndicator extends JDialog {
     
     private JProgressBar progressBar;
     private JLabel messageLabel;
+    private JButton cancelButton;
     private boolean indeterminate;
     
     /**
@@ -60,6 +62,14 @@ public class LoadingIndicator extends JDialog {
         progressBar.setPreferredSize(new Dimension(300, 25));
         panel.add(progressBar, BorderLayout.CENTER);
         
+        // Cancel button, shown once a cancel action is set
+        cancelButton = new JButton("Cancel");
+        cancelButton.setVisible(false);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(cancelButton);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        
         setContentPane(panel);
         pack();
         setLocationRelativeTo(getParent());
@@ -103,6 +113,36 @@ public class LoadingIndicator extends JDialog {
         });
     }
     
+    /**
+     * Switch between spinning indicator and progress bar.
+     * @param indeterminate True for spinning indicator
+     */
+    public void setIndeterminate(boolean indeterminate) {
+        SwingUtilities.invokeLater(() -> {
+            this.indeterminate = indeterminate;
+            progressBar.setIndeterminate(indeterminate);
+        });
+    }
+    
+    /**
+     * Show a Cancel button that runs the given action.
+     * @param onCancel Action to run when the user cancels
+     */
+    public void setCancelAction(Runnable onCancel) {
+        SwingUtilities.invokeLater(() -> {
+            for (ActionListener listener : cancelButton.getActionListeners()) {
+                cancelButton.removeActionListener(listener);
+            }
+            cancelButton.addActionListener(e -> {
+                cancelButton.setEnabled(false);
+                messageLabel.setText("Cancelling...");
+                onCancel.run();
+            });
+            cancelButton.setVisible(true);
+            pack();
+        });
+    }
+    
     /**
      * Set maximum progress value (only works if not indeterminate).
      * @param max Maximum value
@@ -126,8 +166,8 @@ public class LoadingIndicator extends JDialog {
     public static LoadingIndicator show(JFrame parent, String message) {
         LoadingIndicator indicator = new LoadingIndicator(parent, message);
         
-        // Show in separate thread to not block
-        new Thread(() -> indicator.showLoading()).start();
+        // showLoading() already defers to the EDT, so this returns at once
+        indicator.showLoading();
         
         return indicator;
     }
@@ -0,0 +1,58 @@
+package gui.common;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.function.Consumer;
+
+/**
+ * Text field that searches as the user types.
+ *
+ * The search runs once typing pauses, not on every keystroke, so a fast
+ * typist starts one lookup instead of one per letter. Enter searches at once.
+ */
+public class SearchField extends JTextField {
+
+    private static final int DEBOUNCE_MILLIS = 200;
+
+    private final Timer debounce;
+    private String lastSearched = "";
+
+    /**
+     * @param onSearch Called on the EDT with the trimmed text; blank means show everything
+     */
+    public SearchField(int columns, Consumer<String> onSearch) {
+        super(columns);
+        debounce = new Timer(DEBOUNCE_MILLIS, e -> {
+            String text = getText().trim();
+            // Typing that ends where it started (a letter and its backspace) needs no search
+            if (!text.equals(lastSearched)) {
+                lastSearched = text;
+                onSearch.accept(text);
+            }
+        });
+        debounce.setRepeats(false);
+
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+        });
+        addActionListener(e -> {
+            debounce.stop();
+            lastSearched = getText().trim();
+            onSearch.accept(lastSearched);
+        });
+    }
+}
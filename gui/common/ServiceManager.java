@@ -1,71 +1,378 @@
 package gui.common;
 
+import businesslogic.services.AirportDirectory;
 import businesslogic.services.CustomerService;
+import businesslogic.services.EventBus;
+import businesslogic.services.EventOutbox;
+import businesslogic.services.FlightDisruptionNotifier;
+import businesslogic.services.FlightSearchCache;
 import businesslogic.services.FlightService;
+import businesslogic.services.FlightStatusEngine;
+import businesslogic.services.JobScheduler;
+import businesslogic.services.NotificationOutbox;
 import businesslogic.services.ReservationService;
 import businesslogic.services.PaymentService;
 import businesslogic.services.AdminService;
 import businesslogic.services.PromotionService;
+import businesslogic.services.ReservationExpiryService;
+import businesslogic.services.SearchService;
+import businesslogic.services.SeatChangeFeed;
+import businesslogic.services.SeatMapCache;
+import businesslogic.services.WaitlistService;
 import datalayer.dao.*;
 import datalayer.impl.*;
 
+import datalayer.database.DatabaseConnection;
+import datalayer.database.SchemaMigrations;
+
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Initializes and provides access to all service classes.
+ * Builds and provides access to all service classes.
  * GUI layer only interacts with services, never DAOs directly.
+ *
+ * Every DAO and service is built once, on first use, and shared: all
+ * services get the same DAO instances. Construction touches no database,
+ * so the first frame can show at once; {@link #start()} then connects,
+ * builds the rest, starts background work and warms caches in parallel.
  */
 public class ServiceManager {
     
-    private CustomerService customerService;
-    private FlightService flightService;
-    private ReservationService reservationService;
-    private PaymentService paymentService;
-    private AdminService adminService;
-    private PromotionService promotionService;
-    
-    public ServiceManager() throws SQLException {
-        UserDAO userDAO = new UserDAOImpl();
-        ReservationDAO reservationDAO = new ReservationDAOImpl();
-        FlightDAO flightDAO = new FlightDAOImpl();
-        SeatDAO seatDAO = new SeatDAOImpl();
-        PaymentDAO paymentDAO = new PaymentDAOImpl();
-        AircraftDAO aircraftDAO = new AircraftDAOImpl();
-        AirlineDAO airlineDAO = new AirlineDAOImpl();
-        AirportDAO airportDAO = new AirportDAOImpl();
-        RouteDAO routeDAO = new RouteDAOImpl();
-        PromotionDAO promotionDAO = new PromotionDAOImpl();
+    private static final int STARTUP_THREADS = 3;
+    
+    // ========================================================================
+    // DAOs
+    // ========================================================================
+    
+    private final Lazy<UserDAO> userDAO;
+    private final Lazy<SeatDAO> seatDAO;
+    private final Lazy<PaymentDAO> paymentDAO;
+    private final Lazy<AircraftDAO> aircraftDAO;
+    private final Lazy<AirlineDAO> airlineDAO;
+    private final Lazy<AirportDAO> airportDAO;
+    private final Lazy<RouteDAO> routeDAO;
+    private final Lazy<FlightDAO> flightDAO;
+    private final Lazy<ReservationDAO> reservationDAO;
+    private final Lazy<PromotionDAO> promotionDAO;
+    private final Lazy<WaitlistDAO> waitlistDAO;
+    
+    // ========================================================================
+    // SERVICES
+    // ========================================================================
+    
+    // Every service, in the order start() builds them
+    private final List<Lazy<?>> services = new ArrayList<>();
+    private final Lazy<EventBus> eventBus;
+    private final Lazy<EventOutbox> eventOutbox;
+    private final Lazy<NotificationOutbox> notificationOutbox;
+    private final Lazy<FlightDisruptionNotifier> disruptionNotifier;
+    private final Lazy<FlightStatusEngine> flightStatusEngine;
+    private final Lazy<WaitlistService> waitlistService;
+    private final Lazy<AirportDirectory> airportDirectory;
+    private final Lazy<FlightSearchCache> flightSearchCache;
+    private final Lazy<SeatMapCache> seatMapCache;
+    private final Lazy<FlightService> flightService;
+    private final Lazy<ReservationService> reservationService;
+    private final Lazy<CustomerService> customerService;
+    private final Lazy<PaymentService> paymentService;
+    private final Lazy<AdminService> adminService;
+    private final Lazy<PromotionService> promotionService;
+    private final Lazy<ReservationExpiryService> reservationExpiryService;
+    private final Lazy<SeatChangeFeed> seatChangeFeed;
+    private final Lazy<SearchService> searchService;
+    private final Lazy<JobScheduler> jobScheduler;
+    
+    private CompletableFuture<Void> started;
+    
+    public ServiceManager() {
+        userDAO = new Lazy<>("UserDAO", UserDAOImpl::new);
+        seatDAO = new Lazy<>("SeatDAO", SeatDAOImpl::new);
+        paymentDAO = new Lazy<>("PaymentDAO", PaymentDAOImpl::new);
+        aircraftDAO = new Lazy<>("AircraftDAO", AircraftDAOImpl::new);
+        airlineDAO = new Lazy<>("AirlineDAO", AirlineDAOImpl::new);
+        airportDAO = new Lazy<>("AirportDAO", AirportDAOImpl::new);
+        routeDAO = new Lazy<>("RouteDAO", () -> new RouteDAOImpl(airportDAO.get()));
+        flightDAO = new Lazy<>("FlightDAO",
+            () -> new FlightDAOImpl(aircraftDAO.get(), routeDAO.get(), seatDAO.get()));
+        reservationDAO = new Lazy<>("ReservationDAO",
+            () -> new ReservationDAOImpl(userDAO.get(), flightDAO.get(), paymentDAO.get(), seatDAO.get()));
+        promotionDAO = new Lazy<>("PromotionDAO", PromotionDAOImpl::new);
+        waitlistDAO = new Lazy<>("WaitlistDAO", WaitlistDAOImpl::new);
+        
+        eventBus = service("EventBus", EventBus::new);
+        eventOutbox = service("EventOutbox", () -> new EventOutbox(eventBus.get()));
+        notificationOutbox = service("NotificationOutbox", NotificationOutbox::new);
+        disruptionNotifier = service("FlightDisruptionNotifier",
+            () -> new FlightDisruptionNotifier(notificationOutbox.get()));
+        flightStatusEngine = service("FlightStatusEngine", () -> {
+            FlightStatusEngine engine = new FlightStatusEngine();
+            engine.setEventOutbox(eventOutbox.get());
+            return engine;
+        });
+        waitlistService = service("WaitlistService", () -> {
+            WaitlistService service = new WaitlistService(waitlistDAO.get());
+            service.setNotificationOutbox(notificationOutbox.get());
+            service.setEventOutbox(eventOutbox.get());
+            return service;
+        });
+        airportDirectory = service("AirportDirectory", () -> new AirportDirectory(airportDAO.get()));
+        flightSearchCache = service("FlightSearchCache", () -> new FlightSearchCache(eventBus.get()));
+        seatMapCache = service("SeatMapCache", () -> new SeatMapCache(eventBus.get()));
+        
+        flightService = service("FlightService", () -> {
+            FlightService service = new FlightService(flightDAO.get(), airportDAO.get());
+            service.setStatusEngine(flightStatusEngine.get());
+            service.setDisruptionNotifier(disruptionNotifier.get());
+            service.setEventOutbox(eventOutbox.get());
+            service.setAirportDirectory(airportDirectory.get());
+            service.setSearchCache(flightSearchCache.get());
+            return service;
+        });
+        reservationService = service("ReservationService", () -> {
+            ReservationService service = new ReservationService(reservationDAO.get(), seatDAO.get(), flightService.get());
+            service.setWaitlistService(waitlistService.get());
+            service.setEventOutbox(eventOutbox.get());
+            service.setSeatMapCache(seatMapCache.get());
+            return service;
+        });
+        searchService = service("SearchService",
+            () -> new SearchService(userDAO.get(), reservationDAO.get(), eventBus.get()));
+        customerService = service("CustomerService", () -> {
+            CustomerService service = new CustomerService(userDAO.get(), reservationDAO.get());
+            service.setSearchService(searchService.get());
+            return service;
+        });
+        paymentService = service("PaymentService", () -> {
+            PaymentService service = new PaymentService(paymentDAO.get());
+            service.setEventOutbox(eventOutbox.get());
+            return service;
+        });
+        adminService = service("AdminService", () -> {
+            AdminService service = new AdminService(flightDAO.get(), aircraftDAO.get(), airlineDAO.get(),
+                airportDAO.get(), routeDAO.get(), userDAO.get(), seatDAO.get(), reservationDAO.get(), paymentDAO.get());
+            service.setStatusEngine(flightStatusEngine.get());
+            service.setDisruptionNotifier(disruptionNotifier.get());
+            service.setEventOutbox(eventOutbox.get());
+            service.setSearchService(searchService.get());
+            service.setAirportDirectory(airportDirectory.get());
+            return service;
+        });
+        promotionService = service("PromotionService",
+            () -> new PromotionService(promotionDAO.get(), userDAO.get()));
+        reservationExpiryService = service("ReservationExpiryService", () -> {
+            ReservationExpiryService service = new ReservationExpiryService();
+            service.setWaitlistService(waitlistService.get());
+            service.setEventOutbox(eventOutbox.get());
+            return service;
+        });
+        seatChangeFeed = service("SeatChangeFeed", () -> new SeatChangeFeed(eventBus.get()));
+        
+        jobScheduler = service("JobScheduler", () -> {
+            JobScheduler scheduler = new JobScheduler();
+            reservationExpiryService.get().registerJobs(scheduler);
+            promotionService.get().registerJobs(scheduler);
+            flightStatusEngine.get().registerJobs(scheduler);
+            notificationOutbox.get().registerJobs(scheduler);
+            eventOutbox.get().registerJobs(scheduler);
+            customerService.get().registerJobs(scheduler);
+            return scheduler;
+        });
+    }
+    
+    private <T> Lazy<T> service(String name, Lazy.Factory<T> factory) {
+        Lazy<T> lazy = new Lazy<>(name, factory);
+        services.add(lazy);
+        return lazy;
+    }
+    
+    // ========================================================================
+    // STARTUP
+    // ========================================================================
+    
+    /**
+     * Connect to and migrate the database, build every service, start the background
+     * workers and warm caches, in parallel and off the EDT. Screens can be
+     * used meanwhile; a query made before the connection is up waits for it.
+     * Calling again returns the same startup.
+     * @return Completes once connected with background work running; fails
+     *         if the database can't be reached. Warm-up failures are only logged
+     */
+    public synchronized CompletableFuture<Void> start() {
+        if (started != null) {
+            return started;
+        }
         
-        this.customerService = new CustomerService(userDAO, reservationDAO);
-        this.flightService = new FlightService(flightDAO, airportDAO);
-        this.reservationService = new ReservationService(reservationDAO, seatDAO, flightService);
-        this.paymentService = new PaymentService(paymentDAO);
-        this.adminService = new AdminService(flightDAO, aircraftDAO, airlineDAO, 
-                                           airportDAO, routeDAO, userDAO, seatDAO, reservationDAO, paymentDAO);
-        this.promotionService = new PromotionService(promotionDAO, userDAO);
+        long begin = System.nanoTime();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService startup = Executors.newFixedThreadPool(STARTUP_THREADS, r -> {
+            Thread t = new Thread(r, "startup-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        
+        CompletableFuture<Void> connect = CompletableFuture.runAsync(() -> {
+            DatabaseConnection.getInstance();
+            report("Database connected", begin);
+            migrateSchema();
+            report("Schema up to date", begin);
+        }, startup);
+        CompletableFuture<Void> build = CompletableFuture.runAsync(() -> {
+            for (Lazy<?> service : services) {
+                service.get();
+            }
+            report("Services built", begin);
+        }, startup);
+        // Background workers open their own connections, but need the migrated schema
+        CompletableFuture<Void> run = CompletableFuture.allOf(connect, build)
+            .thenRunAsync(this::startBackgroundWork, startup);
+        // Warm-up reads go through the shared connection, so they queue with the UI's
+        CompletableFuture<Void> warm = CompletableFuture.allOf(connect, build)
+            .thenRunAsync(() -> warmCaches(begin), AsyncTasks.worker());
+        
+        started = CompletableFuture.allOf(connect, run, warm).whenComplete((result, error) -> {
+            startup.shutdown();
+            if (error == null) {
+                report("Startup complete", begin);
+            }
+        });
+        return started;
+    }
+    
+    /**
+     * Add what an older schema.sql left out, on a connection of its own.
+     * Counters added just now start at 0, so they are backfilled before use.
+     */
+    private void migrateSchema() {
+        List<String> added;
+        try (Connection conn = DatabaseConnection.getInstance().openConnection()) {
+            added = SchemaMigrations.apply(conn);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to migrate database schema: " + e.getMessage(), e);
+        }
+        if (added.contains(SchemaMigrations.USERS_BOOKING_COUNT)) {
+            try {
+                customerService.get().refreshBookingCounts();
+            } catch (SQLException e) {
+                // The nightly job retries it
+                System.err.println("Warning: Failed to backfill booking counts: " + e.getMessage());
+            }
+        }
+    }
+    
+    private void startBackgroundWork() {
+        jobScheduler.get().start();
+        flightStatusEngine.get().start();
+        eventOutbox.get().start();
+        seatChangeFeed.get().start();
+    }
+    
+    /**
+     * Load what the first screens after login read, so they don't wait for it.
+     * Runs on the UI data worker, the only thread that uses the shared connection.
+     */
+    private void warmCaches(long begin) {
+        try {
+            promotionService.get().getMonthlyNews();
+            airportDirectory.get().getIndex();
+            report("Caches warmed", begin);
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Warning: Failed to warm caches: " + e.getMessage());
+        }
+    }
+    
+    private static void report(String step, long begin) {
+        System.out.println("[ServiceManager] " + step + " after " +
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin) + " ms");
     }
     
     public CustomerService getCustomerService() {
-        return customerService;
+        return customerService.get();
     }
     
     public FlightService getFlightService() {
-        return flightService;
+        return flightService.get();
     }
     
     public ReservationService getReservationService() {
-        return reservationService;
+        return reservationService.get();
     }
     
     public PaymentService getPaymentService() {
-        return paymentService;
+        return paymentService.get();
     }
     
     public AdminService getAdminService() {
-        return adminService;
+        return adminService.get();
     }
     
     public PromotionService getPromotionService() {
-        return promotionService;
+        return promotionService.get();
+    }
+    
+    public ReservationExpiryService getReservationExpiryService() {
+        return reservationExpiryService.get();
+    }
+    
+    public WaitlistService getWaitlistService() {
+        return waitlistService.get();
+    }
+    
+    public FlightStatusEngine getFlightStatusEngine() {
+        return flightStatusEngine.get();
+    }
+    
+    public NotificationOutbox getNotificationOutbox() {
+        return notificationOutbox.get();
+    }
+    
+    /**
+     * Subscribe here to react to reservation, payment and flight changes.
+     */
+    public EventBus getEventBus() {
+        return eventBus.get();
+    }
+    
+    public EventOutbox getEventOutbox() {
+        return eventOutbox.get();
+    }
+    
+    /**
+     * Live seat availability for open seat maps.
+     */
+    public SeatChangeFeed getSeatChangeFeed() {
+        return seatChangeFeed.get();
+    }
+    
+    /**
+     * Prefix search over customers and reservation ids, for agent screens.
+     */
+    public SearchService getSearchService() {
+        return searchService.get();
+    }
+    
+    /**
+     * Flight search results shared between identical searches; its stats show the hit ratio.
+     */
+    public FlightSearchCache getFlightSearchCache() {
+        return flightSearchCache.get();
+    }
+    
+    /**
+     * Seat maps prefetched from flight results; its stats show how often opening one hit it.
+     */
+    public SeatMapCache getSeatMapCache() {
+        return seatMapCache.get();
+    }
+    
+    public JobScheduler getJobScheduler() {
+        return jobScheduler.get();
     }
 }
\ No newline at end of file
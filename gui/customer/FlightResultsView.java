@@ -1,17 +1,27 @@
 package gui.customer;
 
+import gui.common.AsyncTasks;
+import gui.common.ErrorDialog;
 import gui.common.ViewManager;
+import businesslogic.entities.Customer;
 import businesslogic.entities.Flight;
+import businesslogic.entities.WaitlistEntry;
+import businesslogic.services.WaitlistService;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
  * Displays flight search results in a table.
- * Each row has a "Book" button that navigates to seat selection.
+ * Each row has a "Book" button that navigates to seat selection; sold-out
+ * flights have a "Waitlist" button instead.
+ * The seat map of the row under the mouse or keyboard focus is loaded
+ * in the background, so it opens without waiting.
  */
 public class FlightResultsView extends JPanel {
     
@@ -19,6 +29,8 @@ public class FlightResultsView extends JPanel {
     private List<Flight> flights;
     private JTable flightTable;
     private DefaultTableModel tableModel;
+    private int prefetchedRow = -1;
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public FlightResultsView(ViewManager viewManager, List<Flight> flights) {
         this.viewManager = viewManager;
@@ -87,8 +99,8 @@ public class FlightResultsView extends JPanel {
                 departure,
                 arrival,
                 String.format("$%.2f", flight.getPrice()),
-                String.valueOf(flight.getAvailableSeats()),
-                "Book"
+                flight.getAvailableSeats() > 0 ? String.valueOf(flight.getAvailableSeats()) : "Sold out",
+                flight.getAvailableSeats() > 0 ? "Book" : "Waitlist"
             });
         }
         
@@ -101,6 +113,18 @@ public class FlightResultsView extends JPanel {
         flightTable.getColumn("Action").setCellRenderer(new ButtonRenderer());
         flightTable.getColumn("Action").setCellEditor(new ButtonEditor(new JCheckBox()));
         
+        flightTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                prefetchSeats(flightTable.getSelectedRow());
+            }
+        });
+        flightTable.addMouseMotionListener(new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                prefetchSeats(flightTable.rowAtPoint(e.getPoint()));
+            }
+        });
+        
         JScrollPane scrollPane = new JScrollPane(flightTable);
         scrollPane.setPreferredSize(new Dimension(800, 400));
         add(scrollPane, BorderLayout.CENTER);
@@ -174,8 +198,70 @@ public class FlightResultsView extends JPanel {
         }
     }
     
+    /**
+     * Start loading the row's seat map; the service limits how often this queries.
+     */
+    private void prefetchSeats(int row) {
+        if (row < 0 || row >= flights.size() || row == prefetchedRow) {
+            return;
+        }
+        prefetchedRow = row;
+        viewManager.getReservationService().prefetchSeatsForFlight(flights.get(row));
+    }
+    
     private void handleBookFlight(Flight flight) {
+        if (flight.getAvailableSeats() <= 0) {
+            handleWaitlist(flight);
+            return;
+        }
+        showSeatSelection(flight);
+    }
+    
+    private void showSeatSelection(Flight flight) {
         viewManager.showView("SEAT_SELECTION", 
             new SeatSelectionView(viewManager, flight, flights));
     }
+    
+    /**
+     * Sold-out flight: book the seats held by an open offer, or join the waitlist.
+     */
+    private void handleWaitlist(Flight flight) {
+        Customer customer = viewManager.getCurrentCustomer();
+        if (customer == null) {
+            ErrorDialog.show(this, "Only customers can join a flight's waitlist.");
+            return;
+        }
+        
+        tasks.perform(null, "checking waitlist offer",
+            progress -> viewManager.getReservationService().getHeldSeatIds(customer, flight).isEmpty(),
+            noOffer -> {
+                if (noOffer) {
+                    joinWaitlist(customer, flight);
+                } else {
+                    showSeatSelection(flight);
+                }
+            });
+    }
+    
+    private void joinWaitlist(Customer customer, Flight flight) {
+        JSpinner seatsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 9, 1));
+        int choice = JOptionPane.showConfirmDialog(this,
+            new Object[]{"Flight " + flight.getFlightNumber() + " is sold out.",
+                "Join the waitlist for how many seats?", seatsSpinner},
+            "Join Waitlist", JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+        int seats = (Integer) seatsSpinner.getValue();
+        
+        WaitlistService waitlistService = viewManager.getServiceManager().getWaitlistService();
+        tasks.perform("Joining waitlist...", "joining the waitlist",
+            progress -> {
+                WaitlistEntry entry = waitlistService.joinWaitlist(customer, flight, seats);
+                return waitlistService.getPosition(entry);
+            },
+            position -> ErrorDialog.showInfo(this, "You are on the waitlist for flight "
+                + flight.getFlightNumber() + (position > 0 ? " (position " + position + ")" : "")
+                + ".\nIf seats open up, they will be held for you and we will email you."));
+    }
 }
@@ -1,31 +1,35 @@
 package gui.customer;
 
+import gui.common.AsyncTasks;
+import gui.common.AutocompleteField;
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
 import businesslogic.entities.Airport;
-import businesslogic.entities.Flight;
+import businesslogic.services.AirportIndex;
 import businesslogic.services.FlightService;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Flight search form for customers.
  * Uses FlightService to search available flights by route and date.
+ * Airports autocomplete by code, city, name or country from an in-memory index.
  */
 public class FlightSearchView extends JPanel {
     
     private ViewManager viewManager;
     private FlightService flightService;
-    private JComboBox<String> originComboBox;
-    private JComboBox<String> destinationComboBox;
+    private AutocompleteField<Airport> originField;
+    private AutocompleteField<Airport> destinationField;
+    private AirportIndex airportIndex = AirportIndex.EMPTY;
     private JTextField dateField;
+    private final AsyncTasks tasks = new AsyncTasks(this);
+    
+    private static final int SUGGESTIONS = 8;
     
     public FlightSearchView(ViewManager viewManager) {
         this.viewManager = viewManager;
@@ -55,9 +59,10 @@ public class FlightSearchView extends JPanel {
         gbc.anchor = GridBagConstraints.WEST;
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.ipadx = 200;
-        originComboBox = new JComboBox<>();
-        originComboBox.setPreferredSize(new Dimension(300, 30));
-        add(originComboBox, gbc);
+        originField = new AutocompleteField<>(25, FlightSearchView::describe, Airport::getAirportCode);
+        originField.setPreferredSize(new Dimension(300, 30));
+        originField.setToolTipText("Airport code, city, name or country");
+        add(originField, gbc);
         
         gbc.gridx = 0;
         gbc.gridy = 2;
@@ -70,9 +75,10 @@ public class FlightSearchView extends JPanel {
         gbc.anchor = GridBagConstraints.WEST;
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.ipadx = 200;
-        destinationComboBox = new JComboBox<>();
-        destinationComboBox.setPreferredSize(new Dimension(300, 30));
-        add(destinationComboBox, gbc);
+        destinationField = new AutocompleteField<>(25, FlightSearchView::describe, Airport::getAirportCode);
+        destinationField.setPreferredSize(new Dimension(300, 30));
+        destinationField.setToolTipText("Airport code, city, name or country");
+        add(destinationField, gbc);
         
         gbc.gridx = 0;
         gbc.gridy = 3;
@@ -115,36 +121,61 @@ public class FlightSearchView extends JPanel {
     }
     
     private void loadAirports() {
-        try {
-            List<Airport> airports = flightService.getAllAirports();
-            List<String> airportCodes = airports.stream()
-                .map(Airport::getAirportCode)
-                .sorted()
-                .collect(Collectors.toList());
-            
-            originComboBox.setModel(new DefaultComboBoxModel<>(
-                airportCodes.toArray(new String[0])
-            ));
-            destinationComboBox.setModel(new DefaultComboBoxModel<>(
-                airportCodes.toArray(new String[0])
-            ));
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Failed to load airports: " + e.getMessage());
+        tasks.load("airports", "loading airports",
+            progress -> flightService.getAirportIndex(),
+            index -> {
+                airportIndex = index;
+                originField.setSuggester(text -> index.suggest(text, SUGGESTIONS));
+                destinationField.setSuggester(text -> index.suggest(text, SUGGESTIONS));
+            });
+    }
+    
+    private static String describe(Airport airport) {
+        StringBuilder text = new StringBuilder(airport.getAirportCode());
+        if (airport.getName() != null) {
+            text.append(" - ").append(airport.getName());
+        }
+        if (airport.getCity() != null) {
+            text.append(", ").append(airport.getCity());
+        }
+        if (airport.getCountry() != null) {
+            text.append(" (").append(airport.getCountry()).append(")");
         }
+        return text.toString();
+    }
+    
+    /**
+     * The airport code for what was typed, resolved locally once the index has loaded.
+     * @return The code, or null if the text names no single airport
+     */
+    private String resolveAirportCode(String text) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        if (airportIndex.size() == 0) {
+            // Not loaded yet: let the search check the code
+            return text.toUpperCase();
+        }
+        Airport airport = airportIndex.resolve(text);
+        return airport != null ? airport.getAirportCode() : null;
     }
     
     private void performSearch() {
-        String originCode = (String) originComboBox.getSelectedItem();
-        String destinationCode = (String) destinationComboBox.getSelectedItem();
+        String originText = originField.getText().trim();
+        String destinationText = destinationField.getText().trim();
+        String originCode = resolveAirportCode(originText);
+        String destinationCode = resolveAirportCode(destinationText);
         String dateStr = dateField.getText().trim();
         
-        if (originCode == null || originCode.isEmpty()) {
-            ErrorDialog.show(this, "Please select an origin airport.");
+        if (originCode == null) {
+            ErrorDialog.show(this, originText.isEmpty() ? "Please select an origin airport."
+                : "No single airport matches \"" + originText + "\". Please pick the origin from the list.");
             return;
         }
         
-        if (destinationCode == null || destinationCode.isEmpty()) {
-            ErrorDialog.show(this, "Please select a destination airport.");
+        if (destinationCode == null) {
+            ErrorDialog.show(this, destinationText.isEmpty() ? "Please select a destination airport."
+                : "No single airport matches \"" + destinationText + "\". Please pick the destination from the list.");
             return;
         }
         
@@ -171,20 +202,17 @@ public class FlightSearchView extends JPanel {
             return;
         }
         
-        try {
-            List<Flight> flights = flightService.searchFlights(originCode, destinationCode, date);
-            
-            if (flights.isEmpty()) {
-                ErrorDialog.show(this, "No flights found for your selected route and date.");
-                return;
-            }
-            
-            viewManager.showView("FLIGHT_RESULTS", 
-                new FlightResultsView(viewManager, flights));
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error searching flights: " + e.getMessage(), e);
-        } catch (IllegalArgumentException e) {
-            ErrorDialog.show(this, e.getMessage());
-        }
+        // A second click replaces the pending search
+        tasks.load("search", "Searching flights...", "searching flights",
+            progress -> flightService.searchFlights(originCode, destinationCode, date),
+            flights -> {
+                if (flights.isEmpty()) {
+                    ErrorDialog.show(this, "No flights found for your selected route and date.");
+                    return;
+                }
+                
+                viewManager.showView("FLIGHT_RESULTS", 
+                    new FlightResultsView(viewManager, flights));
+            });
     }
 }
@@ -1,7 +1,8 @@
 package gui.customer;
 
+import gui.common.AsyncTasks;
+import gui.common.KeyedTableModel;
 import gui.common.ViewManager;
-import gui.common.ErrorDialog;
 import businesslogic.entities.User;
 import businesslogic.entities.Reservation;
 import businesslogic.entities.Flight;
@@ -11,11 +12,9 @@ import businesslogic.entities.Seat;
 import businesslogic.services.ReservationService;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -27,8 +26,11 @@ public class MyReservationsView extends JPanel {
     private ViewManager viewManager;
     private User user;
     private JTable reservationsTable;
-    private DefaultTableModel tableModel;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    
+    private KeyedTableModel<Reservation> tableModel;
     private ReservationService reservationService;
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public MyReservationsView(ViewManager viewManager, User user) {
         this.viewManager = viewManager;
@@ -52,12 +54,9 @@ public class MyReservationsView extends JPanel {
             "Status", "Total Price", "Booking Date", "Seats"
         };
         
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Refresh applies only the rows that changed, so selection and scroll stay put
+        tableModel = new KeyedTableModel<>(columnNames, Reservation::getReservationId,
+            MyReservationsView::toRow, null);
         
         reservationsTable = new JTable(tableModel);
         reservationsTable.setRowHeight(25);
@@ -108,81 +107,66 @@ public class MyReservationsView extends JPanel {
         loadReservations();
     }
     
+    /**
+     * First call loads every reservation; later calls load only those changed since.
+     */
     private void loadReservations() {
-        try {
-            List<Reservation> reservations = reservationService.getUserReservations(user);
-            displayReservations(reservations);
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading reservations: " + e.getMessage(), e);
-        }
+        LocalDateTime since = tableModel.getWatermark();
+        tasks.load("reservations", since == null ? "Loading reservations..." : null, "loading reservations",
+            progress -> reservationService.getUserReservationChanges(user, since),
+            tableModel::apply);
     }
     
-    private void displayReservations(List<Reservation> reservations) {
-        tableModel.setRowCount(0);
-        
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        
-        if (reservations.isEmpty()) {
-            // Show message in center if no reservations
-            JLabel noReservations = new JLabel("You have no reservations yet.");
-            noReservations.setFont(new Font("Arial", Font.PLAIN, 16));
-            noReservations.setHorizontalAlignment(SwingConstants.CENTER);
-            noReservations.setBorder(BorderFactory.createEmptyBorder(50, 20, 20, 20));
-            return;
-        }
+    private static Object[] toRow(Reservation reservation) {
+        Flight flight = reservation.getFlight();
         
-        for (Reservation reservation : reservations) {
-            Flight flight = reservation.getFlight();
-            
-            String flightNumber = flight != null ? flight.getFlightNumber() : "N/A";
-            
-            String route = "N/A";
-            if (flight != null && flight.getRoute() != null) {
-                Route routeObj = flight.getRoute();
-                Airport origin = routeObj.getOrigin();
-                Airport destination = routeObj.getDestination();
-                if (origin != null && destination != null) {
-                    route = origin.getAirportCode() + " → " + destination.getAirportCode();
-                }
-            }
-            
-            String departureTime = "N/A";
-            if (flight != null && flight.getDepartureTime() != null) {
-                departureTime = flight.getDepartureTime().format(dateTimeFormatter);
-            }
-            
-            String arrivalTime = "N/A";
-            if (flight != null && flight.getArrivalTime() != null) {
-                arrivalTime = flight.getArrivalTime().format(dateTimeFormatter);
-            }
-            
-            String status = reservation.getStatus() != null ? 
-                reservation.getStatus().toString() : "N/A";
-            
-            String totalPrice = String.format("$%.2f", reservation.getTotalPrice());
-            
-            String bookingDate = reservation.getBookingDate() != null ? 
-                reservation.getBookingDate().format(dateTimeFormatter) : "N/A";
-            
-            String seats = "N/A";
-            if (reservation.getSeats() != null && !reservation.getSeats().isEmpty()) {
-                seats = reservation.getSeats().stream()
-                    .map(Seat::getSeatNumber)
-                    .collect(Collectors.joining(", "));
+        String flightNumber = flight != null ? flight.getFlightNumber() : "N/A";
+        
+        String route = "N/A";
+        if (flight != null && flight.getRoute() != null) {
+            Route routeObj = flight.getRoute();
+            Airport origin = routeObj.getOrigin();
+            Airport destination = routeObj.getDestination();
+            if (origin != null && destination != null) {
+                route = origin.getAirportCode() + " → " + destination.getAirportCode();
             }
-            
-            tableModel.addRow(new Object[]{
-                reservation.getReservationId(),
-                flightNumber,
-                route,
-                departureTime,
-                arrivalTime,
-                status,
-                totalPrice,
-                bookingDate,
-                seats
-            });
         }
+        
+        String departureTime = "N/A";
+        if (flight != null && flight.getDepartureTime() != null) {
+            departureTime = flight.getDepartureTime().format(DATE_FORMAT);
+        }
+        
+        String arrivalTime = "N/A";
+        if (flight != null && flight.getArrivalTime() != null) {
+            arrivalTime = flight.getArrivalTime().format(DATE_FORMAT);
+        }
+        
+        String status = reservation.getStatus() != null ? 
+            reservation.getStatus().toString() : "N/A";
+        
+        String totalPrice = String.format("$%.2f", reservation.getTotalPrice());
+        
+        String bookingDate = reservation.getBookingDate() != null ? 
+            reservation.getBookingDate().format(DATE_FORMAT) : "N/A";
+        
+        String seats = "N/A";
+        if (reservation.getSeats() != null && !reservation.getSeats().isEmpty()) {
+            seats = reservation.getSeats().stream()
+                .map(Seat::getSeatNumber)
+                .collect(Collectors.joining(", "));
+        }
+        
+        return new Object[]{
+            reservation.getReservationId(),
+            flightNumber,
+            route,
+            departureTime,
+            arrivalTime,
+            status,
+            totalPrice,
+            bookingDate,
+            seats
+        };
     }
 }
-
@@ -3,6 +3,7 @@ package gui.customer;
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
 import gui.common.ConfirmDialog;
+import gui.common.AsyncTasks;
 import businesslogic.entities.Flight;
 import businesslogic.entities.Seat;
 import businesslogic.entities.Payment;
@@ -68,6 +69,7 @@ public class PaymentView extends JPanel {
     // Processing indicator
     private JButton payBtn;
     private JLabel processingLabel;
+    private final AsyncTasks tasks = new AsyncTasks(this);
     
     public PaymentView(ViewManager viewManager, Flight flight, List<Seat> selectedSeats) {
         this.viewManager = viewManager;
@@ -582,117 +584,85 @@ public class PaymentView extends JPanel {
         payBtn.setEnabled(false);
         processingLabel.setVisible(true);
         
-        // Process payment in background thread
-        SwingWorker<Payment, Void> worker = new SwingWorker<Payment, Void>() {
-            private Exception error;
-            
-            @Override
-            protected Payment doInBackground() throws Exception {
-                try {
-                    String selectedMethod = (String) paymentMethodComboBox.getSelectedItem();
-                    Payment payment;
-                    
-                    switch (selectedMethod) {
-                        case "Credit Card":
-                            payment = paymentService.processPayment(
-                                total,
-                                PaymentMethod.CREDIT_CARD,
-                                cardNumberField.getText(),
-                                cardHolderField.getText(),
-                                expiryDateField.getText(),
-                                cvvField.getText()
-                            );
-                            break;
-                            
-                        case "Debit Card":
-                            payment = paymentService.processPayment(
-                                total,
-                                PaymentMethod.DEBIT_CARD,
-                                cardNumberField.getText(),
-                                cardHolderField.getText(),
-                                expiryDateField.getText(),
-                                cvvField.getText()
-                            );
-                            break;
-                            
-                        case "PayPal":
-                            payment = paymentService.processPayPalPayment(
-                                total,
-                                paypalEmailField.getText()
-                            );
-                            break;
-                            
-                        case "Bank Transfer":
-                            payment = paymentService.processBankTransfer(
-                                total,
-                                bankAccountField.getText(),
-                                routingNumberField.getText()
-                            );
-                            break;
-                            
-                        default:
-                            throw new IllegalStateException("Unknown payment method: " + selectedMethod);
-                    }
-                    
-                    return payment;
-                    
-                } catch (Exception e) {
-                    error = e;
-                    return null;
+        // Read the form on the EDT; the payment itself runs in the background
+        String selectedMethod = (String) paymentMethodComboBox.getSelectedItem();
+        double amount = total;
+        String cardNumber = cardNumberField.getText();
+        String cardHolder = cardHolderField.getText();
+        String expiryDate = expiryDateField.getText();
+        String cvv = cvvField.getText();
+        String paypalEmail = paypalEmailField.getText();
+        String bankAccount = bankAccountField.getText();
+        String routingNumber = routingNumberField.getText();
+        
+        tasks.perform(null, "processing payment",
+            progress -> {
+                switch (selectedMethod) {
+                    case "Credit Card":
+                        return paymentService.processPayment(
+                            amount, PaymentMethod.CREDIT_CARD, cardNumber, cardHolder, expiryDate, cvv);
+                        
+                    case "Debit Card":
+                        return paymentService.processPayment(
+                            amount, PaymentMethod.DEBIT_CARD, cardNumber, cardHolder, expiryDate, cvv);
+                        
+                    case "PayPal":
+                        return paymentService.processPayPalPayment(amount, paypalEmail);
+                        
+                    case "Bank Transfer":
+                        return paymentService.processBankTransfer(amount, bankAccount, routingNumber);
+                        
+                    default:
+                        throw new IllegalStateException("Unknown payment method: " + selectedMethod);
                 }
-            }
-            
-            @Override
-            protected void done() {
-                processingLabel.setVisible(false);
-                payBtn.setEnabled(true);
-                
-                if (error != null) {
-                    if (error instanceof IllegalArgumentException) {
-                        ErrorDialog.showValidation(PaymentView.this, error.getMessage());
-                    } else if (error instanceof IllegalStateException) {
-                        ErrorDialog.showPaymentFailed(PaymentView.this, error.getMessage());
-                    } else {
-                        ErrorDialog.show(PaymentView.this, 
-                            "Payment failed: " + error.getMessage(), (Exception) error);
-                    }
-                    return;
+            },
+            payment -> {
+                if (payment != null) {
+                    // Create reservation with the payment
+                    createReservation(payment);
+                } else {
+                    paymentFinished();
                 }
-                
-                try {
-                    Payment payment = get();
-                    if (payment != null) {
-                        // Create reservation with the payment
-                        createReservation(payment);
-                    }
-                } catch (Exception e) {
-                    ErrorDialog.show(PaymentView.this, "Error processing payment result.", e);
+            },
+            error -> {
+                paymentFinished();
+                if (error instanceof IllegalArgumentException) {
+                    ErrorDialog.showValidation(this, error.getMessage());
+                } else if (error instanceof IllegalStateException) {
+                    ErrorDialog.showPaymentFailed(this, error.getMessage());
+                } else {
+                    ErrorDialog.show(this, "Payment failed: " + error.getMessage(), error);
                 }
-            }
-        };
-        
-        worker.execute();
+            });
+    }
+    
+    private void paymentFinished() {
+        processingLabel.setVisible(false);
+        payBtn.setEnabled(true);
     }
     
     /**
      * Create reservation after successful payment.
      */
     private void createReservation(Payment payment) {
-        try {
-            User currentUser = viewManager.getCurrentUser();
-            
-            // Create the reservation
-            Reservation reservation = reservationService.createReservationForUser(
-                currentUser, flight, selectedSeats, payment);
-            
-            // Navigate to confirmation
-            viewManager.showView("CONFIRMATION", 
-                new ConfirmationView(viewManager, reservation));
-            
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Payment successful but failed to create reservation: " + e.getMessage(), e);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            ErrorDialog.show(this, "Payment successful but failed to create reservation: " + e.getMessage());
-        }
+        User currentUser = viewManager.getCurrentUser();
+        
+        tasks.perform(null, "creating reservation",
+            progress -> reservationService.createReservationForUser(
+                currentUser, flight, selectedSeats, payment),
+            reservation -> {
+                paymentFinished();
+                // Navigate to confirmation
+                viewManager.showView("CONFIRMATION", 
+                    new ConfirmationView(viewManager, reservation));
+            },
+            e -> {
+                paymentFinished();
+                if (e instanceof SQLException) {
+                    ErrorDialog.show(this, "Payment successful but failed to create reservation: " + e.getMessage(), e);
+                } else {
+                    ErrorDialog.show(this, "Payment successful but failed to create reservation: " + e.getMessage());
+                }
+            });
     }
 }
\ No newline at end of file
@@ -3,14 +3,15 @@ package gui.customer;
 import businesslogic.entities.Customer;
 import businesslogic.entities.Promotion;
 import businesslogic.entities.User;
+import businesslogic.services.MonthlyNews;
 import businesslogic.services.PromotionService;
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import gui.common.AsyncTasks;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -26,13 +27,14 @@ public class PromotionNewsView extends JPanel {
     private JPanel promotionsPanel;
     private JCheckBox subscriptionCheckbox;
     private JLabel statusLabel;
+    private final AsyncTasks tasks = new AsyncTasks(this);
 
     public PromotionNewsView(ViewManager viewManager) {
         this.viewManager = viewManager;
         this.promotionService = viewManager.getServiceManager().getPromotionService();
         
         initializeUI();
-        loadPromotions();
+        loadPromotions(false);
         loadSubscriptionStatus();
     }
 
@@ -107,7 +109,7 @@ public class PromotionNewsView extends JPanel {
 
         JButton refreshBtn = new JButton("Refresh");
         refreshBtn.setFont(new Font("Arial", Font.PLAIN, 14));
-        refreshBtn.addActionListener(e -> loadPromotions());
+        refreshBtn.addActionListener(e -> loadPromotions(true));
         buttonPanel.add(refreshBtn);
 
         JButton backBtn = new JButton("Back to Dashboard");
@@ -121,32 +123,44 @@ public class PromotionNewsView extends JPanel {
         return panel;
     }
 
-    private void loadPromotions() {
-        promotionsPanel.removeAll();
+    /**
+     * @param refresh true to reload from the database instead of the cached monthly news
+     */
+    private void loadPromotions(boolean refresh) {
+        tasks.load("promotions", "Loading promotions...", "loading promotions",
+            progress -> refresh
+                ? promotionService.refreshMonthlyNews()
+                : promotionService.getMonthlyNews(),
+            this::showPromotions,
+            e -> {
+                ErrorDialog.show(this, "Failed to load promotions: " + e.getMessage());
+                promotionsPanel.removeAll();
+                promotionsPanel.add(createErrorPanel());
+                promotionsPanel.revalidate();
+                promotionsPanel.repaint();
+            });
+    }
 
-        try {
-            List<Promotion> promotions = promotionService.getMonthlyPromotions();
-
-            if (promotions.isEmpty()) {
-                promotionsPanel.add(createNoPromotionsPanel());
-            } else {
-                // Welcome message for logged-in customer
-                User currentUser = viewManager.getCurrentUser();
-                if (currentUser instanceof Customer) {
-                    Customer customer = (Customer) currentUser;
-                    promotionsPanel.add(createWelcomePanel(customer));
-                }
+    private void showPromotions(MonthlyNews news) {
+        promotionsPanel.removeAll();
+        List<Promotion> promotions = news.getPromotions();
 
-                // Add each promotion card
-                for (Promotion promo : promotions) {
-                    promotionsPanel.add(createPromotionCard(promo));
-                    promotionsPanel.add(Box.createVerticalStrut(10));
-                }
+        if (promotions.isEmpty()) {
+            promotionsPanel.add(createNoPromotionsPanel());
+        } else {
+            // Welcome message for logged-in customer
+            User currentUser = viewManager.getCurrentUser();
+            if (currentUser instanceof Customer) {
+                Customer customer = (Customer) currentUser;
+                promotionsPanel.add(createWelcomePanel(customer));
             }
 
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Failed to load promotions: " + e.getMessage());
-            promotionsPanel.add(createErrorPanel());
+            // Add each promotion card
+            for (int i = 0; i < promotions.size(); i++) {
+                promotionsPanel.add(createPromotionCard(promotions.get(i),
+                    news.getDiscountLabel(i), news.getValidityLabel(i)));
+                promotionsPanel.add(Box.createVerticalStrut(10));
+            }
         }
 
         promotionsPanel.revalidate();
@@ -171,7 +185,7 @@ public class PromotionNewsView extends JPanel {
         return panel;
     }
 
-    private JPanel createPromotionCard(Promotion promo) {
+    private JPanel createPromotionCard(Promotion promo, String discountText, String validityText) {
         JPanel card = new JPanel(new BorderLayout(10, 5));
         card.setBackground(new Color(249, 249, 249));
         card.setBorder(BorderFactory.createCompoundBorder(
@@ -201,10 +215,7 @@ public class PromotionNewsView extends JPanel {
 
         detailsPanel.add(Box.createVerticalStrut(5));
 
-        String validityText = "Valid: " + 
-            promo.getValidFrom().format(DateTimeFormatter.ofPattern("MMM d")) + " - " +
-            promo.getValidTo().format(DateTimeFormatter.ofPattern("MMM d, yyyy"));
-        JLabel validityLabel = new JLabel(validityText);
+        JLabel validityLabel = new JLabel("Valid: " + validityText);
         validityLabel.setFont(new Font("Arial", Font.PLAIN, 11));
         validityLabel.setForeground(new Color(136, 136, 136));
         validityLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -218,7 +229,7 @@ public class PromotionNewsView extends JPanel {
         discountPanel.setPreferredSize(new Dimension(100, 80));
         discountPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        JLabel discountLabel = new JLabel(String.format("%.0f%%", promo.getDiscountPercent()));
+        JLabel discountLabel = new JLabel(discountText + "%");
         discountLabel.setFont(new Font("Arial", Font.BOLD, 28));
         discountLabel.setForeground(Color.WHITE);
         discountPanel.add(discountLabel);
@@ -288,14 +299,16 @@ public class PromotionNewsView extends JPanel {
             return;
         }
 
-        try {
-            boolean isSubscribed = promotionService.isCustomerSubscribed(currentUser.getUserId());
-            subscriptionCheckbox.setSelected(isSubscribed);
-            updateStatusLabel(isSubscribed);
-        } catch (SQLException e) {
-            subscriptionCheckbox.setEnabled(false);
-            statusLabel.setText("(Unable to load status)");
-        }
+        tasks.load("subscription", null, "loading subscription status",
+            progress -> promotionService.isCustomerSubscribed(currentUser.getUserId()),
+            isSubscribed -> {
+                subscriptionCheckbox.setSelected(isSubscribed);
+                updateStatusLabel(isSubscribed);
+            },
+            e -> {
+                subscriptionCheckbox.setEnabled(false);
+                statusLabel.setText("(Unable to load status)");
+            });
     }
 
     private void updateSubscription() {
@@ -307,23 +320,28 @@ public class PromotionNewsView extends JPanel {
 
         boolean subscribe = subscriptionCheckbox.isSelected();
         
-        try {
-            boolean success = promotionService.updateSubscription(currentUser.getUserId(), subscribe);
-            if (success) {
-                updateStatusLabel(subscribe);
-                String message = subscribe ? 
-                    "You're now subscribed to monthly promotion news!" :
-                    "You've been unsubscribed from monthly promotion news.";
-                JOptionPane.showMessageDialog(this, message, "Subscription Updated", 
-                    JOptionPane.INFORMATION_MESSAGE);
-            } else {
+        subscriptionCheckbox.setEnabled(false);
+        tasks.perform(null, "updating subscription",
+            progress -> promotionService.updateSubscription(currentUser.getUserId(), subscribe),
+            success -> {
+                subscriptionCheckbox.setEnabled(true);
+                if (success) {
+                    updateStatusLabel(subscribe);
+                    String message = subscribe ? 
+                        "You're now subscribed to monthly promotion news!" :
+                        "You've been unsubscribed from monthly promotion news.";
+                    JOptionPane.showMessageDialog(this, message, "Subscription Updated", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    subscriptionCheckbox.setSelected(!subscribe);
+                    ErrorDialog.show(this, "Failed to update subscription.");
+                }
+            },
+            e -> {
+                subscriptionCheckbox.setEnabled(true);
                 subscriptionCheckbox.setSelected(!subscribe);
-                ErrorDialog.show(this, "Failed to update subscription.");
-            }
-        } catch (SQLException e) {
-            subscriptionCheckbox.setSelected(!subscribe);
-            ErrorDialog.show(this, "Error updating subscription: " + e.getMessage());
-        }
+                ErrorDialog.show(this, "Error updating subscription: " + e.getMessage());
+            });
     }
 
     private void updateStatusLabel(boolean subscribed) {
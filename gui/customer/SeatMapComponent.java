@@ -0,0 +1,574 @@
+package gui.customer;
+
+import businesslogic.entities.Seat;
+import businesslogic.entities.enums.SeatClass;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paints a whole cabin as one component.
+ *
+ * Seats are laid out once when set: sections by class, one line per row,
+ * seats in letter order. After that, clicks are hit-tested against the
+ * layout, and a seat that changes (picked here, or booked elsewhere and
+ * applied through {@link #applySeatChanges}) repaints only its own rectangle.
+ * Arrow keys move between seats and Space or Enter selects.
+ */
+public class SeatMapComponent extends JComponent implements Scrollable {
+
+    // Seat states
+    private static final byte AVAILABLE = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte SELECTED = 2;
+
+    private static final Color AVAILABLE_COLOR = new Color(144, 238, 144); // Light green
+    private static final Color SELECTED_COLOR = new Color(255, 200, 100);  // Orange
+    private static final Color OCCUPIED_COLOR = new Color(255, 150, 150);  // Light red
+    private static final Color FOCUS_COLOR = new Color(30, 100, 200);
+
+    private static final Font SEAT_FONT = new Font("Arial", Font.PLAIN, 11);
+    private static final Font ROW_FONT = new Font("Arial", Font.PLAIN, 11);
+    private static final Font HEADER_FONT = new Font("Arial", Font.BOLD, 14);
+
+    // Geometry
+    private static final int MARGIN = 10;
+    private static final int ROW_LABEL_WIDTH = 60;
+    private static final int SEAT_WIDTH = 48;
+    private static final int SEAT_HEIGHT = 30;
+    private static final int GAP = 6;
+    private static final int HEADER_HEIGHT = 26;
+    private static final int SECTION_GAP = 12;
+    private static final int FOCUS_OUTSET = 3;
+
+    // Seats in display order, and their state
+    private Seat[] seats = new Seat[0];
+    private byte[] states = new byte[0];
+    private int[] seatColumns = new int[0];
+    private int[] seatRows = new int[0];
+    private final Map<Integer, Integer> indexBySeatId = new HashMap<>();
+
+    // Display rows: top edge, first seat, one past last seat, label
+    private int[] rowTops = new int[0];
+    private int[] rowStarts = new int[0];
+    private int[] rowEnds = new int[0];
+    private String[] rowLabels = new String[0];
+
+    // Class headers: text and top edge
+    private final List<String> headerTexts = new ArrayList<>();
+    private final List<Integer> headerTops = new ArrayList<>();
+
+    private final List<Seat> selectedSeats = new ArrayList<>();
+    private int focusIndex = -1;
+    private int preferredWidth;
+    private int preferredHeight;
+    private Runnable onSelectionChanged;
+
+    public SeatMapComponent() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setFocusable(true);
+        setToolTipText(""); // Registers with the tooltip manager; text comes from getToolTipText(MouseEvent)
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                requestFocusInWindow();
+                int index = seatAt(e.getX(), e.getY());
+                if (index >= 0) {
+                    moveFocus(index);
+                    toggle(index);
+                }
+            }
+        });
+
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusGained(FocusEvent e) {
+                if (focusIndex < 0 && seats.length > 0) {
+                    focusIndex = 0;
+                }
+                repaintSeat(focusIndex);
+            }
+
+            @Override
+            public void focusLost(FocusEvent e) {
+                repaintSeat(focusIndex);
+            }
+        });
+
+        bindKey(KeyEvent.VK_LEFT, "previousSeat", () -> moveFocus(focusIndex - 1));
+        bindKey(KeyEvent.VK_RIGHT, "nextSeat", () -> moveFocus(focusIndex + 1));
+        bindKey(KeyEvent.VK_UP, "rowAbove", () -> moveFocusByRow(-1));
+        bindKey(KeyEvent.VK_DOWN, "rowBelow", () -> moveFocusByRow(1));
+        bindKey(KeyEvent.VK_HOME, "firstSeat", () -> moveFocus(0));
+        bindKey(KeyEvent.VK_END, "lastSeat", () -> moveFocus(seats.length - 1));
+        bindKey(KeyEvent.VK_SPACE, "toggleSeat", () -> toggle(focusIndex));
+        bindKey(KeyEvent.VK_ENTER, "toggleSeat", () -> toggle(focusIndex));
+    }
+
+    private void bindKey(int keyCode, String name, Runnable action) {
+        getInputMap(WHEN_FOCUSED).put(KeyStroke.getKeyStroke(keyCode, 0), name);
+        getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                action.run();
+            }
+        });
+    }
+
+    // ========================================================================
+    // SEATS AND SELECTION
+    // ========================================================================
+
+    /**
+     * Replace the seats shown and clear the selection.
+     */
+    public void setSeats(List<Seat> seatList) {
+        selectedSeats.clear();
+        focusIndex = -1;
+        layoutSeats(seatList != null ? seatList : List.of());
+        revalidate();
+        repaint();
+        fireSelectionChanged();
+    }
+
+    /**
+     * @return Selected seats in the order they were picked
+     */
+    public List<Seat> getSelectedSeats() {
+        return new ArrayList<>(selectedSeats);
+    }
+
+    /**
+     * Called on the EDT whenever the selection changes.
+     */
+    public void setOnSelectionChanged(Runnable onSelectionChanged) {
+        this.onSelectionChanged = onSelectionChanged;
+    }
+
+    private void toggle(int index) {
+        if (index < 0 || index >= seats.length || states[index] == OCCUPIED) {
+            return;
+        }
+        if (states[index] == SELECTED) {
+            states[index] = AVAILABLE;
+            selectedSeats.remove(seats[index]);
+        } else {
+            states[index] = SELECTED;
+            selectedSeats.add(seats[index]);
+        }
+        repaintSeat(index);
+        fireSelectionChanged();
+    }
+
+    /**
+     * Apply availability changes made elsewhere, repainting only the seats that flipped.
+     * Selected seats that were taken are dropped from the selection.
+     * @return Seats dropped from the selection
+     */
+    public List<Seat> applySeatChanges(List<Integer> releasedSeatIds, List<Integer> takenSeatIds) {
+        for (Integer seatId : releasedSeatIds) {
+            Integer index = indexBySeatId.get(seatId);
+            if (index != null && states[index] == OCCUPIED) {
+                states[index] = AVAILABLE;
+                seats[index].setAvailable(true);
+                repaintSeat(index);
+            }
+        }
+
+        List<Seat> lost = new ArrayList<>();
+        for (Integer seatId : takenSeatIds) {
+            Integer index = indexBySeatId.get(seatId);
+            if (index == null || states[index] == OCCUPIED) {
+                continue;
+            }
+            if (states[index] == SELECTED) {
+                selectedSeats.remove(seats[index]);
+                lost.add(seats[index]);
+            }
+            states[index] = OCCUPIED;
+            seats[index].setAvailable(false);
+            repaintSeat(index);
+        }
+
+        if (!lost.isEmpty()) {
+            fireSelectionChanged();
+        }
+        return lost;
+    }
+
+    private void fireSelectionChanged() {
+        if (onSelectionChanged != null) {
+            onSelectionChanged.run();
+        }
+    }
+
+    // ========================================================================
+    // LAYOUT
+    // ========================================================================
+
+    private void layoutSeats(List<Seat> seatList) {
+        List<Seat> ordered = new ArrayList<>(seatList);
+        ordered.sort(Comparator.comparingInt((Seat s) -> classOrder(s.getSeatClass()))
+            .thenComparingInt(s -> extractRowNumber(s.getSeatNumber()))
+            .thenComparing(s -> extractSeatLetter(s.getSeatNumber())));
+
+        int count = ordered.size();
+        seats = ordered.toArray(new Seat[0]);
+        states = new byte[count];
+        seatColumns = new int[count];
+        seatRows = new int[count];
+        indexBySeatId.clear();
+        headerTexts.clear();
+        headerTops.clear();
+
+        List<int[]> rows = new ArrayList<>(); // {top, start, end}
+        List<String> labels = new ArrayList<>();
+        int y = MARGIN;
+        int maxColumns = 0;
+        SeatClass currentClass = null;
+        int currentRowNumber = Integer.MIN_VALUE;
+        int column = 0;
+
+        for (int i = 0; i < count; i++) {
+            Seat seat = seats[i];
+            states[i] = seat.isAvailable() ? AVAILABLE : OCCUPIED;
+            indexBySeatId.put(seat.getSeatId(), i);
+            int rowNumber = extractRowNumber(seat.getSeatNumber());
+
+            if (i == 0 || seat.getSeatClass() != currentClass) {
+                if (i > 0) {
+                    rows.get(rows.size() - 1)[2] = i;
+                    y += SEAT_HEIGHT + SECTION_GAP;
+                }
+                currentClass = seat.getSeatClass();
+                headerTexts.add(className(currentClass) + ":");
+                headerTops.add(y);
+                y += HEADER_HEIGHT;
+                currentRowNumber = Integer.MIN_VALUE;
+            }
+
+            if (rowNumber != currentRowNumber) {
+                if (currentRowNumber != Integer.MIN_VALUE) {
+                    rows.get(rows.size() - 1)[2] = i;
+                    y += SEAT_HEIGHT + GAP;
+                }
+                currentRowNumber = rowNumber;
+                rows.add(new int[]{y, i, count});
+                labels.add("Row " + rowNumber + ": ");
+                column = 0;
+            }
+
+            seatRows[i] = rows.size() - 1;
+            seatColumns[i] = column++;
+            maxColumns = Math.max(maxColumns, column);
+        }
+
+        rowTops = new int[rows.size()];
+        rowStarts = new int[rows.size()];
+        rowEnds = new int[rows.size()];
+        for (int r = 0; r < rows.size(); r++) {
+            rowTops[r] = rows.get(r)[0];
+            rowStarts[r] = rows.get(r)[1];
+            rowEnds[r] = rows.get(r)[2];
+        }
+        rowLabels = labels.toArray(new String[0]);
+
+        preferredWidth = seatX(maxColumns) + MARGIN;
+        preferredHeight = count > 0 ? y + SEAT_HEIGHT + MARGIN : 2 * HEADER_HEIGHT;
+    }
+
+    private static int seatX(int column) {
+        return MARGIN + ROW_LABEL_WIDTH + column * (SEAT_WIDTH + GAP);
+    }
+
+    private Rectangle seatBounds(int index) {
+        return new Rectangle(seatX(seatColumns[index]), rowTops[seatRows[index]], SEAT_WIDTH, SEAT_HEIGHT);
+    }
+
+    /**
+     * @return Index of the seat under the point, or -1
+     */
+    private int seatAt(int x, int y) {
+        // Rows are laid out top to bottom, so binary search the row first
+        int row = Arrays.binarySearch(rowTops, y);
+        if (row < 0) {
+            row = -row - 2; // Last row starting above y
+        }
+        if (row < 0 || y >= rowTops[row] + SEAT_HEIGHT) {
+            return -1;
+        }
+
+        int offset = x - seatX(0);
+        if (offset < 0 || offset % (SEAT_WIDTH + GAP) >= SEAT_WIDTH) {
+            return -1;
+        }
+        int index = rowStarts[row] + offset / (SEAT_WIDTH + GAP);
+        return index < rowEnds[row] ? index : -1;
+    }
+
+    private void repaintSeat(int index) {
+        if (index >= 0 && index < seats.length) {
+            Rectangle bounds = seatBounds(index);
+            bounds.grow(FOCUS_OUTSET, FOCUS_OUTSET);
+            repaint(bounds);
+        }
+    }
+
+    // ========================================================================
+    // KEYBOARD NAVIGATION
+    // ========================================================================
+
+    private void moveFocus(int index) {
+        if (seats.length == 0) {
+            return;
+        }
+        index = Math.max(0, Math.min(index, seats.length - 1));
+        int previous = focusIndex;
+        focusIndex = index;
+        repaintSeat(previous);
+        repaintSeat(index);
+
+        Rectangle bounds = seatBounds(index);
+        bounds.grow(GAP, GAP);
+        scrollRectToVisible(bounds);
+    }
+
+    private void moveFocusByRow(int delta) {
+        if (focusIndex < 0) {
+            moveFocus(0);
+            return;
+        }
+        int row = seatRows[focusIndex] + delta;
+        if (row < 0 || row >= rowTops.length) {
+            return;
+        }
+        // Keep the column, or the nearest seat if the new row is shorter
+        int column = seatColumns[focusIndex];
+        moveFocus(Math.min(rowStarts[row] + column, rowEnds[row] - 1));
+    }
+
+    // ========================================================================
+    // PAINTING
+    // ========================================================================
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            Rectangle clip = g2.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            g2.setColor(getBackground());
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+            if (seats.length == 0) {
+                g2.setFont(new Font("Arial", Font.PLAIN, 16));
+                g2.setColor(Color.DARK_GRAY);
+                g2.drawString("No seats available for this flight.", MARGIN, HEADER_HEIGHT);
+                return;
+            }
+
+            paintHeaders(g2, clip);
+            paintRows(g2, clip);
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private void paintHeaders(Graphics2D g2, Rectangle clip) {
+        g2.setFont(HEADER_FONT);
+        g2.setColor(Color.BLACK);
+        FontMetrics metrics = g2.getFontMetrics();
+        for (int h = 0; h < headerTexts.size(); h++) {
+            int top = headerTops.get(h);
+            if (top + HEADER_HEIGHT >= clip.y && top <= clip.y + clip.height) {
+                g2.drawString(headerTexts.get(h), MARGIN, top + metrics.getAscent());
+            }
+        }
+    }
+
+    private void paintRows(Graphics2D g2, Rectangle clip) {
+        // Only rows that overlap the clip
+        int first = Arrays.binarySearch(rowTops, clip.y - SEAT_HEIGHT - FOCUS_OUTSET);
+        first = first < 0 ? -first - 1 : first;
+        int bottom = clip.y + clip.height + FOCUS_OUTSET;
+
+        for (int r = first; r < rowTops.length && rowTops[r] <= bottom; r++) {
+            int top = rowTops[r];
+
+            if (clip.x < seatX(0)) {
+                g2.setFont(ROW_FONT);
+                g2.setColor(Color.BLACK);
+                FontMetrics metrics = g2.getFontMetrics();
+                int labelX = seatX(0) - GAP - metrics.stringWidth(rowLabels[r]);
+                g2.drawString(rowLabels[r], labelX, top + (SEAT_HEIGHT + metrics.getAscent()) / 2 - 1);
+            }
+
+            for (int i = rowStarts[r]; i < rowEnds[r]; i++) {
+                int x = seatX(seatColumns[i]);
+                if (x + SEAT_WIDTH + FOCUS_OUTSET >= clip.x && x - FOCUS_OUTSET <= clip.x + clip.width) {
+                    paintSeat(g2, i, x, top);
+                }
+            }
+        }
+    }
+
+    private void paintSeat(Graphics2D g2, int index, int x, int y) {
+        byte state = states[index];
+        g2.setColor(state == SELECTED ? SELECTED_COLOR : state == OCCUPIED ? OCCUPIED_COLOR : AVAILABLE_COLOR);
+        g2.fillRoundRect(x, y, SEAT_WIDTH, SEAT_HEIGHT, 8, 8);
+
+        if (state == SELECTED) {
+            g2.setColor(Color.BLACK);
+            g2.setStroke(new BasicStroke(2f));
+        } else {
+            g2.setColor(Color.GRAY);
+            g2.setStroke(new BasicStroke(1f));
+        }
+        g2.drawRoundRect(x, y, SEAT_WIDTH - 1, SEAT_HEIGHT - 1, 8, 8);
+
+        g2.setFont(SEAT_FONT);
+        g2.setColor(state == OCCUPIED ? Color.DARK_GRAY : Color.BLACK);
+        FontMetrics metrics = g2.getFontMetrics();
+        String text = seats[index].getSeatNumber();
+        g2.drawString(text, x + (SEAT_WIDTH - metrics.stringWidth(text)) / 2,
+                      y + (SEAT_HEIGHT + metrics.getAscent()) / 2 - 1);
+
+        if (index == focusIndex && isFocusOwner()) {
+            g2.setColor(FOCUS_COLOR);
+            g2.setStroke(new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
+                                         10f, new float[]{3f, 2f}, 0f));
+            g2.drawRoundRect(x - 2, y - 2, SEAT_WIDTH + 3, SEAT_HEIGHT + 3, 10, 10);
+        }
+    }
+
+    // ========================================================================
+    // TOOLTIPS AND SIZING
+    // ========================================================================
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        int index = seatAt(event.getX(), event.getY());
+        if (index < 0) {
+            return null;
+        }
+        Seat seat = seats[index];
+        String status = states[index] == OCCUPIED ? "Seat is already occupied"
+            : states[index] == SELECTED ? "Selected - click to release" : "Available";
+        return seat.getSeatNumber() + " (" + className(seat.getSeatClass()) + ") - " + status;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        return new Dimension(preferredWidth, preferredHeight);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? SEAT_HEIGHT + GAP : SEAT_WIDTH + GAP;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        // Stretch to fill a wide viewport, scroll when narrower than the cabin
+        Container parent = getParent();
+        return parent instanceof JViewport && parent.getWidth() > preferredWidth;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        Container parent = getParent();
+        return parent instanceof JViewport && parent.getHeight() > preferredHeight;
+    }
+
+    // ========================================================================
+    // HELPERS
+    // ========================================================================
+
+    private static int classOrder(SeatClass seatClass) {
+        if (seatClass == null) {
+            return 3;
+        }
+        switch (seatClass) {
+            case FIRST:
+                return 0;
+            case BUSINESS:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+    private static String className(SeatClass seatClass) {
+        if (seatClass == null) {
+            return "Other";
+        }
+        switch (seatClass) {
+            case FIRST:
+                return "First Class";
+            case BUSINESS:
+                return "Business Class";
+            default:
+                return "Economy Class";
+        }
+    }
+
+    /**
+     * Extract the row number from a seat number (e.g., "9B" -> 9, "17A" -> 17).
+     *
+     * @param seatNumber The seat number string
+     * @return The row number as an integer, or 0 if parsing fails
+     */
+    static int extractRowNumber(String seatNumber) {
+        String num = seatNumber.replaceAll("[^0-9]", "");
+        if (num.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(num);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Extract the seat letter from a seat number (e.g., "9B" -> "B", "17A" -> "A").
+     *
+     * @param seatNumber The seat number string
+     * @return The seat letter(s)
+     */
+    static String extractSeatLetter(String seatNumber) {
+        return seatNumber.replaceAll("[0-9]", "");
+    }
+}
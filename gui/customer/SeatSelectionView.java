@@ -1,19 +1,21 @@
 package gui.customer;
 
+import gui.common.AsyncTasks;
 import gui.common.ViewManager;
 import gui.common.ErrorDialog;
+import businesslogic.entities.Customer;
 import businesslogic.entities.Flight;
 import businesslogic.entities.Seat;
-import businesslogic.entities.enums.SeatClass;
 import businesslogic.services.ReservationService;
+import businesslogic.services.SeatChangeFeed;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.SQLException;
+import java.awt.event.HierarchyEvent;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -27,11 +29,14 @@ public class SeatSelectionView extends JPanel {
     private Flight flight;
     private List<Flight> flightsList; // Store flights list to go back to results
     private ReservationService reservationService;
-    private List<Seat> allSeats;
     private List<Seat> selectedSeats;
-    private JPanel seatMapPanel;
+    private SeatMapComponent seatMap;
     private JLabel selectedSeatsLabel;
     private JLabel totalPriceLabel;
+    private final AsyncTasks tasks = new AsyncTasks(this);
+    private boolean seatsLoaded;
+    private SeatChangeFeed.Subscription seatFeed;
+    private Set<Integer> heldSeatIds = new HashSet<>();
     
     public SeatSelectionView(ViewManager viewManager, Flight flight) {
         this(viewManager, flight, null);
@@ -45,6 +50,17 @@ public class SeatSelectionView extends JPanel {
         this.selectedSeats = new ArrayList<>();
         initComponents();
         loadSeats();
+        
+        // Follow seat changes only while the map is on screen
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                if (isShowing()) {
+                    watchSeats();
+                } else {
+                    stopWatchingSeats();
+                }
+            }
+        });
     }
     
     private void initComponents() {
@@ -76,12 +92,15 @@ public class SeatSelectionView extends JPanel {
         
         add(titlePanel, BorderLayout.NORTH);
         
-        // Seat map panel (will be populated with seats)
-        seatMapPanel = new JPanel();
-        seatMapPanel.setLayout(new GridBagLayout());
-        seatMapPanel.setBorder(BorderFactory.createTitledBorder("Seat Map"));
+        // Seat map, painted as a single component
+        seatMap = new SeatMapComponent();
+        seatMap.setOnSelectionChanged(() -> {
+            selectedSeats = seatMap.getSelectedSeats();
+            updateSelectionDisplay();
+        });
         
-        JScrollPane scrollPane = new JScrollPane(seatMapPanel);
+        JScrollPane scrollPane = new JScrollPane(seatMap);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("Seat Map"));
         scrollPane.setPreferredSize(new Dimension(800, 400));
         add(scrollPane, BorderLayout.CENTER);
         
@@ -168,187 +187,76 @@ public class SeatSelectionView extends JPanel {
     }
     
     /**
-     * Extract the row number from a seat number (e.g., "9B" -> 9, "17A" -> 17).
-     *
-     * @param seatNumber The seat number string
-     * @return The row number as an integer, or 0 if parsing fails
-     */
-    private int extractRowNumber(String seatNumber) {
-        String num = seatNumber.replaceAll("[^0-9]", "");
-        if (num.isEmpty()) {
-            return 0;
-        }
-        try {
-            return Integer.parseInt(num);
-        } catch (NumberFormatException e) {
-            return 0;
-        }
-    }
-    
-    /**
-     * Extract the seat letter from a seat number (e.g., "9B" -> "B", "17A" -> "A").
-     *
-     * @param seatNumber The seat number string
-     * @return The seat letter(s)
+     * Load available seats for the flight using ReservationService.
      */
-    private String extractSeatLetter(String seatNumber) {
-        return seatNumber.replaceAll("[0-9]", "");
+    private void loadSeats() {
+        // Get all seats (available and unavailable) to show full seat map
+        Customer customer = viewManager.getCurrentCustomer();
+        tasks.load("seats", "Loading seat map...", "loading seats",
+            progress -> new LoadedSeats(reservationService.getAllSeatsForFlight(flight),
+                reservationService.getHeldSeatIds(customer, flight)),
+            this::showSeats);
     }
     
     /**
-     * Load available seats for the flight using ReservationService.
+     * Show loaded seats in the seat map. Seats held for the customer's
+     * waitlist offer show as available to them.
      */
-    private void loadSeats() {
-        try {
-            // Get all seats (available and unavailable) to show full seat map
-            allSeats = reservationService.getAllSeatsForFlight(flight);
-            
-            if (allSeats.isEmpty()) {
-                JLabel noSeatsLabel = new JLabel("No seats available for this flight.");
-                noSeatsLabel.setFont(new Font("Arial", Font.PLAIN, 16));
-                noSeatsLabel.setHorizontalAlignment(SwingConstants.CENTER);
-                seatMapPanel.add(noSeatsLabel);
-                return;
-            }
-            
-            // Group seats by class
-            List<Seat> economySeats = allSeats.stream()
-                .filter(s -> s.getSeatClass() == SeatClass.ECONOMY)
-                .collect(Collectors.toList());
-            
-            List<Seat> businessSeats = allSeats.stream()
-                .filter(s -> s.getSeatClass() == SeatClass.BUSINESS)
-                .collect(Collectors.toList());
-            
-            List<Seat> firstSeats = allSeats.stream()
-                .filter(s -> s.getSeatClass() == SeatClass.FIRST)
-                .collect(Collectors.toList());
-            
-            GridBagConstraints gbc = new GridBagConstraints();
-            gbc.insets = new Insets(5, 5, 5, 5);
-            gbc.gridx = 0;
-            gbc.gridy = 0;
-            
-            // Display seats by class
-            if (!firstSeats.isEmpty()) {
-                addSeatClassSection("First Class", firstSeats, gbc);
-                gbc.gridy++;
-            }
-            
-            if (!businessSeats.isEmpty()) {
-                addSeatClassSection("Business Class", businessSeats, gbc);
-                gbc.gridy++;
+    private void showSeats(LoadedSeats loaded) {
+        heldSeatIds = loaded.heldSeatIds;
+        for (Seat seat : loaded.seats) {
+            if (heldSeatIds.contains(seat.getSeatId())) {
+                seat.setAvailable(true);
             }
-            
-            if (!economySeats.isEmpty()) {
-                addSeatClassSection("Economy Class", economySeats, gbc);
-            }
-            
-        } catch (SQLException e) {
-            ErrorDialog.show(this, "Error loading seats: " + e.getMessage(), e);
+        }
+        seatMap.setSeats(loaded.seats);
+        seatMap.requestFocusInWindow();
+        seatsLoaded = true;
+        if (isShowing()) {
+            watchSeats();
         }
     }
     
+    // ========================================================================
+    // LIVE SEAT UPDATES
+    // ========================================================================
+    
     /**
-     * Add a section of seats for a specific class.
-     * Groups seats by row number and displays each row on its own line.
+     * Subscribe to the flight's seat changes. The first delivery is a full
+     * snapshot, which also catches up on anything booked since the load.
      */
-    private void addSeatClassSection(String className, List<Seat> seats, GridBagConstraints gbc) {
-        // Class label
-        gbc.gridx = 0;
-        gbc.gridwidth = 10;
-        gbc.anchor = GridBagConstraints.WEST;
-        JLabel classLabel = new JLabel(className + ":");
-        classLabel.setFont(new Font("Arial", Font.BOLD, 14));
-        seatMapPanel.add(classLabel, gbc);
-        gbc.gridy++;
-        gbc.gridwidth = 1;
-        
-        // Group seats by row number using TreeMap to keep rows sorted
-        Map<Integer, List<Seat>> seatsByRow = seats.stream()
-            .collect(Collectors.groupingBy(
-                s -> extractRowNumber(s.getSeatNumber()),
-                TreeMap::new,
-                Collectors.toList()
-            ));
-        
-        int currentRow = gbc.gridy;
-        
-        // Iterate through each row in order
-        for (Map.Entry<Integer, List<Seat>> entry : seatsByRow.entrySet()) {
-            List<Seat> rowSeats = entry.getValue();
-            
-            // Sort seats within the row by letter (A, B, C, D, E, F)
-            rowSeats.sort((s1, s2) -> {
-                String letter1 = extractSeatLetter(s1.getSeatNumber());
-                String letter2 = extractSeatLetter(s2.getSeatNumber());
-                return letter1.compareTo(letter2);
-            });
-            
-            // Add row label on the left
-            gbc.gridx = 0;
-            gbc.gridy = currentRow;
-            gbc.anchor = GridBagConstraints.EAST;
-            JLabel rowLabel = new JLabel("Row " + entry.getKey() + ": ");
-            rowLabel.setFont(new Font("Arial", Font.PLAIN, 11));
-            seatMapPanel.add(rowLabel, gbc);
-            
-            // Add seat buttons for this row
-            int currentCol = 1; // Start after row label
-            for (Seat seat : rowSeats) {
-                gbc.gridx = currentCol;
-                gbc.gridy = currentRow;
-                gbc.anchor = GridBagConstraints.CENTER;
-                
-                JButton seatBtn = createSeatButton(seat);
-                seatMapPanel.add(seatBtn, gbc);
-                currentCol++;
-            }
-            
-            currentRow++;
+    private void watchSeats() {
+        if (!seatsLoaded || seatFeed != null) {
+            return;
         }
-        
-        gbc.gridy = currentRow + 1;
+        SeatChangeFeed feed = viewManager.getServiceManager().getSeatChangeFeed();
+        seatFeed = feed.subscribe(flight.getFlightNumber(), changes ->
+            SwingUtilities.invokeLater(() -> {
+                // Changes are absolute, so a late one from an earlier subscription is harmless
+                if (seatFeed != null) {
+                    applySeatChanges(changes);
+                }
+            }));
     }
     
-    /**
-     * Create a button for a seat.
-     */
-    private JButton createSeatButton(Seat seat) {
-        JButton btn = new JButton(seat.getSeatNumber());
-        btn.setPreferredSize(new Dimension(60, 35));
-        btn.setFont(new Font("Arial", Font.PLAIN, 11));
-        
-        if (seat.isAvailable()) {
-            btn.setBackground(new Color(144, 238, 144)); // Light green
-            btn.setEnabled(true);
-            btn.addActionListener(e -> toggleSeatSelection(seat, btn));
-        } else {
-            btn.setBackground(new Color(255, 150, 150)); // Light red
-            btn.setEnabled(false);
-            btn.setToolTipText("Seat is already occupied");
+    private void stopWatchingSeats() {
+        if (seatFeed != null) {
+            seatFeed.close();
+            seatFeed = null;
         }
-        
-        return btn;
     }
     
-    /**
-     * Toggle seat selection.
-     */
-    private void toggleSeatSelection(Seat seat, JButton btn) {
-        if (selectedSeats.contains(seat)) {
-            // Deselect
-            selectedSeats.remove(seat);
-            btn.setBackground(new Color(144, 238, 144)); // Light green
-            btn.setBorder(null);
-        } else {
-            // Select
-            selectedSeats.add(seat);
-            btn.setBackground(new Color(255, 200, 100)); // Orange
-            btn.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
+    private void applySeatChanges(SeatChangeFeed.SeatChanges changes) {
+        List<Integer> taken = new ArrayList<>(changes.getTakenSeatIds());
+        taken.removeAll(heldSeatIds);
+        List<Seat> lost = seatMap.applySeatChanges(changes.getReleasedSeatIds(), taken);
+        if (!lost.isEmpty()) {
+            String seatNumbers = lost.stream()
+                .map(Seat::getSeatNumber)
+                .collect(Collectors.joining(", "));
+            ErrorDialog.showWarning(this, "Seat(s) " + seatNumbers +
+                " were just booked by someone else and have been removed from your selection.");
         }
-        
-        updateSelectionDisplay();
     }
     
     /**
@@ -401,4 +309,14 @@ public class SeatSelectionView extends JPanel {
         
         return total;
     }
-}
\ No newline at end of file
+    
+    private static final class LoadedSeats {
+        final List<Seat> seats;
+        final Set<Integer> heldSeatIds;
+        
+        LoadedSeats(List<Seat> seats, Set<Integer> heldSeatIds) {
+            this.seats = seats;
+            this.heldSeatIds = heldSeatIds;
+        }
+    }
+}
@@ -25,6 +25,7 @@ CREATE TABLE IF NOT EXISTS users (
     address           VARCHAR(255),
     date_of_birth     DATE,
     membership_status ENUM('REGULAR', 'SILVER', 'GOLD', 'PLATINUM'),
+    booking_count     INT NOT NULL DEFAULT 0, -- active reservations, kept in step by the reservation writes
     
     -- Monthly Promotion News subscription (for customers)
     subscribed_to_promotions BOOLEAN DEFAULT TRUE,
@@ -35,7 +36,10 @@ CREATE TABLE IF NOT EXISTS users (
     department        VARCHAR(100),
 
     -- SystemAdmin-only fields
-    admin_level       INT
+    admin_level       INT,
+
+    -- Stamped by every write; tables refresh by reading rows changed since their last look
+    updated_at        DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
 );
 
 -- SYSTEM ADMIN PERMISSIONS TABLE (Many-to-many style)
@@ -110,6 +114,9 @@ CREATE TABLE IF NOT EXISTS flights (
     aircraft_id     BIGINT      NOT NULL,
     route_id        BIGINT      NOT NULL,
     airline_id      BIGINT      NOT NULL,
+    -- Bumped with every seat availability change, polled by open seat maps
+    seat_version    BIGINT      NOT NULL DEFAULT 0,
+    updated_at      DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
     CONSTRAINT fk_flights_aircraft
         FOREIGN KEY (aircraft_id) REFERENCES aircraft(aircraft_id),
     CONSTRAINT fk_flights_route
@@ -125,6 +132,7 @@ CREATE TABLE IF NOT EXISTS seats (
     seat_number  VARCHAR(10) NOT NULL,
     seat_class   ENUM('ECONOMY', 'BUSINESS', 'FIRST') NOT NULL,
     is_available BOOLEAN     NOT NULL DEFAULT TRUE,
+    held_for_waitlist_id BIGINT, -- set while the seat is held for a waitlist offer
     CONSTRAINT fk_seats_flight
         FOREIGN KEY (flight_id) REFERENCES flights(flight_id),
     CONSTRAINT uq_seats_flight_seatnumber
@@ -148,7 +156,8 @@ CREATE TABLE IF NOT EXISTS payments (
     payment_date     DATETIME      NOT NULL,
     payment_method   ENUM('CREDIT_CARD', 'DEBIT_CARD', 'PAYPAL', 'BANK_TRANSFER') NOT NULL,
     transaction_id   VARCHAR(100),
-    status           ENUM('PENDING', 'COMPLETED', 'FAILED', 'REFUNDED') NOT NULL
+    status           ENUM('PENDING', 'COMPLETED', 'FAILED', 'REFUNDED') NOT NULL,
+    updated_at       DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
 );
 
 -- RESERVATION
@@ -160,6 +169,8 @@ CREATE TABLE IF NOT EXISTS reservations (
     customer_id    BIGINT   NOT NULL,
     flight_id      BIGINT   NOT NULL,
     payment_id     BIGINT,
+    -- Also touched when tickets are added or removed
+    updated_at     DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
     CONSTRAINT fk_reservations_customer
         FOREIGN KEY (customer_id) REFERENCES users(user_id),
     CONSTRAINT fk_reservations_flight
@@ -192,7 +203,8 @@ CREATE TABLE IF NOT EXISTS promotions (
     valid_from       DATE NOT NULL,
     valid_to         DATE NOT NULL,
     created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    is_active        BOOLEAN DEFAULT TRUE
+    is_active        BOOLEAN DEFAULT TRUE,
+    updated_at       DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
 );
 
 -- PROMOTION_ROUTES (Optional: Link promotions to specific routes)
@@ -221,7 +233,106 @@ CREATE TABLE IF NOT EXISTS promotion_news_log (
         ON DELETE CASCADE
 );
 
+-- WAITLIST_ENTRIES (Customers queued for sold-out flights)
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    waitlist_id      BIGINT AUTO_INCREMENT PRIMARY KEY,
+    flight_id        BIGINT   NOT NULL,
+    customer_id      BIGINT   NOT NULL,
+    seats_requested  INT      NOT NULL DEFAULT 1,
+    priority         INT      NOT NULL DEFAULT 0,
+    status           ENUM('WAITING', 'OFFERED', 'ACCEPTED', 'EXPIRED', 'CANCELLED') NOT NULL,
+    created_at       DATETIME NOT NULL,
+    offer_expires_at DATETIME,
+    CONSTRAINT fk_waitlist_flight
+        FOREIGN KEY (flight_id) REFERENCES flights(flight_id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_waitlist_customer
+        FOREIGN KEY (customer_id) REFERENCES users(user_id)
+        ON DELETE CASCADE
+);
+
+-- NOTIFICATION_OUTBOX (Customer messages written with the change they report, delivered afterwards)
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    outbox_id       BIGINT AUTO_INCREMENT PRIMARY KEY,
+    customer_id     BIGINT       NOT NULL,
+    recipient       VARCHAR(100) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            TEXT         NOT NULL,
+    status          ENUM('PENDING', 'SENT', 'FAILED') NOT NULL,
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME     NOT NULL,
+    created_at      DATETIME     NOT NULL,
+    sent_at         DATETIME,
+    last_error      VARCHAR(500),
+    CONSTRAINT fk_notification_outbox_customer
+        FOREIGN KEY (customer_id) REFERENCES users(user_id)
+        ON DELETE CASCADE
+);
+
+-- EVENT_OUTBOX (Domain events written with the change they describe, dispatched to in-process subscribers)
+CREATE TABLE IF NOT EXISTS event_outbox (
+    event_id        BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type      VARCHAR(50)  NOT NULL,
+    aggregate_type  VARCHAR(30)  NOT NULL,
+    aggregate_id    VARCHAR(50)  NOT NULL,
+    payload         TEXT         NOT NULL,
+    occurred_at     DATETIME     NOT NULL
+);
+
+-- SCHEDULED_JOBS (State of periodic background jobs, shared by all app nodes)
+CREATE TABLE IF NOT EXISTS scheduled_jobs (
+    job_name         VARCHAR(100) PRIMARY KEY,
+    cron_expression  VARCHAR(100) NOT NULL,
+    next_run_at      DATETIME     NOT NULL,
+    last_fire_at     DATETIME,               -- firing claimed by the latest run
+    last_started_at  DATETIME,
+    last_finished_at DATETIME,
+    last_status      ENUM('SUCCEEDED', 'FAILED', 'ABANDONED'),
+    last_error       VARCHAR(500),
+    last_duration_ms BIGINT,
+    run_count        BIGINT NOT NULL DEFAULT 0,
+    failure_count    BIGINT NOT NULL DEFAULT 0,
+    locked_by        VARCHAR(100),           -- node running the job, NULL when idle
+    locked_until     DATETIME                -- lease; expired leases are requeued
+);
+
 -- Create indexes for faster queries
 CREATE INDEX idx_promotions_valid_dates ON promotions(valid_from, valid_to);
 CREATE INDEX idx_users_role_subscribed ON users(role, subscribed_to_promotions);
 CREATE INDEX idx_news_log_date ON promotion_news_log(sent_date);
+
+-- Keyset-paged subscriber scan for promotion news
+CREATE INDEX idx_users_promo_subscribers ON users(role, subscribed_to_promotions, user_id);
+
+-- Used by the pending-reservation expiry sweeper
+CREATE INDEX idx_reservations_status_booking ON reservations(status, booking_date);
+CREATE INDEX idx_waitlist_flight_queue ON waitlist_entries(flight_id, status, priority, waitlist_id);
+CREATE INDEX idx_waitlist_offer_expiry ON waitlist_entries(status, offer_expires_at);
+CREATE INDEX idx_seats_waitlist_hold ON seats(held_for_waitlist_id);
+
+-- Sorting the paged reservations table by booking date
+CREATE INDEX idx_reservations_booking_date ON reservations(booking_date, reservation_id);
+
+-- Upcoming departures/arrivals for the flight status engine
+CREATE INDEX idx_flights_status_departure ON flights(status, departure_time);
+CREATE INDEX idx_flights_status_arrival ON flights(status, arrival_time);
+
+-- Aircraft status cascade to upcoming flights
+CREATE INDEX idx_flights_aircraft_departure ON flights(aircraft_id, departure_time);
+
+-- Due-message claim for the notification outbox
+CREATE INDEX idx_notification_outbox_due ON notification_outbox(status, next_attempt_at);
+
+-- Event outbox: retention purge (readers go by event_id)
+CREATE INDEX idx_event_outbox_occurred ON event_outbox(occurred_at);
+
+-- Due-job lookup for the job scheduler
+CREATE INDEX idx_scheduled_jobs_next_run ON scheduled_jobs(next_run_at);
+
+-- Updated-since reads for incremental table refresh
+CREATE INDEX idx_users_role_updated ON users(role, updated_at);
+CREATE INDEX idx_flights_updated ON flights(updated_at);
+CREATE INDEX idx_payments_updated ON payments(updated_at);
+CREATE INDEX idx_reservations_updated ON reservations(updated_at);
+CREATE INDEX idx_reservations_customer_updated ON reservations(customer_id, updated_at);
+CREATE INDEX idx_promotions_updated ON promotions(updated_at);
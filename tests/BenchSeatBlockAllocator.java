@@ -0,0 +1,72 @@
+package tests;
+
+import businesslogic.entities.Seat;
+import businesslogic.entities.enums.SeatClass;
+import businesslogic.services.SeatBlockAllocator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Times SeatBlockAllocator on a 500-seat aircraft (50 rows of "3-4-3").
+ * No database needed.
+ */
+public class BenchSeatBlockAllocator {
+
+    private static final String CONFIGURATION = "3-4-3";
+    private static final int TOTAL_SEATS = 500;
+    private static final int WARMUP_RUNS = 20_000;
+    private static final int TIMED_RUNS = 100_000;
+
+    public static void main(String[] args) {
+        SeatBlockAllocator allocator = new SeatBlockAllocator(CONFIGURATION);
+
+        for (double occupancy : new double[] { 0.3, 0.6, 0.85 }) {
+            List<Seat> seats = buildSeatMap(allocator.getColumns(), occupancy, new Random(42));
+
+            System.out.println("==== OCCUPANCY " + (int) (occupancy * 100) + "% ====");
+            for (int partySize : new int[] { 2, 4, 6, 8, 12 }) {
+                List<Seat> block = null;
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    block = allocator.findBlock(seats, partySize);
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < TIMED_RUNS; i++) {
+                    block = allocator.findBlock(seats, partySize);
+                }
+                long elapsed = System.nanoTime() - start;
+
+                System.out.printf("Party of %2d: %6.2f us/search, block = %s%n",
+                        partySize, elapsed / 1000.0 / TIMED_RUNS, seatNumbers(block));
+            }
+            System.out.println();
+        }
+    }
+
+    private static List<Seat> buildSeatMap(int columns, double occupancy, Random random) {
+        List<Seat> seats = new ArrayList<>(TOTAL_SEATS);
+        for (int i = 0; i < TOTAL_SEATS; i++) {
+            int row = i / columns + 1;
+            char col = (char) ('A' + i % columns);
+            boolean available = random.nextDouble() >= occupancy;
+            seats.add(new Seat(i + 1, row + String.valueOf(col), SeatClass.ECONOMY, available));
+        }
+        return seats;
+    }
+
+    private static String seatNumbers(List<Seat> block) {
+        if (block == null || block.isEmpty()) {
+            return "none";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Seat seat : block) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(seat.getSeatNumber());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package tests;
+
+import businesslogic.entities.Airport;
+import businesslogic.services.AirportIndex;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Checks airport suggestion ranking and code resolution. No database needed.
+ */
+public class TestAirportIndex {
+
+    public static void main(String[] args) {
+        AirportIndex index = new AirportIndex(List.of(
+            new Airport("JFK", "John F. Kennedy International", "New York", "United States", "America/New_York"),
+            new Airport("LGA", "LaGuardia", "New York", "United States", "America/New_York"),
+            new Airport("YYZ", "Toronto Pearson International", "Toronto", "Canada", "America/Toronto"),
+            new Airport("YYC", "Calgary International", "Calgary", "Canada", "America/Edmonton"),
+            new Airport("CAN", "Guangzhou Baiyun International", "Guangzhou", "China", "Asia/Shanghai")));
+
+        System.out.println("==== TEST: RANKING ====");
+        List<String> can = codes(index.suggest("can", 10));
+        List<String> york = codes(index.suggest("york", 10));
+        System.out.println("can -> " + can + ", york -> " + york);
+        // Exact code, then the country match
+        System.out.println(can.equals(List.of("CAN", "YYC", "YYZ")) && york.equals(List.of("JFK", "LGA"))
+            ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: RESOLVE ====");
+        System.out.println(index.resolve("yyz").getAirportCode().equals("YYZ")
+            && index.resolve("toronto").getAirportCode().equals("YYZ")
+            && index.resolve("new york") == null
+            && index.resolve("xyz") == null ? "PASSED" : "FAILED");
+    }
+
+    private static List<String> codes(List<Airport> airports) {
+        return airports.stream().map(Airport::getAirportCode).collect(Collectors.toList());
+    }
+}
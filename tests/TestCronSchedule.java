@@ -0,0 +1,80 @@
+package tests;
+
+import businesslogic.services.CronSchedule;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checks CronSchedule parsing and next-fire calculation. No database needed.
+ */
+public class TestCronSchedule {
+
+    private static int failures = 0;
+
+    public static void main(String[] args) {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 14, 10, 7, 30);
+
+        System.out.println("==== TEST: EVERY FIVE MINUTES ====");
+        check("*/5 * * * *", base, LocalDateTime.of(2025, 3, 14, 10, 10));
+        check("*/5 * * * *", LocalDateTime.of(2025, 3, 14, 10, 10), LocalDateTime.of(2025, 3, 14, 10, 15));
+
+        System.out.println("\n==== TEST: MONTHLY ====");
+        check("@monthly", base, LocalDateTime.of(2025, 4, 1, 0, 0));
+        check("0 0 1 * *", LocalDateTime.of(2025, 12, 31, 23, 59), LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        System.out.println("\n==== TEST: RANGES, LISTS AND NAMES ====");
+        check("30 9-17/4 * * MON-FRI", base, LocalDateTime.of(2025, 3, 14, 13, 30));
+        check("30 9-17/4 * * MON-FRI", LocalDateTime.of(2025, 3, 14, 17, 31), LocalDateTime.of(2025, 3, 17, 9, 30));
+        check("0 12 * JAN,JUL *", base, LocalDateTime.of(2025, 7, 1, 12, 0));
+        check("0 0 * * 7", base, LocalDateTime.of(2025, 3, 16, 0, 0));
+
+        System.out.println("\n==== TEST: DAY OF MONTH OR DAY OF WEEK ====");
+        // Both restricted: the 20th or any Monday, whichever comes first
+        check("0 0 20 * 1", base, LocalDateTime.of(2025, 3, 17, 0, 0));
+
+        System.out.println("\n==== TEST: LEAP DAY ====");
+        check("0 0 29 2 *", base, LocalDateTime.of(2028, 2, 29, 0, 0));
+
+        System.out.println("\n==== TEST: MISSED FIRINGS ====");
+        int missed = CronSchedule.parse("0 * * * *").countBetween(
+            LocalDateTime.of(2025, 3, 14, 0, 0), LocalDateTime.of(2025, 3, 14, 6, 0), 1000);
+        report("hourly over six hours = " + missed, missed == 6);
+
+        System.out.println("\n==== TEST: INVALID EXPRESSIONS ====");
+        expectInvalid("* * * *");
+        expectInvalid("60 * * * *");
+        expectInvalid("* * * FOO *");
+        expectInvalid("10-5 * * * *");
+
+        System.out.println("\n==== TEST: NEVER FIRES ====");
+        try {
+            CronSchedule.parse("0 0 31 2 *").next(base);
+            report("Feb 31 should never fire", false);
+        } catch (IllegalStateException e) {
+            report("Feb 31 rejected: " + e.getMessage(), true);
+        }
+
+        System.out.println("\n" + (failures == 0 ? "ALL TESTS PASSED" : failures + " TEST(S) FAILED"));
+    }
+
+    private static void check(String expression, LocalDateTime after, LocalDateTime expected) {
+        LocalDateTime actual = CronSchedule.parse(expression).next(after);
+        report("'" + expression + "' after " + after + " -> " + actual, actual.equals(expected));
+    }
+
+    private static void expectInvalid(String expression) {
+        try {
+            CronSchedule.parse(expression);
+            report("'" + expression + "' should be rejected", false);
+        } catch (IllegalArgumentException e) {
+            report("'" + expression + "' rejected: " + e.getMessage(), true);
+        }
+    }
+
+    private static void report(String message, boolean passed) {
+        if (!passed) {
+            failures++;
+        }
+        System.out.println((passed ? "  OK   " : "  FAIL ") + message);
+    }
+}
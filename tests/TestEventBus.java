@@ -0,0 +1,53 @@
+package tests;
+
+import businesslogic.entities.enums.FlightStatus;
+import businesslogic.services.DomainEvent;
+import businesslogic.services.EventBus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks EventBus routing and failure reporting. No database needed.
+ */
+public class TestEventBus {
+
+    public static void main(String[] args) {
+        System.out.println("==== TEST: ROUTING BY TYPE ====");
+        EventBus bus = new EventBus();
+        List<String> seen = new ArrayList<>();
+        bus.subscribeAll(event -> seen.add("all:" + event.getType()));
+        bus.subscribe(DomainEvent.Type.FLIGHT_STATUS_CHANGED, event -> seen.add("status:" + event.getAttribute("status")));
+
+        publish(bus, DomainEvent.flightStatusChanged("AC101", FlightStatus.SCHEDULED, FlightStatus.DELAYED));
+        publish(bus, DomainEvent.flightDeleted("AC102"));
+        System.out.println("Seen: " + seen);
+        System.out.println(seen.equals(List.of("all:FLIGHT_STATUS_CHANGED", "status:DELAYED", "all:FLIGHT_DELETED"))
+            ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: FAILING SUBSCRIBER ====");
+        EventBus failing = new EventBus();
+        List<String> reached = new ArrayList<>();
+        failing.subscribeAll(event -> { throw new IllegalStateException("first"); });
+        failing.subscribeAll(event -> reached.add("second"));
+        failing.subscribeAll(event -> { throw new IllegalStateException("third"); });
+
+        Exception failure = null;
+        try {
+            failing.publish(DomainEvent.flightDeleted("AC103"));
+        } catch (Exception e) {
+            failure = e;
+        }
+        System.out.println("Later subscribers still called: " + reached.equals(List.of("second")));
+        System.out.println("First failure thrown: " + (failure != null && "first".equals(failure.getMessage())));
+        System.out.println("Other failures suppressed: " + (failure != null && failure.getSuppressed().length == 1));
+    }
+
+    private static void publish(EventBus bus, DomainEvent event) {
+        try {
+            bus.publish(event);
+        } catch (Exception e) {
+            System.err.println("Unexpected failure: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package tests;
+
+import businesslogic.entities.Airport;
+import businesslogic.entities.Flight;
+import businesslogic.entities.Route;
+import businesslogic.entities.enums.FlightStatus;
+import businesslogic.services.DomainEvent;
+import businesslogic.services.EventBus;
+import businesslogic.services.FlightSearchCache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks search caching, shared loads, invalidation and eviction. No database needed.
+ */
+public class TestFlightSearchCache {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 11, 2);
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("==== TEST: REPEATED SEARCH IS CACHED ====");
+        EventBus bus = new EventBus();
+        FlightSearchCache cache = new FlightSearchCache(bus);
+        AtomicInteger queries = new AtomicInteger();
+        FlightSearchCache.Loader loader = () -> {
+            queries.incrementAndGet();
+            return List.of(flight("AC101", "YYC", "YVR"));
+        };
+        cache.get("YYC", "YVR", DATE, loader);
+        List<Flight> again = cache.get("yyc", "yvr", DATE, loader);
+        System.out.println("Queries: " + queries.get() + ", " + cache.getStats());
+        System.out.println(queries.get() == 1 && again.size() == 1
+            && cache.getStats().getHits() == 1 ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: EVENTS DROP AFFECTED SEARCHES ====");
+        bus.publish(DomainEvent.flightStatusChanged("AC101", FlightStatus.SCHEDULED, FlightStatus.DELAYED));
+        cache.get("YYC", "YVR", DATE, loader);
+        bus.publish(DomainEvent.flightCreated(flight("AC202", "YYC", "YVR")));
+        cache.get("YYC", "YVR", DATE, loader);
+        bus.publish(DomainEvent.flightDeleted("ZZ999"));
+        cache.get("YYC", "YVR", DATE, loader);
+        System.out.println("Queries: " + queries.get() + ", " + cache.getStats());
+        System.out.println(queries.get() == 3 && cache.getStats().getInvalidations() == 2 ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: CONCURRENT MISSES SHARE ONE LOAD ====");
+        FlightSearchCache shared = new FlightSearchCache(null);
+        AtomicInteger sharedQueries = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FlightSearchCache.Loader slow = () -> {
+            sharedQueries.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(flight("AC303", "YYZ", "YUL"));
+        };
+        Thread[] callers = new Thread[4];
+        for (int i = 0; i < callers.length; i++) {
+            callers[i] = new Thread(() -> {
+                try {
+                    shared.get("YYZ", "YUL", DATE, slow);
+                } catch (Exception e) {
+                    System.out.println("Search failed: " + e.getMessage());
+                }
+            });
+            callers[i].start();
+            if (i == 0) {
+                loading.await();
+            }
+        }
+        // Give the followers time to find the load under way
+        Thread.sleep(200);
+        release.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        System.out.println("Queries: " + sharedQueries.get() + ", " + shared.getStats());
+        System.out.println(sharedQueries.get() == 1 && shared.getStats().getCoalesced() == 3
+            && shared.getStats().getHitRatio() == 0.75 ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: TTL AND EVICTION ====");
+        FlightSearchCache small = new FlightSearchCache(null, 2, Duration.ofMillis(100));
+        AtomicInteger smallQueries = new AtomicInteger();
+        FlightSearchCache.Loader counting = () -> {
+            smallQueries.incrementAndGet();
+            return List.of();
+        };
+        small.get("YYC", "YVR", DATE, counting);
+        Thread.sleep(150);
+        small.get("YYC", "YVR", DATE, counting);
+        small.get("YYC", "YYZ", DATE, counting);
+        small.get("YYC", "YUL", DATE, counting);
+        small.get("YYC", "YYZ", DATE, counting);
+        System.out.println("Queries: " + smallQueries.get() + ", " + small.getStats());
+        System.out.println(smallQueries.get() == 4 && small.getStats().getEvictions() == 1
+            && small.getStats().getSize() == 2 ? "PASSED" : "FAILED");
+    }
+
+    private static Flight flight(String flightNumber, String origin, String destination) {
+        Route route = new Route(1, new Airport(origin, origin, origin, "Canada", "UTC"),
+            new Airport(destination, destination, destination, "Canada", "UTC"), 500, 60);
+        LocalDateTime departure = DATE.atTime(9, 0);
+        return new Flight(flightNumber, departure, departure.plusHours(1), FlightStatus.SCHEDULED,
+            100, 199.0, null, route);
+    }
+}
@@ -0,0 +1,115 @@
+package tests;
+
+import businesslogic.entities.enums.FlightStatus;
+import businesslogic.services.FlightDisruptionNotifier;
+import businesslogic.services.FlightDisruptionNotifier.AffectedReservation;
+import businesslogic.services.MailSink;
+import businesslogic.services.NotificationOutbox;
+import businesslogic.services.NotificationOutbox.DeliveryOutcome;
+import businesslogic.services.NotificationOutbox.OutboxMessage;
+import businesslogic.services.NotificationOutbox.PendingMessage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checks disruption messages per customer and outbox retries through a stub
+ * mail sink. No database needed.
+ */
+public class TestNotificationOutbox {
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("==== TEST: ONE MESSAGE PER CUSTOMER ====");
+        LocalDateTime departure = LocalDateTime.of(2026, 3, 14, 9, 30);
+        List<AffectedReservation> affected = List.of(
+            new AffectedReservation(1, 10, "ann@example.com", "Ann", "AC101", departure),
+            new AffectedReservation(2, 20, "bob@example.com", "Bob", "AC101", departure),
+            new AffectedReservation(3, 10, "ann@example.com", "Ann", "AC205", departure.plusDays(2)),
+            new AffectedReservation(4, 30, null, "Cy", "AC101", departure),
+            new AffectedReservation(5, 40, "  ", "Di", "AC205", departure.plusDays(2))
+        );
+        List<OutboxMessage> messages = FlightDisruptionNotifier.messagesFor(affected, FlightStatus.CANCELLED);
+        for (OutboxMessage message : messages) {
+            System.out.println(message.getCustomerId() + " <" + message.getRecipient() + ">: " + message.getSubject());
+        }
+        OutboxMessage ann = messages.isEmpty() ? null : messages.get(0);
+        System.out.println(messages.size() == 2
+            && ann.getCustomerId() == 10
+            && ann.getSubject().equals("2 of your flights have been cancelled")
+            && ann.getBody().contains("AC101") && ann.getBody().contains("AC205")
+            && messages.get(1).getSubject().equals("Your flight has been cancelled")
+            ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: CUSTOMERS WITHOUT EMAIL SKIPPED ====");
+        List<OutboxMessage> none = FlightDisruptionNotifier.messagesFor(
+            List.of(new AffectedReservation(6, 50, null, "Ed", "AC101", departure)), FlightStatus.DELAYED);
+        System.out.println(none.isEmpty() ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: RETRY WITH BACKOFF UNTIL FAILED ====");
+        StubMailSink sink = new StubMailSink("down@example.com");
+        NotificationOutbox outbox = new NotificationOutbox(sink, 4, 10);
+
+        List<DeliveryOutcome> first = outbox.deliver(List.of(
+            new PendingMessage(1, "ann@example.com", "Delayed", "body", 0),
+            new PendingMessage(2, "down@example.com", "Delayed", "body", 0)));
+        System.out.println("First round: " + first);
+        boolean firstOk = first.get(0).getStatus() == DeliveryOutcome.Status.SENT
+            && first.get(1).getStatus() == DeliveryOutcome.Status.RETRY
+            && sink.getDelivered().equals(List.of("ann@example.com"));
+
+        // Keep failing the same message, as the outbox would on each redelivery
+        List<DeliveryOutcome.Status> statuses = new ArrayList<>();
+        List<Duration> delays = new ArrayList<>();
+        for (int attempts = 0; attempts < NotificationOutbox.MAX_ATTEMPTS; attempts++) {
+            LocalDateTime before = LocalDateTime.now();
+            DeliveryOutcome outcome = outbox.deliver(List.of(
+                new PendingMessage(2, "down@example.com", "Delayed", "body", attempts))).get(0);
+            statuses.add(outcome.getStatus());
+            if (outcome.getStatus() == DeliveryOutcome.Status.RETRY) {
+                // Rounded to seconds: the outcome is stamped a moment after "before"
+                delays.add(Duration.ofSeconds(Duration.between(before, outcome.getNextAttemptAt()).getSeconds()));
+            }
+        }
+        System.out.println("Statuses: " + statuses);
+        System.out.println("Delays: " + delays);
+
+        List<DeliveryOutcome.Status> expectedStatuses = new ArrayList<>(
+            Collections.nCopies(NotificationOutbox.MAX_ATTEMPTS - 1, DeliveryOutcome.Status.RETRY));
+        expectedStatuses.add(DeliveryOutcome.Status.FAILED);
+        boolean doubling = true;
+        for (int i = 0; i < delays.size(); i++) {
+            doubling &= delays.get(i).equals(NotificationOutbox.backoff(0).multipliedBy(1L << i));
+        }
+        System.out.println(firstOk && statuses.equals(expectedStatuses) && doubling
+            && delays.size() == NotificationOutbox.MAX_ATTEMPTS - 1
+            ? "PASSED" : "FAILED");
+    }
+
+    /**
+     * Records delivered recipients and fails every message to one address.
+     */
+    private static final class StubMailSink implements MailSink {
+        private final String failingRecipient;
+        private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+
+        StubMailSink(String failingRecipient) {
+            this.failingRecipient = failingRecipient;
+        }
+
+        @Override
+        public void send(String recipient, String subject, byte[] body, int length) throws IOException {
+            if (recipient.equals(failingRecipient)) {
+                throw new IOException("mailbox unavailable");
+            }
+            delivered.add(recipient);
+        }
+
+        List<String> getDelivered() {
+            return delivered;
+        }
+    }
+}
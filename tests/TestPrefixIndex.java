@@ -0,0 +1,94 @@
+package tests;
+
+import businesslogic.services.PrefixIndex;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks prefix search results, incremental writes and lookup time. No database needed.
+ */
+public class TestPrefixIndex {
+
+    private static final int CUSTOMERS = 1_000_000;
+    private static final int LOOKUPS = 10_000;
+
+    public static void main(String[] args) {
+        System.out.println("==== TEST: PREFIX MATCHES ====");
+        PrefixIndex index = new PrefixIndex.Builder()
+            .add(1, "alice", "alice@example.com", "Alice", "Smith", "Alice Smith")
+            .add(2, "alex", "alex@example.com", "Alex", "Jones", "Alex Jones")
+            .add(3, "bob", "bob@example.com", "Bob", "Smithers", "Bob Smithers")
+            .build();
+        System.out.println("al -> " + index.search("al", 10) + ", SMITH -> " + index.search("SMITH", 10));
+        System.out.println(index.search("al", 10).equals(List.of(2, 1))
+            && index.search("SMITH", 10).equals(List.of(1, 3))
+            && index.search("alice s", 10).equals(List.of(1))
+            && index.search("al", 1).size() == 1
+            && index.search("z", 10).isEmpty() && index.search(" ", 10).isEmpty() ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: WRITES REPLACE KEYS ====");
+        index.put(4, "alfred", "alfred@example.com");
+        index.put(1, "carol", "carol@example.com");
+        index.remove(2);
+        System.out.println("al -> " + index.search("al", 10) + ", c -> " + index.search("c", 10));
+        System.out.println(index.search("al", 10).equals(List.of(4))
+            && index.search("c", 10).equals(List.of(1)) ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: MERGES KEEP RESULTS ====");
+        PrefixIndex merged = new PrefixIndex();
+        for (int id = 1; id <= 10_000; id++) {
+            merged.put(id, "user" + id);
+        }
+        for (int id = 1; id <= 10_000; id += 2) {
+            merged.remove(id);
+        }
+        List<Integer> found = merged.search("user999", 100);
+        System.out.println("user999 -> " + found);
+        System.out.println(found.equals(List.of(9990, 9992, 9994, 9996, 9998)) ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: TOP-K OVER " + CUSTOMERS + " CUSTOMERS ====");
+        Random random = new Random(42);
+        PrefixIndex.Builder builder = new PrefixIndex.Builder();
+        String[] usernames = new String[CUSTOMERS];
+        for (int id = 0; id < CUSTOMERS; id++) {
+            usernames[id] = randomName(random, 8);
+            String first = randomName(random, 6);
+            String last = randomName(random, 7);
+            builder.add(id, usernames[id], usernames[id] + "@example.com", first, last, first + " " + last);
+        }
+        long buildStart = System.nanoTime();
+        PrefixIndex large = builder.build();
+        System.out.println("Built " + large.size() + " keys in " + (System.nanoTime() - buildStart) / 1_000_000 + " ms");
+
+        // Writes land in the buffer, so lookups also cover the merge path
+        for (int id = CUSTOMERS; id < CUSTOMERS + 1000; id++) {
+            large.put(id, randomName(random, 8));
+        }
+
+        String[] prefixes = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String username = usernames[random.nextInt(CUSTOMERS)];
+            prefixes[i] = username.substring(0, 1 + random.nextInt(3));
+        }
+        int matched = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            matched += large.search(prefixes[i], 50).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            matched += large.search(prefixes[i], 50).size();
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / LOOKUPS;
+        System.out.printf("Average top-50 lookup: %.1f us (%d ids returned)%n", micros, matched);
+        System.out.println(micros < 1000 ? "PASSED" : "FAILED");
+    }
+
+    private static String randomName(Random random, int length) {
+        char[] name = new char[length];
+        for (int i = 0; i < length; i++) {
+            name[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(name);
+    }
+}
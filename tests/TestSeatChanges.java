@@ -0,0 +1,53 @@
+package tests;
+
+import businesslogic.services.SeatChangeFeed.SeatChanges;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Checks the seat availability diffs sent to open seat maps. No database needed.
+ */
+public class TestSeatChanges {
+
+    public static void main(String[] args) {
+        int[] seatIds = {101, 102, 103, 104, 105};
+
+        System.out.println("==== TEST: ONLY FLIPPED SEATS ====");
+        BitSet before = bits(0, 1, 2, 3, 4);
+        BitSet after = bits(0, 2, 4);
+        SeatChanges changes = SeatChanges.between("AC101", seatIds, before, seatIds, after);
+        System.out.println("Changes: " + changes);
+        System.out.println("Taken: " + changes.getTakenSeatIds() + ", released: " + changes.getReleasedSeatIds());
+        System.out.println(changes.getTakenSeatIds().equals(List.of(102, 104))
+            && changes.getReleasedSeatIds().isEmpty() && !changes.isSnapshot()
+            ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: BURST COALESCES ====");
+        // 104 released and rebooked between two refreshes cancels out; only 102 is reported
+        BitSet later = bits(0, 1, 2, 4);
+        SeatChanges burst = SeatChanges.between("AC101", seatIds, after, seatIds, later);
+        System.out.println("Taken: " + burst.getTakenSeatIds() + ", released: " + burst.getReleasedSeatIds());
+        System.out.println(burst.getReleasedSeatIds().equals(List.of(102)) && burst.getTakenSeatIds().isEmpty()
+            ? "PASSED" : "FAILED");
+
+        SeatChanges none = SeatChanges.between("AC101", seatIds, later, seatIds, bits(0, 1, 2, 4));
+        System.out.println("Unchanged flight is empty: " + none.isEmpty());
+
+        System.out.println("\n==== TEST: SEATS REPLACED ====");
+        int[] reseated = {101, 102, 103, 104, 105, 106};
+        SeatChanges replaced = SeatChanges.between("AC101", seatIds, later, reseated, bits(0, 5));
+        System.out.println("Changes: " + replaced);
+        System.out.println(replaced.isSnapshot() && replaced.getChangedCount() == 6
+            && replaced.getReleasedSeatIds().equals(List.of(101, 106))
+            ? "PASSED" : "FAILED");
+    }
+
+    private static BitSet bits(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,115 @@
+package tests;
+
+import businesslogic.entities.Flight;
+import businesslogic.entities.Seat;
+import businesslogic.entities.enums.SeatClass;
+import businesslogic.services.DomainEvent;
+import businesslogic.services.EventBus;
+import businesslogic.services.SeatMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks seat map caching, copies, invalidation and prefetch rate limiting. No database needed.
+ */
+public class TestSeatMapCache {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("==== TEST: SEATS ARE CACHED AS COPIES ====");
+        EventBus bus = new EventBus();
+        SeatMapCache cache = new SeatMapCache(bus);
+        AtomicInteger queries = new AtomicInteger();
+        SeatMapCache.Loader loader = () -> {
+            queries.incrementAndGet();
+            return seats();
+        };
+        List<Seat> first = cache.get(7, "AC101", loader);
+        first.get(0).setAvailable(false);
+        List<Seat> second = cache.get(7, "AC101", loader);
+        System.out.println("Queries: " + queries.get() + ", " + cache.getStats());
+        System.out.println(queries.get() == 1 && second.get(0).isAvailable()
+            && cache.getFlightId("AC101") == 7 && cache.isCached("AC101") ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: EVENTS DROP THE FLIGHT'S SEATS ====");
+        Flight updated = new Flight();
+        updated.setFlightNumber("AC101");
+        bus.publish(DomainEvent.flightUpdated(updated));
+        boolean droppedOnUpdate = !cache.isCached("AC101");
+        cache.get(7, "AC101", loader);
+        bus.publish(DomainEvent.flightDeleted("AC101"));
+        System.out.println("Queries: " + queries.get() + ", " + cache.getStats());
+        System.out.println(droppedOnUpdate && queries.get() == 2
+            && cache.getFlightId("AC101") == null ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: OPENING WAITS FOR A PREFETCH UNDER WAY ====");
+        SeatMapCache shared = new SeatMapCache(null);
+        AtomicInteger sharedQueries = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SeatMapCache.Loader slow = () -> {
+            sharedQueries.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return seats();
+        };
+        shared.prefetch("AC202", () -> shared.get(8, "AC202", slow));
+        loading.await(5, TimeUnit.SECONDS);
+        new Thread(() -> {
+            sleep(200);
+            release.countDown();
+        }).start();
+        List<Seat> opened = shared.get(8, "AC202", slow);
+        System.out.println("Queries: " + sharedQueries.get() + ", " + shared.getStats());
+        System.out.println(sharedQueries.get() == 1 && opened.size() == 3
+            && shared.getStats().getHits() == 1 ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: PREFETCHES ARE RATE-LIMITED ====");
+        SeatMapCache limited = new SeatMapCache(null, 16, Duration.ofSeconds(30), Duration.ofMillis(300));
+        List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 1; i <= 10; i++) {
+            String flightNumber = "WS" + i;
+            int flightId = 100 + i;
+            limited.prefetch(flightNumber, () -> limited.get(flightId, flightNumber, () -> {
+                loaded.add(flightNumber);
+                return seats();
+            }));
+            // Scrolling: a row every 20 ms
+            Thread.sleep(20);
+        }
+        Thread.sleep(800);
+        limited.shutdown();
+        System.out.println("Loaded: " + loaded + ", " + limited.getStats());
+        System.out.println(loaded.size() <= 3 && loaded.contains("WS1") && loaded.contains("WS10")
+            && limited.getStats().getSkippedPrefetches() >= 7 ? "PASSED" : "FAILED");
+    }
+
+    private static List<Seat> seats() {
+        List<Seat> seats = new ArrayList<>();
+        seats.add(new Seat(1, "1A", SeatClass.FIRST, true));
+        seats.add(new Seat(2, "1B", SeatClass.FIRST, true));
+        seats.add(new Seat(3, "12C", SeatClass.ECONOMY, false));
+        return seats;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
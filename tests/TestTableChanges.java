@@ -0,0 +1,68 @@
+package tests;
+
+import datalayer.dao.ChangeSet;
+import gui.common.KeyedTableModel;
+
+import javax.swing.event.TableModelEvent;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks that change sets turn into row-level table events. No database needed.
+ */
+public class TestTableChanges {
+
+    public static void main(String[] args) {
+        LocalDateTime t0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+        KeyedTableModel<String[]> model = new KeyedTableModel<>(
+            new String[]{"ID", "Name"}, row -> Integer.valueOf(row[0]), row -> row.clone(),
+            Comparator.comparing(row -> Integer.valueOf(row[0])));
+        List<String> events = new ArrayList<>();
+        model.addTableModelListener(e -> events.add(describe(e)));
+
+        System.out.println("==== TEST: FIRST LOAD ====");
+        model.apply(ChangeSet.full(List.of(row(1, "a"), row(2, "b"), row(4, "d")), t0));
+        System.out.println("Events: " + events);
+        System.out.println(model.getRowCount() == 3 && events.equals(List.of("changed"))
+            && t0.equals(model.getWatermark()) ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: UPDATE, INSERT AND DELETE ====");
+        events.clear();
+        LocalDateTime t1 = t0.plusMinutes(1);
+        model.apply(ChangeSet.since(List.of(row(2, "B"), row(3, "c")), Set.of(2, 3, 4), t1));
+        System.out.println("Events: " + events);
+        System.out.println(events.equals(List.of("delete 0-0", "update 0-0", "insert 1-1"))
+            && model.getValueAt(0, 1).equals("B") && model.getValueAt(1, 0).equals("3")
+            && t1.equals(model.getWatermark()) ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: UNCHANGED ROWS ARE QUIET ====");
+        // Rows inside the watermark margin come back unchanged
+        events.clear();
+        model.apply(ChangeSet.since(List.<String[]>of(row(3, "c")), Set.of(2, 3, 4), t1.plusMinutes(1)));
+        System.out.println("Events: " + events);
+        System.out.println(events.isEmpty() ? "PASSED" : "FAILED");
+
+        System.out.println("\n==== TEST: FULL RELOAD DIFFS ====");
+        events.clear();
+        model.apply(ChangeSet.full(List.of(row(2, "B"), row(4, "D")), t1.plusMinutes(2)));
+        System.out.println("Events: " + events);
+        System.out.println(events.equals(List.of("delete 1-1", "update 1-1")) && model.getRowCount() == 2
+            ? "PASSED" : "FAILED");
+    }
+
+    private static String[] row(int id, String name) {
+        return new String[]{String.valueOf(id), name};
+    }
+
+    private static String describe(TableModelEvent e) {
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+            return "changed";
+        }
+        String type = e.getType() == TableModelEvent.INSERT ? "insert"
+            : e.getType() == TableModelEvent.DELETE ? "delete" : "update";
+        return type + " " + e.getFirstRow() + "-" + e.getLastRow();
+    }
+}
@@ -0,0 +1,97 @@
+package tests;
+
+import businesslogic.services.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks TimingWheel against a sorted list of deadlines, then times it with
+ * a day's worth of departures and arrivals. No database needed.
+ */
+public class TestTimingWheel {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int LEVELS = 4;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    public static void main(String[] args) {
+        System.out.println("==== TEST: EXPIRY ORDER (random deadlines over 3 days) ====");
+        checkAgainstReference(new Random(7), 20_000, 3 * DAY_MILLIS);
+
+        System.out.println("\n==== TEST: OVERDUE AND OUT OF REACH ====");
+        long start = 1_000_000_000L;
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MILLIS, LEVELS, start);
+        wheel.add(start - 5_000, "late");
+        boolean added = wheel.add(start + wheel.getReachMillis() + TICK_MILLIS, "too far");
+        List<String> expired = wheel.advance(start);
+        System.out.println("Overdue timer expired on next advance: " + expired.equals(List.of("late")));
+        System.out.println("Timer past reach rejected: " + !added);
+
+        System.out.println("\n==== BENCH: 10,000 FLIGHTS/DAY, 15 s TICKS ====");
+        bench(new Random(42), 10_000);
+    }
+
+    private static void checkAgainstReference(Random random, int timers, long spanMillis) {
+        long start = 1_700_000_000_000L;
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK_MILLIS, LEVELS, start);
+        List<Long> deadlines = new ArrayList<>();
+
+        for (int i = 0; i < timers; i++) {
+            long deadline = start + 1 + (long) (random.nextDouble() * spanMillis);
+            wheel.add(deadline, deadline);
+            deadlines.add(deadline);
+        }
+        Collections.sort(deadlines);
+
+        int next = 0;
+        int early = 0;
+        int late = 0;
+        for (long now = start; now <= start + spanMillis + TICK_MILLIS; now += 15_000 + random.nextInt(60_000)) {
+            for (long deadline : wheel.advance(now)) {
+                if (deadline > now) {
+                    early++;
+                }
+            }
+            while (next < deadlines.size() && deadlines.get(next) <= now - TICK_MILLIS) {
+                next++;
+            }
+            // Anything due a full tick ago must be gone by now
+            if (wheel.size() > deadlines.size() - next) {
+                late++;
+            }
+        }
+        wheel.advance(start + spanMillis + 2 * TICK_MILLIS);
+
+        System.out.println("Timers fired early: " + early);
+        System.out.println("Checks with overdue timers left: " + late);
+        System.out.println("Timers left at end: " + wheel.size());
+        System.out.println(early == 0 && late == 0 && wheel.size() == 0 ? "PASSED" : "FAILED");
+    }
+
+    private static void bench(Random random, int flightsPerDay) {
+        long start = 1_700_000_000_000L;
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK_MILLIS, LEVELS, start);
+
+        long addNanos = System.nanoTime();
+        for (int i = 0; i < flightsPerDay; i++) {
+            long departure = start + (long) (random.nextDouble() * DAY_MILLIS);
+            wheel.add(departure, i);
+            wheel.add(departure + 3_600_000L + random.nextInt(10 * 3_600_000), i);
+        }
+        addNanos = System.nanoTime() - addNanos;
+
+        int fired = 0;
+        long advanceNanos = System.nanoTime();
+        for (long now = start; now <= start + 2 * DAY_MILLIS; now += 15_000) {
+            fired += wheel.advance(now).size();
+        }
+        advanceNanos = System.nanoTime() - advanceNanos;
+
+        System.out.printf("Added %d timers in %.2f ms (%.0f ns each)%n",
+            2 * flightsPerDay, addNanos / 1e6, (double) addNanos / (2 * flightsPerDay));
+        System.out.printf("Fired %d timers over 2 days of ticks in %.2f ms%n", fired, advanceNanos / 1e6);
+    }
+}
@@ -0,0 +1,93 @@
+package tests;
+
+import businesslogic.entities.WaitlistEntry;
+import businesslogic.entities.enums.WaitlistStatus;
+import datalayer.dao.WaitlistDAO;
+import datalayer.impl.WaitlistDAOImpl;
+import datalayer.database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+public class TestWaitlistDAO {
+
+    public static void main(String[] args) {
+        try {
+            // Uses the first existing flight and customer
+            Integer flightId = findFirstId("SELECT flight_id FROM flights ORDER BY flight_id LIMIT 1");
+            Integer customerId = findFirstId(
+                    "SELECT user_id FROM users WHERE role = 'CUSTOMER' ORDER BY user_id LIMIT 1");
+            if (flightId == null || customerId == null) {
+                System.out.println("Need at least one flight and one customer. Run TestFlightDAO / TestUserDAO first.");
+                return;
+            }
+
+            WaitlistDAO waitlistDAO = new WaitlistDAOImpl();
+
+            System.out.println("==== TEST: SAVE ====");
+            WaitlistEntry entry = new WaitlistEntry(
+                    0, // ID will be generated
+                    flightId,
+                    customerId,
+                    2,
+                    3,
+                    WaitlistStatus.WAITING,
+                    LocalDateTime.now(),
+                    null
+            );
+            WaitlistEntry saved = waitlistDAO.save(entry);
+            System.out.println("Saved waitlist entry with ID: " + saved.getWaitlistId());
+
+            System.out.println("\n==== TEST: FIND BY ID ====");
+            WaitlistEntry found = waitlistDAO.findById(saved.getWaitlistId());
+            System.out.println("Found entry: " + found);
+
+            System.out.println("\n==== TEST: FIND WAITING BY FLIGHT ID ====");
+            List<WaitlistEntry> waiting = waitlistDAO.findWaitingByFlightId(flightId);
+            System.out.println("Waiting entries for flight " + flightId + ": " + waiting.size());
+            for (WaitlistEntry w : waiting) {
+                System.out.println("  " + w);
+            }
+
+            System.out.println("\n==== TEST: MARK OFFERED ====");
+            int offered = waitlistDAO.markOffered(
+                    Collections.singletonList(saved.getWaitlistId()), LocalDateTime.now().minusMinutes(1));
+            System.out.println("Offered (should be 1): " + offered);
+
+            System.out.println("\n==== TEST: FIND LAPSED OFFERS ====");
+            List<WaitlistEntry> lapsed = waitlistDAO.findLapsedOffers(LocalDateTime.now());
+            System.out.println("Lapsed offers (should include " + saved.getWaitlistId() + "): " + lapsed.size());
+
+            System.out.println("\n==== TEST: MARK EXPIRED ====");
+            int expired = waitlistDAO.markExpired(Collections.singletonList(saved.getWaitlistId()));
+            System.out.println("Expired (should be 1): " + expired);
+            System.out.println("Entry after expiry: " + waitlistDAO.findById(saved.getWaitlistId()));
+
+            System.out.println("\n==== TEST: DELETE ====");
+            boolean deleted = waitlistDAO.delete(saved.getWaitlistId());
+            System.out.println("Delete result: " + deleted);
+            System.out.println("Find after delete (should be null): " + waitlistDAO.findById(saved.getWaitlistId()));
+
+            System.out.println("\n==== TESTS COMPLETED ====");
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Integer findFirstId(String sql) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        }
+        return null;
+    }
+}